@@ -98,5 +98,38 @@ def predict():
         traceback.print_exc()
         return jsonify({"erro": str(e)}), 500
 
+@app.route('/predict/lote', methods=['POST'])
+def predict_lote():
+    # Classifica vários textos em uma única chamada (usado pelo back-end
+    # quando sentiment.python.lote-tamanho > 1). A resposta segue a ordem
+    # de entrada; textos inválidos voltam com previsão nula.
+    try:
+        dados = request.get_json()
+        textos = dados.get('texts') if dados else None
+
+        if not isinstance(textos, list):
+            return jsonify({"erro": "Campo 'texts' deve ser uma lista."}), 400
+
+        validos = [i for i, t in enumerate(textos) if t and len(t.strip()) >= 5]
+        resultado = [None] * len(textos)
+
+        if validos:
+            X = vectorizer.transform([textos[i] for i in validos])
+            labels = model.predict(X)
+            probas = model.predict_proba(X).max(axis=1)
+
+            for pos, i in enumerate(validos):
+                resultado[i] = {
+                    "previsao": LABEL_MAP.get(labels[pos], "Desconhecido"),
+                    "probabilidade": round(float(probas[pos]), 2)
+                }
+
+        return jsonify(resultado)
+
+    except Exception as e:
+        import traceback
+        traceback.print_exc()
+        return jsonify({"erro": str(e)}), 500
+
 if __name__ == '__main__':
     app.run(host="0.0.0.0", port=5000)
\ No newline at end of file
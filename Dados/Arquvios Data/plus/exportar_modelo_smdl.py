@@ -0,0 +1,140 @@
+# -*- coding: utf-8 -*-
+"""Exporta o modelo TF-IDF + linear para o formato binário SMDL.
+
+O arquivo gerado é lido pelo back-end Java (MappedModelStore) via
+memory-map, sem copiar vocabulário e pesos para o heap.
+A exportação é recusada se o vetorizador usar parâmetros que o
+tokenizador Java não reproduz (ver SUPORTADO).
+
+Uso:
+    python exportar_modelo_smdl.py modelo_b2w_rating_sentimento.pkl modelo.smdl
+"""
+
+import struct
+import sys
+
+import joblib
+import numpy as np
+
+MAGIC = 0x4C444D53  # "SMDL"
+VERSION = 1
+HEADER_SIZE = 6 * 4 + 6 * 8
+
+# Configuração do TfidfVectorizer reproduzida pelo TextTokenizer e pelo
+# MappedModelStore do Java; qualquer outra exporta sem erro e pontua errado
+TOKEN_PATTERN = r"(?u)\b\w\w+\b"
+
+SUPORTADO = {
+    "lowercase": True,
+    "analyzer": "word",
+    "token_pattern": TOKEN_PATTERN,
+    "tokenizer": None,
+    "preprocessor": None,
+    "stop_words": None,
+    "strip_accents": None,
+    "binary": False,
+    "use_idf": True,
+    "sublinear_tf": False,
+    "norm": "l2",
+}
+
+LABEL_MAP = {
+    "negative": "Negativo",
+    "neutral": "Neutro",
+    "positive": "Positivo"
+}
+
+
+def alinhar(posicao):
+    return (posicao + 7) & ~7
+
+
+def validar_vetorizador(vectorizer):
+    """Falha se o vetorizador usa algo que o lado Java não reproduz."""
+    erros = []
+
+    params = vectorizer.get_params()
+    for nome, esperado in SUPORTADO.items():
+        valor = params.get(nome)
+        if valor != esperado:
+            erros.append(f"{nome}={valor!r} (suportado: {esperado!r})")
+
+    ngram_min, ngram_max = params.get("ngram_range", (1, 1))
+    if ngram_min != 1 or ngram_max < 1:
+        erros.append(f"ngram_range={(ngram_min, ngram_max)!r} (suportado: (1, n))")
+
+    if not hasattr(vectorizer, "idf_") or not hasattr(vectorizer, "vocabulary_"):
+        erros.append("vetorizador não treinado (sem idf_/vocabulary_)")
+
+    if erros:
+        raise ValueError("Vetorizador incompatível com o TextTokenizer/MappedModelStore: "
+                         + "; ".join(erros))
+
+
+def validar_modelo(model):
+    """O Java só aplica o produto escalar linear + softmax."""
+    if not hasattr(model, "coef_") or not hasattr(model, "intercept_"):
+        raise ValueError(f"Modelo {type(model).__name__} não é linear (sem coef_/intercept_)")
+
+
+def exportar(origem, destino):
+    data = joblib.load(origem)
+    model = data['model']
+    vectorizer = data['vectorizer']
+
+    validar_vetorizador(vectorizer)
+    validar_modelo(model)
+
+    labels = [LABEL_MAP.get(str(c), str(c)) for c in model.classes_]
+    coef = np.asarray(model.coef_, dtype=np.float32)
+    intercepts = np.asarray(model.intercept_, dtype=np.float32)
+
+    # Modelo binário: softmax sobre [0, z] equivale à sigmoide de z
+    if coef.shape[0] == 1 and len(labels) == 2:
+        coef = np.vstack([np.zeros_like(coef[0]), coef[0]])
+        intercepts = np.array([0.0, intercepts[0]], dtype=np.float32)
+
+    # Termos ordenados pelos bytes UTF-8; a feature passa a ser a posição
+    termos = sorted(vectorizer.vocabulary_.items(), key=lambda t: t[0].encode('utf-8'))
+    colunas = np.array([coluna for _, coluna in termos], dtype=np.int64)
+    termos_utf8 = [termo.encode('utf-8') for termo, _ in termos]
+
+    num_features = len(termos)
+    num_classes = len(labels)
+    ngram_max = vectorizer.ngram_range[1]
+
+    offsets = np.zeros(num_features + 1, dtype='<i4')
+    offsets[1:] = np.cumsum([len(t) for t in termos_utf8])
+    total_bytes = int(offsets[-1])
+
+    pos_offsets = HEADER_SIZE
+    pos_termos = pos_offsets + 4 * (num_features + 1)
+    pos_idf = alinhar(pos_termos + total_bytes)
+    pos_pesos = pos_idf + 4 * num_features
+    pos_interceptos = pos_pesos + 4 * num_features * num_classes
+    pos_labels = pos_interceptos + 4 * num_classes
+
+    with open(destino, 'wb') as f:
+        f.write(struct.pack('<6i', MAGIC, VERSION, num_features, num_classes, ngram_max, 0))
+        f.write(struct.pack('<6q', pos_offsets, pos_termos, pos_idf,
+                            pos_pesos, pos_interceptos, pos_labels))
+        f.write(offsets.tobytes())
+        f.write(b''.join(termos_utf8))
+        f.write(b'\0' * (pos_idf - (pos_termos + total_bytes)))
+        f.write(np.asarray(vectorizer.idf_, dtype='<f4')[colunas].tobytes())
+        f.write(np.ascontiguousarray(coef[:, colunas], dtype='<f4').tobytes())
+        f.write(intercepts.astype('<f4').tobytes())
+        for label in labels:
+            label_utf8 = label.encode('utf-8')
+            f.write(struct.pack('<h', len(label_utf8)))
+            f.write(label_utf8)
+
+    print(f"Modelo exportado: {num_features} features, classes {labels}")
+
+
+if __name__ == '__main__':
+    try:
+        exportar(sys.argv[1], sys.argv[2])
+    except ValueError as e:
+        print(f"Exportação recusada: {e}", file=sys.stderr)
+        sys.exit(1)
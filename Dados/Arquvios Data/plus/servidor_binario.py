@@ -0,0 +1,169 @@
+# -*- coding: utf-8 -*-
+"""Servidor binário do modelo de sentimento.
+
+Alternativa ao JSON sobre HTTP de app_python.py para chamadas em alto
+volume: quadros com prefixo de tamanho em conexões persistentes (TCP ou
+Unix domain socket). O cliente (BinaryModelClient, no back-end) pode
+enviar vários pedidos seguidos na mesma conexão sem esperar as
+respostas; cada resposta leva o id do pedido.
+
+Formato (inteiros em big-endian, o mesmo de FrameCodec.java):
+    quadro   = u32 tamanho | u8 tipo | u32 id | corpo
+    PEDIDO   = u16 n | n x (u32 bytes | texto UTF-8)
+    RESPOSTA = u16 n | n x (u8 bytes | rótulo UTF-8 | f64 probabilidade)
+    ERRO     = u16 bytes | mensagem UTF-8
+Rótulo vazio indica texto não classificado (curto demais), como o null
+de /predict/lote.
+
+Uso:
+    python servidor_binario.py --porta 5001
+    python servidor_binario.py --unix /run/sentiment/modelo.sock
+"""
+
+import argparse
+import asyncio
+import os
+import struct
+
+import joblib
+
+PEDIDO, RESPOSTA, ERRO = 1, 2, 3
+TAMANHO_MAXIMO = 16 * 1024 * 1024
+
+# Quantos pedidos já recebidos são classificados juntos (uma chamada ao
+# vetorizador para todos os textos que chegaram em sequência)
+PEDIDOS_POR_RODADA = 64
+
+LABEL_MAP = {
+    "negative": "Negativo",
+    "neutral": "Neutro",
+    "positive": "Positivo"
+}
+
+data = joblib.load(os.path.join(os.path.dirname(os.path.abspath(__file__)),
+                                'modelo_b2w_rating_sentimento.pkl'))
+model = data['model']
+vectorizer = data['vectorizer']
+
+
+def classificar(textos):
+    # Mesma regra de /predict/lote: textos com menos de 5 caracteres ficam sem previsão
+    validos = [i for i, t in enumerate(textos) if t and len(t.strip()) >= 5]
+    resultado = [None] * len(textos)
+
+    if validos:
+        X = vectorizer.transform([textos[i] for i in validos])
+        labels = model.predict(X)
+        probas = model.predict_proba(X).max(axis=1)
+        for pos, i in enumerate(validos):
+            resultado[i] = (LABEL_MAP.get(labels[pos], "Desconhecido"), float(probas[pos]))
+
+    return resultado
+
+
+def ler_textos(corpo):
+    n, = struct.unpack_from('>H', corpo, 0)
+    pos = 2
+    textos = []
+    for _ in range(n):
+        tamanho, = struct.unpack_from('>I', corpo, pos)
+        pos += 4
+        textos.append(corpo[pos:pos + tamanho].decode('utf-8'))
+        pos += tamanho
+    return textos
+
+
+def quadro_resposta(id_pedido, previsoes):
+    partes = [struct.pack('>BIH', RESPOSTA, id_pedido, len(previsoes))]
+    for previsao in previsoes:
+        if previsao is None:
+            partes.append(struct.pack('>Bd', 0, 0.0))
+        else:
+            rotulo = previsao[0].encode('utf-8')
+            partes.append(struct.pack('>B', len(rotulo)) + rotulo + struct.pack('>d', previsao[1]))
+    corpo = b''.join(partes)
+    return struct.pack('>I', len(corpo)) + corpo
+
+
+def quadro_erro(id_pedido, mensagem):
+    msg = mensagem.encode('utf-8')[:0xFFFF]
+    corpo = struct.pack('>BIH', ERRO, id_pedido, len(msg)) + msg
+    return struct.pack('>I', len(corpo)) + corpo
+
+
+async def ler_quadro(reader):
+    tamanho, = struct.unpack('>I', await reader.readexactly(4))
+    if tamanho < 5 or tamanho > TAMANHO_MAXIMO:
+        raise ValueError(f"Tamanho de quadro inválido: {tamanho}")
+    quadro = await reader.readexactly(tamanho)
+    tipo, id_pedido = struct.unpack_from('>BI', quadro, 0)
+    return tipo, id_pedido, quadro[5:]
+
+
+async def atender(reader, writer):
+    try:
+        while True:
+            # Um pedido, mais os que já estiverem no buffer (pipelining):
+            # todos são vetorizados de uma vez e respondidos juntos
+            pedidos = [await ler_quadro(reader)]
+            while len(pedidos) < PEDIDOS_POR_RODADA and len(reader._buffer) >= 4:
+                tamanho, = struct.unpack('>I', bytes(reader._buffer[:4]))
+                if len(reader._buffer) < 4 + tamanho:
+                    break
+                pedidos.append(await ler_quadro(reader))
+
+            respostas = []
+            lotes = []
+            textos = []
+            for tipo, id_pedido, corpo in pedidos:
+                if tipo != PEDIDO:
+                    respostas.append(quadro_erro(id_pedido, f"Tipo de quadro inesperado: {tipo}"))
+                    continue
+                try:
+                    lote = ler_textos(corpo)
+                except (struct.error, UnicodeDecodeError) as e:
+                    respostas.append(quadro_erro(id_pedido, f"Pedido malformado: {e}"))
+                    continue
+                lotes.append((id_pedido, len(lote)))
+                textos.extend(lote)
+
+            try:
+                previsoes = classificar(textos)
+                pos = 0
+                for id_pedido, n in lotes:
+                    respostas.append(quadro_resposta(id_pedido, previsoes[pos:pos + n]))
+                    pos += n
+            except Exception as e:
+                respostas.extend(quadro_erro(id_pedido, str(e)) for id_pedido, _ in lotes)
+
+            writer.write(b''.join(respostas))
+            await writer.drain()
+
+    except (asyncio.IncompleteReadError, ConnectionError, ValueError):
+        pass
+    finally:
+        writer.close()
+
+
+async def main():
+    parser = argparse.ArgumentParser(description="Servidor binário do modelo de sentimento")
+    parser.add_argument('--host', default='0.0.0.0')
+    parser.add_argument('--porta', type=int, default=5001)
+    parser.add_argument('--unix', help="caminho do Unix domain socket (no lugar de TCP)")
+    args = parser.parse_args()
+
+    if args.unix:
+        if os.path.exists(args.unix):
+            os.remove(args.unix)
+        servidor = await asyncio.start_unix_server(atender, path=args.unix)
+        print(f"Modelo binário em unix:{args.unix}")
+    else:
+        servidor = await asyncio.start_server(atender, host=args.host, port=args.porta)
+        print(f"Modelo binário em tcp://{args.host}:{args.porta}")
+
+    async with servidor:
+        await servidor.serve_forever()
+
+
+if __name__ == '__main__':
+    asyncio.run(main())
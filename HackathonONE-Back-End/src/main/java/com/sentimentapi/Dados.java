@@ -1,10 +1,10 @@
 package com.sentimentapi;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sentimentapi.dtos.SentimentDadosDTO;
 import com.sentimentapi.entities.CommentEntity;
 import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.json.SentimentJsonReader;
 import com.sentimentapi.repositories.CommentRepository;
 import com.sentimentapi.repositories.SentimentPredictionRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.List;
 
 // Componente executado na inicialização da aplicação (perfil dev)
 // Responsável por carregar dados iniciais a partir de arquivos
@@ -52,15 +51,15 @@ public class Dados implements CommandLineRunner {
     }
 
     // Lê dados de um arquivo JSON e salva no banco
+    // (um registro por vez, sem carregar a lista inteira em memória)
     private void DadosJson() throws IOException {
 
-        InputStream inputStream = new ClassPathResource("data.json").getInputStream();
+        try (InputStream inputStream = new ClassPathResource("data.json").getInputStream();
+             SentimentJsonReader dados = new SentimentJsonReader(objectMapper, inputStream)) {
 
-        List<SentimentDadosDTO> dados =
-                objectMapper.readValue(inputStream, new TypeReference<>() {});
-
-        for (SentimentDadosDTO dto : dados) {
-            salvar(dto);
+            while (dados.hasNext()) {
+                salvar(dados.next());
+            }
         }
     }
 
@@ -0,0 +1,50 @@
+package com.sentimentapi.compression;
+
+/**
+ * Texto de um comentário como guardado na coluna text_zstd.
+ * <p>
+ * Vindo do banco, guarda só os bytes codificados: a descompressão acontece
+ * na primeira chamada a {@link #value()}, ou seja, apenas quando alguém
+ * realmente precisa do texto (consultas de estatística nunca pagam por ela).
+ * Criado pela aplicação, guarda o texto e é codificado na gravação.
+ * Imutável: alterar o texto significa trocar a instância.
+ */
+public final class CommentText {
+
+    private final byte[] encoded;
+    private final TextCodec codec;
+    private volatile String value;
+
+    private CommentText(String value, byte[] encoded, TextCodec codec) {
+        this.value = value;
+        this.encoded = encoded;
+        this.codec = codec;
+    }
+
+    public static CommentText of(String value) {
+        return value == null ? null : new CommentText(value, null, null);
+    }
+
+    static CommentText fromDatabase(byte[] encoded, TextCodec codec) {
+        return new CommentText(null, encoded, codec);
+    }
+
+    public String value() {
+        String texto = value;
+        if (texto == null) {
+            texto = codec.decode(encoded);
+            value = texto;
+        }
+        return texto;
+    }
+
+    // Bytes lidos do banco (null para textos criados pela aplicação)
+    byte[] encoded() {
+        return encoded;
+    }
+
+    @Override
+    public String toString() {
+        return value();
+    }
+}
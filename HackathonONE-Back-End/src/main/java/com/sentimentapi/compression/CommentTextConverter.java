@@ -0,0 +1,33 @@
+package com.sentimentapi.compression;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.stereotype.Component;
+
+// Conversor JPA da coluna text_zstd
+// Instanciado pelo Spring (o Hibernate usa o contêiner de beans),
+// por isso recebe o codec com os dicionários carregados.
+// Textos lidos do banco voltam para ele sem recompressão.
+@Component
+@Converter
+public class CommentTextConverter implements AttributeConverter<CommentText, byte[]> {
+
+    private final TextCodec codec;
+
+    public CommentTextConverter(TextCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(CommentText text) {
+        if (text == null) {
+            return null;
+        }
+        return text.encoded() != null ? text.encoded() : codec.encode(text.value());
+    }
+
+    @Override
+    public CommentText convertToEntityAttribute(byte[] encoded) {
+        return encoded == null ? null : CommentText.fromDatabase(encoded, codec);
+    }
+}
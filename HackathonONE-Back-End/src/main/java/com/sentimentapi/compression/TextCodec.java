@@ -0,0 +1,220 @@
+package com.sentimentapi.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.sentimentapi.config.CompressionProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Codifica o texto dos comentários para a coluna text_zstd.
+ * <p>
+ * Formato: 1 byte de formato, seguido de
+ * <ul>
+ *     <li>{@code 0}: UTF-8 sem compressão;</li>
+ *     <li>{@code 1}: tamanho original (varint) + quadro zstd sem dicionário;</li>
+ *     <li>{@code 2}: id do dicionário (varint) + tamanho original (varint) + quadro zstd.</li>
+ * </ul>
+ * Todos os dicionários já usados ficam carregados, pois linhas antigas
+ * continuam apontando para eles; só o mais recente é usado para comprimir.
+ * Um id desconhecido (dicionário treinado por outra instância) é buscado
+ * pelo carregador na primeira leitura.
+ */
+@Component
+public class TextCodec {
+
+    static final byte RAW = 0;
+    static final byte ZSTD = 1;
+    static final byte ZSTD_DICIONARIO = 2;
+
+    private final CompressionProperties properties;
+
+    private final Map<Integer, ZstdDictDecompress> descompressores = new ConcurrentHashMap<>();
+    private final ThreadLocal<Contextos> contextos = ThreadLocal.withInitial(Contextos::new);
+    // Id e dicionário trocados juntos, numa única referência
+    private volatile Ativo ativo;
+    // Busca no banco os dados de um dicionário pelo id (null se não existe)
+    private volatile IntFunction<byte[]> carregador;
+
+    public TextCodec(CompressionProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Registra um dicionário; com {@code ativo} ele passa a ser usado
+     * nas próximas compressões.
+     */
+    public void install(int id, byte[] dicionario, boolean ativo) {
+
+        descompressores.put(id, new ZstdDictDecompress(dicionario));
+        if (ativo) {
+            this.ativo = new Ativo(id, new ZstdDictCompress(dicionario, properties.getNivel()));
+        }
+    }
+
+    public void setLoader(IntFunction<byte[]> carregador) {
+        this.carregador = carregador;
+    }
+
+    public boolean hasDictionary() {
+        return ativo != null;
+    }
+
+    public byte[] encode(String text) {
+
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+
+        // Com a compressão desabilitada a entidade grava na coluna sem
+        // compressão e não chega aqui; o UTF-8 puro é só salvaguarda
+        if (!properties.isHabilitado()) {
+            return raw(utf8);
+        }
+
+        Contextos contextos = this.contextos.get();
+        Ativo dicionario = ativo;
+        ZstdCompressCtx ctx = dicionario == null
+                ? contextos.semDicionario
+                : contextos.comDicionario(dicionario);
+
+        // Cabeçalho: formato, id do dicionário e tamanho original (varints)
+        ByteBuffer cabecalho = ByteBuffer.allocate(11);
+        cabecalho.put(dicionario == null ? ZSTD : ZSTD_DICIONARIO);
+        if (dicionario != null) {
+            writeVarint(cabecalho, dicionario.id());
+        }
+        writeVarint(cabecalho, utf8.length);
+
+        int inicio = cabecalho.position();
+        byte[] saida = new byte[inicio + (int) Zstd.compressBound(utf8.length)];
+        System.arraycopy(cabecalho.array(), 0, saida, 0, inicio);
+
+        int tamanho = ctx.compressByteArray(saida, inicio, saida.length - inicio, utf8, 0, utf8.length);
+
+        // Textos muito curtos podem crescer; nesse caso fica o UTF-8 puro
+        if (inicio + tamanho >= 1 + utf8.length) {
+            return raw(utf8);
+        }
+        return Arrays.copyOf(saida, inicio + tamanho);
+    }
+
+    private static byte[] raw(byte[] utf8) {
+        byte[] saida = new byte[1 + utf8.length];
+        saida[0] = RAW;
+        System.arraycopy(utf8, 0, saida, 1, utf8.length);
+        return saida;
+    }
+
+    public String decode(byte[] encoded) {
+
+        byte formato = encoded[0];
+        if (formato == RAW) {
+            return new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+        }
+        if (formato != ZSTD && formato != ZSTD_DICIONARIO) {
+            throw new IllegalStateException("Formato de texto desconhecido: " + formato);
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(encoded, 1, encoded.length - 1);
+        int dicionario = formato == ZSTD_DICIONARIO ? readVarint(buf) : 0;
+        int tamanho = readVarint(buf);
+
+        Contextos contextos = this.contextos.get();
+        ZstdDecompressCtx ctx;
+        if (formato == ZSTD) {
+            ctx = contextos.descompressaoSemDicionario;
+        } else {
+            ZstdDictDecompress descompressor = descompressores.get(dicionario);
+            if (descompressor == null) {
+                descompressor = load(dicionario);
+            }
+            ctx = contextos.descompressao(dicionario, descompressor);
+        }
+
+        byte[] utf8 = new byte[tamanho];
+        ctx.decompressByteArray(utf8, 0, tamanho,
+                encoded, buf.position(), encoded.length - buf.position());
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private ZstdDictDecompress load(int id) {
+
+        IntFunction<byte[]> carregador = this.carregador;
+        byte[] dados = carregador == null ? null : carregador.apply(id);
+        if (dados == null) {
+            throw new IllegalStateException("Dicionário zstd " + id + " não encontrado");
+        }
+        return descompressores.computeIfAbsent(id, chave -> new ZstdDictDecompress(dados));
+    }
+
+    private static void writeVarint(ByteBuffer buf, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            buf.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        buf.put((byte) valor);
+    }
+
+    private static int readVarint(ByteBuffer buf) {
+        int valor = 0;
+        for (int deslocamento = 0; ; deslocamento += 7) {
+            byte b = buf.get();
+            valor |= (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+    }
+
+    // Contextos zstd da thread (não são thread-safe, e criá-los é caro).
+    // Os quadros não levam número mágico, id de dicionário nem tamanho:
+    // em textos de poucas dezenas de bytes isso é boa parte do total,
+    // e essas informações já estão no cabeçalho acima.
+    private final class Contextos {
+
+        final ZstdCompressCtx semDicionario = compressao();
+        final ZstdDecompressCtx descompressaoSemDicionario = new ZstdDecompressCtx().setMagicless(true);
+
+        private ZstdCompressCtx compressao;
+        private int dicionarioCompressao = -1;
+
+        private final Map<Integer, ZstdDecompressCtx> descompressao = new HashMap<>();
+
+        ZstdCompressCtx comDicionario(Ativo dicionario) {
+            if (compressao == null) {
+                compressao = compressao();
+            }
+            if (dicionarioCompressao != dicionario.id()) {
+                compressao.loadDict(dicionario.compressor());
+                dicionarioCompressao = dicionario.id();
+            }
+            return compressao;
+        }
+
+        ZstdDecompressCtx descompressao(int id, ZstdDictDecompress dicionario) {
+            return descompressao.computeIfAbsent(id,
+                    chave -> new ZstdDecompressCtx().setMagicless(true).loadDict(dicionario));
+        }
+
+        private ZstdCompressCtx compressao() {
+            return new ZstdCompressCtx()
+                    .setLevel(properties.getNivel())
+                    .setMagicless(true)
+                    .setDictID(false)
+                    .setContentSize(false)
+                    .setChecksum(false);
+        }
+    }
+
+    private record Ativo(int id, ZstdDictCompress compressor) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Configuração do controle de admissão dos endpoints de classificação
+// Cada cliente (X-API-Key conhecida ou IP) tem um token bucket; requisições em lote
+// consomem mais tokens. Interativo e lote têm limites de concorrência e
+// filas separados, para que um upload grande não afete o POST /sentiment.
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.admissao")
+@Getter
+@Setter
+public class AdmissionProperties {
+
+    private boolean habilitado = true;
+
+    // Cabeçalho que identifica o cliente; sem ele, usa o IP
+    private String cabecalhoChave = "X-API-Key";
+
+    // Chaves aceitas no cabeçalho; valores fora da lista usam o IP
+    private List<String> chaves = new ArrayList<>();
+
+    // Tokens repostos por segundo em cada bucket
+    private double taxaPorSegundo = 10;
+
+    // Capacidade do bucket (rajada máxima)
+    private int rajada = 20;
+
+    // Tokens consumidos por uma requisição em lote
+    private int custoLote = 10;
+
+    // Quantidade máxima de clientes com bucket em memória
+    // (acima dela sai o usado há mais tempo)
+    private int maxClientes = 10_000;
+
+    private Pool interativo = new Pool(16, 32, Duration.ofSeconds(2));
+
+    private Pool lote = new Pool(2, 4, Duration.ofSeconds(1));
+
+    // Limites de concorrência de uma classe de endpoint
+    @Getter
+    @Setter
+    public static class Pool {
+
+        // Requisições executando ao mesmo tempo
+        private int concorrencia;
+
+        // Requisições aguardando vaga; acima disso responde 503
+        private int fila;
+
+        // Tempo máximo de espera na fila antes do 503
+        private Duration esperaMaxima;
+
+        public Pool() {
+        }
+
+        public Pool(int concorrencia, int fila, Duration esperaMaxima) {
+            this.concorrencia = concorrencia;
+            this.fila = fila;
+            this.esperaMaxima = esperaMaxima;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Configuração do transporte binário para os modelos Python
+// (servidor_binario.py) no lugar do JSON sobre HTTP
+// Exemplo (application.yml):
+//   sentiment.python.binario.habilitado: true
+//   sentiment.python.binario.endereco: unix:/run/sentiment/modelo.sock
+//   sentiment.python.binario.enderecos."[http://modelo-es:5000/predict]": tcp://modelo-es:5001
+// Modelos sem endereço binário continuam em HTTP
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.python.binario")
+@Getter
+@Setter
+public class BinaryTransportProperties {
+
+    private boolean habilitado = false;
+
+    // Endereço do modelo padrão (sentiment.python.url)
+    private String endereco = "";
+
+    // Endereço por URL de modelo (os modelos por idioma)
+    private Map<String, String> enderecos = new HashMap<>();
+
+    // Conexões persistentes por modelo
+    private int conexoes = 4;
+
+    // Espera máxima por uma resposta
+    private Duration timeout = Duration.ofSeconds(5);
+}
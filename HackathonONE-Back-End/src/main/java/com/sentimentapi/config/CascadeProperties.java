@@ -0,0 +1,37 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Configuração da cascata de modelos: um classificador local responde
+// os textos em que tem confiança e só o resto vai ao modelo Python
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.cascata")
+@Getter
+@Setter
+public class CascadeProperties {
+
+    // Liga o nível local; sem isso todo texto vai ao modelo remoto
+    private boolean habilitado = false;
+
+    // Probabilidade mínima do modelo local para responder sem escalar,
+    // maior que 0,5 (ajustável em PUT /sentiment/admin/cascata)
+    private double limiar = 0.9;
+
+    // Arquivo do modelo TF-IDF mapeado (MappedModelWriter) usado como
+    // nível local; vazio usa o léxico de /lexico/pt.txt
+    private String modelo = "";
+
+    // Fração das respostas confiantes enviadas mesmo assim ao modelo
+    // remoto, para medir a concordância acima do limiar
+    private double amostragem = 0.02;
+
+    // Concordância desejada entre os níveis; maior que zero liga o ajuste
+    // automático do limiar (o menor limiar que ainda atinge o alvo)
+    private double concordanciaAlvo = 0;
+
+    // Comparações mínimas por faixa de confiança antes de ajustar o limiar
+    private int minimoComparacoes = 200;
+}
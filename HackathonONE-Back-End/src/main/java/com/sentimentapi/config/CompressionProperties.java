@@ -0,0 +1,40 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Configuração da compressão do texto dos comentários (zstd com dicionário)
+// Comentários curtos e repetitivos comprimem mal sozinhos; um dicionário
+// treinado com os próprios comentários guarda o vocabulário comum uma vez.
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.compressao")
+@Getter
+@Setter
+public class CompressionProperties {
+
+    // Sem isso os textos novos são gravados sem compressão
+    private boolean habilitado = false;
+
+    // Nível do zstd (1 a 19; acima de 3 ganha pouco em textos curtos)
+    private int nivel = 3;
+
+    // Tamanho máximo do dicionário treinado
+    private int tamanhoDicionario = 16 * 1024;
+
+    // Comentários recentes usados no treino do dicionário
+    private int amostras = 5_000;
+
+    // Abaixo disso não há dados suficientes para treinar:
+    // os textos são comprimidos sem dicionário até a próxima tentativa
+    private int minimoAmostras = 500;
+
+    // Linhas antigas convertidas por lote na migração em segundo plano
+    private int loteMigracao = 500;
+
+    // Pausa entre lotes da migração, para não disputar o banco
+    private Duration pausaMigracao = Duration.ofMillis(50);
+}
@@ -0,0 +1,27 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Configuração dos sketches de confiança por rótulo
+// e da listagem de comentários com baixa confiança
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.confianca")
+@Getter
+@Setter
+public class ConfidenceProperties {
+
+    // Erro relativo máximo dos quantis (0.01 = 1%)
+    private double precisao = 0.01;
+
+    // Horas mantidas em memória; janelas mais antigas vêm dos checkpoints
+    private int horasEmMemoria = 24 * 30;
+
+    // Probabilidade abaixo da qual o comentário vai para revisão
+    private double limiteBaixa = 0.6;
+
+    // Máximo de comentários por página da revisão
+    private int tamanhoMaximoPagina = 200;
+}
@@ -0,0 +1,46 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Configuração da importação de arquivos CSV locais
+// (dumps grandes que não passam pelo upload multipart)
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.importacao")
+@Getter
+@Setter
+public class ImportProperties {
+
+    // Diretório base dos arquivos aceitos por POST /sentiment/import
+    // Vazio desabilita a importação sob demanda
+    private String diretorio = "";
+
+    // Diretório observado: cada CSV que aparecer nele é importado
+    // e depois movido para o subdiretório "importados"
+    // (grave com outro nome, ex.: .csv.part, e renomeie para .csv ao terminar)
+    private String diretorioObservado = "";
+
+    // Um CSV do diretório observado só é importado depois de ficar esse
+    // tempo sem mudar de tamanho nem de data (cópias ainda em andamento)
+    private Duration estabilizacao = Duration.ofSeconds(5);
+
+    // Importações aguardando a vez; acima disso POST /sentiment/import
+    // responde 503 e o diretório observado tenta de novo depois
+    private int filaMaxima = 8;
+
+    // Threads de leitura do CSV (padrão: núcleos disponíveis)
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // Tamanho de cada bloco lido em paralelo
+    private long tamanhoBloco = 32L * 1024 * 1024;
+
+    // Textos enviados de cada vez para classificação e persistência
+    private int loteTamanho = 500;
+
+    // Coluna com o texto dos comentários
+    private String coluna = "text";
+}
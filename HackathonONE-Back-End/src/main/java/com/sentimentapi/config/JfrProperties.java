@@ -0,0 +1,34 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Configuração das gravações do JDK Flight Recorder (/sentiment/admin/jfr)
+// A gravação contínua fica em um buffer circular em disco (maxAge/maxSize)
+// e só vira arquivo quando alguém pede um dump.
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.jfr")
+@Getter
+@Setter
+public class JfrProperties {
+
+    // Inicia a gravação contínua junto com a aplicação
+    private boolean continuo = false;
+
+    // Configuração do JDK: "default" (~1% de overhead) ou "profile" (mais detalhe)
+    private String configuracao = "default";
+
+    // Diretório dos dumps
+    private String diretorio = "jfr";
+
+    // Limites do buffer circular da gravação contínua
+    private Duration idadeMaxima = Duration.ofHours(1);
+    private long tamanhoMaximo = 256L * 1024 * 1024;
+
+    // Gera um dump ao desligar a aplicação
+    private boolean dumpAoEncerrar = false;
+}
@@ -0,0 +1,34 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Configuração da exclusão em massa de comentários e da coleta
+// das previsões órfãs (sem comentário) em sentiment_prediction_tb
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.ciclo-vida")
+@Getter
+@Setter
+public class LifecycleProperties {
+
+    // Comentários apagados por comando (e por transação) na exclusão em massa
+    private int loteExclusao = 1_000;
+
+    // Liga a coleta periódica das previsões órfãs
+    private boolean coletaHabilitada = true;
+
+    // Faixa de IDs de previsão verificada por comando na coleta
+    private int loteColeta = 5_000;
+
+    // Pausa entre os comandos da coleta, para não disputar o banco
+    // com as requisições
+    private Duration pausaColeta = Duration.ofMillis(50);
+
+    // No PostgreSQL, VACUUM (ANALYZE) depois de uma coleta com exclusões,
+    // para reaproveitar o espaço da tabela e dos índices
+    private boolean vacuum = true;
+}
@@ -0,0 +1,43 @@
+package com.sentimentapi.config;
+
+import com.sentimentapi.inference.LanguageDetector;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Configuração do roteamento por idioma para os modelos Python
+// Exemplo (application.yml):
+//   sentiment.python.urls.es: http://modelo-es:5000/predict
+//   sentiment.python.urls.en: http://modelo-en:5000/predict
+// Idiomas sem URL própria usam sentiment.python.url
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.python")
+@Getter
+@Setter
+public class ModelRoutingProperties {
+
+    // URL do modelo por código de idioma
+    private Map<String, String> urls = new HashMap<>();
+
+    // Idiomas reconhecidos pelo detector (precisam de /idiomas/{codigo}.txt)
+    private List<String> idiomas = List.of("pt", "es", "en");
+
+    // Idioma assumido para textos curtos, ambíguos ou em idiomas
+    // que o detector não conhece
+    private String idiomaPadrao = "pt";
+
+    // Limiares de rejeição do detector (ver LanguageDetector):
+    // margem mínima entre os dois idiomas mais prováveis e ajuste
+    // mínimo do mais provável, por trigrama
+    private double margemMinima = LanguageDetector.MARGEM_MINIMA;
+    private double ajusteMinimo = LanguageDetector.AJUSTE_MINIMO;
+
+    // Quantidade de textos por chamada ao endpoint /lote do modelo.
+    // Zero ou um mantém uma chamada por texto.
+    private int loteTamanho = 0;
+}
@@ -0,0 +1,52 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Configuração da detecção de quase-duplicatas (MinHash + LSH)
+// O tamanho da assinatura é bandas x linhas. Mais linhas por banda
+// deixam a busca mais seletiva; mais bandas aumentam o recall.
+// Cada entrada do índice ocupa aproximadamente 1KB com os valores padrão.
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.duplicatas")
+@Getter
+@Setter
+public class NearDuplicateProperties {
+
+    // O que fazer quando um comentário é quase-duplicata de um recente
+    public enum Modo {
+        // Reaproveita a previsão e salva normalmente
+        REUSAR,
+        // Reaproveita a previsão e marca o comentário (duplicata_de)
+        MARCAR,
+        // Reaproveita a previsão e não salva o comentário
+        IGNORAR
+    }
+
+    // Desligada por padrão: ligada, as quase-duplicatas recebem a previsão
+    // do comentário parecido sem chamar o modelo
+    private boolean habilitado = false;
+
+    // MARCAR deixa rastreável (duplicata_de) qual previsão foi reaproveitada
+    private Modo modo = Modo.MARCAR;
+
+    private int bandas = 16;
+
+    private int linhas = 4;
+
+    // Tamanho dos shingles de caracteres
+    private int tamanhoShingle = 5;
+
+    // Similaridade de Jaccard estimada mínima para considerar duplicata
+    private double limiar = 0.8;
+
+    // Quantidade máxima de comentários recentes no índice
+    private int capacidade = 10_000;
+
+    // Comentários mais antigos que isso saem do índice
+    private Duration idadeMaxima = Duration.ofHours(24);
+}
@@ -0,0 +1,33 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Configuração do outbox transacional e do log de eventos
+// de classificação lido pelos consumidores via HTTP
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.outbox")
+@Getter
+@Setter
+public class OutboxProperties {
+
+    // Liga a gravação dos eventos e o relay para o log
+    private boolean habilitado = false;
+
+    // Diretório dos segmentos do log
+    private String diretorio = "eventos";
+
+    // Tamanho a partir do qual um novo segmento é aberto
+    private long tamanhoSegmento = 64L * 1024 * 1024;
+
+    // Eventos copiados do outbox para o log de cada vez
+    private int loteRelay = 500;
+
+    // Força os dados ao disco antes de apagar os eventos do outbox
+    private boolean sync = true;
+
+    // Máximo de eventos por leitura em GET /sentiment/eventos
+    private int limiteLeitura = 5_000;
+}
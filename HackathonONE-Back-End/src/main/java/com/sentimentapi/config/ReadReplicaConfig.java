@@ -0,0 +1,89 @@
+package com.sentimentapi.config;
+
+import com.sentimentapi.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Roteamento primário/réplicas (sentiment.replicas.habilitado=true)
+// Substitui o DataSource automático do Spring Boot por:
+// LazyConnectionDataSourceProxy -> ReadWriteRoutingDataSource -> pools Hikari
+@Configuration
+@ConditionalOnProperty(prefix = "sentiment.replicas", name = "habilitado", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 ReplicaProperties replicaProperties) {
+
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primario.setPoolName(ReadWriteRoutingDataSource.PRIMARIO);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        int indice = 0;
+        for (ReplicaProperties.Fonte fonte : replicaProperties.getFontes()) {
+
+            String nome = fonte.getNome() != null ? fonte.getNome() : "replica-" + (++indice);
+
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(nome);
+            replica.setJdbcUrl(fonte.getUrl());
+            replica.setUsername(fonte.getUsername() != null
+                    ? fonte.getUsername() : dataSourceProperties.determineUsername());
+            replica.setPassword(fonte.getPassword() != null
+                    ? fonte.getPassword() : dataSourceProperties.determinePassword());
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaProperties.getTamanhoPool());
+            replica.setReadOnly(true);
+            replicas.put(nome, replica);
+        }
+
+        ReadWriteRoutingDataSource roteador = new ReadWriteRoutingDataSource(
+                primario, replicas,
+                replicaProperties.getAtrasoMaximo(),
+                replicaProperties.getConsultaAtraso());
+
+        // Primeira medição antes de servir leituras
+        roteador.refreshLag();
+        return roteador;
+    }
+
+    // O proxy adia a conexão física até a primeira consulta,
+    // quando o flag readOnly da transação já foi definido
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new ReplicaLagMonitor(readWriteRoutingDataSource);
+    }
+
+    // Mede periodicamente o atraso das réplicas
+    public static class ReplicaLagMonitor {
+
+        private final ReadWriteRoutingDataSource roteador;
+
+        ReplicaLagMonitor(ReadWriteRoutingDataSource roteador) {
+            this.roteador = roteador;
+        }
+
+        @Scheduled(fixedDelayString = "${sentiment.replicas.verificacao:PT1S}")
+        public void refresh() {
+            roteador.refreshLag();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Configuração das réplicas de leitura do banco
+// Com réplicas habilitadas, transações @Transactional(readOnly = true)
+// vão para uma réplica em dia; o restante continua no primário
+// (spring.datasource).
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.replicas")
+@Getter
+@Setter
+public class ReplicaProperties {
+
+    private boolean habilitado = false;
+
+    // Réplicas de leitura (mesmo driver do primário)
+    private List<Fonte> fontes = new ArrayList<>();
+
+    // Atraso máximo aceito para servir leituras; acima disso a réplica
+    // é ignorada até alcançar o primário
+    private Duration atrasoMaximo = Duration.ofSeconds(5);
+
+    // Intervalo entre as medições de atraso
+    private Duration verificacao = Duration.ofSeconds(1);
+
+    // Consulta executada na réplica que devolve o atraso em milissegundos
+    // (padrão: PostgreSQL em streaming replication; zero se não há nada
+    // pendente de aplicar, mesmo com o primário ocioso)
+    private String consultaAtraso =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                    + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    // Conexões por réplica
+    private int tamanhoPool = 10;
+
+    @Getter
+    @Setter
+    public static class Fonte {
+        private String nome;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Configuração das partições mensais de comentario_tb,
+// da retenção e do arquivamento dos meses expirados
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.retencao")
+@Getter
+@Setter
+public class RetentionProperties {
+
+    // O que fazer com a partição depois de exportada (só PostgreSQL)
+    public enum Modo {
+        // Desanexa e apaga a partição
+        DROP,
+        // Só desanexa: a tabela continua no banco, fora das consultas
+        DETACH
+    }
+
+    // Liga a retenção; sem isso nada é apagado
+    private boolean habilitado = false;
+
+    // Meses completos mantidos além do mês atual
+    private int meses = 12;
+
+    // Partições criadas antecipadamente (meses à frente do atual)
+    private int mesesAFrente = 3;
+
+    // Onde ficam os arquivos .csv.gz dos meses exportados
+    private String diretorioArquivo = "arquivo";
+
+    private Modo modo = Modo.DROP;
+
+    // Linhas apagadas por comando no esquema emulado (H2)
+    private int loteExclusao = 5_000;
+}
@@ -0,0 +1,11 @@
+package com.sentimentapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita as tarefas periódicas (@Scheduled) da aplicação,
+// como o commit do índice de busca
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,32 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Configuração do feed em tempo real (Server-Sent Events)
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.stream")
+@Getter
+@Setter
+public class StreamProperties {
+
+    // Quantidade de comentários recentes usados nas estatísticas do feed
+    private int janela = 1_000;
+
+    // Eventos pendentes por assinante; acima disso o assinante é desconectado
+    private int buffer = 256;
+
+    // Tempo de vida da conexão (o EventSource do navegador reconecta sozinho)
+    private Duration timeout = Duration.ofMinutes(30);
+
+    // Threads que escrevem nas conexões dos assinantes
+    private int threadsEnvio = 4;
+
+    // As alterações são agregadas e enviadas no máximo uma vez por
+    // intervalo, para que cargas em lote não estourem o buffer
+    private Duration intervaloEnvio = Duration.ofMillis(250);
+}
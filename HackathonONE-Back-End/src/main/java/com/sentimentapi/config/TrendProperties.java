@@ -0,0 +1,38 @@
+package com.sentimentapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Configuração das tendências de termos por rótulo (/sentiment/trends)
+// A memória é fixa: rótulos x painéis x 2 (termos e bigramas) x
+// (largura x profundidade contadores + candidatos)
+@Configuration
+@ConfigurationProperties(prefix = "sentiment.tendencias")
+@Getter
+@Setter
+public class TrendProperties {
+
+    private boolean habilitado = true;
+
+    // Duração de cada painel da janela deslizante
+    private Duration duracaoPainel = Duration.ofMinutes(15);
+
+    // Painéis mantidos; a maior janela consultável é paineis x duracaoPainel
+    private int paineis = 96;
+
+    // Colunas do Count-Min Sketch (potência de 2); erro ~ e / largura do total
+    private int largura = 1024;
+
+    // Linhas do Count-Min Sketch; falha com probabilidade ~ e^-profundidade
+    private int profundidade = 4;
+
+    // Candidatos a mais frequentes guardados por painel
+    private int candidatos = 100;
+
+    // Máximo de termos por resposta
+    private int limiteMaximo = 100;
+}
@@ -0,0 +1,46 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.dtos.CascadeStatsDto;
+import com.sentimentapi.services.ModelCascade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Controlador REST das métricas e do limiar da cascata de modelos
+@RestController
+@RequiredArgsConstructor
+public class CascadeController {
+
+    private final ModelCascade modelCascade;
+
+    // Taxa de escalonamento, concordância por faixa e latência por nível
+    @GetMapping("/sentiment/admin/cascata")
+    public CascadeStatsDto stats() {
+        return modelCascade.snapshot();
+    }
+
+    // Altera o limiar em tempo de execução
+    // Corpo: {"limiar": 0.85} (acima de 1 desliga as respostas locais)
+    // A probabilidade do rótulo vencedor nunca fica abaixo de
+    // 1 / número de classes do nível local (0,5 no léxico, 1/3 num
+    // modelo de três classes): um limiar até esse valor responderia
+    // todo texto localmente
+    @PutMapping("/sentiment/admin/cascata")
+    public ResponseEntity<Object> update(@RequestBody Map<String, Double> request) {
+
+        Double limiar = request.get("limiar");
+        double minimo = modelCascade.minimumThreshold();
+        if (limiar == null || limiar <= minimo || limiar > 1.01) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limiar deve ser maior que " + minimo + " e no máximo 1.01"));
+        }
+
+        modelCascade.setThreshold(limiar);
+        return ResponseEntity.ok(modelCascade.snapshot());
+    }
+}
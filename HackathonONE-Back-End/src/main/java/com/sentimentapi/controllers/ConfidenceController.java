@@ -0,0 +1,64 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.config.ConfidenceProperties;
+import com.sentimentapi.services.ConfidenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Controlador REST da distribuição de confiança das previsões
+// e da fila de revisão dos comentários com baixa confiança
+@RestController
+@RequiredArgsConstructor
+public class ConfidenceController {
+
+    private final ConfidenceService confidenceService;
+    private final ConfidenceProperties properties;
+
+    // p10/p50/p90 da probabilidade por rótulo (padrão: últimas 24 horas)
+    // Ex.: /sentiment/confianca?de=2025-01-01T00:00:00&ate=2025-01-08T00:00:00
+    @GetMapping("/sentiment/confianca")
+    public ResponseEntity<?> distribution(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+
+        LocalDateTime fim = ate != null ? ate : LocalDateTime.now();
+        LocalDateTime inicio = de != null ? de : fim.minusHours(24);
+
+        if (!inicio.isBefore(fim)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "de deve ser anterior a ate"));
+        }
+
+        return ResponseEntity.ok(confidenceService.distribution(inicio, fim));
+    }
+
+    // Comentários abaixo do limite de confiança, menos confiantes primeiro
+    // Ex.: /sentiment/confianca/baixa?limite=0.55&previsao=Negativo&pagina=0
+    @GetMapping("/sentiment/confianca/baixa")
+    public ResponseEntity<?> lowConfidence(
+            @RequestParam(required = false) Double limite,
+            @RequestParam(required = false) String previsao,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "50") int tamanho) {
+
+        if (limite != null && (limite <= 0 || limite > 1)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limite deve estar entre 0 e 1"));
+        }
+        if (pagina < 0 || tamanho <= 0 || tamanho > properties.getTamanhoMaximoPagina()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "tamanho deve estar entre 1 e " + properties.getTamanhoMaximoPagina()));
+        }
+
+        return ResponseEntity.ok(confidenceService.lowConfidence(limite, previsao, pagina, tamanho));
+    }
+}
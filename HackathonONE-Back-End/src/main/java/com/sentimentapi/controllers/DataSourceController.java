@@ -0,0 +1,23 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.datasource.DataSourcePoolMetrics;
+import com.sentimentapi.dtos.DataSourcePoolDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Controlador REST com o estado dos pools de conexão (primário e réplicas)
+@RestController
+@RequiredArgsConstructor
+public class DataSourceController {
+
+    private final DataSourcePoolMetrics dataSourcePoolMetrics;
+
+    // Conexões ativas, ociosas e em espera por pool, e o atraso das réplicas
+    @GetMapping("/sentiment/admin/datasources")
+    public List<DataSourcePoolDto> pools() {
+        return dataSourcePoolMetrics.snapshot();
+    }
+}
@@ -0,0 +1,81 @@
+package com.sentimentapi.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.config.OutboxProperties;
+import com.sentimentapi.outbox.SegmentedEventLog;
+import com.sentimentapi.services.OutboxService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Controlador REST do log de eventos de classificação
+// Cada consumidor guarda o próprio offset e pede os eventos seguintes
+@RestController
+@RequiredArgsConstructor
+public class EventLogController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final OutboxService outboxService;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    // Eventos a partir de um offset, um por linha (NDJSON):
+    // {"offset":42,"evento":{"id":..,"tipo":"CREATED","comentarioId":..,...}}
+    // O próximo offset a pedir vem no cabeçalho X-Proximo-Offset
+    @GetMapping("/sentiment/eventos")
+    public void read(@RequestParam(defaultValue = "0") long offset,
+                     @RequestParam(defaultValue = "500") int limite,
+                     HttpServletResponse response) throws IOException {
+
+        if (!outboxService.enabled()) {
+            error(response, HttpStatus.NOT_FOUND, "Log de eventos desabilitado");
+            return;
+        }
+        if (offset < 0 || limite <= 0 || limite > properties.getLimiteLeitura()) {
+            error(response, HttpStatus.BAD_REQUEST,
+                    "offset deve ser >= 0 e limite entre 1 e " + properties.getLimiteLeitura());
+            return;
+        }
+
+        List<SegmentedEventLog.Entry> eventos = outboxService.read(offset, limite);
+
+        // Sem eventos novos o consumidor continua do fim do log
+        long proximo = eventos.isEmpty()
+                ? outboxService.endOffset()
+                : eventos.get(eventos.size() - 1).offset() + 1;
+
+        response.setContentType(APPLICATION_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("X-Proximo-Offset", Long.toString(proximo));
+        response.setHeader("X-Offset-Inicial", Long.toString(outboxService.startOffset()));
+        response.setHeader("X-Offset-Final", Long.toString(outboxService.endOffset()));
+
+        // O payload já está em JSON no log: é copiado sem reprocessar
+        OutputStream out = response.getOutputStream();
+        for (SegmentedEventLog.Entry evento : eventos) {
+            out.write(("{\"offset\":" + evento.offset() + ",\"evento\":").getBytes(StandardCharsets.UTF_8));
+            out.write(evento.payload());
+            out.write('}');
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private void error(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", mensagem));
+    }
+}
@@ -0,0 +1,65 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.dtos.ImportStatusDto;
+import com.sentimentapi.services.CsvImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Controlador REST da importação de arquivos CSV locais do servidor
+@RestController
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final CsvImportService csvImportService;
+
+    // Enfileira a importação de um CSV do diretório configurado
+    // Corpo: {"caminho": "reviews/2024-01.csv"} (relativo ao diretório)
+    @PostMapping("/sentiment/import")
+    public ResponseEntity<Object> importar(@RequestBody Map<String, String> request) {
+
+        if (!csvImportService.enabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Importação de arquivos locais desabilitada"));
+        }
+
+        Optional<Path> arquivo = csvImportService.resolve(request.get("caminho"));
+        if (arquivo.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Arquivo não encontrado no diretório de importação"));
+        }
+
+        // A importação roda em segundo plano; o andamento fica em GET /sentiment/import/{id}
+        Optional<ImportStatusDto> status = csvImportService.submit(arquivo.get());
+        if (status.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .body(Map.of("error", "Fila de importações cheia, tente novamente"));
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status.get());
+    }
+
+    // Lista as importações recentes
+    @GetMapping("/sentiment/import")
+    public List<ImportStatusDto> listar() {
+        return csvImportService.list();
+    }
+
+    // Andamento de uma importação
+    @GetMapping("/sentiment/import/{id}")
+    public ResponseEntity<Object> status(@PathVariable long id) {
+
+        return csvImportService.status(id)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Importação não encontrada")));
+    }
+}
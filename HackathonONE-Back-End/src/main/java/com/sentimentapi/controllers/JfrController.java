@@ -0,0 +1,82 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.dtos.JfrStatusDto;
+import com.sentimentapi.services.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.Optional;
+
+// Controlador REST das gravações do JDK Flight Recorder
+// Fluxo típico num pico de latência: iniciar (ou deixar contínuo),
+// reproduzir o problema, pedir o dump e ler o resumo das etapas
+@RestController
+@RequiredArgsConstructor
+public class JfrController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    // Estado da gravação e dumps disponíveis
+    @GetMapping("/sentiment/admin/jfr")
+    public JfrStatusDto status() {
+        return flightRecordingService.status();
+    }
+
+    // Ex.: POST /sentiment/admin/jfr/iniciar?configuracao=profile
+    @PostMapping("/sentiment/admin/jfr/iniciar")
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "default") String configuracao) {
+
+        if (!configuracao.equals("default") && !configuracao.equals("profile")) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "configuracao deve ser default ou profile"));
+        }
+
+        try {
+            return ResponseEntity.ok(flightRecordingService.start(configuracao));
+        } catch (IOException | ParseException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Não foi possível iniciar a gravação: " + e.getMessage()));
+        }
+    }
+
+    // Grava a janela atual em arquivo e devolve o resumo dele
+    @PostMapping("/sentiment/admin/jfr/dump")
+    public ResponseEntity<?> dump() throws IOException {
+
+        Optional<Path> arquivo = flightRecordingService.dump();
+        if (arquivo.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Nenhuma gravação em andamento"));
+        }
+
+        String nome = arquivo.get().getFileName().toString();
+        return ResponseEntity.ok(Map.of(
+                "arquivo", nome,
+                "resumo", flightRecordingService.summarize(nome).orElseThrow()
+        ));
+    }
+
+    @PostMapping("/sentiment/admin/jfr/parar")
+    public JfrStatusDto stop() {
+        return flightRecordingService.stop();
+    }
+
+    // Ex.: /sentiment/admin/jfr/resumo?arquivo=sentimentapi-20250101-120000-000.jfr
+    @GetMapping("/sentiment/admin/jfr/resumo")
+    public ResponseEntity<?> summary(@RequestParam String arquivo) throws IOException {
+
+        return flightRecordingService.summarize(arquivo)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Dump não encontrado: " + arquivo)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.dtos.BulkDeleteDto;
+import com.sentimentapi.services.CommentLifecycleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Controlador REST da exclusão em massa de comentários
+// e da coleta manual das previsões órfãs
+@RestController
+@RequiredArgsConstructor
+public class LifecycleController {
+
+    private final CommentLifecycleService lifecycleService;
+
+    // Apaga os comentários que atendem a todos os filtros informados
+    // Ex.: DELETE /sentiment/comentarios?ate=2025-01-01T00:00:00&previsao=Neutro
+    @DeleteMapping("/sentiment/comentarios")
+    public ResponseEntity<?> bulkDelete(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) String previsao,
+            @RequestParam(required = false) Long idInicial,
+            @RequestParam(required = false) Long idFinal) {
+
+        CommentLifecycleService.Filtro filtro =
+                new CommentLifecycleService.Filtro(de, ate, previsao, idInicial, idFinal);
+
+        // Sem filtro apagaria a tabela inteira
+        if (filtro.empty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Informe ao menos um filtro: de, ate, previsao, idInicial ou idFinal"));
+        }
+        if (de != null && ate != null && !de.isBefore(ate)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "de deve ser anterior a ate"));
+        }
+        if (idInicial != null && idFinal != null && idInicial > idFinal) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "idInicial deve ser menor ou igual a idFinal"));
+        }
+
+        return ResponseEntity.ok(lifecycleService.bulkDelete(filtro));
+    }
+
+    // Executa a coleta das previsões órfãs agora
+    @PostMapping("/sentiment/admin/previsoes-orfas/coletar")
+    public ResponseEntity<?> collectOrphans() {
+
+        BulkDeleteDto resultado = lifecycleService.collectOrphans();
+        if (resultado == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Coleta já em andamento"));
+        }
+        return ResponseEntity.ok(resultado);
+    }
+}
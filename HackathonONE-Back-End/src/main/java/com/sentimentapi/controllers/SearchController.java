@@ -0,0 +1,56 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.services.CommentSearchIndex;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+// Controlador REST da busca textual sobre os comentários
+@RestController
+public class SearchController {
+
+    // Limite de resultados por consulta
+    private static final int MAX_RESULTADOS = 100;
+
+    private final CommentSearchIndex searchIndex;
+
+    public SearchController(CommentSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    // Busca comentários por termos, com filtros opcionais de rótulo e data
+    // Ex.: /sentiment/search?q=entrega&previsao=negativo&de=2025-01-01
+    @GetMapping("/sentiment/search")
+    public ResponseEntity<?> search(
+            @RequestParam(value = "q", required = false) String consulta,
+            @RequestParam(required = false) String previsao,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(defaultValue = "20") int k) {
+
+        if (k <= 0 || k > MAX_RESULTADOS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "k deve estar entre 1 e " + MAX_RESULTADOS));
+        }
+
+        return ResponseEntity.ok(
+                searchIndex.search(consulta, previsao, de, ate, k)
+        );
+    }
+
+    // Reconstrói o índice a partir do banco (corrige edições e exclusões
+    // que o índice perdeu enquanto estava fora do ar)
+    @PostMapping("/sentiment/admin/busca/reindexar")
+    public ResponseEntity<?> reindex() throws IOException {
+        return ResponseEntity.ok(Map.of("indexados", searchIndex.rebuild()));
+    }
+}
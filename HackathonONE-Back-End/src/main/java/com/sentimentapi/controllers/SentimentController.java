@@ -3,13 +3,22 @@ package com.sentimentapi.controllers;
 import com.sentimentapi.dtos.StatsDto;
 import com.sentimentapi.entities.CommentEntity;
 import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.services.JsonBatchService;
 import com.sentimentapi.services.SentimentService;
+import com.sentimentapi.services.StatsGeneration;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,12 +28,27 @@ import java.util.Optional;
 @RestController
 public class SentimentController {
 
+    // Tempo em que o cliente pode reutilizar as estatísticas sem revalidar
+    private static final Duration STATS_MAX_AGE = Duration.ofSeconds(2);
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     // Camada de serviço onde está a lógica de negócio
     private final SentimentService sentimentService;
 
+    // Geração das estatísticas, usada no ETag
+    private final StatsGeneration statsGeneration;
+
+    // Lote em JSON lido e respondido em streaming
+    private final JsonBatchService jsonBatchService;
+
     // Injeção de dependência via construtor
-    public SentimentController(SentimentService sentimentService) {
+    public SentimentController(SentimentService sentimentService,
+                               StatsGeneration statsGeneration,
+                               JsonBatchService jsonBatchService) {
         this.sentimentService = sentimentService;
+        this.statsGeneration = statsGeneration;
+        this.jsonBatchService = jsonBatchService;
     }
 
     // Cria um novo comentário e gera a previsão de sentimento
@@ -68,10 +92,27 @@ public class SentimentController {
         return sentimentService.processoUploadCsv(file);
     }
 
+    // Processa comentários em lote a partir de JSON: um array
+    // no formato do data.json ou NDJSON (um objeto por linha).
+    // A resposta é NDJSON, escrita à medida que cada lote é classificado
+    @PostMapping(
+            value = "/sentiment/lote/json",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON}
+    )
+    public void uploadJson(HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+
+        response.setContentType(APPLICATION_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        jsonBatchService.classify(request.getInputStream(), response.getOutputStream());
+    }
+
     // Busca um comentário e sua previsão pelo ID
     @GetMapping("/sentiment/{id}")
     public ResponseEntity<Map<String, Object>> getSentimentById(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
 
         // Busca o comentário no banco de dados
         CommentEntity comment =
@@ -84,8 +125,18 @@ public class SentimentController {
                     .body(Map.of("error", "Previsão não encontrada"));
         }
 
+        // O ETag vem da versão do registro: se o cliente já tem
+        // essa versão, responde 304 sem corpo
+        String etag = "c" + comment.getId() + "v" + comment.getVersao();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         // Retorna os dados do comentário e sua previsão
-        return ResponseEntity.ok(Map.of(
+        // (o cliente deve sempre revalidar, pois o comentário pode mudar)
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(Map.of(
                 "id", comment.getId(),
                 "text", comment.getText(),
                 "previsao", comment.getPrevisao().getLabel(),
@@ -97,7 +148,8 @@ public class SentimentController {
     // com base nos últimos N comentários
     @GetMapping("/sentiment/stats/{quantidade}")
     public ResponseEntity<Map<String, Object>> stats(
-            @PathVariable int quantidade) {
+            @PathVariable int quantidade,
+            WebRequest webRequest) {
 
         // Evita chamadas inválidas que poderiam
         // gerar divisão por zero no service
@@ -106,15 +158,26 @@ public class SentimentController {
                     .body(Map.of("error", "A quantidade deve ser maior que zero"));
         }
 
+        // Enquanto nenhum comentário mudar, a estatística é a mesma:
+        // o ETag usa a geração atual e responde 304 sem consultar o banco
+        // (a geração é por instância: ver a limitação em StatsGeneration)
+        String etag = "s" + statsGeneration.current() + "q" + quantidade;
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         // Calcula os percentuais de sentimentos
         StatsDto stats =
                 sentimentService.getStats(quantidade);
 
         // Retorna os valores já calculados
-        return ResponseEntity.ok(Map.of(
-                "positivo", stats.positivo(),
-                "negativo", stats.negativo()
-        ));
+        // (dashboards podem reutilizar por alguns segundos sem revalidar)
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(STATS_MAX_AGE).mustRevalidate())
+                .body(Map.of(
+                        "positivo", stats.positivo(),
+                        "negativo", stats.negativo()
+                ));
     }
 
     // Atualiza o texto de um comentário existente
@@ -0,0 +1,32 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.services.SentimentBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Controlador do feed em tempo real de classificações
+// Substitui o polling de /sentiment/stats pelos dashboards
+@RestController
+public class StreamController {
+
+    private final SentimentBroadcaster broadcaster;
+
+    public StreamController(SentimentBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    // Eventos emitidos (no máximo um de cada tipo por intervalo de envio):
+    // - "stats": estado atual logo após conectar e, depois, o resumo de
+    //   várias alterações no mesmo intervalo (CSV, importação, lote),
+    //   com as estatísticas da janela e o campo "alteracoes"
+    // - "classificacao": a única alteração do intervalo (comentário
+    //   criado/atualizado/removido), com as estatísticas em "stats"
+    // - "exclusao": exclusões em massa do intervalo, com "quantidade"
+    //   e as estatísticas em "stats"
+    @GetMapping(value = "/sentiment/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return broadcaster.subscribe();
+    }
+}
@@ -0,0 +1,48 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.config.TrendProperties;
+import com.sentimentapi.services.TrendAnalytics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Controlador REST das tendências de termos por rótulo
+@RestController
+@RequiredArgsConstructor
+public class TrendsController {
+
+    private final TrendAnalytics trendAnalytics;
+    private final TrendProperties properties;
+
+    // Termos e bigramas mais frequentes na janela (padrão: última hora)
+    // Ex.: /sentiment/trends?previsao=Negativo&janela=PT6H&limite=20
+    @GetMapping("/sentiment/trends")
+    public ResponseEntity<?> trends(
+            @RequestParam(required = false) String previsao,
+            @RequestParam(defaultValue = "PT1H") Duration janela,
+            @RequestParam(defaultValue = "20") int limite) {
+
+        if (!trendAnalytics.enabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Tendências desabilitadas"));
+        }
+
+        Duration maxima = properties.getDuracaoPainel().multipliedBy(properties.getPaineis());
+        if (janela.isNegative() || janela.isZero() || janela.compareTo(maxima) > 0) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "janela deve estar entre 1 painel e " + maxima));
+        }
+        if (limite <= 0 || limite > properties.getLimiteMaximo()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limite deve estar entre 1 e " + properties.getLimiteMaximo()));
+        }
+
+        return ResponseEntity.ok(trendAnalytics.top(previsao, janela, limite));
+    }
+}
@@ -0,0 +1,467 @@
+package com.sentimentapi.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Leitor de CSV (RFC 4180, UTF-8) mapeado em memória e dividido
+ * em blocos que podem ser lidos em paralelo.
+ * <p>
+ * A divisão é feita em duas passadas paralelas: primeiro conta-se a
+ * paridade das aspas de cada bloco bruto (o que diz se o bloco começa
+ * dentro de um campo entre aspas); depois cada bloco avança até o primeiro
+ * fim de linha fora de aspas. Assim quebras de linha dentro de campos
+ * entre aspas nunca cortam um registro.
+ * <p>
+ * Supõe que aspas só aparecem em campos delimitados por aspas
+ * (escapadas como {@code ""}), como manda a RFC 4180.
+ */
+public final class MappedCsvFile implements Closeable {
+
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    // Uma única região mapeada não pode passar de 2GB
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final long size;
+    private final List<String> header;
+    private final long dataStart;
+
+    private MappedCsvFile(FileChannel channel, long size,
+                          List<String> header, long dataStart) {
+        this.channel = channel;
+        this.size = size;
+        this.header = header;
+        this.dataStart = dataStart;
+    }
+
+    /**
+     * Abre o arquivo e lê o cabeçalho (primeiro registro).
+     */
+    public static MappedCsvFile open(Path path) throws IOException {
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+
+            // O cabeçalho é lido de uma janela inicial que cresce
+            // até conter o primeiro registro completo
+            long janela = Math.min(size, 64 * 1024);
+            while (true) {
+                ByteBuffer buf = map(channel, 0, janela);
+                int inicio = hasBom(buf) ? 3 : 0;
+
+                Cursor cursor = new Cursor(buf, inicio, buf.limit(), janela == size);
+                List<String> header = new ArrayList<>();
+                if (cursor.nextRecord(-1, header)) {
+                    return new MappedCsvFile(channel, size, List.copyOf(header), cursor.pos);
+                }
+                if (janela == size) {
+                    return new MappedCsvFile(channel, size, List.of(), size);
+                }
+                janela = Math.min(size, janela * 2);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> header() {
+        return header;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Posição da coluna no cabeçalho, ou -1 se não existir.
+     */
+    public int columnIndex(String name) {
+        return header.indexOf(name);
+    }
+
+    /**
+     * Divide os dados (após o cabeçalho) em blocos de aproximadamente
+     * {@code chunkSize} bytes alinhados a início de registro.
+     */
+    public List<Chunk> split(long chunkSize, ExecutorService pool) throws IOException {
+
+        if (chunkSize <= 0 || chunkSize > MAX_MAPPING) {
+            throw new IllegalArgumentException("Tamanho de bloco inválido: " + chunkSize);
+        }
+
+        long dados = size - dataStart;
+        if (dados <= 0) {
+            return List.of();
+        }
+
+        int n = (int) ((dados + chunkSize - 1) / chunkSize);
+        long[] brutos = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            brutos[i] = dataStart + i * chunkSize;
+        }
+        brutos[n] = size;
+
+        // 1ª passada: paridade das aspas de cada bloco bruto
+        List<Future<Boolean>> paridades = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long de = brutos[i];
+            long ate = brutos[i + 1];
+            paridades.add(pool.submit(() -> countQuotes(map(channel, de, ate)) % 2 == 1));
+        }
+
+        // Soma de prefixos (XOR): o bloco começa dentro de aspas?
+        boolean[] dentroDeAspas = new boolean[n];
+        boolean estado = false;
+        for (int i = 0; i < n; i++) {
+            dentroDeAspas[i] = estado;
+            estado ^= await(paridades.get(i));
+        }
+
+        // 2ª passada: cada bloco avança até o início do próximo registro
+        List<Future<Long>> alinhados = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int bloco = i;
+            alinhados.add(i == 0
+                    ? null
+                    : pool.submit(() -> nextRecordStart(brutos[bloco], dentroDeAspas[bloco])));
+        }
+
+        long[] inicios = new long[n + 1];
+        inicios[0] = dataStart;
+        for (int i = 1; i < n; i++) {
+            inicios[i] = await(alinhados.get(i));
+        }
+        inicios[n] = size;
+
+        List<Chunk> chunks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // Um registro pode atravessar blocos inteiros: o bloco fica vazio
+            if (inicios[i + 1] > inicios[i]) {
+                chunks.add(new Chunk(chunks.size(), inicios[i], inicios[i + 1]));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Lê os registros do bloco e entrega o valor da coluna informada.
+     * Linhas vazias são ignoradas; registros sem a coluna são contados
+     * e o total é devolvido.
+     */
+    public long parse(Chunk chunk, int column, Consumer<String> sink) throws IOException {
+
+        if (chunk.end() - chunk.start() > MAX_MAPPING) {
+            throw new IOException("Registro maior que 2GB a partir do byte " + chunk.start());
+        }
+
+        ByteBuffer buf = map(channel, chunk.start(), chunk.end());
+        Cursor cursor = new Cursor(buf, 0, buf.limit(), true);
+
+        List<String> campos = new ArrayList<>(1);
+        long invalidos = 0;
+        while (cursor.nextRecord(column, campos)) {
+            if (campos.isEmpty()) {
+                invalidos++;
+            } else {
+                sink.accept(campos.get(0));
+            }
+            campos.clear();
+        }
+        return invalidos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Procura o primeiro LF fora de aspas a partir de "de",
+    // mapeando janelas sucessivas caso o registro seja longo
+    private long nextRecordStart(long de, boolean dentroDeAspas) throws IOException {
+
+        long janela = 1 << 20;
+        long pos = de;
+        boolean aspas = dentroDeAspas;
+
+        while (pos < size) {
+            long ate = Math.min(size, pos + janela);
+            ByteBuffer buf = map(channel, pos, ate);
+            int lim = buf.limit();
+            for (int i = 0; i < lim; i++) {
+                byte b = buf.get(i);
+                if (b == QUOTE) {
+                    aspas = !aspas;
+                } else if (b == LF && !aspas) {
+                    return pos + i + 1;
+                }
+            }
+            pos = ate;
+            janela = Math.min(MAX_MAPPING, janela * 2);
+        }
+        return size;
+    }
+
+    // Conta aspas oito bytes por vez (SWAR): um byte de "x ^ 0x22..." é
+    // zero exatamente onde havia aspas
+    static long countQuotes(ByteBuffer buf) {
+
+        final long aspas = 0x2222_2222_2222_2222L;
+        final long baixo7 = 0x7F7F_7F7F_7F7F_7F7FL;
+
+        ByteBuffer le = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int lim = le.limit();
+        int i = 0;
+        long total = 0;
+
+        for (; i + Long.BYTES <= lim; i += Long.BYTES) {
+            long x = le.getLong(i) ^ aspas;
+            long zeros = ~(((x & baixo7) + baixo7) | x | baixo7);
+            total += Long.bitCount(zeros);
+        }
+        for (; i < lim; i++) {
+            if (le.get(i) == QUOTE) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long de, long ate) throws IOException {
+        if (ate <= de) {
+            return ByteBuffer.allocate(0);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, de, ate - de);
+    }
+
+    private static boolean hasBom(ByteBuffer buf) {
+        return buf.limit() >= 3
+                && (buf.get(0) & 0xFF) == 0xEF
+                && (buf.get(1) & 0xFF) == 0xBB
+                && (buf.get(2) & 0xFF) == 0xBF;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Divisão do arquivo interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Falha ao dividir o arquivo", e.getCause());
+        }
+    }
+
+    /**
+     * Intervalo de bytes [start, end) que começa e termina
+     * em limites de registro.
+     */
+    public record Chunk(int index, long start, long end) {
+    }
+
+    // Máquina de estados de um registro CSV sobre um buffer mapeado
+    private static final class Cursor {
+
+        private final ByteBuffer buf;
+        private final int lim;
+        // Se falso, um registro que chega ao fim do buffer está incompleto
+        private final boolean fimEhFimDeArquivo;
+        private int pos;
+        private byte[] scratch = new byte[256];
+
+        Cursor(ByteBuffer buf, int pos, int lim, boolean fimEhFimDeArquivo) {
+            this.buf = buf;
+            this.pos = pos;
+            this.lim = lim;
+            this.fimEhFimDeArquivo = fimEhFimDeArquivo;
+        }
+
+        /**
+         * Lê o próximo registro não vazio. Com {@code wanted < 0} todos os
+         * campos vão para {@code out}; caso contrário só o campo pedido
+         * (os demais são pulados sem decodificar).
+         */
+        boolean nextRecord(int wanted, List<String> out) {
+
+            while (pos < lim) {
+
+                int inicio = pos;
+                int coluna = 0;
+
+                while (true) {
+                    boolean guardar = wanted < 0 || coluna == wanted;
+                    String campo = readField(guardar);
+                    if (campo == null && pos < 0) {
+                        // Registro incompleto (janela do cabeçalho)
+                        pos = inicio;
+                        return false;
+                    }
+                    if (guardar) {
+                        out.add(campo);
+                    }
+
+                    if (pos < lim && buf.get(pos) == COMMA) {
+                        pos++;
+                        coluna++;
+                        continue;
+                    }
+                    break;
+                }
+
+                boolean terminou = consumeLineEnd();
+                if (!terminou && !fimEhFimDeArquivo) {
+                    pos = inicio;
+                    out.clear();
+                    return false;
+                }
+
+                // Linha vazia: um único campo vazio e sem aspas
+                if (coluna == 0 && pos - inicio <= 2 && isBlank(inicio)) {
+                    out.clear();
+                    continue;
+                }
+                if (wanted >= 0 && coluna < wanted) {
+                    out.clear();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isBlank(int inicio) {
+            for (int i = inicio; i < pos; i++) {
+                byte b = buf.get(i);
+                if (b != CR && b != LF) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean consumeLineEnd() {
+            if (pos >= lim) {
+                return false;
+            }
+            byte b = buf.get(pos);
+            if (b == CR) {
+                pos++;
+                if (pos < lim && buf.get(pos) == LF) {
+                    pos++;
+                }
+                return true;
+            }
+            if (b == LF) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        // Lê um campo e para no delimitador/fim de linha.
+        // Devolve null (com pos = -1) se as aspas não fecharem no buffer
+        private String readField(boolean decodificar) {
+
+            if (pos < lim && buf.get(pos) == QUOTE) {
+                return readQuoted(decodificar);
+            }
+
+            int inicio = pos;
+            while (pos < lim) {
+                byte b = buf.get(pos);
+                if (b == COMMA || b == LF || b == CR) {
+                    break;
+                }
+                pos++;
+            }
+            return decodificar ? decode(inicio, pos) : null;
+        }
+
+        private String readQuoted(boolean decodificar) {
+
+            pos++;
+            int tamanho = 0;
+
+            while (true) {
+                int inicio = pos;
+                while (pos < lim && buf.get(pos) != QUOTE) {
+                    pos++;
+                }
+                if (pos >= lim) {
+                    if (!fimEhFimDeArquivo) {
+                        pos = -1;
+                        return null;
+                    }
+                    // Aspas sem fechamento no fim do arquivo: aceita o resto
+                    tamanho = append(tamanho, inicio, pos, decodificar);
+                    break;
+                }
+                tamanho = append(tamanho, inicio, pos, decodificar);
+                pos++;
+
+                // "" dentro do campo é uma aspa literal
+                if (pos < lim && buf.get(pos) == QUOTE) {
+                    tamanho = append(tamanho, pos, pos + 1, decodificar);
+                    pos++;
+                    continue;
+                }
+                break;
+            }
+
+            // Caracteres entre o fechamento e o delimitador entram no valor
+            int inicio = pos;
+            while (pos < lim) {
+                byte b = buf.get(pos);
+                if (b == COMMA || b == LF || b == CR) {
+                    break;
+                }
+                pos++;
+            }
+            tamanho = append(tamanho, inicio, pos, decodificar);
+
+            return decodificar ? new String(scratch, 0, tamanho, StandardCharsets.UTF_8) : null;
+        }
+
+        private int append(int tamanho, int de, int ate, boolean decodificar) {
+            int n = ate - de;
+            if (!decodificar || n <= 0) {
+                return tamanho;
+            }
+            if (tamanho + n > scratch.length) {
+                scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, tamanho + n));
+            }
+            buf.get(de, scratch, tamanho, n);
+            return tamanho + n;
+        }
+
+        private String decode(int de, int ate) {
+            int n = ate - de;
+            if (n > scratch.length) {
+                scratch = new byte[Math.max(scratch.length * 2, n)];
+            }
+            buf.get(de, scratch, 0, n);
+            return new String(scratch, 0, n, StandardCharsets.UTF_8);
+        }
+    }
+}
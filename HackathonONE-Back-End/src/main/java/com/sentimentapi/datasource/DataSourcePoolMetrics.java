@@ -0,0 +1,90 @@
+package com.sentimentapi.datasource;
+
+import com.sentimentapi.dtos.DataSourcePoolDto;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Métricas dos pools Hikari: do primário e, com réplicas habilitadas,
+// de cada réplica junto com o último atraso medido
+@Component
+public class DataSourcePoolMetrics {
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ReadWriteRoutingDataSource> roteador;
+
+    public DataSourcePoolMetrics(DataSource dataSource,
+                                 ObjectProvider<ReadWriteRoutingDataSource> roteador) {
+        this.dataSource = dataSource;
+        this.roteador = roteador;
+    }
+
+    public List<DataSourcePoolDto> snapshot() {
+
+        List<DataSourcePoolDto> pools = new ArrayList<>();
+        ReadWriteRoutingDataSource routing = roteador.getIfAvailable();
+
+        if (routing == null) {
+            pools.add(toDto(ReadWriteRoutingDataSource.PRIMARIO, "primario", dataSource, null));
+            return pools;
+        }
+
+        for (Map.Entry<String, DataSource> pool : routing.pools().entrySet()) {
+            ReplicaState replica = routing.replicas().stream()
+                    .filter(estado -> estado.nome().equals(pool.getKey()))
+                    .findFirst()
+                    .orElse(null);
+            pools.add(toDto(pool.getKey(), replica == null ? "primario" : "replica",
+                    pool.getValue(), replica));
+        }
+        return pools;
+    }
+
+    private static DataSourcePoolDto toDto(String nome, String papel,
+                                           DataSource dataSource, ReplicaState replica) {
+
+        int ativas = 0;
+        int ociosas = 0;
+        int total = 0;
+        int aguardando = 0;
+        int maximo = 0;
+
+        HikariDataSource hikari = unwrap(dataSource);
+        if (hikari != null) {
+            maximo = hikari.getMaximumPoolSize();
+            // O MXBean só existe depois que o pool abre a primeira conexão
+            HikariPoolMXBean mxBean = hikari.getHikariPoolMXBean();
+            if (mxBean != null) {
+                ativas = mxBean.getActiveConnections();
+                ociosas = mxBean.getIdleConnections();
+                total = mxBean.getTotalConnections();
+                aguardando = mxBean.getThreadsAwaitingConnection();
+            }
+        }
+
+        return new DataSourcePoolDto(
+                hikari != null ? hikari.getPoolName() : nome,
+                papel,
+                ativas, ociosas, total, aguardando, maximo,
+                replica == null ? null : replica.atrasoMs(),
+                replica == null ? null : replica.disponivel()
+        );
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
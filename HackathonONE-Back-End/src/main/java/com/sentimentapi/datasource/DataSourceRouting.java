@@ -0,0 +1,47 @@
+package com.sentimentapi.datasource;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Dicas de roteamento para a leitura em andamento na thread atual.
+ * Só têm efeito em transações somente leitura, e precisam estar ativas
+ * quando a primeira consulta pede a conexão (o proxy lazy adia a escolha).
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Instant> EXIGIDO = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Executa a leitura numa réplica que já tenha aplicado tudo o que o
+     * primário gravou até {@code desde}; se nenhuma tiver, usa o primário.
+     */
+    public static <T> T requireFreshness(Instant desde, Supplier<T> leitura) {
+
+        Instant anterior = EXIGIDO.get();
+        EXIGIDO.set(anterior == null || desde.isAfter(anterior) ? desde : anterior);
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior == null) {
+                EXIGIDO.remove();
+            } else {
+                EXIGIDO.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * Executa a leitura sempre no primário.
+     */
+    public static <T> T onPrimary(Supplier<T> leitura) {
+        return requireFreshness(Instant.MAX, leitura);
+    }
+
+    static Instant requiredFreshness() {
+        return EXIGIDO.get();
+    }
+}
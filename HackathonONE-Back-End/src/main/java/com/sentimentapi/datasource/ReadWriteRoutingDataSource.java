@@ -0,0 +1,128 @@
+package com.sentimentapi.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que envia transações somente leitura às réplicas e o resto ao
+ * primário. A escolha acontece quando a conexão física é pedida, por isso
+ * deve ficar atrás de um {@code LazyConnectionDataSourceProxy}: assim o
+ * flag readOnly da transação já está definido na hora da escolha.
+ * <p>
+ * Entre as réplicas elegíveis (atraso medido dentro do limite) a escolha
+ * é em rodízio; sem nenhuma elegível a leitura vai para o primário.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public static final String PRIMARIO = "primario";
+
+    private final DataSource primario;
+    private final List<ReplicaState> replicas;
+    private final long atrasoMaximoMs;
+    private final String consultaAtraso;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primario,
+                                      Map<String, DataSource> replicas,
+                                      Duration atrasoMaximo,
+                                      String consultaAtraso) {
+
+        this.primario = primario;
+        this.atrasoMaximoMs = atrasoMaximo.toMillis();
+        this.consultaAtraso = consultaAtraso;
+
+        Map<Object, Object> alvos = new HashMap<>();
+        alvos.put(PRIMARIO, primario);
+
+        List<ReplicaState> estados = new ArrayList<>();
+        replicas.forEach((nome, dataSource) -> {
+            estados.add(new ReplicaState(nome, dataSource));
+            alvos.put(nome, dataSource);
+        });
+        this.replicas = List.copyOf(estados);
+
+        setTargetDataSources(alvos);
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARIO;
+        }
+
+        Instant exigido = DataSourceRouting.requiredFreshness();
+        Instant agora = Instant.now();
+        int n = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(1, n));
+
+        for (int i = 0; i < n; i++) {
+            ReplicaState replica = replicas.get((inicio + i) % n);
+            if (replica.eligible(atrasoMaximoMs, exigido, agora)) {
+                return replica.nome();
+            }
+        }
+        return PRIMARIO;
+    }
+
+    /**
+     * Mede o atraso de cada réplica. Réplicas que não respondem
+     * ficam fora do rodízio até a próxima medição bem-sucedida.
+     */
+    public void refreshLag() {
+
+        for (ReplicaState replica : replicas) {
+            Instant medidoEm = Instant.now();
+            try (Connection conexao = replica.dataSource().getConnection();
+                 Statement statement = conexao.createStatement();
+                 ResultSet rs = statement.executeQuery(consultaAtraso)) {
+
+                rs.next();
+                replica.update(rs.getLong(1), medidoEm);
+
+            } catch (SQLException e) {
+                if (replica.disponivel()) {
+                    log.warn("Réplica {} indisponível: {}", replica.nome(), e.getMessage());
+                }
+                replica.markDown();
+            }
+        }
+    }
+
+    public List<ReplicaState> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Pools de conexão por nome, começando pelo primário.
+     */
+    public Map<String, DataSource> pools() {
+
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        pools.put(PRIMARIO, primario);
+        for (ReplicaState replica : replicas) {
+            pools.put(replica.nome(), replica.dataSource());
+        }
+        return pools;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sentimentapi.datasource;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+
+/**
+ * Última medição de atraso de uma réplica.
+ */
+public final class ReplicaState {
+
+    private final String nome;
+    private final DataSource dataSource;
+
+    private volatile boolean disponivel;
+    private volatile long atrasoMs = -1;
+    private volatile Instant medidoEm = Instant.EPOCH;
+
+    ReplicaState(String nome, DataSource dataSource) {
+        this.nome = nome;
+        this.dataSource = dataSource;
+    }
+
+    public String nome() {
+        return nome;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public boolean disponivel() {
+        return disponivel;
+    }
+
+    public long atrasoMs() {
+        return atrasoMs;
+    }
+
+    void update(long atrasoMs, Instant medidoEm) {
+        this.atrasoMs = Math.max(0, atrasoMs);
+        this.medidoEm = medidoEm;
+        this.disponivel = true;
+    }
+
+    void markDown() {
+        this.disponivel = false;
+    }
+
+    /**
+     * Pode servir uma leitura agora? A medição precisa ser recente, o
+     * atraso tolerável e, se {@code exigido} vier preenchido, a réplica
+     * precisa já ter aplicado as gravações feitas até esse instante.
+     */
+    boolean eligible(long atrasoMaximoMs, Instant exigido, Instant agora) {
+
+        if (!disponivel || atrasoMs > atrasoMaximoMs) {
+            return false;
+        }
+        // Medição antiga demais não garante nada
+        if (medidoEm.plusMillis(atrasoMaximoMs).isBefore(agora)) {
+            return false;
+        }
+        // No momento da medição a réplica refletia o primário até medidoEm - atraso
+        return exigido == null || !medidoEm.minusMillis(atrasoMs).isBefore(exigido);
+    }
+}
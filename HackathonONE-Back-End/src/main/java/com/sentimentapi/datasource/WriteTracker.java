@@ -0,0 +1,95 @@
+package com.sentimentapi.datasource;
+
+import com.sentimentapi.config.ReplicaProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Lembra quando cada comentário foi gravado por último no primário,
+// para que a leitura logo em seguida (ex.: GET /sentiment/{id} depois do
+// POST) só use uma réplica que já tenha aplicado essa gravação.
+// Sem réplicas habilitadas não guarda nada.
+@Component
+public class WriteTracker {
+
+    // Comentários lembrados; os mais antigos saem primeiro
+    private static final int CAPACIDADE = 10_000;
+
+    private final boolean habilitado;
+    private final long janelaMs;
+
+    private final Map<Long, Instant> escritas = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Instant> eldest) {
+            return size() > CAPACIDADE;
+        }
+    };
+
+    public WriteTracker(ReplicaProperties properties) {
+        this.habilitado = properties.isHabilitado() && !properties.getFontes().isEmpty();
+        // Depois disso qualquer réplica elegível já tem a gravação
+        this.janelaMs = properties.getAtrasoMaximo().plus(properties.getVerificacao()).toMillis() * 2;
+    }
+
+    /**
+     * Registra a gravação do comentário. Dentro de uma transação, só depois
+     * do commit: antes disso nenhuma réplica pode ter recebido a gravação,
+     * e um rollback não deve prender as leituras no primário.
+     */
+    public void recordWrite(Long commentId) {
+        if (!habilitado || commentId == null) {
+            return;
+        }
+        recordWrites(List.of(commentId));
+    }
+
+    public void recordWrites(List<Long> commentIds) {
+        if (!habilitado || commentIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(commentIds);
+                }
+            });
+        } else {
+            record(commentIds);
+        }
+    }
+
+    private void record(List<Long> commentIds) {
+        Instant agora = Instant.now();
+        synchronized (escritas) {
+            for (Long commentId : commentIds) {
+                // Reinsere para manter a ordem de gravação
+                escritas.remove(commentId);
+                escritas.put(commentId, agora);
+            }
+        }
+    }
+
+    /**
+     * Instante da última gravação do comentário, se ainda for recente.
+     */
+    public Optional<Instant> lastWrite(Long commentId) {
+        if (!habilitado) {
+            return Optional.empty();
+        }
+        Instant escrita;
+        synchronized (escritas) {
+            escrita = escritas.get(commentId);
+        }
+        if (escrita == null || escrita.plusMillis(janelaMs).isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(escrita);
+    }
+}
@@ -0,0 +1,9 @@
+package com.sentimentapi.dtos;
+
+// DTO imutável com o resultado de uma exclusão em massa
+// ou de uma coleta de previsões órfãs
+public record BulkDeleteDto(
+        long comentarios,
+        long previsoes
+) {
+}
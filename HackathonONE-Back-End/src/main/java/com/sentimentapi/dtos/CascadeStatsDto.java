@@ -0,0 +1,38 @@
+package com.sentimentapi.dtos;
+
+import java.util.List;
+
+// DTO imutável com as métricas da cascata de modelos
+public record CascadeStatsDto(
+        boolean habilitado,
+        String nivelLocal,
+        double limiar,
+        long respondidosLocalmente,
+        long escalados,
+        double taxaEscalonamento,
+        long amostrados,
+        Double concordancia,
+        Latencia latenciaLocal,
+        Latencia latenciaRemota,
+        List<Faixa> faixas
+) {
+
+    // Latência por texto de um nível
+    public record Latencia(
+            long chamadas,
+            double mediaMs,
+            double maximaMs
+    ) {
+    }
+
+    // Faixa de confiança do modelo local: quantos textos caíram nela e,
+    // dos comparados com o modelo remoto, quantos tiveram o mesmo rótulo
+    public record Faixa(
+            double de,
+            double ate,
+            long textos,
+            long comparados,
+            Double concordancia
+    ) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.sentimentapi.dtos;
+
+import java.util.Map;
+
+// DTO imutável com a distribuição da confiança por rótulo em uma janela
+// Os quantis têm o erro relativo configurado em sentiment.confianca.precisao
+public record ConfidenceDto(
+        String de,
+        String ate,
+        Map<String, Quantis> rotulos
+) {
+
+    // Quantidade de previsões e quantis da probabilidade de um rótulo
+    public record Quantis(
+            long contagem,
+            double p10,
+            double p50,
+            double p90
+    ) {
+    }
+}
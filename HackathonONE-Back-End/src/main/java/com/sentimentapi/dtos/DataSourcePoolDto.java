@@ -0,0 +1,16 @@
+package com.sentimentapi.dtos;
+
+// DTO imutável com o estado de um pool de conexões
+// (atrasoMs e disponivel só existem para réplicas)
+public record DataSourcePoolDto(
+        String nome,
+        String papel,
+        int ativas,
+        int ociosas,
+        int total,
+        int aguardando,
+        int maximo,
+        Long atrasoMs,
+        Boolean disponivel
+) {
+}
@@ -0,0 +1,15 @@
+package com.sentimentapi.dtos;
+
+// DTO imutável com o andamento de uma importação de CSV local
+public record ImportStatusDto(
+        long id,
+        String arquivo,
+        String estado,
+        long registros,
+        long classificados,
+        long invalidos,
+        String erro,
+        String inicio,
+        String fim
+) {
+}
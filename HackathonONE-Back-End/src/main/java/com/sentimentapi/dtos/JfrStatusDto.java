@@ -0,0 +1,20 @@
+package com.sentimentapi.dtos;
+
+import java.util.List;
+
+// DTO imutável com o estado da gravação JFR e os dumps disponíveis
+public record JfrStatusDto(
+        boolean gravando,
+        String configuracao,
+        String inicio,
+        long bytesGravados,
+        List<Dump> dumps
+) {
+
+    public record Dump(
+            String arquivo,
+            long bytes,
+            String criadoEm
+    ) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.sentimentapi.dtos;
+
+// DTO imutável de um comentário com baixa confiança, para revisão humana
+public record LowConfidenceDto(
+        Long id,
+        String text,
+        String previsao,
+        double probabilidade,
+        String dataCriacao
+) {
+}
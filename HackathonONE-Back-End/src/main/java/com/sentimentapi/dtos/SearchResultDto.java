@@ -0,0 +1,24 @@
+package com.sentimentapi.dtos;
+
+import java.util.List;
+import java.util.Map;
+
+// DTO imutável com o resultado de uma busca textual
+// Contém o total de documentos encontrados, os top-k resultados
+// e as contagens por rótulo e por período (facetas)
+public record SearchResultDto(
+        long total,
+        List<Hit> resultados,
+        Map<String, Map<String, Long>> facetas
+) {
+
+    // Um comentário encontrado na busca
+    public record Hit(
+            Long id,
+            String text,
+            String previsao,
+            double probabilidade,
+            String dataCriacao
+    ) {
+    }
+}
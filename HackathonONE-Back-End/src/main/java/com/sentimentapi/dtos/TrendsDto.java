@@ -0,0 +1,27 @@
+package com.sentimentapi.dtos;
+
+import java.util.List;
+import java.util.Map;
+
+// DTO imutável com os termos e bigramas mais frequentes por rótulo em uma janela
+// As contagens são estimativas do Count-Min Sketch (nunca abaixo do valor real)
+public record TrendsDto(
+        String de,
+        String ate,
+        Map<String, Rotulo> rotulos
+) {
+
+    // Total de termos vistos no rótulo e os mais frequentes
+    public record Rotulo(
+            long totalTermos,
+            List<Termo> termos,
+            List<Termo> bigramas
+    ) {
+    }
+
+    public record Termo(
+            String termo,
+            long contagem
+    ) {
+    }
+}
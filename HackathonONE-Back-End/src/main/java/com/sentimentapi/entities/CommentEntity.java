@@ -1,19 +1,32 @@
 package com.sentimentapi.entities;
 
 
+import com.sentimentapi.compression.CommentText;
+import com.sentimentapi.compression.CommentTextConverter;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
 
 import java.time.LocalDateTime;
 
 // Entidade que representa um comentário analisado
 // Armazena o texto original, a previsão de sentimento
 // associada e a data de criação do registro
+// No PostgreSQL a tabela é particionada por mês em data_criacao
+// (ver db/postgres/003_comentario_particoes.sql)
 @Entity
-@Table(name = "comentario_tb")
+@Table(
+        name = "comentario_tb",
+        indexes = {
+                @Index(name = "idx_comentario_data_criacao", columnList = "dataCriacao"),
+                @Index(name = "idx_comentario_previsao", columnList = "sentiment_prediction_id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,16 +37,70 @@ public class CommentEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // Texto do comentário enviado para análise
+    // Texto sem compressão (linhas anteriores à coluna text_zstd e as
+    // gravadas com a compressão desabilitada; esvaziado pela migração
+    // em segundo plano quando a compressão é habilitada)
     @Lob
     @Column(columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private String text;
 
+    // Texto do comentário enviado para análise, comprimido com zstd
+    // e descomprimido só quando getText() é chamado
+    @Convert(converter = CommentTextConverter.class)
+    @Mutability(Immutability.class)
+    @Column(name = "text_zstd", length = 1_000_000)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CommentText textoCompactado;
+
     // Relacionamento com a previsão de sentimento gerada
     @ManyToOne
     @JoinColumn(name = "sentiment_prediction_id")
     private SentimentPrediction previsao;
 
     // Data e hora em que o comentário foi salvo
+    // (chave das partições: nunca fica nula)
+    @Column(nullable = false)
     private LocalDateTime dataCriacao;
+
+    // ID do comentário recente do qual este é quase-duplicata
+    // (preenchido apenas no modo MARCAR da detecção de duplicatas)
+    @Column(name = "duplicata_de")
+    private Long duplicataDe;
+
+    // Versão do registro (incrementada a cada atualização)
+    // Usada no ETag de GET /sentiment/{id} e como trava otimista
+    @Version
+    private Long versao;
+
+    // Texto do comentário, de qualquer uma das duas colunas
+    public String getText() {
+        return textoCompactado != null ? textoCompactado.value() : text;
+    }
+
+    // Grava na coluna sem compressão
+    public void setText(String text) {
+        setText(text, false);
+    }
+
+    // Com a compressão desabilitada, text_zstd fica nula
+    public void setText(String text, boolean comprimir) {
+        if (comprimir) {
+            this.textoCompactado = CommentText.of(text);
+            this.text = null;
+        } else {
+            this.text = text;
+            this.textoCompactado = null;
+        }
+    }
+
+    // Garante a data de criação para quem não a informa (ex.: carga inicial)
+    @PrePersist
+    void prePersist() {
+        if (dataCriacao == null) {
+            dataCriacao = LocalDateTime.now();
+        }
+    }
 }
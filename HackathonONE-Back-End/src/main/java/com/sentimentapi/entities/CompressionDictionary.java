@@ -0,0 +1,30 @@
+package com.sentimentapi.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Dicionário zstd treinado com os comentários
+// Nunca é apagado: linhas comprimidas com ele continuam no banco
+@Entity
+@Table(name = "dicionario_zstd_tb")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CompressionDictionary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 1_000_000)
+    private byte[] dados;
+
+    // Comentários usados no treino
+    private int amostras;
+
+    private LocalDateTime criadoEm;
+}
@@ -0,0 +1,42 @@
+package com.sentimentapi.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Sketch das probabilidades de um rótulo em uma hora
+// Cada instância soma aqui o que acumulou desde o último checkpoint;
+// a versão evita que duas instâncias sobrescrevam a soma uma da outra.
+@Entity
+@Table(
+        name = "sketch_confianca_tb",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_sketch_confianca_label_hora", columnNames = {"label", "hora"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConfidenceSketchCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String label;
+
+    // Início da hora coberta
+    @Column(nullable = false)
+    private LocalDateTime hora;
+
+    @Column(nullable = false, length = 100_000)
+    private byte[] dados;
+
+    private long contagem;
+
+    @Version
+    private Long versao;
+}
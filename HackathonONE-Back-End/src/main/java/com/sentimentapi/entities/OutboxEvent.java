@@ -0,0 +1,42 @@
+package com.sentimentapi.entities;
+
+import com.sentimentapi.events.CommentChangedEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Evento de classificação pendente de publicação (outbox transacional)
+// Gravado na mesma transação que altera o comentário e apagado
+// assim que o relay o copia para o log de eventos.
+@Entity
+@Table(name = "evento_outbox_tb")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CommentChangedEvent.Type tipo;
+
+    @Column(nullable = false)
+    private Long comentarioId;
+
+    private String previsao;
+
+    private double probabilidade;
+
+    // Vazio nas remoções
+    @Column(length = 1_000_000)
+    private String texto;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+}
@@ -11,8 +11,16 @@ import lombok.Setter; // Gera o setter automaticamente para as variáveis
 // O getter serve para "pegar" o valor de um campo, e o setter serve para "definir" o valor de um campo.
 // Essas anotações evitam que você tenha que escrever esses métodos manualmente.
 
+// Os índices de probability atendem à listagem de baixa confiança
+// (GET /sentiment/confianca/baixa) sem percorrer a tabela
 @Entity
-@Table(name = "sentiment_prediction_tb")
+@Table(
+        name = "sentiment_prediction_tb",
+        indexes = {
+                @Index(name = "idx_previsao_probabilidade", columnList = "probability"),
+                @Index(name = "idx_previsao_label_probabilidade", columnList = "label, probability")
+        }
+)
 @Setter
 @Getter
 public class SentimentPrediction {
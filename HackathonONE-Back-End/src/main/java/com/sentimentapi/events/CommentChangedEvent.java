@@ -0,0 +1,56 @@
+package com.sentimentapi.events;
+
+import com.sentimentapi.entities.CommentEntity;
+
+import java.time.LocalDateTime;
+
+// Evento publicado pelo SentimentService sempre que um comentário
+// é criado, atualizado ou removido. Os subsistemas derivados
+// (busca, estatísticas em tempo real, etc.) reagem a ele sem que
+// o service precise conhecer cada um.
+public record CommentChangedEvent(
+        Type type,
+        Long commentId,
+        String text,
+        String label,
+        double probability,
+        LocalDateTime dataCriacao
+) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static CommentChangedEvent created(CommentEntity comment) {
+        return of(Type.CREATED, comment);
+    }
+
+    public static CommentChangedEvent updated(CommentEntity comment) {
+        return of(Type.UPDATED, comment);
+    }
+
+    public static CommentChangedEvent deleted(CommentEntity comment) {
+        return of(Type.DELETED, comment);
+    }
+
+    private static CommentChangedEvent of(Type type, CommentEntity comment) {
+
+        String label = null;
+        double probability = 0.0;
+        if (comment.getPrevisao() != null) {
+            label = comment.getPrevisao().getLabel();
+            probability = comment.getPrevisao().getProbability();
+        }
+
+        return new CommentChangedEvent(
+                type,
+                comment.getId(),
+                comment.getText(),
+                label,
+                probability,
+                comment.getDataCriacao()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.sentimentapi.events;
+
+import java.time.LocalDateTime;
+
+// Evento publicado quando um mês de comentários é arquivado e removido
+// do banco. Os índices derivados descartam o mesmo intervalo de datas.
+public record CommentsArchivedEvent(
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        long quantidade
+) {
+}
@@ -0,0 +1,12 @@
+package com.sentimentapi.events;
+
+import java.util.List;
+
+// Evento publicado a cada lote de uma exclusão em massa
+// (DELETE /sentiment/comentarios). Um evento por lote, e não um
+// CommentChangedEvent por comentário: os índices derivados removem
+// os IDs de uma vez e os assinantes do stream recebem uma só mensagem.
+public record CommentsDeletedEvent(
+        List<Long> ids
+) {
+}
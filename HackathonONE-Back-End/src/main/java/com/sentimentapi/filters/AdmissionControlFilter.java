@@ -0,0 +1,231 @@
+package com.sentimentapi.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.config.AdmissionProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+// Filtro de controle de admissão dos endpoints de classificação
+// 1. Rate limit por cliente (token bucket) -> 429 com Retry-After
+//    O cliente é a chave do cabeçalho só quando ela está entre as chaves
+//    configuradas; qualquer outro valor conta pelo IP de origem
+// 2. Concorrência por classe (interativo / lote) com fila limitada
+//    -> 503 com Retry-After quando a fila enche ou a espera esgota
+// A importação de arquivo só passa pelo rate limit: ela responde na hora
+// e a concorrência é limitada pela fila de importações do serviço.
+// A exclusão em massa (DELETE /sentiment/comentarios) conta como lote;
+// leituras (GET) e exclusões individuais não passam por aqui.
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // Classe de endpoint para fins de admissão
+    enum Classe {
+        INTERATIVO,
+        LOTE,
+        IMPORTACAO,
+        LIVRE
+    }
+
+    private final AdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier relogio;
+
+    private final Bulkhead interativo;
+    private final Bulkhead lote;
+    private final Set<String> chaves;
+    private final Map<String, TokenBucket> buckets;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, System::nanoTime);
+    }
+
+    AdmissionControlFilter(AdmissionProperties properties,
+                           ObjectMapper objectMapper,
+                           LongSupplier relogio) {
+
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.relogio = relogio;
+        this.interativo = bulkhead(properties.getInterativo());
+        this.lote = bulkhead(properties.getLote());
+        this.chaves = Set.copyOf(properties.getChaves());
+
+        // Ordem de acesso: acima do limite sai o cliente usado há mais tempo
+        int maxClientes = properties.getMaxClientes();
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> maisAntigo) {
+                return size() > maxClientes;
+            }
+        };
+    }
+
+    private static Bulkhead bulkhead(AdmissionProperties.Pool pool) {
+        return new Bulkhead(pool.getConcorrencia(), pool.getFila(), pool.getEsperaMaxima());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isHabilitado() || classify(request) == Classe.LIVRE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        Classe classe = classify(request);
+        int custo = classe == Classe.INTERATIVO ? 1 : properties.getCustoLote();
+
+        // 1. Rate limit por cliente
+        long espera = bucketFor(clientKey(request)).tryConsume(custo, relogio.getAsLong());
+        if (espera > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, espera,
+                    "Limite de requisições excedido");
+            return;
+        }
+
+        if (classe == Classe.IMPORTACAO) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // 2. Concorrência da classe de endpoint
+        Bulkhead bulkhead = classe == Classe.LOTE ? lote : interativo;
+        AdmissionProperties.Pool pool = classe == Classe.LOTE
+                ? properties.getLote()
+                : properties.getInterativo();
+
+        boolean admitido;
+        try {
+            admitido = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitido = false;
+        }
+
+        if (!admitido) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE,
+                    pool.getEsperaMaxima().toNanos(),
+                    "Serviço sobrecarregado, tente novamente");
+            return;
+        }
+
+        AtomicBoolean liberado = new AtomicBoolean();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Respostas assíncronas (streaming) só liberam a vaga ao terminar
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(bulkhead, liberado));
+            } else if (liberado.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    // Identifica a classe do endpoint pelo método e pelo caminho
+    static Classe classify(HttpServletRequest request) {
+
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        String metodo = request.getMethod();
+
+        if (("POST".equals(metodo) && caminho.startsWith("/sentiment/lote"))
+                || ("DELETE".equals(metodo) && caminho.equals("/sentiment/comentarios"))) {
+            return Classe.LOTE;
+        }
+
+        if ("POST".equals(metodo) && caminho.equals("/sentiment/import")) {
+            return Classe.IMPORTACAO;
+        }
+
+        if (("POST".equals(metodo) && caminho.equals("/sentiment"))
+                || ("PUT".equals(metodo) && caminho.matches("/sentiment/\\d+"))) {
+            return Classe.INTERATIVO;
+        }
+
+        return Classe.LIVRE;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+
+        // Chave desconhecida não ganha bucket próprio
+        String chave = request.getHeader(properties.getCabecalhoChave());
+        if (chave != null && !chave.isBlank() && chaves.contains(chave)) {
+            return "key:" + chave;
+        }
+
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private TokenBucket bucketFor(String cliente) {
+
+        long agora = relogio.getAsLong();
+
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(cliente, c -> new TokenBucket(
+                    properties.getRajada(), properties.getTaxaPorSegundo(), agora));
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status,
+                        long esperaNanos, String mensagem) throws IOException {
+
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L));
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", mensagem));
+    }
+
+    // Libera a vaga quando uma requisição assíncrona termina
+    private record ReleaseListener(Bulkhead bulkhead, AtomicBoolean liberado) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (liberado.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sentimentapi.filters;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limita a concorrência de uma classe de endpoints com fila limitada
+// Quando a fila está cheia a requisição é descartada na hora
+// (load shedding) em vez de esperar e acumular latência.
+final class Bulkhead {
+
+    private final Semaphore vagas;
+    private final int fila;
+    private final Duration esperaMaxima;
+    private final AtomicInteger aguardando = new AtomicInteger();
+
+    Bulkhead(int concorrencia, int fila, Duration esperaMaxima) {
+        this.vagas = new Semaphore(concorrencia, true);
+        this.fila = fila;
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    /**
+     * Tenta obter uma vaga, esperando no máximo esperaMaxima.
+     * Retorna false se a fila estiver cheia ou o tempo esgotar.
+     */
+    boolean tryAcquire() throws InterruptedException {
+
+        if (vagas.tryAcquire()) {
+            return true;
+        }
+
+        if (aguardando.incrementAndGet() > fila) {
+            aguardando.decrementAndGet();
+            return false;
+        }
+
+        try {
+            return vagas.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            aguardando.decrementAndGet();
+        }
+    }
+
+    void release() {
+        vagas.release();
+    }
+
+    int queueDepth() {
+        return aguardando.get();
+    }
+
+    int available() {
+        return vagas.availablePermits();
+    }
+}
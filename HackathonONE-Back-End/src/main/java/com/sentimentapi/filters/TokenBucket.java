@@ -0,0 +1,38 @@
+package com.sentimentapi.filters;
+
+// Token bucket clássico: a capacidade limita rajadas e a taxa de
+// reposição limita a vazão média. O tempo vem de System.nanoTime().
+final class TokenBucket {
+
+    private final double capacidade;
+    private final double taxaPorNano;
+
+    private double tokens;
+    private long ultimaReposicao;
+
+    TokenBucket(double capacidade, double taxaPorSegundo, long agora) {
+        this.capacidade = capacidade;
+        this.taxaPorNano = taxaPorSegundo / 1_000_000_000.0;
+        this.tokens = capacidade;
+        this.ultimaReposicao = agora;
+    }
+
+    /**
+     * Tenta consumir tokens.
+     * Retorna 0 se conseguiu ou o tempo (ns) até haver tokens suficientes.
+     */
+    synchronized long tryConsume(int custo, long agora) {
+
+        tokens = Math.min(capacidade, tokens + (agora - ultimaReposicao) * taxaPorNano);
+        ultimaReposicao = agora;
+
+        if (tokens >= custo) {
+            tokens -= custo;
+            return 0;
+        }
+
+        // Custos acima da capacidade nunca seriam atendidos
+        double faltam = Math.min(custo, capacidade) - tokens;
+        return (long) Math.ceil(faltam / taxaPorNano);
+    }
+}
@@ -0,0 +1,205 @@
+package com.sentimentapi.inference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Identificador de idioma por perfis de trigramas de caracteres.
+ * Cada idioma tem um vetor de log-probabilidades indexado pelo hash do
+ * trigrama; a detecção percorre o texto uma única vez acumulando a
+ * pontuação de cada idioma, sem criar substrings nem coleções.
+ * Os perfis são treinados a partir de textos de exemplo em /idiomas.
+ */
+public final class LanguageDetector {
+
+    // Quantidade de buckets do hash de trigramas (potência de 2)
+    private static final int BUCKETS = 1 << 14;
+
+    // Textos com menos trigramas que isso não são classificados
+    private static final int MIN_TRIGRAMAS = 6;
+
+    // Diferença média mínima de log-probabilidade por trigrama
+    // entre o primeiro e o segundo colocado
+    public static final double MARGEM_MINIMA = 0.05;
+
+    // Ganho médio mínimo de log-probabilidade por trigrama do melhor
+    // perfil sobre a distribuição uniforme. Abaixo disso o texto não se
+    // parece com nenhum idioma treinado (outro idioma, siglas, ruído).
+    // Com os corpora atuais, textos nos idiomas treinados ficam acima
+    // de ~1.6 e alemão, francês, italiano ou holandês abaixo de ~1.3
+    public static final double AJUSTE_MINIMO = 1.4;
+
+    // Log-probabilidade de um trigrama na distribuição uniforme
+    private static final double UNIFORME = -Math.log(BUCKETS);
+
+    private final String[] idiomas;
+    private final float[][] perfis;
+    private final String padrao;
+    private final double margemMinima;
+    private final double ajusteMinimo;
+
+    private LanguageDetector(String[] idiomas, float[][] perfis, String padrao,
+                             double margemMinima, double ajusteMinimo) {
+        this.idiomas = idiomas;
+        this.perfis = perfis;
+        this.padrao = padrao;
+        this.margemMinima = margemMinima;
+        this.ajusteMinimo = ajusteMinimo;
+    }
+
+    /**
+     * Treina os perfis a partir dos arquivos /idiomas/{codigo}.txt do classpath.
+     */
+    public static LanguageDetector fromClasspath(List<String> codigos, String padrao) {
+        return fromClasspath(codigos, padrao, MARGEM_MINIMA, AJUSTE_MINIMO);
+    }
+
+    /**
+     * Como {@link #fromClasspath(List, String)}, com os limiares de rejeição
+     * informados: textos ambíguos entre dois idiomas ({@code margemMinima})
+     * ou distantes de todos ({@code ajusteMinimo}) ficam com o idioma padrão.
+     */
+    public static LanguageDetector fromClasspath(List<String> codigos, String padrao,
+                                                 double margemMinima, double ajusteMinimo) {
+
+        String[] idiomas = codigos.toArray(String[]::new);
+        float[][] perfis = new float[idiomas.length][];
+
+        for (int i = 0; i < idiomas.length; i++) {
+            String recurso = "/idiomas/" + idiomas[i] + ".txt";
+            try (InputStream in = LanguageDetector.class.getResourceAsStream(recurso)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Perfil de idioma não encontrado: " + recurso);
+                }
+                perfis[i] = train(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException("Erro ao ler perfil de idioma " + recurso, e);
+            }
+        }
+
+        return new LanguageDetector(idiomas, perfis, padrao, margemMinima, ajusteMinimo);
+    }
+
+    // Conta os trigramas do corpus e converte para log-probabilidade
+    // com suavização de Laplace
+    static float[] train(String corpus) {
+
+        int[] contagem = new int[BUCKETS];
+        int[] total = new int[1];
+
+        forEachTrigram(corpus, bucket -> {
+            contagem[bucket]++;
+            total[0]++;
+        });
+
+        float[] perfil = new float[BUCKETS];
+        double denominador = total[0] + (double) BUCKETS;
+        for (int b = 0; b < BUCKETS; b++) {
+            perfil[b] = (float) Math.log((contagem[b] + 1) / denominador);
+        }
+
+        return perfil;
+    }
+
+    public List<String> languages() {
+        return List.of(idiomas);
+    }
+
+    public String defaultLanguage() {
+        return padrao;
+    }
+
+    /**
+     * Retorna o código do idioma mais provável do texto, ou o idioma
+     * padrão quando o texto é curto, ambíguo ou não se parece com
+     * nenhum dos idiomas treinados.
+     */
+    public String detect(String text) {
+
+        if (text == null) {
+            return padrao;
+        }
+
+        double[] pontuacao = new double[idiomas.length];
+        int trigramas = forEachTrigram(text, bucket -> {
+            for (int i = 0; i < perfis.length; i++) {
+                pontuacao[i] += perfis[i][bucket];
+            }
+        });
+
+        if (trigramas < MIN_TRIGRAMAS) {
+            return padrao;
+        }
+
+        int melhor = 0;
+        int segundo = -1;
+        for (int i = 1; i < pontuacao.length; i++) {
+            if (pontuacao[i] > pontuacao[melhor]) {
+                segundo = melhor;
+                melhor = i;
+            } else if (segundo < 0 || pontuacao[i] > pontuacao[segundo]) {
+                segundo = i;
+            }
+        }
+
+        if (pontuacao[melhor] / trigramas - UNIFORME < ajusteMinimo) {
+            return padrao;
+        }
+
+        if (segundo >= 0
+                && (pontuacao[melhor] - pontuacao[segundo]) / trigramas < margemMinima) {
+            return padrao;
+        }
+
+        return idiomas[melhor];
+    }
+
+    @FunctionalInterface
+    private interface TrigramConsumer {
+        void accept(int bucket);
+    }
+
+    // Percorre os trigramas do texto normalizado (minúsculas, sem pontuação,
+    // espaços colapsados e bordas de palavra marcadas com espaço).
+    // Retorna a quantidade de trigramas visitados.
+    private static int forEachTrigram(CharSequence text, TrigramConsumer consumer) {
+
+        char a = ' ';
+        char b = ' ';
+        int visitados = 0;
+
+        for (int i = 0; i <= text.length(); i++) {
+
+            char c = i < text.length() ? normalize(text.charAt(i)) : ' ';
+
+            // Colapsa sequências de separadores
+            if (c == ' ' && b == ' ') {
+                continue;
+            }
+
+            if (!(a == ' ' && b == ' ')) {
+                consumer.accept(bucket(a, b, c));
+                visitados++;
+            }
+
+            a = b;
+            b = c;
+        }
+
+        return visitados;
+    }
+
+    private static char normalize(char c) {
+        return Character.isLetter(c) ? Character.toLowerCase(c) : ' ';
+    }
+
+    private static int bucket(char a, char b, char c) {
+        int h = (a * 31 + b) * 31 + c;
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        h ^= h >>> 16;
+        return h & (BUCKETS - 1);
+    }
+}
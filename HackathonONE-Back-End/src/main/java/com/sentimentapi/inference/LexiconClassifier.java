@@ -0,0 +1,139 @@
+package com.sentimentapi.inference;
+
+import com.sentimentapi.entities.SentimentPrediction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Classificador por léxico: soma o peso das palavras conhecidas,
+ * invertendo o sinal das palavras logo após um negador ("não recomendo")
+ * e ampliando a palavra após um intensificador ("muito ruim").
+ * A probabilidade é a logística do módulo da soma: textos sem nenhuma
+ * palavra do léxico saem com probabilidade 0.5 e rótulo "Neutro".
+ * Barato o bastante para rodar antes de toda chamada ao modelo remoto.
+ */
+public final class LexiconClassifier {
+
+    // Palavras afetadas por um negador
+    private static final int ALCANCE_NEGACAO = 3;
+
+    private static final double FATOR_INTENSIFICADOR = 1.5;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final Map<String, Double> pesos;
+    private final Set<String> negadores;
+    private final Set<String> intensificadores;
+
+    private LexiconClassifier(Map<String, Double> pesos, Set<String> negadores, Set<String> intensificadores) {
+        this.pesos = pesos;
+        this.negadores = negadores;
+        this.intensificadores = intensificadores;
+    }
+
+    /**
+     * Lê o léxico do classpath (ex.: /lexico/pt.txt).
+     */
+    public static LexiconClassifier fromClasspath(String recurso) {
+
+        try (InputStream in = LexiconClassifier.class.getResourceAsStream(recurso)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Léxico não encontrado: " + recurso);
+            }
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao ler léxico " + recurso, e);
+        }
+    }
+
+    static LexiconClassifier parse(String conteudo) {
+
+        Map<String, Double> pesos = new HashMap<>();
+        Set<String> negadores = new HashSet<>();
+        Set<String> intensificadores = new HashSet<>();
+
+        for (String linha : conteudo.split("\n")) {
+
+            linha = linha.strip();
+            if (linha.isEmpty() || linha.startsWith("#")) {
+                continue;
+            }
+
+            String[] partes = linha.split("\\s+");
+            if (partes[0].equals("@negador")) {
+                for (int i = 1; i < partes.length; i++) {
+                    negadores.add(normalize(partes[i]));
+                }
+            } else if (partes[0].equals("@intensificador")) {
+                for (int i = 1; i < partes.length; i++) {
+                    intensificadores.add(normalize(partes[i]));
+                }
+            } else {
+                pesos.put(normalize(partes[0]), Double.parseDouble(partes[1]));
+            }
+        }
+
+        return new LexiconClassifier(pesos, negadores, intensificadores);
+    }
+
+    public SentimentPrediction predict(String text) {
+
+        double soma = score(text);
+
+        if (soma == 0) {
+            return new SentimentPrediction("Neutro", 0.5);
+        }
+        double probabilidade = 1.0 / (1.0 + Math.exp(-Math.abs(soma)));
+        return new SentimentPrediction(soma > 0 ? "Positivo" : "Negativo", probabilidade);
+    }
+
+    // Soma dos pesos com negação e intensificação
+    double score(String text) {
+
+        List<String> palavras = TextTokenizer.words(text);
+
+        double soma = 0;
+        int negadas = 0;
+        double fator = 1.0;
+
+        for (String palavra : palavras) {
+
+            String chave = normalize(palavra);
+
+            if (negadores.contains(chave)) {
+                negadas = ALCANCE_NEGACAO;
+                continue;
+            }
+            if (intensificadores.contains(chave)) {
+                fator = FATOR_INTENSIFICADOR;
+                continue;
+            }
+
+            Double peso = pesos.get(chave);
+            if (peso != null) {
+                soma += (negadas > 0 ? -peso : peso) * fator;
+                // A negação vale até a primeira palavra com sentimento
+                negadas = 0;
+            } else if (negadas > 0) {
+                negadas--;
+            }
+            fator = 1.0;
+        }
+
+        return soma;
+    }
+
+    // Sem acentos, para casar "pessimo" e "péssimo"
+    private static String normalize(String palavra) {
+        return MARCAS.matcher(Normalizer.normalize(palavra, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
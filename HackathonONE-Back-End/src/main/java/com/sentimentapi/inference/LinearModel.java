@@ -0,0 +1,59 @@
+package com.sentimentapi.inference;
+
+import java.util.Arrays;
+
+// Modelo linear multiclasse (ex.: regressão logística sobre TF-IDF)
+// Os pesos ficam em um único vetor "achatado" por classe:
+// o peso da feature f na classe c está em weights[c * numFeatures + f].
+// Esse layout permite o gather direto pelos índices esparsos.
+public final class LinearModel {
+
+    private final String[] labels;
+    private final int numFeatures;
+    private final float[] weights;
+    private final float[] intercepts;
+
+    public LinearModel(String[] labels, int numFeatures,
+                       float[] weights, float[] intercepts) {
+
+        if (labels.length == 0) {
+            throw new IllegalArgumentException("O modelo precisa de ao menos uma classe");
+        }
+        if (weights.length != labels.length * numFeatures) {
+            throw new IllegalArgumentException("Quantidade de pesos incompatível com classes x features");
+        }
+        if (intercepts.length != labels.length) {
+            throw new IllegalArgumentException("Quantidade de interceptos incompatível com as classes");
+        }
+
+        this.labels = labels.clone();
+        this.numFeatures = numFeatures;
+        this.weights = weights;
+        this.intercepts = intercepts;
+    }
+
+    public int numClasses() {
+        return labels.length;
+    }
+
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    public String label(int classe) {
+        return labels[classe];
+    }
+
+    public String[] labels() {
+        return Arrays.copyOf(labels, labels.length);
+    }
+
+    // Acesso direto ao vetor de pesos (sem cópia) usado pelos kernels
+    float[] weights() {
+        return weights;
+    }
+
+    float[] intercepts() {
+        return intercepts;
+    }
+}
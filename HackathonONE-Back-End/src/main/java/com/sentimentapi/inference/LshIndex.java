@@ -0,0 +1,196 @@
+package com.sentimentapi.inference;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Índice LSH (banding) sobre assinaturas MinHash.
+ * A assinatura é dividida em "bandas" de "linhas"; dois textos viram
+ * candidatos quando alguma banda inteira coincide. Entre os candidatos,
+ * vence o de maior similaridade estimada acima do limiar.
+ *
+ * A memória é limitada pela capacidade máxima de entradas e pela idade
+ * máxima: as entradas mais antigas são removidas primeiro (FIFO).
+ * Os métodos são sincronizados; as seções críticas são curtas.
+ */
+public final class LshIndex<T> {
+
+    private final int bandas;
+    private final int linhas;
+    private final double limiar;
+    private final int capacidade;
+    private final Duration idadeMaxima;
+    private final Clock clock;
+
+    private final Map<Long, List<Entry<T>>> buckets = new HashMap<>();
+    private final ArrayDeque<Entry<T>> porIdade = new ArrayDeque<>();
+
+    public LshIndex(int bandas, int linhas, double limiar,
+                    int capacidade, Duration idadeMaxima, Clock clock) {
+
+        if (bandas <= 0 || linhas <= 0 || capacidade <= 0) {
+            throw new IllegalArgumentException("Parâmetros de LSH devem ser positivos");
+        }
+
+        this.bandas = bandas;
+        this.linhas = linhas;
+        this.limiar = limiar;
+        this.capacidade = capacidade;
+        this.idadeMaxima = idadeMaxima;
+        this.clock = clock;
+    }
+
+    // Tamanho de assinatura esperado: bandas x linhas
+    public int signatureSize() {
+        return bandas * linhas;
+    }
+
+    /**
+     * Resultado de uma busca: o valor associado e a similaridade estimada.
+     */
+    public record Match<T>(T value, double similarity) {
+    }
+
+    private static final class Entry<T> {
+        final int[] assinatura;
+        final T valor;
+        final Instant criadoEm;
+        boolean removido;
+
+        Entry(int[] assinatura, T valor, Instant criadoEm) {
+            this.assinatura = assinatura;
+            this.valor = valor;
+            this.criadoEm = criadoEm;
+        }
+    }
+
+    /**
+     * Retorna o vizinho mais parecido com similaridade >= limiar.
+     */
+    public synchronized Optional<Match<T>> findSimilar(int[] assinatura) {
+
+        checkSize(assinatura);
+        evictExpired();
+
+        Entry<T> melhor = null;
+        double melhorSimilaridade = limiar;
+
+        for (int b = 0; b < bandas; b++) {
+            List<Entry<T>> candidatos = buckets.get(bandKey(assinatura, b));
+            if (candidatos == null) {
+                continue;
+            }
+            for (Entry<T> candidato : candidatos) {
+                double similaridade = MinHasher.similarity(assinatura, candidato.assinatura);
+                if (similaridade >= melhorSimilaridade) {
+                    melhor = candidato;
+                    melhorSimilaridade = similaridade;
+                }
+            }
+        }
+
+        return melhor == null
+                ? Optional.empty()
+                : Optional.of(new Match<>(melhor.valor, melhorSimilaridade));
+    }
+
+    /**
+     * Adiciona uma assinatura ao índice, removendo as entradas
+     * mais antigas se a capacidade for ultrapassada.
+     */
+    public synchronized void add(int[] assinatura, T valor) {
+
+        checkSize(assinatura);
+
+        Entry<T> entry = new Entry<>(assinatura, valor, clock.instant());
+        for (int b = 0; b < bandas; b++) {
+            buckets.computeIfAbsent(bandKey(assinatura, b), k -> new ArrayList<>(1)).add(entry);
+        }
+        porIdade.addLast(entry);
+
+        while (porIdade.size() > capacidade) {
+            unlink(porIdade.pollFirst());
+        }
+        evictExpired();
+    }
+
+    /**
+     * Remove as entradas cujo valor satisfaz o predicado.
+     */
+    public synchronized int removeIf(Predicate<T> filtro) {
+
+        int removidos = 0;
+        Iterator<Entry<T>> it = porIdade.iterator();
+        while (it.hasNext()) {
+            Entry<T> entry = it.next();
+            if (filtro.test(entry.valor)) {
+                it.remove();
+                unlink(entry);
+                removidos++;
+            }
+        }
+
+        return removidos;
+    }
+
+    public synchronized int size() {
+        return porIdade.size();
+    }
+
+    private void evictExpired() {
+
+        if (idadeMaxima == null) {
+            return;
+        }
+
+        Instant limite = clock.instant().minus(idadeMaxima);
+        while (!porIdade.isEmpty() && porIdade.peekFirst().criadoEm.isBefore(limite)) {
+            unlink(porIdade.pollFirst());
+        }
+    }
+
+    private void unlink(Entry<T> entry) {
+
+        if (entry.removido) {
+            return;
+        }
+        entry.removido = true;
+
+        for (int b = 0; b < bandas; b++) {
+            long chave = bandKey(entry.assinatura, b);
+            List<Entry<T>> bucket = buckets.get(chave);
+            if (bucket != null) {
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    buckets.remove(chave);
+                }
+            }
+        }
+    }
+
+    // Combina as linhas da banda (e o número da banda) em uma chave de 64 bits
+    private long bandKey(int[] assinatura, int banda) {
+
+        long h = banda * 0x9E3779B97F4A7C15L;
+        int inicio = banda * linhas;
+        for (int i = inicio; i < inicio + linhas; i++) {
+            h = (h ^ assinatura[i]) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    private void checkSize(int[] assinatura) {
+        if (assinatura.length != signatureSize()) {
+            throw new IllegalArgumentException("Assinatura com tamanho diferente de bandas x linhas");
+        }
+    }
+}
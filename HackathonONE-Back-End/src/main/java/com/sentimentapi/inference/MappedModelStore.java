@@ -0,0 +1,282 @@
+package com.sentimentapi.inference;
+
+import com.sentimentapi.entities.SentimentPrediction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modelo TF-IDF + linear lido diretamente de um arquivo mapeado em memória.
+ * Nada do vocabulário ou dos pesos é copiado para o heap: as páginas
+ * ficam no page cache do sistema operacional e são compartilhadas entre
+ * processos que abrem o mesmo arquivo. A abertura é instantânea.
+ *
+ * Formato (little-endian), gerado por MappedModelWriter:
+ * <pre>
+ * int magic, version, numFeatures, numClasses, ngramMax, reservado
+ * long posOffsets, posTermos, posIdf, posPesos, posInterceptos, posLabels
+ * int[numFeatures + 1]        offsets dos termos (tabela ordenada de strings)
+ * byte[]                      termos UTF-8 ordenados, concatenados
+ * float[numFeatures]          idf
+ * float[numClasses][numFeatures] pesos por classe
+ * float[numClasses]           interceptos
+ * (short, byte[])[numClasses] rótulos
+ * </pre>
+ */
+public final class MappedModelStore implements Closeable {
+
+    static final int MAGIC = 0x4C444D53; // "SMDL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 6 * 4 + 6 * 8;
+
+    private final FileChannel channel;
+    private final int numFeatures;
+    private final int ngramMax;
+    private final String[] labels;
+    private final float[] intercepts;
+
+    private final IntBuffer offsets;
+    private final ByteBuffer termos;
+    private final FloatBuffer idf;
+    private final FloatBuffer[] pesos;
+
+    private MappedModelStore(FileChannel channel) throws IOException {
+
+        this.channel = channel;
+
+        ByteBuffer header = map(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Arquivo não é um modelo SMDL");
+        }
+        if (header.getInt() != VERSION) {
+            throw new IOException("Versão de modelo não suportada");
+        }
+
+        numFeatures = header.getInt();
+        int numClasses = header.getInt();
+        ngramMax = header.getInt();
+        header.getInt();
+
+        long posOffsets = header.getLong();
+        long posTermos = header.getLong();
+        long posIdf = header.getLong();
+        long posPesos = header.getLong();
+        long posInterceptos = header.getLong();
+        long posLabels = header.getLong();
+
+        offsets = map(posOffsets, 4L * (numFeatures + 1)).asIntBuffer();
+        termos = map(posTermos, offsets.get(numFeatures));
+        idf = map(posIdf, 4L * numFeatures).asFloatBuffer();
+
+        // Cada classe é mapeada separadamente: um único mapeamento
+        // é limitado a 2GB e vocabulários grandes passam disso
+        pesos = new FloatBuffer[numClasses];
+        for (int c = 0; c < numClasses; c++) {
+            pesos[c] = map(posPesos + 4L * numFeatures * c, 4L * numFeatures).asFloatBuffer();
+        }
+
+        // Interceptos e rótulos são minúsculos: ficam no heap
+        intercepts = new float[numClasses];
+        map(posInterceptos, 4L * numClasses).asFloatBuffer().get(intercepts);
+
+        labels = new String[numClasses];
+        ByteBuffer blocoLabels = map(posLabels, channel.size() - posLabels);
+        for (int c = 0; c < numClasses; c++) {
+            byte[] label = new byte[blocoLabels.getShort()];
+            blocoLabels.get(label);
+            labels[c] = new String(label, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Abre (mapeia) o arquivo do modelo em modo somente leitura.
+     */
+    public static MappedModelStore open(Path arquivo) throws IOException {
+
+        FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            return new MappedModelStore(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer map(long posicao, long tamanho) throws IOException {
+
+        if (tamanho > Integer.MAX_VALUE) {
+            throw new IOException("Seção do modelo excede 2GB");
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, posicao, tamanho);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    public int numClasses() {
+        return labels.length;
+    }
+
+    public int ngramMax() {
+        return ngramMax;
+    }
+
+    public String label(int classe) {
+        return labels[classe];
+    }
+
+    public float idf(int feature) {
+        return idf.get(feature);
+    }
+
+    public float weight(int classe, int feature) {
+        return pesos[classe].get(feature);
+    }
+
+    /**
+     * Busca binária na tabela ordenada de termos.
+     * Retorna o índice da feature ou -1 se o termo não está no vocabulário.
+     */
+    public int indexOf(String termo) {
+
+        byte[] chave = termo.getBytes(StandardCharsets.UTF_8);
+
+        int baixo = 0;
+        int alto = numFeatures - 1;
+
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int cmp = compareTerm(meio, chave);
+            if (cmp < 0) {
+                baixo = meio + 1;
+            } else if (cmp > 0) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+
+        return -1;
+    }
+
+    // Compara o termo mapeado com a chave byte a byte (sem sinal)
+    private int compareTerm(int feature, byte[] chave) {
+
+        int inicio = offsets.get(feature);
+        int tamanho = offsets.get(feature + 1) - inicio;
+        int minimo = Math.min(tamanho, chave.length);
+
+        for (int i = 0; i < minimo; i++) {
+            int cmp = Byte.compareUnsigned(termos.get(inicio + i), chave[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+
+        return Integer.compare(tamanho, chave.length);
+    }
+
+    /**
+     * Transforma o texto em TF-IDF normalizado (L2),
+     * como o TfidfVectorizer.transform do scikit-learn.
+     */
+    public SparseVector vectorize(String text) {
+
+        List<String> termosTexto = TextTokenizer.terms(text, ngramMax);
+        Map<Integer, Integer> contagem = new HashMap<>();
+
+        for (String termo : termosTexto) {
+            int feature = indexOf(termo);
+            if (feature >= 0) {
+                contagem.merge(feature, 1, Integer::sum);
+            }
+        }
+
+        int[] indices = new int[contagem.size()];
+        int k = 0;
+        for (Integer feature : contagem.keySet()) {
+            indices[k++] = feature;
+        }
+        // Índices ordenados melhoram a localidade dos acessos aos pesos
+        Arrays.sort(indices);
+
+        float[] valores = new float[indices.length];
+        double norma = 0.0;
+        for (int i = 0; i < indices.length; i++) {
+            valores[i] = contagem.get(indices[i]) * idf(indices[i]);
+            norma += (double) valores[i] * valores[i];
+        }
+
+        if (norma > 0) {
+            float inverso = (float) (1.0 / Math.sqrt(norma));
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] *= inverso;
+            }
+        }
+
+        return new SparseVector(indices, valores);
+    }
+
+    /**
+     * Vetoriza e pontua o texto lendo os pesos direto do arquivo mapeado.
+     */
+    public SentimentPrediction predict(String text) {
+        return predictAll(List.of(text)).get(0);
+    }
+
+    /**
+     * Pontua os textos em um único lote CSR, com o melhor kernel
+     * disponível (ScoringKernels), direto sobre os pesos mapeados.
+     */
+    public List<SentimentPrediction> predictAll(List<String> texts) {
+
+        SparseBatch.Builder lote = new SparseBatch.Builder();
+        for (String text : texts) {
+            SparseVector x = vectorize(text);
+            lote.addRow(x.indices(), x.values());
+        }
+
+        int[] rotulos = new int[texts.size()];
+        double[] probabilidades = new double[texts.size()];
+        ScoringKernels.best().score(this, lote.build(), rotulos, probabilidades);
+
+        List<SentimentPrediction> previsoes = new ArrayList<>(texts.size());
+        for (int r = 0; r < texts.size(); r++) {
+            previsoes.add(new SentimentPrediction(labels[rotulos[r]], probabilidades[r]));
+        }
+        return previsoes;
+    }
+
+    // Pesos mapeados de uma classe; os kernels só fazem leituras
+    // absolutas, que não mexem na posição e podem ser concorrentes
+    FloatBuffer weights(int classe) {
+        return pesos[classe];
+    }
+
+    float[] intercepts() {
+        return intercepts;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Os mapeamentos continuam válidos até serem coletados pelo GC
+        channel.close();
+    }
+}
@@ -0,0 +1,171 @@
+package com.sentimentapi.inference;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+// Grava um modelo TF-IDF + linear no formato binário lido pelo MappedModelStore
+// Os termos são ordenados pelos bytes UTF-8 e o índice de cada feature
+// passa a ser sua posição nessa ordem (idf e pesos são permutados juntos).
+public final class MappedModelWriter {
+
+    private MappedModelWriter() {
+    }
+
+    /**
+     * Grava o arquivo do modelo.
+     *
+     * @param vocabulary termo -> coluna original do vetorizador
+     * @param idf        idf por coluna original
+     * @param coef       pesos [classe][coluna original]
+     */
+    public static void write(Path destino, String[] labels, int ngramMax,
+                             Map<String, Integer> vocabulary, float[] idf,
+                             float[][] coef, float[] intercepts) throws IOException {
+
+        int numFeatures = vocabulary.size();
+        int numClasses = labels.length;
+
+        byte[][] termos = new byte[numFeatures][];
+        int[] colunaOriginal = new int[numFeatures];
+        Integer[] ordem = new Integer[numFeatures];
+
+        int k = 0;
+        for (Map.Entry<String, Integer> entry : vocabulary.entrySet()) {
+            termos[k] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            colunaOriginal[k] = entry.getValue();
+            ordem[k] = k;
+            k++;
+        }
+
+        Arrays.sort(ordem, Comparator.comparing(i -> termos[i], Arrays::compareUnsigned));
+
+        // Tabela de offsets: numFeatures + 1 posições relativas ao bloco de bytes
+        int[] offsets = new int[numFeatures + 1];
+        long totalBytes = 0;
+        for (int i = 0; i < numFeatures; i++) {
+            offsets[i] = (int) totalBytes;
+            totalBytes += termos[ordem[i]].length;
+        }
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Vocabulário excede 2GB de texto");
+        }
+        offsets[numFeatures] = (int) totalBytes;
+
+        byte[][] labelsUtf8 = new byte[numClasses][];
+        long tamanhoLabels = 0;
+        for (int c = 0; c < numClasses; c++) {
+            labelsUtf8[c] = labels[c].getBytes(StandardCharsets.UTF_8);
+            tamanhoLabels += 2 + labelsUtf8[c].length;
+        }
+
+        long posOffsets = MappedModelStore.HEADER_SIZE;
+        long posTermos = posOffsets + 4L * (numFeatures + 1);
+        long posIdf = align(posTermos + totalBytes);
+        long posPesos = posIdf + 4L * numFeatures;
+        long posInterceptos = posPesos + 4L * numFeatures * numClasses;
+        long posLabels = posInterceptos + 4L * numClasses;
+
+        try (LittleEndianOutput out =
+                     new LittleEndianOutput(Files.newOutputStream(destino))) {
+
+            out.writeInt(MappedModelStore.MAGIC);
+            out.writeInt(MappedModelStore.VERSION);
+            out.writeInt(numFeatures);
+            out.writeInt(numClasses);
+            out.writeInt(ngramMax);
+            out.writeInt(0);
+            out.writeLong(posOffsets);
+            out.writeLong(posTermos);
+            out.writeLong(posIdf);
+            out.writeLong(posPesos);
+            out.writeLong(posInterceptos);
+            out.writeLong(posLabels);
+
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            for (int i = 0; i < numFeatures; i++) {
+                out.write(termos[ordem[i]]);
+            }
+            out.pad(posIdf - (posTermos + totalBytes));
+
+            for (int i = 0; i < numFeatures; i++) {
+                out.writeFloat(idf[colunaOriginal[ordem[i]]]);
+            }
+            for (int c = 0; c < numClasses; c++) {
+                for (int i = 0; i < numFeatures; i++) {
+                    out.writeFloat(coef[c][colunaOriginal[ordem[i]]]);
+                }
+            }
+            for (float intercept : intercepts) {
+                out.writeFloat(intercept);
+            }
+            for (byte[] label : labelsUtf8) {
+                out.writeShort(label.length);
+                out.write(label);
+            }
+        }
+    }
+
+    // Alinha as seções de float em 8 bytes
+    private static long align(long posicao) {
+        return (posicao + 7) & ~7L;
+    }
+
+    // Saída bufferizada em little-endian, a ordem nativa das CPUs x86/ARM
+    // (DataOutputStream só grava em big-endian)
+    private static final class LittleEndianOutput implements Closeable {
+
+        private final OutputStream out;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+
+        LittleEndianOutput(OutputStream out) {
+            this.out = new BufferedOutputStream(out, 1 << 16);
+        }
+
+        void write(byte[] bytes) throws IOException {
+            out.write(bytes);
+        }
+
+        void writeInt(int v) throws IOException {
+            buffer.putInt(0, v);
+            out.write(buffer.array(), 0, 4);
+        }
+
+        void writeLong(long v) throws IOException {
+            buffer.putLong(0, v);
+            out.write(buffer.array(), 0, 8);
+        }
+
+        void writeFloat(float v) throws IOException {
+            buffer.putFloat(0, v);
+            out.write(buffer.array(), 0, 4);
+        }
+
+        void writeShort(int v) throws IOException {
+            buffer.putShort(0, (short) v);
+            out.write(buffer.array(), 0, 2);
+        }
+
+        void pad(long bytes) throws IOException {
+            for (long i = 0; i < bytes; i++) {
+                out.write(0);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.sentimentapi.inference;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Assinaturas MinHash sobre shingles de caracteres.
+ * A fração de posições iguais entre duas assinaturas estima a
+ * similaridade de Jaccard entre os conjuntos de shingles dos textos.
+ */
+public final class MinHasher {
+
+    private final int tamanhoShingle;
+    private final long[] sementes;
+
+    public MinHasher(int numHashes, int tamanhoShingle, long seed) {
+
+        if (numHashes <= 0 || tamanhoShingle <= 0) {
+            throw new IllegalArgumentException("Parâmetros de MinHash devem ser positivos");
+        }
+
+        this.tamanhoShingle = tamanhoShingle;
+        this.sementes = new long[numHashes];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < numHashes; i++) {
+            sementes[i] = random.nextLong();
+        }
+    }
+
+    public int numHashes() {
+        return sementes.length;
+    }
+
+    /**
+     * Calcula a assinatura do texto.
+     * O texto é normalizado (minúsculas, só letras e dígitos, espaços
+     * colapsados) para que variações de pontuação não contem como diferença.
+     */
+    public int[] signature(String text) {
+
+        char[] normalizado = normalize(text);
+
+        long[] minimos = new long[sementes.length];
+        Arrays.fill(minimos, Long.MAX_VALUE);
+
+        int janelas = Math.max(1, normalizado.length - tamanhoShingle + 1);
+        int tamanho = Math.min(tamanhoShingle, normalizado.length);
+
+        for (int inicio = 0; inicio < janelas; inicio++) {
+
+            long shingle = 1125899906842597L;
+            for (int i = inicio; i < inicio + tamanho; i++) {
+                shingle = 31 * shingle + normalizado[i];
+            }
+
+            for (int h = 0; h < sementes.length; h++) {
+                long valor = mix(shingle ^ sementes[h]);
+                if (valor < minimos[h]) {
+                    minimos[h] = valor;
+                }
+            }
+        }
+
+        int[] assinatura = new int[sementes.length];
+        for (int h = 0; h < sementes.length; h++) {
+            assinatura[h] = (int) (minimos[h] ^ (minimos[h] >>> 32));
+        }
+
+        return assinatura;
+    }
+
+    /**
+     * Similaridade de Jaccard estimada entre duas assinaturas.
+     */
+    public static double similarity(int[] a, int[] b) {
+
+        int iguais = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                iguais++;
+            }
+        }
+
+        return (double) iguais / a.length;
+    }
+
+    private static char[] normalize(String text) {
+
+        StringBuilder sb = new StringBuilder(text == null ? 0 : text.length());
+        boolean espaco = true;
+
+        if (text != null) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    sb.append(Character.toLowerCase(c));
+                    espaco = false;
+                } else if (!espaco) {
+                    sb.append(' ');
+                    espaco = true;
+                }
+            }
+        }
+
+        int fim = sb.length();
+        if (fim > 0 && sb.charAt(fim - 1) == ' ') {
+            fim--;
+        }
+
+        char[] resultado = new char[fim];
+        sb.getChars(0, fim, resultado, 0);
+        return resultado;
+    }
+
+    // Finalizador do SplitMix64: espalha bem os bits do hash do shingle
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,78 @@
+package com.sentimentapi.inference;
+
+import java.nio.FloatBuffer;
+
+// Implementação escalar de referência
+// Usada quando o Vector API não está disponível na JVM
+// e como base de comparação nos testes e no benchmark.
+public final class ScalarScoringKernel implements ScoringKernel {
+
+    @Override
+    public void score(LinearModel model, SparseBatch batch,
+                      int[] labelsOut, double[] probabilitiesOut) {
+
+        int numClasses = model.numClasses();
+        int numFeatures = model.numFeatures();
+        float[] weights = model.weights();
+        float[] intercepts = model.intercepts();
+
+        int[] rowOffsets = batch.rowOffsets();
+        int[] indices = batch.indices();
+        float[] values = batch.values();
+
+        float[] logits = new float[numClasses];
+
+        for (int r = 0; r < batch.rows(); r++) {
+
+            int inicio = rowOffsets[r];
+            int fim = rowOffsets[r + 1];
+
+            for (int c = 0; c < numClasses; c++) {
+                int base = c * numFeatures;
+                float soma = intercepts[c];
+                for (int i = inicio; i < fim; i++) {
+                    soma += weights[base + indices[i]] * values[i];
+                }
+                logits[c] = soma;
+            }
+
+            Softmax.argmax(logits, r, labelsOut, probabilitiesOut);
+        }
+    }
+
+    @Override
+    public void score(MappedModelStore model, SparseBatch batch,
+                      int[] labelsOut, double[] probabilitiesOut) {
+
+        int numClasses = model.numClasses();
+        float[] intercepts = model.intercepts();
+
+        int[] rowOffsets = batch.rowOffsets();
+        int[] indices = batch.indices();
+        float[] values = batch.values();
+
+        float[] logits = new float[numClasses];
+
+        for (int r = 0; r < batch.rows(); r++) {
+
+            int inicio = rowOffsets[r];
+            int fim = rowOffsets[r + 1];
+
+            for (int c = 0; c < numClasses; c++) {
+                FloatBuffer w = model.weights(c);
+                float soma = intercepts[c];
+                for (int i = inicio; i < fim; i++) {
+                    soma += w.get(indices[i]) * values[i];
+                }
+                logits[c] = soma;
+            }
+
+            Softmax.argmax(logits, r, labelsOut, probabilitiesOut);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,43 @@
+package com.sentimentapi.inference;
+
+import com.sentimentapi.entities.SentimentPrediction;
+
+// Kernel de pontuação de um modelo linear sobre features esparsas
+// Para cada linha calcula os logits de todas as classes e aplica
+// um softmax "fundido": só a classe vencedora e sua probabilidade
+// são materializadas, no mesmo formato que o microserviço Python
+// devolve em "previsao" / "probabilidade".
+public interface ScoringKernel {
+
+    /**
+     * Pontua todas as linhas do lote.
+     * labelsOut[r] recebe o índice da classe vencedora da linha r e
+     * probabilitiesOut[r] a probabilidade softmax dessa classe.
+     */
+    void score(LinearModel model, SparseBatch batch,
+               int[] labelsOut, double[] probabilitiesOut);
+
+    /**
+     * Mesmo cálculo lendo os pesos direto do arquivo mapeado,
+     * sem copiá-los para o heap.
+     */
+    void score(MappedModelStore model, SparseBatch batch,
+               int[] labelsOut, double[] probabilitiesOut);
+
+    // Nome usado em logs e benchmarks
+    String name();
+
+    /**
+     * Atalho para pontuar uma única linha e já devolver a previsão.
+     */
+    default SentimentPrediction predict(LinearModel model,
+                                        int[] indices, float[] values) {
+
+        int[] label = new int[1];
+        double[] probability = new double[1];
+
+        score(model, SparseBatch.ofRow(indices, values), label, probability);
+
+        return new SentimentPrediction(model.label(label[0]), probability[0]);
+    }
+}
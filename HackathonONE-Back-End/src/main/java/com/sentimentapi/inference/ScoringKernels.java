@@ -0,0 +1,56 @@
+package com.sentimentapi.inference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Seleciona o melhor kernel disponível na JVM atual
+// Usa o kernel SIMD quando o módulo jdk.incubator.vector foi adicionado
+// (--add-modules jdk.incubator.vector) e a CPU tem lanes suficientes;
+// caso contrário, cai para a implementação escalar.
+public final class ScoringKernels {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoringKernels.class);
+
+    // Permite forçar o caminho escalar: -Dsentiment.scoring.simd=false
+    private static final String PROPRIEDADE_SIMD = "sentiment.scoring.simd";
+
+    private static volatile ScoringKernel melhor;
+
+    private ScoringKernels() {
+    }
+
+    public static ScoringKernel scalar() {
+        return new ScalarScoringKernel();
+    }
+
+    public static boolean simdAvailable() {
+
+        if (!Boolean.parseBoolean(System.getProperty(PROPRIEDADE_SIMD, "true"))) {
+            return false;
+        }
+
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+
+        try {
+            return VectorScoringKernel.supported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Retorna (e memoriza) o kernel mais rápido suportado.
+     */
+    public static ScoringKernel best() {
+
+        ScoringKernel kernel = melhor;
+        if (kernel == null) {
+            kernel = simdAvailable() ? new VectorScoringKernel() : scalar();
+            log.info("Kernel de pontuação selecionado: {}", kernel.name());
+            melhor = kernel;
+        }
+        return kernel;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sentimentapi.inference;
+
+// Softmax numericamente estável restrito à classe vencedora:
+// p(max) = 1 / sum(exp(logit_i - logit_max))
+// Evita alocar o vetor completo de probabilidades por linha.
+final class Softmax {
+
+    private Softmax() {
+    }
+
+    static void argmax(float[] logits, int row,
+                       int[] labelsOut, double[] probabilitiesOut) {
+
+        int melhor = 0;
+        float maximo = logits[0];
+        for (int c = 1; c < logits.length; c++) {
+            if (logits[c] > maximo) {
+                maximo = logits[c];
+                melhor = c;
+            }
+        }
+
+        double soma = 0.0;
+        for (float logit : logits) {
+            soma += Math.exp(logit - maximo);
+        }
+
+        labelsOut[row] = melhor;
+        probabilitiesOut[row] = 1.0 / soma;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sentimentapi.inference;
+
+import java.util.Arrays;
+
+// Lote de linhas esparsas no formato CSR (compressed sparse row)
+// A linha r ocupa as posições [rowOffsets[r], rowOffsets[r + 1])
+// dos vetores indices (feature) e values (peso TF-IDF).
+public final class SparseBatch {
+
+    private final int[] rowOffsets;
+    private final int[] indices;
+    private final float[] values;
+
+    public SparseBatch(int[] rowOffsets, int[] indices, float[] values) {
+
+        if (rowOffsets.length == 0 || rowOffsets[0] != 0) {
+            throw new IllegalArgumentException("rowOffsets deve começar em zero");
+        }
+        if (indices.length != values.length
+                || rowOffsets[rowOffsets.length - 1] != indices.length) {
+            throw new IllegalArgumentException("Dimensões do lote esparso inconsistentes");
+        }
+
+        this.rowOffsets = rowOffsets;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    // Cria um lote com uma única linha
+    public static SparseBatch ofRow(int[] indices, float[] values) {
+        return new SparseBatch(new int[]{0, indices.length}, indices, values);
+    }
+
+    public int rows() {
+        return rowOffsets.length - 1;
+    }
+
+    int[] rowOffsets() {
+        return rowOffsets;
+    }
+
+    int[] indices() {
+        return indices;
+    }
+
+    float[] values() {
+        return values;
+    }
+
+    /**
+     * Monta lotes CSR linha a linha, sem conhecer o tamanho final.
+     */
+    public static final class Builder {
+
+        private int[] rowOffsets = new int[17];
+        private int[] indices = new int[256];
+        private float[] values = new float[256];
+        private int rows;
+        private int nnz;
+
+        public Builder addRow(int[] rowIndices, float[] rowValues) {
+
+            if (rowIndices.length != rowValues.length) {
+                throw new IllegalArgumentException("Índices e valores com tamanhos diferentes");
+            }
+
+            if (nnz + rowIndices.length > indices.length) {
+                int capacidade = Math.max(indices.length * 2, nnz + rowIndices.length);
+                indices = Arrays.copyOf(indices, capacidade);
+                values = Arrays.copyOf(values, capacidade);
+            }
+            if (rows + 2 > rowOffsets.length) {
+                rowOffsets = Arrays.copyOf(rowOffsets, rowOffsets.length * 2);
+            }
+
+            System.arraycopy(rowIndices, 0, indices, nnz, rowIndices.length);
+            System.arraycopy(rowValues, 0, values, nnz, rowValues.length);
+            nnz += rowIndices.length;
+            rowOffsets[++rows] = nnz;
+            return this;
+        }
+
+        public SparseBatch build() {
+            return new SparseBatch(
+                    Arrays.copyOf(rowOffsets, rows + 1),
+                    Arrays.copyOf(indices, nnz),
+                    Arrays.copyOf(values, nnz)
+            );
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.sentimentapi.inference;
+
+// Linha esparsa: índices de features (ordenados) e seus valores TF-IDF
+public record SparseVector(int[] indices, float[] values) {
+
+    public int size() {
+        return indices.length;
+    }
+}
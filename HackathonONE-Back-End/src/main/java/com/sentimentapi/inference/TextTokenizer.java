@@ -0,0 +1,69 @@
+package com.sentimentapi.inference;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Tokenizador compatível com o TfidfVectorizer padrão do scikit-learn:
+// texto em minúsculas, tokens com 2+ caracteres alfanuméricos
+// (token_pattern "(?u)\b\w\w+\b") e n-gramas de palavras unidos por espaço.
+public final class TextTokenizer {
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * Extrai as palavras do texto na ordem em que aparecem.
+     */
+    public static List<String> words(String text) {
+
+        List<String> palavras = new ArrayList<>();
+        if (text == null) {
+            return palavras;
+        }
+
+        String normalizado = Normalizer.normalize(text, Normalizer.Form.NFC)
+                .toLowerCase(Locale.ROOT);
+
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+
+            boolean palavra = i < normalizado.length()
+                    && isWordChar(normalizado.charAt(i));
+
+            if (palavra && inicio < 0) {
+                inicio = i;
+            } else if (!palavra && inicio >= 0) {
+                if (i - inicio >= 2) {
+                    palavras.add(normalizado.substring(inicio, i));
+                }
+                inicio = -1;
+            }
+        }
+
+        return palavras;
+    }
+
+    /**
+     * Gera os termos (uni-gramas até n-gramas) usados pelo vetorizador.
+     */
+    public static List<String> terms(String text, int ngramMax) {
+
+        List<String> palavras = words(text);
+        List<String> termos = new ArrayList<>(palavras);
+
+        for (int n = 2; n <= ngramMax; n++) {
+            for (int i = 0; i + n <= palavras.size(); i++) {
+                termos.add(String.join(" ", palavras.subList(i, i + n)));
+            }
+        }
+
+        return termos;
+    }
+
+    // Equivalente ao \w do Python com Unicode (letras, dígitos e "_")
+    static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
@@ -0,0 +1,124 @@
+package com.sentimentapi.inference;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.FloatBuffer;
+
+// Implementação SIMD usando jdk.incubator.vector
+// O produto esparso x denso é feito com gather: os índices das features
+// da linha selecionam os pesos da classe diretamente no vetor achatado.
+// Com pesos mapeados não há gather direto de um buffer: os pesos da
+// linha são copiados para um vetor pequeno e o FMA continua vetorial.
+// Esta classe só deve ser carregada quando o módulo incubator está
+// presente (ver ScoringKernels), caso contrário a JVM lança NoClassDefFoundError.
+final class VectorScoringKernel implements ScoringKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    // Só compensa vetorizar se a CPU oferece mais de uma lane de float
+    static boolean supported() {
+        return SPECIES.length() > 1;
+    }
+
+    @Override
+    public void score(LinearModel model, SparseBatch batch,
+                      int[] labelsOut, double[] probabilitiesOut) {
+
+        int numClasses = model.numClasses();
+        int numFeatures = model.numFeatures();
+        float[] weights = model.weights();
+        float[] intercepts = model.intercepts();
+
+        int[] rowOffsets = batch.rowOffsets();
+        int[] indices = batch.indices();
+        float[] values = batch.values();
+
+        int lanes = SPECIES.length();
+        float[] logits = new float[numClasses];
+
+        for (int r = 0; r < batch.rows(); r++) {
+
+            int inicio = rowOffsets[r];
+            int fim = rowOffsets[r + 1];
+            int limiteVetorial = inicio + ((fim - inicio) / lanes) * lanes;
+
+            for (int c = 0; c < numClasses; c++) {
+
+                int base = c * numFeatures;
+                FloatVector acumulador = FloatVector.zero(SPECIES);
+
+                // Parte vetorial: gather dos pesos + FMA com os valores TF-IDF
+                for (int i = inicio; i < limiteVetorial; i += lanes) {
+                    FloatVector w = FloatVector.fromArray(SPECIES, weights, base, indices, i);
+                    FloatVector x = FloatVector.fromArray(SPECIES, values, i);
+                    acumulador = w.fma(x, acumulador);
+                }
+
+                float soma = intercepts[c] + acumulador.reduceLanes(VectorOperators.ADD);
+
+                // Cauda escalar (nnz não múltiplo do número de lanes)
+                for (int i = limiteVetorial; i < fim; i++) {
+                    soma += weights[base + indices[i]] * values[i];
+                }
+
+                logits[c] = soma;
+            }
+
+            Softmax.argmax(logits, r, labelsOut, probabilitiesOut);
+        }
+    }
+
+    @Override
+    public void score(MappedModelStore model, SparseBatch batch,
+                      int[] labelsOut, double[] probabilitiesOut) {
+
+        int numClasses = model.numClasses();
+        float[] intercepts = model.intercepts();
+
+        int[] rowOffsets = batch.rowOffsets();
+        int[] indices = batch.indices();
+        float[] values = batch.values();
+
+        int lanes = SPECIES.length();
+        float[] logits = new float[numClasses];
+        float[] pesosLinha = new float[lanes];
+
+        for (int r = 0; r < batch.rows(); r++) {
+
+            int inicio = rowOffsets[r];
+            int fim = rowOffsets[r + 1];
+            int limiteVetorial = inicio + ((fim - inicio) / lanes) * lanes;
+
+            for (int c = 0; c < numClasses; c++) {
+
+                FloatBuffer w = model.weights(c);
+                FloatVector acumulador = FloatVector.zero(SPECIES);
+
+                for (int i = inicio; i < limiteVetorial; i += lanes) {
+                    for (int k = 0; k < lanes; k++) {
+                        pesosLinha[k] = w.get(indices[i + k]);
+                    }
+                    FloatVector x = FloatVector.fromArray(SPECIES, values, i);
+                    acumulador = FloatVector.fromArray(SPECIES, pesosLinha, 0).fma(x, acumulador);
+                }
+
+                float soma = intercepts[c] + acumulador.reduceLanes(VectorOperators.ADD);
+
+                for (int i = limiteVetorial; i < fim; i++) {
+                    soma += w.get(indices[i]) * values[i];
+                }
+
+                logits[c] = soma;
+            }
+
+            Softmax.argmax(logits, r, labelsOut, probabilitiesOut);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+}
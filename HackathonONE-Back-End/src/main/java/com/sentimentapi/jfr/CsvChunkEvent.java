@@ -0,0 +1,40 @@
+package com.sentimentapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Um bloco de CSV: leitura (parse do arquivo mapeado) ou
+ * classificação e gravação dos textos lidos.
+ */
+@Name("sentimentapi.CsvChunk")
+@Label("Bloco CSV")
+@Category({"Sentiment API", "CSV"})
+@StackTrace(false)
+public class CsvChunkEvent extends Event {
+
+    @Label("Etapa")
+    @Description("leitura, classificacao ou upload")
+    public String etapa;
+
+    @Label("Bloco")
+    public int bloco;
+
+    @Label("Bytes")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Registros")
+    public int registros;
+
+    @Label("Inválidos")
+    public long invalidos;
+
+    @Label("Classificados")
+    public int classificados;
+}
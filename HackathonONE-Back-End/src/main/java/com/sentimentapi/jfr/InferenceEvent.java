@@ -0,0 +1,65 @@
+package com.sentimentapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Uma classificação: nível local da cascata, chamada ao modelo Python
+ * (individual ou em lote) ou previsão reaproveitada de uma quase-duplicata.
+ * O nível local gera um evento por texto, inclusive quando escala;
+ * reaproveitamentos têm duração zero.
+ */
+@Name("sentimentapi.Inference")
+@Label("Inferência")
+@Category({"Sentiment API", "Inferência"})
+@Description("Classificação de um ou mais textos")
+@StackTrace(false)
+public class InferenceEvent extends Event {
+
+    @Label("Backend")
+    @Description("local, remoto, remoto-lote, binario, binario-lote ou duplicata")
+    public String backend;
+
+    @Label("URL do modelo")
+    public String url;
+
+    @Label("Textos")
+    public int textos;
+
+    @Label("Caracteres")
+    @Description("Soma do tamanho dos textos")
+    public long caracteres;
+
+    @Label("Cache")
+    @Description("Previsão reaproveitada sem chamar nenhum modelo")
+    public boolean cache;
+
+    @Label("Rótulo")
+    @Description("Vazio quando o nível local escalou o texto ou no lote")
+    public String rotulo;
+
+    /**
+     * Encerra e grava o evento, se a gravação estiver ativa
+     * e a duração passar do limite configurado.
+     */
+    public void commit(String backend, String url, int textos, long caracteres, boolean cache, String rotulo) {
+
+        if (!isEnabled()) {
+            return;
+        }
+        end();
+        if (shouldCommit()) {
+            this.backend = backend;
+            this.url = url;
+            this.textos = textos;
+            this.caracteres = caracteres;
+            this.cache = cache;
+            this.rotulo = rotulo;
+            commit();
+        }
+    }
+}
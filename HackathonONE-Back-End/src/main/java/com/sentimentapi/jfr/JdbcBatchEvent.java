@@ -0,0 +1,17 @@
+package com.sentimentapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Execução de um lote JDBC (PreparedStatement.executeBatch).
+ */
+@Name("sentimentapi.JdbcBatch")
+@Label("Lote JDBC")
+@Category({"Sentiment API", "Banco de dados"})
+@StackTrace(false)
+public class JdbcBatchEvent extends Event {
+}
@@ -0,0 +1,50 @@
+package com.sentimentapi.jfr;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Listener de sessão do Hibernate que gera eventos JFR de flush e de lote JDBC
+// Registrado em spring.jpa.properties.hibernate.session.events.auto:
+// o Hibernate cria uma instância por sessão, então não há concorrência.
+// Com a gravação desligada, só o isEnabled() é pago.
+public class JfrSessionEventListener extends BaseSessionEventListener {
+
+    private JpaFlushEvent flush;
+    private JdbcBatchEvent lote;
+
+    @Override
+    public void flushStart() {
+        flush = new JpaFlushEvent();
+        if (flush.isEnabled()) {
+            flush.begin();
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        if (flush != null && flush.isEnabled()) {
+            flush.end();
+            if (flush.shouldCommit()) {
+                flush.entidades = numberOfEntities;
+                flush.colecoes = numberOfCollections;
+                flush.commit();
+            }
+        }
+        flush = null;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        lote = new JdbcBatchEvent();
+        if (lote.isEnabled()) {
+            lote.begin();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        if (lote != null && lote.isEnabled()) {
+            lote.commit();
+        }
+        lote = null;
+    }
+}
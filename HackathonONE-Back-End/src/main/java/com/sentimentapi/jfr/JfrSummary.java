@@ -0,0 +1,194 @@
+package com.sentimentapi.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resumo de uma gravação .jfr: as etapas da aplicação (eventos sentimentapi.*)
+// ordenadas pelo tempo total, com percentis de duração, e os métodos que
+// mais aparecem no topo das amostras de CPU (jdk.ExecutionSample).
+// Uso fora da aplicação, só com o JDK:
+//   java -cp target/classes com.sentimentapi.jfr.JfrSummary gravacao.jfr
+// ou a partir do jar:
+//   java -cp sentimentapi.jar -Dloader.main=com.sentimentapi.jfr.JfrSummary \
+//        org.springframework.boot.loader.launch.PropertiesLauncher gravacao.jfr
+public final class JfrSummary {
+
+    private static final String PREFIXO = "sentimentapi.";
+    private static final int METODOS = 15;
+
+    private JfrSummary() {
+    }
+
+    public record Summary(
+            String inicio,
+            String fim,
+            List<Etapa> etapas,
+            long amostrasCpu,
+            List<Metodo> metodosQuentes
+    ) {
+    }
+
+    // Duração em milissegundos
+    public record Etapa(
+            String nome,
+            long eventos,
+            double totalMs,
+            double mediaMs,
+            double p50Ms,
+            double p99Ms,
+            double maximoMs
+    ) {
+    }
+
+    public record Metodo(
+            String metodo,
+            long amostras,
+            double percentual
+    ) {
+    }
+
+    public static Summary summarize(Path arquivo) throws IOException {
+
+        Map<String, Duracoes> etapas = new HashMap<>();
+        Map<String, Long> topos = new HashMap<>();
+        long amostras = 0;
+        Instant inicio = null;
+        Instant fim = null;
+
+        try (RecordingFile gravacao = new RecordingFile(arquivo)) {
+            while (gravacao.hasMoreEvents()) {
+
+                RecordedEvent evento = gravacao.readEvent();
+                String tipo = evento.getEventType().getName();
+
+                if (inicio == null || evento.getStartTime().isBefore(inicio)) {
+                    inicio = evento.getStartTime();
+                }
+                if (fim == null || evento.getEndTime().isAfter(fim)) {
+                    fim = evento.getEndTime();
+                }
+
+                if (tipo.startsWith(PREFIXO)) {
+                    etapas.computeIfAbsent(stage(evento, tipo.substring(PREFIXO.length())), n -> new Duracoes())
+                            .add(evento.getDuration());
+                } else if (tipo.equals("jdk.ExecutionSample")) {
+                    amostras++;
+                    String metodo = topFrame(evento.getStackTrace());
+                    if (metodo != null) {
+                        topos.merge(metodo, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        long totalAmostras = amostras;
+        return new Summary(
+                inicio == null ? null : inicio.toString(),
+                fim == null ? null : fim.toString(),
+                etapas.entrySet().stream()
+                        .map(e -> e.getValue().toEtapa(e.getKey()))
+                        .sorted(Comparator.comparingDouble(Etapa::totalMs).reversed())
+                        .toList(),
+                totalAmostras,
+                topos.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .limit(METODOS)
+                        .map(e -> new Metodo(e.getKey(), e.getValue(), 100.0 * e.getValue() / totalAmostras))
+                        .toList()
+        );
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length != 1) {
+            System.err.println("Uso: JfrSummary <arquivo.jfr>");
+            System.exit(2);
+        }
+
+        Summary resumo = summarize(Path.of(args[0]));
+
+        System.out.printf("Gravação de %s a %s%n%n", resumo.inicio(), resumo.fim());
+        System.out.printf("%-32s %9s %12s %10s %10s %10s %10s%n",
+                "etapa", "eventos", "total ms", "média", "p50", "p99", "máximo");
+        for (Etapa etapa : resumo.etapas()) {
+            System.out.printf("%-32s %9d %12.1f %10.3f %10.3f %10.3f %10.3f%n",
+                    etapa.nome(), etapa.eventos(), etapa.totalMs(), etapa.mediaMs(),
+                    etapa.p50Ms(), etapa.p99Ms(), etapa.maximoMs());
+        }
+
+        System.out.printf("%nMétodos no topo das %d amostras de CPU:%n", resumo.amostrasCpu());
+        for (Metodo metodo : resumo.metodosQuentes()) {
+            System.out.printf("%6.2f%%  %7d  %s%n", metodo.percentual(), metodo.amostras(), metodo.metodo());
+        }
+    }
+
+    // Inferência e CSV são separados pelo backend e pela etapa
+    private static String stage(RecordedEvent evento, String nome) {
+        if (evento.hasField("backend") && evento.getString("backend") != null) {
+            return nome + "/" + evento.getString("backend");
+        }
+        if (evento.hasField("etapa") && evento.getString("etapa") != null) {
+            return nome + "/" + evento.getString("etapa");
+        }
+        return nome;
+    }
+
+    private static String topFrame(RecordedStackTrace pilha) {
+        if (pilha == null || pilha.getFrames().isEmpty()) {
+            return null;
+        }
+        RecordedFrame frame = pilha.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    // Durações de uma etapa em nanossegundos
+    private static final class Duracoes {
+
+        private long[] valores = new long[64];
+        private int tamanho;
+
+        void add(Duration duracao) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = duracao.toNanos();
+        }
+
+        Etapa toEtapa(String nome) {
+
+            long[] ordenados = Arrays.copyOf(valores, tamanho);
+            Arrays.sort(ordenados);
+
+            long total = 0;
+            for (long valor : ordenados) {
+                total += valor;
+            }
+
+            return new Etapa(
+                    nome,
+                    tamanho,
+                    total / 1e6,
+                    total / 1e6 / tamanho,
+                    percentile(ordenados, 0.50) / 1e6,
+                    percentile(ordenados, 0.99) / 1e6,
+                    ordenados[tamanho - 1] / 1e6
+            );
+        }
+
+        private static long percentile(long[] ordenados, double q) {
+            return ordenados[(int) Math.ceil(q * ordenados.length) - 1];
+        }
+    }
+}
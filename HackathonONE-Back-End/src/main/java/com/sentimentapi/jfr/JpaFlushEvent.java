@@ -0,0 +1,23 @@
+package com.sentimentapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flush da sessão do Hibernate (gravação das entidades pendentes).
+ */
+@Name("sentimentapi.JpaFlush")
+@Label("Flush JPA")
+@Category({"Sentiment API", "Banco de dados"})
+@StackTrace(false)
+public class JpaFlushEvent extends Event {
+
+    @Label("Entidades")
+    public int entidades;
+
+    @Label("Coleções")
+    public int colecoes;
+}
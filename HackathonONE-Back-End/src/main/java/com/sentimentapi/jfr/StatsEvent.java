@@ -0,0 +1,24 @@
+package com.sentimentapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Cálculo das estatísticas dos últimos N comentários.
+ */
+@Name("sentimentapi.Stats")
+@Label("Estatísticas")
+@Category({"Sentiment API", "Estatísticas"})
+public class StatsEvent extends Event {
+
+    @Label("Quantidade pedida")
+    public int quantidade;
+
+    @Label("Comentários lidos")
+    public int comentarios;
+
+    @Label("Janela quente")
+    public boolean janelaQuente;
+}
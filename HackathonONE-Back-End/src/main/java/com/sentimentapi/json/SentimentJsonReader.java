@@ -0,0 +1,77 @@
+package com.sentimentapi.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sentimentapi.dtos.SentimentDadosDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Leitura incremental de registros {@link SentimentDadosDTO} a partir de
+ * um array JSON ({@code [{...}, {...}]}) ou de NDJSON (um objeto por linha).
+ * <p>
+ * Usa o {@link JsonParser} de streaming: só um registro fica em memória por
+ * vez, qualquer que seja o tamanho da entrada. Campos desconhecidos são
+ * ignorados.
+ */
+public final class SentimentJsonReader implements Iterator<SentimentDadosDTO>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private final boolean array;
+
+    private JsonToken proximo;
+
+    public SentimentJsonReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+
+        this.parser = objectMapper.getFactory().createParser(in);
+        this.reader = objectMapper.readerFor(SentimentDadosDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // O primeiro token decide o formato: '[' é array, '{' é NDJSON
+        JsonToken primeiro = parser.nextToken();
+        this.array = primeiro == JsonToken.START_ARRAY;
+        this.proximo = array ? parser.nextToken() : primeiro;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return proximo != null && proximo != JsonToken.END_ARRAY;
+    }
+
+    /**
+     * Lê o próximo registro. Erros de sintaxe viram {@link IllegalStateException}
+     * com a causa original, pois o {@link Iterator} não declara IOException.
+     */
+    @Override
+    public SentimentDadosDTO next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (proximo != JsonToken.START_OBJECT) {
+            throw new IllegalStateException("Esperado um objeto JSON em "
+                    + parser.currentLocation().offsetDescription());
+        }
+
+        try {
+            SentimentDadosDTO dto = reader.readValue(parser);
+            proximo = parser.nextToken();
+            return dto;
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,454 @@
+package com.sentimentapi.outbox;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Log de eventos local, só de acréscimo, dividido em segmentos.
+ * <p>
+ * Cada registro recebe um offset crescente e tem uma chave (o id do
+ * comentário). Os segmentos se chamam {@code <offset base>.log}; só o
+ * último recebe gravações. Formato de cada registro:
+ * {@code [int tamanho][long offset][long chave][int crc32][payload]}.
+ * <p>
+ * Na abertura, um registro incompleto ou corrompido no fim do último
+ * segmento (queda no meio de uma gravação) é descartado.
+ * A compactação reescreve os segmentos fechados mantendo só o registro
+ * mais recente de cada chave; os offsets dos que ficam não mudam.
+ */
+public class SegmentedEventLog implements Closeable {
+
+    private static final String EXTENSAO = ".log";
+    private static final String COMPACTANDO = ".compactando";
+    private static final int CABECALHO = 4 + 8 + 8 + 4;
+
+    // Um offset a cada N registros entra no índice esparso do segmento
+    private static final int PASSO_INDICE = 64;
+
+    // Registro do log
+    public record Entry(long offset, long key, byte[] payload) {
+    }
+
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+
+    private final NavigableMap<Long, Segment> segmentos = new ConcurrentSkipListMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment ativo;
+    private volatile long proximoOffset;
+
+    private SegmentedEventLog(Path diretorio, long tamanhoSegmento) {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+    }
+
+    public static SegmentedEventLog open(Path diretorio, long tamanhoSegmento) throws IOException {
+
+        Files.createDirectories(diretorio);
+        SegmentedEventLog log = new SegmentedEventLog(diretorio, tamanhoSegmento);
+
+        List<Long> bases = new ArrayList<>();
+        List<Path> sobras = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.forEach(arquivo -> {
+                String nome = arquivo.getFileName().toString();
+                if (nome.endsWith(EXTENSAO)) {
+                    bases.add(Long.parseLong(nome.substring(0, nome.length() - EXTENSAO.length())));
+                } else if (nome.endsWith(COMPACTANDO)) {
+                    sobras.add(arquivo);
+                }
+            });
+        }
+        // Compactação interrompida: o segmento original continua válido
+        for (Path sobra : sobras) {
+            Files.delete(sobra);
+        }
+        bases.sort(null);
+
+        long proximo = 0;
+        for (int i = 0; i < bases.size(); i++) {
+            boolean ultimo = i == bases.size() - 1;
+            Segment segmento = Segment.load(log.path(bases.get(i)), bases.get(i), ultimo);
+            log.segmentos.put(segmento.base, segmento);
+            proximo = Math.max(proximo, segmento.proximoOffset());
+        }
+
+        if (log.segmentos.isEmpty()) {
+            log.segmentos.put(0L, Segment.create(log.path(0), 0));
+        }
+        log.ativo = log.segmentos.lastEntry().getValue();
+        log.proximoOffset = proximo;
+        return log;
+    }
+
+    /**
+     * Acrescenta os registros (chave e payload, na ordem) e devolve o
+     * offset do primeiro. Com {@code sync} os dados vão ao disco antes
+     * do retorno.
+     */
+    public long append(List<Map.Entry<Long, byte[]>> registros, boolean sync) throws IOException {
+
+        lock.writeLock().lock();
+        try {
+            long primeiro = proximoOffset;
+
+            for (Map.Entry<Long, byte[]> registro : registros) {
+                if (ativo.tamanho >= tamanhoSegmento) {
+                    roll();
+                }
+                ativo.append(proximoOffset, registro.getKey(), registro.getValue());
+                proximoOffset++;
+            }
+
+            if (sync) {
+                ativo.canal.force(false);
+            }
+            return primeiro;
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lê até {@code limite} registros a partir de {@code offset}
+     * (inclusive). Offsets removidos pela compactação são pulados.
+     */
+    public List<Entry> read(long offset, int limite) throws IOException {
+
+        List<Entry> saida = new ArrayList<>(Math.min(limite, 1024));
+
+        lock.readLock().lock();
+        try {
+            Map.Entry<Long, Segment> inicio = segmentos.floorEntry(offset);
+            NavigableMap<Long, Segment> restantes = inicio == null
+                    ? segmentos
+                    : segmentos.tailMap(inicio.getKey(), true);
+
+            for (Segment segmento : restantes.values()) {
+                segmento.read(offset, limite - saida.size(), saida);
+                if (saida.size() >= limite) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return saida;
+    }
+
+    /**
+     * Próximo offset a ser gravado (fim do log).
+     */
+    public long endOffset() {
+        return proximoOffset;
+    }
+
+    /**
+     * Menor offset ainda presente no log.
+     */
+    public long startOffset() {
+
+        lock.readLock().lock();
+        try {
+            for (Segment segmento : segmentos.values()) {
+                if (segmento.primeiroOffset() >= 0) {
+                    return segmento.primeiroOffset();
+                }
+            }
+            return proximoOffset;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        return segmentos.size();
+    }
+
+    /**
+     * Compacta os segmentos fechados: de cada chave fica só o registro
+     * mais recente do log inteiro. Devolve quantos registros saíram.
+     * Chamado por uma única thread.
+     */
+    public long compact() throws IOException {
+
+        // Último offset de cada chave, incluindo o segmento ativo
+        Map<Long, Long> ultimoPorChave = new HashMap<>();
+        List<Segment> fechados = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Segment segmento : segmentos.values()) {
+                segmento.forEach((offset, chave) -> ultimoPorChave.put(chave, offset));
+                if (segmento != ativo) {
+                    fechados.add(segmento);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long removidos = 0;
+        for (Segment segmento : fechados) {
+
+            Path temporario = diretorio.resolve(segmento.base + EXTENSAO + COMPACTANDO);
+            Segment novo = Segment.create(temporario, segmento.base);
+            long antes = segmento.registros;
+
+            // O segmento fechado não muda mais; a leitura não precisa de lock
+            for (Entry entrada : segmento.readAll()) {
+                if (ultimoPorChave.get(entrada.key()) == entrada.offset()) {
+                    novo.append(entrada.offset(), entrada.key(), entrada.payload());
+                }
+            }
+
+            if (novo.registros == antes) {
+                novo.canal.close();
+                Files.delete(temporario);
+                continue;
+            }
+            novo.canal.force(false);
+            removidos += antes - novo.registros;
+
+            lock.writeLock().lock();
+            try {
+                novo.canal.close();
+                segmento.canal.close();
+                if (novo.registros == 0) {
+                    Files.delete(temporario);
+                    Files.delete(segmento.arquivo);
+                    segmentos.remove(segmento.base);
+                } else {
+                    Files.move(temporario, segmento.arquivo,
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    segmentos.put(segmento.base, Segment.load(segmento.arquivo, segmento.base, false));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        return removidos;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        lock.writeLock().lock();
+        try {
+            for (Segment segmento : segmentos.values()) {
+                segmento.canal.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Fecha o segmento ativo e abre outro a partir do próximo offset
+    private void roll() throws IOException {
+
+        ativo.canal.force(false);
+        ativo = Segment.create(path(proximoOffset), proximoOffset);
+        segmentos.put(ativo.base, ativo);
+    }
+
+    private Path path(long base) {
+        return diretorio.resolve(String.format("%020d%s", base, EXTENSAO));
+    }
+
+    private static int crc(long offset, long chave, byte[] payload) {
+
+        CRC32 crc = new CRC32();
+        ByteBuffer numeros = ByteBuffer.allocate(16).putLong(offset).putLong(chave).flip();
+        crc.update(numeros);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // Arquivo de um segmento com seu índice esparso offset -> posição
+    private static final class Segment {
+
+        final Path arquivo;
+        final long base;
+        final FileChannel canal;
+        final TreeMap<Long, Long> indice = new TreeMap<>();
+
+        // Bytes válidos; leituras concorrentes não passam daqui
+        volatile long tamanho;
+        long registros;
+        long ultimoOffset = -1;
+
+        private Segment(Path arquivo, long base, FileChannel canal) {
+            this.arquivo = arquivo;
+            this.base = base;
+            this.canal = canal;
+        }
+
+        static Segment create(Path arquivo, long base) throws IOException {
+            return new Segment(arquivo, base, FileChannel.open(arquivo,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+
+        // Percorre o arquivo validando cada registro; no segmento ativo
+        // o que vier depois do primeiro registro inválido é cortado
+        static Segment load(Path arquivo, long base, boolean ativo) throws IOException {
+
+            Segment segmento = new Segment(arquivo, base, FileChannel.open(arquivo,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE));
+
+            long posicao = 0;
+            long tamanhoArquivo = segmento.canal.size();
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+
+            while (posicao + CABECALHO <= tamanhoArquivo) {
+
+                cabecalho.clear();
+                readFully(segmento.canal, cabecalho, posicao);
+                cabecalho.flip();
+                int tamanhoPayload = cabecalho.getInt();
+                long offset = cabecalho.getLong();
+                long chave = cabecalho.getLong();
+                int crc = cabecalho.getInt();
+
+                if (tamanhoPayload < 0 || posicao + CABECALHO + tamanhoPayload > tamanhoArquivo) {
+                    break;
+                }
+                byte[] payload = new byte[tamanhoPayload];
+                readFully(segmento.canal, ByteBuffer.wrap(payload), posicao + CABECALHO);
+                if (crc(offset, chave, payload) != crc) {
+                    break;
+                }
+
+                segmento.register(offset, posicao);
+                posicao += CABECALHO + tamanhoPayload;
+            }
+
+            if (posicao < tamanhoArquivo) {
+                if (!ativo) {
+                    throw new IOException("Segmento corrompido: " + arquivo + " (posição " + posicao + ")");
+                }
+                segmento.canal.truncate(posicao);
+            }
+            segmento.tamanho = posicao;
+            return segmento;
+        }
+
+        void append(long offset, long chave, byte[] payload) throws IOException {
+
+            ByteBuffer registro = ByteBuffer.allocate(CABECALHO + payload.length)
+                    .putInt(payload.length)
+                    .putLong(offset)
+                    .putLong(chave)
+                    .putInt(crc(offset, chave, payload))
+                    .put(payload)
+                    .flip();
+
+            long posicao = tamanho;
+            while (registro.hasRemaining()) {
+                canal.write(registro, posicao + registro.position());
+            }
+            register(offset, posicao);
+            tamanho = posicao + CABECALHO + payload.length;
+        }
+
+        // Registros a partir de "desde", acrescentados em "saida"
+        void read(long desde, int limite, List<Entry> saida) throws IOException {
+
+            if (limite <= 0 || ultimoOffset < desde) {
+                return;
+            }
+            Map.Entry<Long, Long> ponto = indice.floorEntry(desde);
+            long posicao = ponto == null ? 0 : ponto.getValue();
+            long fim = tamanho;
+            int lidos = 0;
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+            while (posicao < fim && lidos < limite) {
+
+                cabecalho.clear();
+                readFully(canal, cabecalho, posicao);
+                cabecalho.flip();
+                int tamanhoPayload = cabecalho.getInt();
+                long offset = cabecalho.getLong();
+                long chave = cabecalho.getLong();
+
+                if (offset >= desde) {
+                    byte[] payload = new byte[tamanhoPayload];
+                    readFully(canal, ByteBuffer.wrap(payload), posicao + CABECALHO);
+                    saida.add(new Entry(offset, chave, payload));
+                    lidos++;
+                }
+                posicao += CABECALHO + tamanhoPayload;
+            }
+        }
+
+        List<Entry> readAll() throws IOException {
+            List<Entry> todos = new ArrayList<>();
+            read(Long.MIN_VALUE, Integer.MAX_VALUE, todos);
+            return todos;
+        }
+
+        // Offset e chave de cada registro, sem ler os payloads
+        void forEach(OffsetKeyConsumer consumidor) throws IOException {
+
+            long posicao = 0;
+            long fim = tamanho;
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+            while (posicao < fim) {
+                cabecalho.clear();
+                readFully(canal, cabecalho, posicao);
+                cabecalho.flip();
+                int tamanhoPayload = cabecalho.getInt();
+                consumidor.accept(cabecalho.getLong(), cabecalho.getLong());
+                posicao += CABECALHO + tamanhoPayload;
+            }
+        }
+
+        long primeiroOffset() {
+            return indice.isEmpty() ? -1 : indice.firstKey();
+        }
+
+        long proximoOffset() {
+            return ultimoOffset < 0 ? base : ultimoOffset + 1;
+        }
+
+        private void register(long offset, long posicao) {
+            if (registros % PASSO_INDICE == 0) {
+                indice.put(offset, posicao);
+            }
+            registros++;
+            ultimoOffset = offset;
+        }
+
+        private static void readFully(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+            while (destino.hasRemaining()) {
+                if (canal.read(destino, posicao + destino.position()) < 0) {
+                    throw new IOException("Fim inesperado do segmento");
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface OffsetKeyConsumer {
+        void accept(long offset, long chave) throws IOException;
+    }
+}
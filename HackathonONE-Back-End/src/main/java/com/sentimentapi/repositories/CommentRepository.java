@@ -4,18 +4,56 @@ import com.sentimentapi.entities.CommentEntity;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 // Repositório JPA responsável por acessar os comentários
 // Contém uma query personalizada para buscar
 // os últimos comentários cadastrados no banco
+// (quase-duplicatas marcadas ficam de fora para não distorcer as estatísticas)
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
 
     @Query(
             value = "SELECT c FROM CommentEntity c " +
+                    "WHERE c.duplicataDe IS NULL " +
                     "ORDER BY c.id DESC"
     )
     List<CommentEntity> buscarPorUltimos(Pageable pageable);
-}
 
+    // Mesma consulta restrita aos comentários a partir de uma data:
+    // no PostgreSQL só as partições recentes são lidas
+    @Query(
+            value = "SELECT c FROM CommentEntity c " +
+                    "WHERE c.duplicataDe IS NULL " +
+                    "AND c.dataCriacao >= :desde " +
+                    "ORDER BY c.id DESC"
+    )
+    List<CommentEntity> buscarPorUltimosDesde(@Param("desde") LocalDateTime desde,
+                                              Pageable pageable);
+
+    // Paginação por chave (keyset): percorre a tabela inteira em ordem
+    // de ID sem o custo crescente de OFFSET em tabelas grandes
+    List<CommentEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Comentários com probabilidade abaixo do limite, menos confiantes primeiro
+    // Percorre o índice de probability em sentiment_prediction_tb e chega
+    // aos comentários pelo índice de sentiment_prediction_id
+    @Query(
+            value = "SELECT c FROM CommentEntity c JOIN FETCH c.previsao p " +
+                    "WHERE p.probability < :limite " +
+                    "ORDER BY p.probability ASC, c.id ASC"
+    )
+    List<CommentEntity> buscarBaixaConfianca(@Param("limite") double limite, Pageable pageable);
+
+    // Mesma consulta para um rótulo (índice label + probability)
+    @Query(
+            value = "SELECT c FROM CommentEntity c JOIN FETCH c.previsao p " +
+                    "WHERE p.label = :label AND p.probability < :limite " +
+                    "ORDER BY p.probability ASC, c.id ASC"
+    )
+    List<CommentEntity> buscarBaixaConfiancaPorRotulo(@Param("label") String label,
+                                                      @Param("limite") double limite,
+                                                      Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.sentimentapi.repositories;
+
+import com.sentimentapi.entities.CompressionDictionary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+// Repositório dos dicionários de compressão (o de maior ID é o ativo)
+public interface CompressionDictionaryRepository extends JpaRepository<CompressionDictionary, Integer> {
+
+    List<CompressionDictionary> findAllByOrderByIdAsc();
+
+    // Dicionário ativo
+    Optional<CompressionDictionary> findFirstByOrderByIdDesc();
+}
@@ -0,0 +1,18 @@
+package com.sentimentapi.repositories;
+
+import com.sentimentapi.entities.ConfidenceSketchCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Repositório dos checkpoints dos sketches de confiança (um por rótulo e hora)
+public interface ConfidenceSketchRepository extends JpaRepository<ConfidenceSketchCheckpoint, Long> {
+
+    Optional<ConfidenceSketchCheckpoint> findByLabelAndHora(String label, LocalDateTime hora);
+
+    // Horas em [de, ate)
+    List<ConfidenceSketchCheckpoint> findByHoraGreaterThanEqualAndHoraLessThan(LocalDateTime de,
+                                                                               LocalDateTime ate);
+}
@@ -0,0 +1,14 @@
+package com.sentimentapi.repositories;
+
+import com.sentimentapi.entities.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+// Repositório dos eventos ainda não publicados no log
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Eventos pendentes na ordem de gravação
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
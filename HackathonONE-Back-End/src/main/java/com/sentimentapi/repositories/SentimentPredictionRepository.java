@@ -2,10 +2,21 @@ package com.sentimentapi.repositories;
 
 import com.sentimentapi.entities.SentimentPrediction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 // Repositório JPA responsável por persistir e consultar
 // as previsões de sentimento no banco de dados
 public interface SentimentPredictionRepository
         extends JpaRepository<SentimentPrediction, Long> {
 
+    // Apaga a previsão só se nenhum comentário ainda a referenciar
+    @Modifying
+    @Query(
+            value = "DELETE FROM SentimentPrediction p " +
+                    "WHERE p.id = :id AND NOT EXISTS " +
+                    "(SELECT 1 FROM CommentEntity c WHERE c.previsao.id = :id)"
+    )
+    int apagarSeOrfa(@Param("id") Long id);
 }
@@ -0,0 +1,67 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.BinaryTransportProperties;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.transport.BinaryModelClient;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Escolhe o transporte binário para os modelos que têm endereço configurado
+// Os clientes (e suas conexões) são criados no primeiro uso de cada modelo
+@Component
+public class BinaryModelTransport {
+
+    private final BinaryTransportProperties properties;
+    private final String pythonUrl;
+
+    private final Map<String, BinaryModelClient> clientes = new ConcurrentHashMap<>();
+
+    public BinaryModelTransport(BinaryTransportProperties properties,
+                                @Value("${sentiment.python.url:http://localhost:5000/predict}") String pythonUrl) {
+        this.properties = properties;
+        this.pythonUrl = pythonUrl;
+    }
+
+    /**
+     * Indica se as chamadas ao modelo desta URL vão pelo transporte binário.
+     */
+    public boolean handles(String url) {
+        return properties.isHabilitado() && address(url) != null;
+    }
+
+    public SentimentPrediction predict(String url, String text) {
+        return client(url).predict(text);
+    }
+
+    /**
+     * Lote em um único quadro, na ordem de entrada (null nos não classificados).
+     */
+    public List<SentimentPrediction> predictBatch(String url, List<String> texts) {
+        return client(url).predict(texts);
+    }
+
+    @PreDestroy
+    public void close() {
+        clientes.values().forEach(BinaryModelClient::close);
+        clientes.clear();
+    }
+
+    private BinaryModelClient client(String url) {
+        return clientes.computeIfAbsent(url, u -> new BinaryModelClient(
+                address(u), properties.getConexoes(), properties.getTimeout()));
+    }
+
+    private String address(String url) {
+
+        String endereco = properties.getEnderecos().get(url);
+        if (endereco == null && url.equals(pythonUrl) && !properties.getEndereco().isBlank()) {
+            endereco = properties.getEndereco();
+        }
+        return endereco == null || endereco.isBlank() ? null : endereco;
+    }
+}
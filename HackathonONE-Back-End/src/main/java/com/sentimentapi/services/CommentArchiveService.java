@@ -0,0 +1,270 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.compression.TextCodec;
+import com.sentimentapi.config.RetentionProperties;
+import com.sentimentapi.events.CommentsArchivedEvent;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Partições mensais, retenção e arquivamento de comentario_tb
+// No PostgreSQL a tabela é particionada nativamente por mês
+// (comentario_tb_pAAAAMM): o job cria as partições futuras e, para cada
+// mês expirado, exporta a partição para um .csv.gz e a desanexa/apaga.
+// Em bancos sem particionamento (H2 do perfil dev) o mesmo esquema é
+// emulado: cada "partição" é um intervalo mensal de data_criacao,
+// exportado e apagado em lotes pelo índice de data.
+@Service
+public class CommentArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentArchiveService.class);
+
+    private static final String TABELA = "comentario_tb";
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String EXPORTACAO =
+            "SELECT c.id, c.text, c.text_zstd, p.label, p.probability, c.data_criacao, c.duplicata_de " +
+            "FROM %s c LEFT JOIN sentiment_prediction_tb p ON p.id = c.sentiment_prediction_id " +
+            "WHERE c.data_criacao >= ? AND c.data_criacao < ? ORDER BY c.id";
+
+    private final RetentionProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TextCodec textCodec;
+
+    // Descoberto na primeira execução
+    private volatile Boolean particionado;
+
+    public CommentArchiveService(RetentionProperties properties,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TextCodec textCodec) {
+
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.textCodec = textCodec;
+
+        // Exportação em cursor: o PostgreSQL só respeita o fetch size
+        // dentro de uma transação
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1_000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Na subida, garante as partições do mês atual e dos próximos meses.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitions() {
+
+        if (!partitioned()) {
+            return;
+        }
+
+        YearMonth atual = YearMonth.now();
+        for (int i = 0; i <= properties.getMesesAFrente(); i++) {
+            YearMonth mes = atual.plusMonths(i);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(mes), TABELA, mes.atDay(1), mes.plusMonths(1).atDay(1)));
+        }
+    }
+
+    /**
+     * Job diário: cria as partições futuras e arquiva os meses expirados.
+     */
+    @Scheduled(cron = "${sentiment.retencao.cron:0 30 3 * * *}")
+    public void run() {
+
+        try {
+            ensurePartitions();
+            if (properties.isHabilitado()) {
+                archiveExpired();
+            }
+        } catch (RuntimeException | IOException e) {
+            log.error("Falha na retenção de comentários", e);
+        }
+    }
+
+    /**
+     * Exporta e remove cada mês anterior ao limite de retenção.
+     * Devolve os meses arquivados.
+     */
+    public List<YearMonth> archiveExpired() throws IOException {
+
+        YearMonth limite = YearMonth.now().minusMonths(properties.getMeses());
+        List<YearMonth> arquivados = new ArrayList<>();
+
+        for (YearMonth mes : expiredMonths(limite)) {
+
+            LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+            LocalDateTime fim = mes.plusMonths(1).atDay(1).atStartOfDay();
+            String origem = partitioned() ? partitionName(mes) : TABELA;
+
+            // O arquivo é gravado por completo antes de qualquer exclusão
+            long exportados = export(origem, mes, inicio, fim);
+
+            if (partitioned()) {
+                jdbcTemplate.execute("ALTER TABLE " + TABELA + " DETACH PARTITION " + origem);
+                if (properties.getModo() == RetentionProperties.Modo.DROP) {
+                    jdbcTemplate.execute("DROP TABLE " + origem);
+                }
+            } else {
+                deleteRange(inicio, fim);
+            }
+
+            eventPublisher.publishEvent(new CommentsArchivedEvent(inicio, fim, exportados));
+            arquivados.add(mes);
+            log.info("Mês {} arquivado: {} comentários", mes, exportados);
+        }
+
+        return arquivados;
+    }
+
+    // Meses anteriores ao limite que ainda têm dados (ou partição)
+    private List<YearMonth> expiredMonths(YearMonth limite) {
+
+        List<YearMonth> meses = new ArrayList<>();
+
+        if (partitioned()) {
+            List<String> particoes = jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_inherits i " +
+                    "JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "JOIN pg_class p ON p.oid = i.inhparent " +
+                    "WHERE p.relname = ? ORDER BY c.relname",
+                    String.class, TABELA);
+
+            String prefixo = TABELA + "_p";
+            for (String particao : particoes) {
+                if (particao.startsWith(prefixo)) {
+                    YearMonth mes = YearMonth.parse(particao.substring(prefixo.length()), SUFIXO);
+                    if (mes.isBefore(limite)) {
+                        meses.add(mes);
+                    }
+                }
+            }
+            return meses;
+        }
+
+        Timestamp maisAntigo = jdbcTemplate.queryForObject(
+                "SELECT MIN(data_criacao) FROM " + TABELA, Timestamp.class);
+        if (maisAntigo == null) {
+            return meses;
+        }
+
+        for (YearMonth mes = YearMonth.from(maisAntigo.toLocalDateTime());
+             mes.isBefore(limite); mes = mes.plusMonths(1)) {
+            meses.add(mes);
+        }
+        return meses;
+    }
+
+    // Grava o mês em <diretorio>/comentario_tb_AAAA-MM.csv.gz
+    private long export(String origem, YearMonth mes,
+                        LocalDateTime inicio, LocalDateTime fim) throws IOException {
+
+        Path diretorio = Path.of(properties.getDiretorioArquivo());
+        Files.createDirectories(diretorio);
+
+        Path destino = diretorio.resolve(TABELA + "_" + mes + ".csv.gz");
+        Path temporario = diretorio.resolve(destino.getFileName() + ".tmp");
+
+        long[] linhas = {0};
+
+        try (CSVPrinter printer = new CSVPrinter(
+                new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(temporario)),
+                        StandardCharsets.UTF_8)),
+                CSVFormat.DEFAULT.withHeader(
+                        "id", "text", "previsao", "probabilidade", "data_criacao", "duplicata_de"))) {
+
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(String.format(EXPORTACAO, origem), rs -> {
+                        try {
+                            Timestamp data = rs.getTimestamp("data_criacao");
+                            byte[] compactado = rs.getBytes("text_zstd");
+                            printer.printRecord(
+                                    rs.getLong("id"),
+                                    compactado != null ? textCodec.decode(compactado) : rs.getString("text"),
+                                    rs.getString("label"),
+                                    rs.getObject("probability"),
+                                    data == null ? null : data.toLocalDateTime(),
+                                    rs.getObject("duplicata_de"));
+                            linhas[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, Timestamp.valueOf(inicio), Timestamp.valueOf(fim)));
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Files.move(temporario, destino,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return linhas[0];
+    }
+
+    // Exclusão em lotes pequenos para não segurar travas por muito tempo
+    private void deleteRange(LocalDateTime inicio, LocalDateTime fim) {
+
+        String sql = "DELETE FROM " + TABELA + " WHERE id IN (" +
+                "SELECT id FROM " + TABELA +
+                " WHERE data_criacao >= ? AND data_criacao < ?" +
+                " FETCH FIRST " + properties.getLoteExclusao() + " ROWS ONLY)";
+
+        int apagados;
+        do {
+            apagados = jdbcTemplate.update(sql, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+        } while (apagados > 0);
+    }
+
+    private boolean partitioned() {
+
+        Boolean valor = particionado;
+        if (valor == null) {
+            valor = jdbcTemplate.execute((ConnectionCallback<Boolean>) conexao ->
+                    conexao.getMetaData().getDatabaseProductName().equals("PostgreSQL"))
+                    && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table t " +
+                    "JOIN pg_class c ON c.oid = t.partrelid WHERE c.relname = ?)",
+                    Boolean.class, TABELA));
+            particionado = valor;
+        }
+        return valor;
+    }
+
+    private static String partitionName(YearMonth mes) {
+        return TABELA + "_p" + mes.format(SUFIXO);
+    }
+}
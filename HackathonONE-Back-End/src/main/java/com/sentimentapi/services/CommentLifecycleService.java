@@ -0,0 +1,278 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.LifecycleProperties;
+import com.sentimentapi.datasource.WriteTracker;
+import com.sentimentapi.dtos.BulkDeleteDto;
+import com.sentimentapi.events.CommentsDeletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Exclusão em massa de comentários e coleta das previsões órfãs
+// A exclusão seleciona os IDs por filtro (data, rótulo, faixa de IDs) em
+// lotes pela chave e apaga cada lote com um único DELETE, sem carregar
+// entidades; as previsões que ficam sem comentário saem no mesmo lote.
+// A coleta periódica varre sentiment_prediction_tb por faixas de ID e
+// apaga as previsões que nenhum comentário referencia (deixadas pelo
+// arquivamento e por versões anteriores do PUT/DELETE), com pausas
+// entre os comandos.
+@Service
+public class CommentLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentLifecycleService.class);
+
+    private static final String ORFAS =
+            "DELETE FROM sentiment_prediction_tb p WHERE %s " +
+            "AND NOT EXISTS (SELECT 1 FROM comentario_tb c WHERE c.sentiment_prediction_id = p.id)";
+
+    private final LifecycleProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WriteTracker writeTracker;
+
+    // Uma coleta por vez (agendada ou pelo endpoint)
+    private final AtomicBoolean coletando = new AtomicBoolean();
+
+    // Descoberto na primeira coleta
+    private volatile Boolean postgres;
+
+    public CommentLifecycleService(LifecycleProperties properties,
+                                   DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   WriteTracker writeTracker) {
+
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.writeTracker = writeTracker;
+    }
+
+    /**
+     * Filtros da exclusão em massa; campos nulos não restringem.
+     * As datas formam o intervalo [de, ate) de data_criacao e os IDs,
+     * o intervalo fechado [idInicial, idFinal].
+     */
+    public record Filtro(
+            LocalDateTime de,
+            LocalDateTime ate,
+            String previsao,
+            Long idInicial,
+            Long idFinal
+    ) {
+
+        public boolean empty() {
+            return de == null && ate == null && previsao == null
+                    && idInicial == null && idFinal == null;
+        }
+    }
+
+    /**
+     * Apaga todos os comentários que atendem ao filtro, um lote por
+     * transação. Cada lote publica um {@link CommentsDeletedEvent}:
+     * o outbox grava na transação do lote; índices e estatísticas
+     * só são atualizados depois do commit.
+     */
+    public BulkDeleteDto bulkDelete(Filtro filtro) {
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT c.id, c.sentiment_prediction_id FROM comentario_tb c");
+        List<Object> parametros = new ArrayList<>();
+
+        if (filtro.previsao() != null) {
+            sql.append(" JOIN sentiment_prediction_tb p ON p.id = c.sentiment_prediction_id");
+        }
+        sql.append(" WHERE c.id > ?");
+        if (filtro.de() != null) {
+            sql.append(" AND c.data_criacao >= ?");
+            parametros.add(Timestamp.valueOf(filtro.de()));
+        }
+        if (filtro.ate() != null) {
+            sql.append(" AND c.data_criacao < ?");
+            parametros.add(Timestamp.valueOf(filtro.ate()));
+        }
+        if (filtro.previsao() != null) {
+            sql.append(" AND p.label = ?");
+            parametros.add(filtro.previsao());
+        }
+        if (filtro.idInicial() != null) {
+            sql.append(" AND c.id >= ?");
+            parametros.add(filtro.idInicial());
+        }
+        if (filtro.idFinal() != null) {
+            sql.append(" AND c.id <= ?");
+            parametros.add(filtro.idFinal());
+        }
+        sql.append(" ORDER BY c.id FETCH FIRST ").append(properties.getLoteExclusao()).append(" ROWS ONLY");
+
+        long comentarios = 0;
+        long previsoes = 0;
+
+        // Paginação pela chave: cada lote começa depois do último ID visto
+        long ultimo = Long.MIN_VALUE;
+        while (true) {
+
+            long inicio = ultimo;
+            long[] apagados = transactionTemplate.execute(status ->
+                    deleteChunk(sql.toString(), inicio, parametros));
+
+            if (apagados == null || apagados[0] == 0) {
+                break;
+            }
+            comentarios += apagados[0];
+            previsoes += apagados[1];
+            ultimo = apagados[2];
+
+            if (apagados[0] < properties.getLoteExclusao()) {
+                break;
+            }
+        }
+
+        if (comentarios > 0) {
+            log.info("Exclusão em massa: {} comentários e {} previsões apagados", comentarios, previsoes);
+        }
+        return new BulkDeleteDto(comentarios, previsoes);
+    }
+
+    /**
+     * Apaga as previsões órfãs, em faixas de ID até o maior ID existente
+     * no início da coleta. Retorna null se já houver uma coleta em curso.
+     */
+    public BulkDeleteDto collectOrphans() {
+
+        if (!coletando.compareAndSet(false, true)) {
+            return null;
+        }
+
+        try {
+            Long maximo = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM sentiment_prediction_tb", Long.class);
+            Long minimo = jdbcTemplate.queryForObject(
+                    "SELECT MIN(id) FROM sentiment_prediction_tb", Long.class);
+            if (maximo == null || minimo == null) {
+                return new BulkDeleteDto(0, 0);
+            }
+
+            String sql = String.format(ORFAS, "p.id >= ? AND p.id < ?");
+            long pausa = properties.getPausaColeta().toMillis();
+            long apagadas = 0;
+
+            for (long inicio = minimo; inicio <= maximo; inicio += properties.getLoteColeta()) {
+
+                apagadas += jdbcTemplate.update(sql, inicio,
+                        Math.min(inicio + properties.getLoteColeta(), maximo + 1));
+
+                if (pausa > 0) {
+                    Thread.sleep(pausa);
+                }
+            }
+
+            if (apagadas > 0) {
+                log.info("Coleta: {} previsões órfãs apagadas", apagadas);
+                vacuum();
+            }
+            return new BulkDeleteDto(0, apagadas);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            coletando.set(false);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${sentiment.ciclo-vida.intervalo-coleta:PT10M}",
+            fixedDelayString = "${sentiment.ciclo-vida.intervalo-coleta:PT10M}"
+    )
+    public void scheduledCollect() {
+        if (properties.isColetaHabilitada()) {
+            collectOrphans();
+        }
+    }
+
+    // Retorna {comentários apagados, previsões apagadas, último ID do lote}
+    private long[] deleteChunk(String sql, long inicio, List<Object> filtros) {
+
+        List<Object> parametros = new ArrayList<>(filtros.size() + 1);
+        parametros.add(inicio);
+        parametros.addAll(filtros);
+
+        List<Long> ids = new ArrayList<>();
+        List<Long> previsoes = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            ids.add(rs.getLong(1));
+            long previsao = rs.getLong(2);
+            if (!rs.wasNull()) {
+                previsoes.add(previsao);
+            }
+        }, parametros.toArray());
+
+        if (ids.isEmpty()) {
+            return new long[]{0, 0, inicio};
+        }
+
+        int comentarios = jdbcTemplate.update(
+                "DELETE FROM comentario_tb WHERE id IN (" + placeholders(ids.size()) + ")",
+                ids.toArray());
+
+        // Só as previsões deste lote que nenhum comentário referencia
+        int orfas = 0;
+        if (!previsoes.isEmpty()) {
+            orfas = jdbcTemplate.update(
+                    String.format(ORFAS, "p.id IN (" + placeholders(previsoes.size()) + ")"),
+                    previsoes.toArray());
+        }
+
+        List<Long> apagados = Collections.unmodifiableList(ids);
+        eventPublisher.publishEvent(new CommentsDeletedEvent(apagados));
+        writeTracker.recordWrites(apagados);
+
+        return new long[]{comentarios, orfas, ids.get(ids.size() - 1)};
+    }
+
+    // Devolve o espaço das linhas mortas à tabela e aos índices
+    // e atualiza as estatísticas do planejador
+    private void vacuum() {
+
+        if (!properties.isVacuum() || !postgres()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("VACUUM (ANALYZE) sentiment_prediction_tb");
+        } catch (RuntimeException e) {
+            log.warn("Falha no VACUUM de sentiment_prediction_tb", e);
+        }
+    }
+
+    private boolean postgres() {
+
+        Boolean valor = postgres;
+        if (valor == null) {
+            valor = jdbcTemplate.execute((ConnectionCallback<Boolean>) conexao ->
+                    conexao.getMetaData().getDatabaseProductName().equals("PostgreSQL"));
+            postgres = valor;
+        }
+        return Boolean.TRUE.equals(valor);
+    }
+
+    private static String placeholders(int quantidade) {
+        return String.join(",", Collections.nCopies(quantidade, "?"));
+    }
+}
@@ -0,0 +1,460 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.dtos.SearchResultDto;
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.events.CommentsArchivedEvent;
+import com.sentimentapi.events.CommentsDeletedEvent;
+import com.sentimentapi.repositories.CommentRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.range.LongRange;
+import org.apache.lucene.facet.range.LongRangeFacetCounts;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Índice de busca textual (Lucene) sobre os comentários
+// Mantido de forma incremental a partir dos eventos do SentimentService
+// e consultado pelo endpoint /sentiment/search com facetas de rótulo e data.
+// Sem diretório configurado o índice fica em memória (perfil dev).
+// Cada commit do Lucene grava o maior ID indexado ("ultimoId"); na
+// subida, os comentários com ID acima dele (criados com o índice fora
+// do ar ou perdidos antes de um commit) são indexados a partir do banco.
+// Edições e exclusões perdidas só são corrigidas pela reindexação
+// completa (POST /sentiment/admin/busca/reindexar).
+@Component
+public class CommentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentSearchIndex.class);
+
+    // Nomes dos campos do documento
+    private static final String ID = "id";
+    private static final String TEXTO = "text";
+    private static final String PREVISAO = "previsao";
+    private static final String PREVISAO_FILTRO = "previsao_filtro";
+    private static final String PROBABILIDADE = "probabilidade";
+    private static final String DATA = "data";
+
+    // Tamanho da página usada na reindexação completa
+    private static final int PAGINA_REINDEXACAO = 1_000;
+
+    // Chave do maior ID indexado nos dados do commit
+    private static final String ULTIMO_ID = "ultimoId";
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private final CommentRepository commentRepository;
+    private final Directory directory;
+    private final Analyzer analyzer = new PortugueseAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // Estado das facetas de rótulo, recriado quando o leitor muda
+    private volatile SortedSetDocValuesReaderState estadoFacetas;
+
+    // Maior ID de comentário já enviado ao writer
+    private final AtomicLong ultimoIndexado = new AtomicLong();
+
+    public CommentSearchIndex(
+            CommentRepository commentRepository,
+            @Value("${sentiment.busca.diretorio:}") String diretorio) throws IOException {
+
+        this.commentRepository = commentRepository;
+        this.directory = diretorio.isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Path.of(diretorio));
+
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+
+        Iterable<Map.Entry<String, String>> dadosCommit = writer.getLiveCommitData();
+        if (dadosCommit != null) {
+            for (Map.Entry<String, String> dado : dadosCommit) {
+                if (ULTIMO_ID.equals(dado.getKey())) {
+                    ultimoIndexado.set(Long.parseLong(dado.getValue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Atualiza o índice a partir das alterações feitas no service.
+     * Falhas de indexação são apenas registradas: a busca não pode
+     * derrubar a gravação do comentário.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+
+        try {
+            Term chave = new Term(ID, String.valueOf(event.commentId()));
+
+            if (event.type() == CommentChangedEvent.Type.DELETED) {
+                writer.deleteDocuments(chave);
+            } else {
+                writer.updateDocument(chave, toDocument(event));
+                // Depois do documento: um commit nunca grava um ID não indexado
+                ultimoIndexado.accumulateAndGet(event.commentId(), Math::max);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Erro ao indexar o comentário {}", event.commentId(), e);
+        }
+    }
+
+    /**
+     * Remove do índice o intervalo de datas arquivado pela retenção.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentsArchived(CommentsArchivedEvent event) {
+
+        try {
+            writer.deleteDocuments(LongPoint.newRangeQuery(DATA,
+                    toMillis(event.inicio()), toMillis(event.fim()) - 1));
+        } catch (IOException | RuntimeException e) {
+            log.error("Erro ao remover do índice o período {} a {}", event.inicio(), event.fim(), e);
+        }
+    }
+
+    /**
+     * Remove do índice os comentários de um lote da exclusão em massa.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentsDeleted(CommentsDeletedEvent event) {
+
+        try {
+            Term[] chaves = new Term[event.ids().size()];
+            for (int i = 0; i < chaves.length; i++) {
+                chaves[i] = new Term(ID, String.valueOf(event.ids().get(i)));
+            }
+            writer.deleteDocuments(chaves);
+        } catch (IOException | RuntimeException e) {
+            log.error("Erro ao remover do índice {} comentários excluídos", event.ids().size(), e);
+        }
+    }
+
+    /**
+     * Na subida, alcança o banco: reconstrói o índice se ele estiver
+     * vazio ou indexa os comentários criados depois do último commit.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void catchUp() throws IOException {
+
+        if (writer.getDocStats().numDocs == 0 && ultimoIndexado.get() == 0) {
+            if (commentRepository.count() > 0) {
+                rebuild();
+            }
+            return;
+        }
+
+        long desde = ultimoIndexado.get();
+        long total = indexFrom(desde);
+        if (total > 0) {
+            commit();
+            searcherManager.maybeRefresh();
+            log.info("Índice de busca atualizado com {} comentários acima do ID {}", total, desde);
+        }
+    }
+
+    /**
+     * Reindexa todos os comentários, percorrendo a tabela por páginas de ID.
+     * Devolve o número de comentários indexados.
+     */
+    public synchronized long rebuild() throws IOException {
+
+        writer.deleteAll();
+        ultimoIndexado.set(0);
+
+        long total = indexFrom(0);
+
+        commit();
+        searcherManager.maybeRefresh();
+        log.info("Índice de busca reconstruído com {} comentários", total);
+        return total;
+    }
+
+    // Indexa os comentários com ID acima de ultimoId, por páginas
+    private long indexFrom(long ultimoId) throws IOException {
+
+        long total = 0;
+        List<CommentEntity> pagina;
+
+        do {
+            pagina = commentRepository.findByIdGreaterThanOrderByIdAsc(
+                    ultimoId, PageRequest.of(0, PAGINA_REINDEXACAO));
+
+            for (CommentEntity comment : pagina) {
+                onCommentChanged(CommentChangedEvent.created(comment));
+                ultimoId = comment.getId();
+            }
+            total += pagina.size();
+
+        } while (pagina.size() == PAGINA_REINDEXACAO);
+
+        return total;
+    }
+
+    // Persiste periodicamente as alterações em disco
+    @Scheduled(fixedDelayString = "${sentiment.busca.commit-intervalo:PT30S}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.setLiveCommitData(
+                    Map.of(ULTIMO_ID, String.valueOf(ultimoIndexado.get())).entrySet());
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Busca os comentários que contêm os termos informados.
+     *
+     * @param consulta termos da busca (sintaxe simples: "frase", -termo, a | b)
+     * @param previsao filtra por rótulo (opcional)
+     * @param de       data inicial inclusiva (opcional)
+     * @param ate      data final inclusiva (opcional)
+     * @param k        quantidade máxima de resultados
+     */
+    public SearchResultDto search(String consulta, String previsao,
+                                  LocalDate de, LocalDate ate, int k) {
+
+        try {
+            // Torna visíveis as alterações feitas desde a última busca
+            searcherManager.maybeRefresh();
+            IndexSearcher searcher = searcherManager.acquire();
+
+            try {
+                if (searcher.getIndexReader().numDocs() == 0) {
+                    return new SearchResultDto(0, List.of(), Map.of());
+                }
+
+                Query query = buildQuery(consulta, previsao, de, ate);
+
+                FacetsCollector facetsCollector = new FacetsCollector();
+                TopDocs topDocs = FacetsCollector.search(searcher, query, k, facetsCollector);
+
+                Map<String, Map<String, Long>> facetas = new LinkedHashMap<>();
+                facetas.put(PREVISAO, labelFacets(searcher.getIndexReader(), facetsCollector));
+                facetas.put(DATA, dateFacets(facetsCollector));
+
+                return new SearchResultDto(
+                        topDocs.totalHits.value,
+                        hits(searcher, topDocs),
+                        facetas
+                );
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao consultar o índice de busca", e);
+        }
+    }
+
+    private Query buildQuery(String consulta, String previsao,
+                             LocalDate de, LocalDate ate) {
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+
+        if (consulta == null || consulta.isBlank()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        } else {
+            SimpleQueryParser parser = new SimpleQueryParser(analyzer, TEXTO);
+            parser.setDefaultOperator(BooleanClause.Occur.MUST);
+            builder.add(parser.parse(consulta), BooleanClause.Occur.MUST);
+        }
+
+        if (previsao != null && !previsao.isBlank()) {
+            builder.add(new TermQuery(new Term(PREVISAO_FILTRO, previsao.toLowerCase(Locale.ROOT))),
+                    BooleanClause.Occur.FILTER);
+        }
+
+        if (de != null || ate != null) {
+            long inicio = de == null ? Long.MIN_VALUE : toMillis(de.atStartOfDay());
+            long fim = ate == null ? Long.MAX_VALUE : toMillis(ate.plusDays(1).atStartOfDay()) - 1;
+            builder.add(LongPoint.newRangeQuery(DATA, inicio, fim), BooleanClause.Occur.FILTER);
+        }
+
+        return builder.build();
+    }
+
+    private List<SearchResultDto.Hit> hits(IndexSearcher searcher, TopDocs topDocs) throws IOException {
+
+        StoredFields storedFields = searcher.storedFields();
+        List<SearchResultDto.Hit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+            Document doc = storedFields.document(scoreDoc.doc);
+
+            Number probabilidade = doc.getField(PROBABILIDADE).numericValue();
+            Field data = (Field) doc.getField(DATA);
+
+            hits.add(new SearchResultDto.Hit(
+                    Long.valueOf(doc.get(ID)),
+                    doc.get(TEXTO),
+                    doc.get(PREVISAO),
+                    probabilidade.doubleValue(),
+                    data == null ? null : LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(data.numericValue().longValue()), ZONA).toString()
+            ));
+        }
+
+        return hits;
+    }
+
+    private Map<String, Long> labelFacets(IndexReader reader,
+                                          FacetsCollector facetsCollector) throws IOException {
+
+        Map<String, Long> contagem = new LinkedHashMap<>();
+
+        SortedSetDocValuesReaderState estado = facetState(reader);
+        if (estado == null) {
+            return contagem;
+        }
+
+        FacetResult resultado = new SortedSetDocValuesFacetCounts(estado, facetsCollector)
+                .getTopChildren(10, PREVISAO);
+
+        if (resultado != null) {
+            for (LabelAndValue lv : resultado.labelValues) {
+                contagem.put(lv.label, lv.value.longValue());
+            }
+        }
+
+        return contagem;
+    }
+
+    // Contagens cumulativas por período, relativas ao momento da busca
+    private Map<String, Long> dateFacets(FacetsCollector facetsCollector) throws IOException {
+
+        LocalDateTime agora = LocalDateTime.now(ZONA);
+        long fim = Long.MAX_VALUE;
+
+        LongRange[] periodos = {
+                new LongRange("24h", toMillis(agora.minusHours(24)), true, fim, true),
+                new LongRange("7d", toMillis(agora.minusDays(7)), true, fim, true),
+                new LongRange("30d", toMillis(agora.minusDays(30)), true, fim, true),
+                new LongRange("365d", toMillis(agora.minusDays(365)), true, fim, true)
+        };
+
+        FacetResult resultado = new LongRangeFacetCounts(DATA, facetsCollector, periodos)
+                .getAllChildren(DATA);
+
+        Map<String, Long> contagem = new LinkedHashMap<>();
+        for (LabelAndValue lv : resultado.labelValues) {
+            contagem.put(lv.label, lv.value.longValue());
+        }
+
+        return contagem;
+    }
+
+    // O estado das facetas depende do leitor; só é recriado após um refresh
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+
+        SortedSetDocValuesReaderState estado = estadoFacetas;
+        if (estado != null && estado.getReader() == reader) {
+            return estado;
+        }
+
+        try {
+            estado = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+        } catch (IllegalArgumentException e) {
+            // Nenhum documento com rótulo indexado ainda
+            return null;
+        }
+
+        estadoFacetas = estado;
+        return estado;
+    }
+
+    private Document toDocument(CommentChangedEvent event) throws IOException {
+
+        Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(event.commentId()), Field.Store.YES));
+
+        if (event.text() != null) {
+            doc.add(new TextField(TEXTO, event.text(), Field.Store.YES));
+        }
+
+        if (event.label() != null) {
+            doc.add(new StoredField(PREVISAO, event.label()));
+            doc.add(new StringField(PREVISAO_FILTRO,
+                    event.label().toLowerCase(Locale.ROOT), Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(PREVISAO, event.label()));
+        }
+        doc.add(new StoredField(PROBABILIDADE, event.probability()));
+
+        if (event.dataCriacao() != null) {
+            long millis = toMillis(event.dataCriacao());
+            doc.add(new LongPoint(DATA, millis));
+            doc.add(new NumericDocValuesField(DATA, millis));
+            doc.add(new StoredField(DATA, millis));
+        }
+
+        return facetsConfig.build(doc);
+    }
+
+    private static long toMillis(LocalDateTime data) {
+        return data.atZone(ZONA).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,267 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.ConfidenceProperties;
+import com.sentimentapi.dtos.ConfidenceDto;
+import com.sentimentapi.dtos.LowConfidenceDto;
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.entities.ConfidenceSketchCheckpoint;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.repositories.CommentRepository;
+import com.sentimentapi.repositories.ConfidenceSketchRepository;
+import com.sentimentapi.sketch.ConfidenceSketch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Distribuição da confiança (probabilidade) das previsões por rótulo
+// Cada classificação entra no sketch do seu rótulo e da hora atual;
+// uma janela qualquer é a soma dos sketches das horas que ela cobre.
+// As horas recentes ficam em memória e todas são salvas periodicamente
+// em sketch_confianca_tb, de onde vêm as janelas mais antigas.
+// Nenhuma consulta lê comentario_tb para calcular os quantis.
+@Service
+public class ConfidenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfidenceService.class);
+
+    private final ConfidenceProperties properties;
+    private final ConfidenceSketchRepository sketchRepository;
+    private final CommentRepository commentRepository;
+
+    private final Map<Chave, Hora> horas = new ConcurrentHashMap<>();
+
+    public ConfidenceService(ConfidenceProperties properties,
+                             ConfidenceSketchRepository sketchRepository,
+                             CommentRepository commentRepository) {
+        this.properties = properties;
+        this.sketchRepository = sketchRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    // Recarrega as horas recentes salvas antes do último desligamento
+    @PostConstruct
+    public void load() {
+
+        LocalDateTime agora = currentHour();
+        for (ConfidenceSketchCheckpoint checkpoint : sketchRepository
+                .findByHoraGreaterThanEqualAndHoraLessThan(memoryStart(agora), agora.plusHours(1))) {
+
+            ConfidenceSketch sketch = ConfidenceSketch.fromBytes(checkpoint.getDados());
+            if (sketch.precision() != properties.getPrecisao()) {
+                continue;
+            }
+            hora(new Chave(checkpoint.getLabel(), checkpoint.getHora())).total.merge(sketch);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+
+        // Remoções não desfazem a classificação já feita
+        if (event.type() == CommentChangedEvent.Type.DELETED || event.label() == null) {
+            return;
+        }
+        record(event.label(), event.probability(), LocalDateTime.now());
+    }
+
+    public void record(String label, double probabilidade, LocalDateTime quando) {
+
+        Hora hora = hora(new Chave(label, quando.truncatedTo(ChronoUnit.HOURS)));
+        synchronized (hora) {
+            hora.total.add(probabilidade);
+            hora.pendente.add(probabilidade);
+        }
+    }
+
+    /**
+     * Soma no banco o que cada hora acumulou desde o último checkpoint
+     * e descarta da memória as horas que saíram da janela.
+     */
+    @Scheduled(fixedDelayString = "${sentiment.confianca.intervalo-checkpoint:PT1M}")
+    public synchronized void checkpoint() {
+
+        LocalDateTime limite = memoryStart(currentHour());
+
+        for (Map.Entry<Chave, Hora> entrada : horas.entrySet()) {
+
+            Chave chave = entrada.getKey();
+            Hora hora = entrada.getValue();
+
+            ConfidenceSketch delta;
+            synchronized (hora) {
+                delta = hora.pendente;
+                hora.pendente = new ConfidenceSketch(properties.getPrecisao());
+            }
+
+            if (delta.count() > 0) {
+                try {
+                    save(chave, delta);
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    // Outra instância salvou a mesma hora; tenta no próximo ciclo
+                    synchronized (hora) {
+                        hora.pendente.merge(delta);
+                    }
+                    continue;
+                }
+            }
+
+            if (chave.hora().isBefore(limite)) {
+                horas.remove(chave);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao salvar os sketches de confiança no desligamento", e);
+        }
+    }
+
+    /**
+     * Quantidade e quantis p10/p50/p90 da probabilidade por rótulo
+     * nas horas que começam em [de, ate).
+     */
+    @Transactional(readOnly = true)
+    public ConfidenceDto distribution(LocalDateTime de, LocalDateTime ate) {
+
+        LocalDateTime inicio = de.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime limiteMemoria = memoryStart(currentHour());
+
+        Map<String, ConfidenceSketch> porRotulo = new TreeMap<>();
+
+        for (Map.Entry<Chave, Hora> entrada : horas.entrySet()) {
+            LocalDateTime hora = entrada.getKey().hora();
+            if (!hora.isBefore(inicio) && !hora.isBefore(limiteMemoria) && hora.isBefore(ate)) {
+                synchronized (entrada.getValue()) {
+                    sketch(porRotulo, entrada.getKey().label()).merge(entrada.getValue().total);
+                }
+            }
+        }
+
+        // Parte da janela que já saiu da memória
+        if (inicio.isBefore(limiteMemoria)) {
+            LocalDateTime fim = ate.isBefore(limiteMemoria) ? ate : limiteMemoria;
+            for (ConfidenceSketchCheckpoint checkpoint :
+                    sketchRepository.findByHoraGreaterThanEqualAndHoraLessThan(inicio, fim)) {
+                ConfidenceSketch sketch = ConfidenceSketch.fromBytes(checkpoint.getDados());
+                if (sketch.precision() == properties.getPrecisao()) {
+                    sketch(porRotulo, checkpoint.getLabel()).merge(sketch);
+                }
+            }
+        }
+
+        Map<String, ConfidenceDto.Quantis> rotulos = new TreeMap<>();
+        porRotulo.forEach((label, sketch) -> rotulos.put(label, new ConfidenceDto.Quantis(
+                sketch.count(),
+                sketch.quantile(0.10),
+                sketch.quantile(0.50),
+                sketch.quantile(0.90)
+        )));
+
+        return new ConfidenceDto(inicio.toString(), ate.toString(), rotulos);
+    }
+
+    /**
+     * Comentários com probabilidade abaixo de {@code limite}, menos
+     * confiantes primeiro, opcionalmente de um único rótulo.
+     */
+    @Transactional(readOnly = true)
+    public List<LowConfidenceDto> lowConfidence(Double limite, String label, int pagina, int tamanho) {
+
+        double corte = limite != null ? limite : properties.getLimiteBaixa();
+        PageRequest pageable = PageRequest.of(pagina, tamanho);
+
+        List<CommentEntity> comments = label == null || label.isBlank()
+                ? commentRepository.buscarBaixaConfianca(corte, pageable)
+                : commentRepository.buscarBaixaConfiancaPorRotulo(label, corte, pageable);
+
+        List<LowConfidenceDto> resultado = new ArrayList<>(comments.size());
+        for (CommentEntity comment : comments) {
+            resultado.add(new LowConfidenceDto(
+                    comment.getId(),
+                    comment.getText(),
+                    comment.getPrevisao().getLabel(),
+                    comment.getPrevisao().getProbability(),
+                    comment.getDataCriacao() == null ? null : comment.getDataCriacao().toString()
+            ));
+        }
+        return resultado;
+    }
+
+    private void save(Chave chave, ConfidenceSketch delta) {
+
+        ConfidenceSketchCheckpoint checkpoint = sketchRepository
+                .findByLabelAndHora(chave.label(), chave.hora())
+                .orElseGet(() -> {
+                    ConfidenceSketchCheckpoint novo = new ConfidenceSketchCheckpoint();
+                    novo.setLabel(chave.label());
+                    novo.setHora(chave.hora());
+                    return novo;
+                });
+
+        ConfidenceSketch soma = new ConfidenceSketch(properties.getPrecisao());
+        if (checkpoint.getDados() != null) {
+            ConfidenceSketch salvo = ConfidenceSketch.fromBytes(checkpoint.getDados());
+            // Precisão alterada na configuração: o valor antigo é substituído
+            if (salvo.precision() == soma.precision()) {
+                soma.merge(salvo);
+            }
+        }
+        soma.merge(delta);
+
+        checkpoint.setDados(soma.toBytes());
+        checkpoint.setContagem(soma.count());
+        sketchRepository.save(checkpoint);
+    }
+
+    private Hora hora(Chave chave) {
+        return horas.computeIfAbsent(chave, c -> new Hora(properties.getPrecisao()));
+    }
+
+    private LocalDateTime memoryStart(LocalDateTime horaAtual) {
+        return horaAtual.minusHours(properties.getHorasEmMemoria() - 1L);
+    }
+
+    private static LocalDateTime currentHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private ConfidenceSketch sketch(Map<String, ConfidenceSketch> porRotulo, String label) {
+        return porRotulo.computeIfAbsent(label, l -> new ConfidenceSketch(properties.getPrecisao()));
+    }
+
+    private record Chave(String label, LocalDateTime hora) {
+    }
+
+    // Sketch de um rótulo em uma hora e o que ainda não foi salvo
+    private static final class Hora {
+
+        final ConfidenceSketch total;
+        ConfidenceSketch pendente;
+
+        Hora(double precisao) {
+            this.total = new ConfidenceSketch(precisao);
+            this.pendente = new ConfidenceSketch(precisao);
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.ImportProperties;
+import com.sentimentapi.csv.MappedCsvFile;
+import com.sentimentapi.dtos.ImportStatusDto;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.jfr.CsvChunkEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Importação de arquivos CSV do disco local (dumps de vários GB)
+// O arquivo é mapeado em memória e dividido em blocos alinhados a
+// registros; os blocos são lidos em paralelo, um pouco à frente da
+// classificação, e entregues EM ORDEM à mesma lógica do upload de CSV.
+// As importações rodam uma de cada vez, fora da thread da requisição,
+// com uma fila limitada de importações aguardando.
+// No diretório observado, um CSV só é importado quando para de mudar:
+// o evento de criação chega no início de uma cópia, não no fim.
+@Service
+public class CsvImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImportService.class);
+
+    // Importações concluídas mantidas para consulta
+    private static final int HISTORICO = 50;
+
+    private final ImportProperties properties;
+    private final SentimentService sentimentService;
+
+    private final ExecutorService leitura;
+    private final ExecutorService importacoes;
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private volatile WatchService watchService;
+
+    public CsvImportService(ImportProperties properties,
+                            SentimentService sentimentService) {
+
+        this.properties = properties;
+        this.sentimentService = sentimentService;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.leitura = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()), tarefa -> {
+            Thread thread = new Thread(tarefa, "csv-leitura-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.importacoes = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getFilaMaxima())), tarefa -> {
+            Thread thread = new Thread(tarefa, "csv-importacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resolve um caminho relativo ao diretório de importação.
+     * Vazio se a importação estiver desabilitada, se o arquivo não existir
+     * ou se o caminho sair do diretório base.
+     */
+    public Optional<Path> resolve(String caminho) {
+
+        if (properties.getDiretorio().isBlank() || caminho == null || caminho.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            Path base = Path.of(properties.getDiretorio()).toRealPath();
+            Path arquivo = base.resolve(caminho).normalize();
+            if (!Files.isRegularFile(arquivo)) {
+                return Optional.empty();
+            }
+            // toRealPath também resolve links simbólicos para fora da base
+            arquivo = arquivo.toRealPath();
+            return arquivo.startsWith(base) ? Optional.of(arquivo) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean enabled() {
+        return !properties.getDiretorio().isBlank();
+    }
+
+    /**
+     * Enfileira a importação de um arquivo e devolve seu estado inicial.
+     * Vazio se a fila de importações estiver cheia.
+     */
+    public Optional<ImportStatusDto> submit(Path arquivo) {
+        return Optional.ofNullable(submit(arquivo, null)).map(Job::status);
+    }
+
+    public Optional<ImportStatusDto> status(long id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::status);
+    }
+
+    public List<ImportStatusDto> list() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong((Job job) -> job.id).reversed())
+                .map(Job::status)
+                .toList();
+    }
+
+    /**
+     * Importa o arquivo na thread atual (usado pelo job e pelos testes).
+     */
+    void importFile(Job job) throws IOException {
+
+        try (MappedCsvFile csv = MappedCsvFile.open(job.arquivo)) {
+
+            int coluna = csv.columnIndex(properties.getColuna());
+            if (coluna < 0) {
+                throw new IllegalArgumentException(
+                        "Coluna '" + properties.getColuna() + "' não encontrada no cabeçalho");
+            }
+
+            List<MappedCsvFile.Chunk> blocos =
+                    csv.split(properties.getTamanhoBloco(), leitura);
+
+            // Leitura adiantada limitada: no máximo 2 blocos por thread
+            // em memória enquanto a classificação consome em ordem
+            int adiante = Math.max(2, properties.getThreads() * 2);
+            Deque<Future<ParsedChunk>> pendentes = new ArrayDeque<>();
+            int proximo = 0;
+
+            while (proximo < blocos.size() || !pendentes.isEmpty()) {
+
+                while (proximo < blocos.size() && pendentes.size() < adiante) {
+                    MappedCsvFile.Chunk bloco = blocos.get(proximo++);
+                    pendentes.add(leitura.submit(() -> parse(csv, bloco, coluna)));
+                }
+
+                ParsedChunk lido = await(pendentes.poll());
+                job.invalidos.addAndGet(lido.invalidos());
+                persist(job, lido);
+            }
+        }
+    }
+
+    private ParsedChunk parse(MappedCsvFile csv, MappedCsvFile.Chunk bloco, int coluna)
+            throws IOException {
+
+        CsvChunkEvent evento = new CsvChunkEvent();
+        evento.begin();
+
+        List<String> textos = new ArrayList<>();
+        long invalidos = csv.parse(bloco, coluna, textos::add);
+
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.etapa = "leitura";
+            evento.bloco = bloco.index();
+            evento.bytes = bloco.end() - bloco.start();
+            evento.registros = textos.size();
+            evento.invalidos = invalidos;
+            evento.commit();
+        }
+        return new ParsedChunk(bloco.index(), textos, invalidos);
+    }
+
+    private void persist(Job job, ParsedChunk bloco) {
+
+        CsvChunkEvent evento = new CsvChunkEvent();
+        evento.begin();
+        List<String> textos = bloco.textos();
+        int classificados = 0;
+
+        int tamanho = Math.max(1, properties.getLoteTamanho());
+        for (int inicio = 0; inicio < textos.size(); inicio += tamanho) {
+
+            List<String> lote = textos.subList(
+                    inicio, Math.min(inicio + tamanho, textos.size()));
+
+            for (SentimentPrediction prediction : sentimentService.classifyAndPersist(lote)) {
+                if (prediction != null) {
+                    job.classificados.incrementAndGet();
+                    classificados++;
+                }
+            }
+            job.registros.addAndGet(lote.size());
+        }
+
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.etapa = "classificacao";
+            evento.bloco = bloco.indice();
+            evento.registros = textos.size();
+            evento.invalidos = bloco.invalidos();
+            evento.classificados = classificados;
+            evento.commit();
+        }
+    }
+
+    // Null se a fila estiver cheia
+    private Job submit(Path arquivo, Path destino) {
+
+        Job job = new Job(ids.incrementAndGet(), arquivo);
+        jobs.put(job.id, job);
+
+        try {
+            importacoes.execute(() -> run(job, destino));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            return null;
+        }
+
+        trim();
+        return job;
+    }
+
+    private void run(Job job, Path destino) {
+
+        job.estado = "executando";
+        job.inicio = LocalDateTime.now();
+        try {
+            importFile(job);
+            job.estado = "concluido";
+            log.info("Importação {} concluída: {} registros, {} classificados",
+                    job.arquivo, job.registros.get(), job.classificados.get());
+        } catch (Exception e) {
+            job.estado = "falhou";
+            job.erro = e.getMessage();
+            log.warn("Falha ao importar {}", job.arquivo, e);
+        } finally {
+            job.fim = LocalDateTime.now();
+        }
+
+        // Arquivos do diretório observado saem dele ao terminar
+        if (destino != null) {
+            moveTo(job.arquivo, destino.resolve("falhou".equals(job.estado) ? "falhas" : "importados"));
+        }
+    }
+
+    /**
+     * Começa a observar o diretório configurado: importa os CSVs que já
+     * estão lá e cada novo arquivo que aparecer (criado ou renomeado
+     * para .csv), assim que ele parar de mudar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void watch() {
+
+        if (properties.getDiretorioObservado().isBlank()) {
+            return;
+        }
+
+        try {
+            Path diretorio = Path.of(properties.getDiretorioObservado());
+            Files.createDirectories(diretorio);
+
+            // Uma renomeação para dentro do diretório também chega como ENTRY_CREATE
+            watchService = diretorio.getFileSystem().newWatchService();
+            diretorio.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+
+            Map<Path, FileSnapshot> candidatos = new HashMap<>();
+            scan(diretorio, candidatos);
+
+            Thread observador = new Thread(() -> poll(diretorio, candidatos), "csv-observador");
+            observador.setDaemon(true);
+            observador.start();
+
+        } catch (IOException e) {
+            log.warn("Não foi possível observar {}", properties.getDiretorioObservado(), e);
+        }
+    }
+
+    private void poll(Path diretorio, Map<Path, FileSnapshot> candidatos) {
+
+        long intervalo = Math.max(1, properties.getEstabilizacao().toMillis());
+
+        try {
+            while (true) {
+                WatchKey chave = watchService.poll(intervalo, TimeUnit.MILLISECONDS);
+                if (chave != null) {
+                    for (WatchEvent<?> evento : chave.pollEvents()) {
+                        if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            scan(diretorio, candidatos);
+                        } else if (evento.context() instanceof Path nome
+                                && nome.toString().endsWith(".csv")) {
+                            candidatos.putIfAbsent(diretorio.resolve(nome), null);
+                        }
+                    }
+                    if (!chave.reset()) {
+                        return;
+                    }
+                }
+                submitStable(diretorio, candidatos, intervalo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Aplicação encerrando
+        } catch (IOException e) {
+            log.warn("Falha ao listar {}", diretorio, e);
+        }
+    }
+
+    // CSVs já presentes no diretório (na subida ou após perda de eventos)
+    private static void scan(Path diretorio, Map<Path, FileSnapshot> candidatos) throws IOException {
+        try (DirectoryStream<Path> existentes = Files.newDirectoryStream(diretorio, "*.csv")) {
+            for (Path arquivo : existentes) {
+                candidatos.putIfAbsent(arquivo, null);
+            }
+        }
+    }
+
+    // Enfileira os candidatos com tamanho e data iguais aos de uma
+    // observação feita há pelo menos um intervalo
+    private void submitStable(Path diretorio, Map<Path, FileSnapshot> candidatos, long intervalo) {
+
+        long agora = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, FileSnapshot>> iterador = candidatos.entrySet().iterator();
+
+        while (iterador.hasNext()) {
+
+            Map.Entry<Path, FileSnapshot> candidato = iterador.next();
+            FileSnapshot atual;
+            try {
+                atual = FileSnapshot.of(candidato.getKey(), agora);
+            } catch (IOException e) {
+                // Removido ou renomeado antes de terminar
+                iterador.remove();
+                continue;
+            }
+
+            FileSnapshot anterior = candidato.getValue();
+            if (anterior == null || !anterior.sameContent(atual)) {
+                candidato.setValue(atual);
+                continue;
+            }
+
+            // Fila cheia: o arquivo fica para o próximo intervalo
+            if (agora - anterior.observadoEm() >= intervalo
+                    && submit(candidato.getKey(), diretorio) != null) {
+                iterador.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        importacoes.shutdownNow();
+        leitura.shutdownNow();
+    }
+
+    private void moveTo(Path arquivo, Path pasta) {
+        try {
+            Files.createDirectories(pasta);
+            Files.move(arquivo, pasta.resolve(arquivo.getFileName()),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Não foi possível mover {} para {}", arquivo, pasta, e);
+        }
+    }
+
+    // Descarta as importações terminadas mais antigas
+    private void trim() {
+        if (jobs.size() <= HISTORICO) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.fim != null)
+                .sorted(Comparator.comparingLong(job -> job.id))
+                .limit(jobs.size() - HISTORICO)
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Falha ao ler o CSV", e.getCause());
+        }
+    }
+
+    private record ParsedChunk(int indice, List<String> textos, long invalidos) {
+    }
+
+    // Tamanho e data de modificação de um arquivo em um instante
+    private record FileSnapshot(long tamanho, FileTime modificado, long observadoEm) {
+
+        static FileSnapshot of(Path arquivo, long agora) throws IOException {
+            return new FileSnapshot(Files.size(arquivo), Files.getLastModifiedTime(arquivo), agora);
+        }
+
+        boolean sameContent(FileSnapshot outro) {
+            return tamanho == outro.tamanho && modificado.equals(outro.modificado);
+        }
+    }
+
+    // Estado mutável de uma importação
+    static final class Job {
+
+        final long id;
+        final Path arquivo;
+        final AtomicLong registros = new AtomicLong();
+        final AtomicLong classificados = new AtomicLong();
+        final AtomicLong invalidos = new AtomicLong();
+        volatile String estado = "aguardando";
+        volatile String erro;
+        volatile LocalDateTime inicio;
+        volatile LocalDateTime fim;
+
+        Job(long id, Path arquivo) {
+            this.id = id;
+            this.arquivo = arquivo;
+        }
+
+        ImportStatusDto status() {
+            return new ImportStatusDto(
+                    id,
+                    arquivo.getFileName().toString(),
+                    estado,
+                    registros.get(),
+                    classificados.get(),
+                    invalidos.get(),
+                    erro,
+                    inicio == null ? null : inicio.toString(),
+                    fim == null ? null : fim.toString()
+            );
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.JfrProperties;
+import com.sentimentapi.dtos.JfrStatusDto;
+import com.sentimentapi.jfr.JfrSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+// Controle das gravações do JDK Flight Recorder
+// Uma gravação por vez, em buffer circular; o dump copia a janela
+// atual para um arquivo em sentiment.jfr.diretorio sem parar a gravação.
+// Os eventos da aplicação (pacote jfr) entram em qualquer configuração.
+@Service
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private static final DateTimeFormatter NOME_DUMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final JfrProperties properties;
+
+    private Recording gravacao;
+    private String configuracao;
+
+    public FlightRecordingService(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (properties.isContinuo()) {
+            try {
+                start(properties.getConfiguracao());
+            } catch (IOException | ParseException e) {
+                log.warn("Não foi possível iniciar a gravação JFR contínua", e);
+            }
+        }
+    }
+
+    /**
+     * Inicia a gravação com uma configuração do JDK ("default" ou "profile").
+     * Se já houver uma gravação em andamento, ela é mantida.
+     */
+    public synchronized JfrStatusDto start(String nomeConfiguracao) throws IOException, ParseException {
+
+        if (recording()) {
+            return status();
+        }
+
+        Recording nova = new Recording(Configuration.getConfiguration(nomeConfiguracao));
+        nova.setName("sentimentapi");
+        nova.setToDisk(true);
+        nova.setMaxAge(properties.getIdadeMaxima());
+        nova.setMaxSize(properties.getTamanhoMaximo());
+        nova.start();
+
+        gravacao = nova;
+        configuracao = nomeConfiguracao;
+        log.info("Gravação JFR iniciada (configuração {})", nomeConfiguracao);
+        return status();
+    }
+
+    /**
+     * Copia o conteúdo atual da gravação para um novo arquivo.
+     * Vazio se nada estiver sendo gravado.
+     */
+    public synchronized Optional<Path> dump() throws IOException {
+
+        if (!recording()) {
+            return Optional.empty();
+        }
+
+        Path diretorio = Path.of(properties.getDiretorio());
+        Files.createDirectories(diretorio);
+        Path arquivo = diretorio.resolve("sentimentapi-" + LocalDateTime.now().format(NOME_DUMP) + ".jfr");
+        gravacao.dump(arquivo);
+        log.info("Dump JFR gravado em {}", arquivo);
+        return Optional.of(arquivo);
+    }
+
+    public synchronized JfrStatusDto stop() {
+
+        if (gravacao != null) {
+            gravacao.close();
+            gravacao = null;
+            configuracao = null;
+            log.info("Gravação JFR encerrada");
+        }
+        return status();
+    }
+
+    public synchronized JfrStatusDto status() {
+
+        boolean ativa = recording();
+        return new JfrStatusDto(
+                ativa,
+                ativa ? configuracao : null,
+                ativa && gravacao.getStartTime() != null
+                        ? LocalDateTime.ofInstant(gravacao.getStartTime(), ZoneId.systemDefault()).toString()
+                        : null,
+                ativa ? gravacao.getSize() : 0,
+                dumps()
+        );
+    }
+
+    /**
+     * Resumo de um dump do diretório configurado (pelo nome do arquivo).
+     */
+    public Optional<JfrSummary.Summary> summarize(String nome) throws IOException {
+
+        Optional<Path> arquivo = resolve(nome);
+        if (arquivo.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(JfrSummary.summarize(arquivo.get()));
+    }
+
+    @PreDestroy
+    public void close() {
+
+        if (properties.isDumpAoEncerrar()) {
+            try {
+                dump();
+            } catch (IOException e) {
+                log.warn("Falha no dump JFR ao encerrar", e);
+            }
+        }
+        stop();
+    }
+
+    private boolean recording() {
+        return gravacao != null && gravacao.getState() == RecordingState.RUNNING;
+    }
+
+    // Só arquivos .jfr diretamente dentro do diretório de dumps
+    private Optional<Path> resolve(String nome) {
+
+        if (nome == null || nome.isBlank() || !nome.endsWith(".jfr")) {
+            return Optional.empty();
+        }
+        Path diretorio = Path.of(properties.getDiretorio()).toAbsolutePath().normalize();
+        Path arquivo = diretorio.resolve(nome).normalize();
+        if (!arquivo.getParent().equals(diretorio) || !Files.isRegularFile(arquivo)) {
+            return Optional.empty();
+        }
+        return Optional.of(arquivo);
+    }
+
+    private List<JfrStatusDto.Dump> dumps() {
+
+        Path diretorio = Path.of(properties.getDiretorio());
+        List<JfrStatusDto.Dump> lista = new ArrayList<>();
+        if (!Files.isDirectory(diretorio)) {
+            return lista;
+        }
+
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*.jfr")) {
+            for (Path arquivo : arquivos) {
+                lista.add(new JfrStatusDto.Dump(
+                        arquivo.getFileName().toString(),
+                        Files.size(arquivo),
+                        LocalDateTime.ofInstant(Files.getLastModifiedTime(arquivo).toInstant(),
+                                ZoneId.systemDefault()).toString()));
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível listar os dumps JFR", e);
+        }
+
+        lista.sort(Comparator.comparing(JfrStatusDto.Dump::arquivo).reversed());
+        return lista;
+    }
+}
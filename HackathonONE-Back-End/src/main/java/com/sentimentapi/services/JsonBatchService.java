@@ -0,0 +1,152 @@
+package com.sentimentapi.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.dtos.SentimentDadosDTO;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.json.SentimentJsonReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Classificação em lote de entradas JSON (array ou NDJSON)
+// A entrada é lida registro a registro, classificada em lotes de tamanho
+// fixo e cada resultado é escrito como uma linha NDJSON assim que o lote
+// termina. A memória usada depende só do tamanho do lote.
+@Service
+public class JsonBatchService {
+
+    private final SentimentService sentimentService;
+    private final ObjectMapper objectMapper;
+
+    // Textos classificados e persistidos de cada vez
+    private final int loteTamanho;
+
+    public JsonBatchService(SentimentService sentimentService,
+                            ObjectMapper objectMapper,
+                            @Value("${sentiment.lote.json-tamanho:500}") int loteTamanho) {
+        this.sentimentService = sentimentService;
+        this.objectMapper = objectMapper;
+        this.loteTamanho = Math.max(1, loteTamanho);
+    }
+
+    /**
+     * Lê os registros de {@code in} e escreve uma linha NDJSON por registro
+     * em {@code out}, na ordem de entrada:
+     * {@code {"indice":0,"previsao":"Positivo","probabilidade":0.93}}.
+     * Registros sem texto ou não classificados saem com {@code "error"}.
+     * Um erro de sintaxe encerra a saída com uma linha {@code {"error": ...}}.
+     */
+    public void classify(InputStream in, OutputStream out) throws IOException {
+
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(out)) {
+
+            // As linhas são separadas manualmente (NDJSON), sem o espaço padrão
+            gerador.setRootValueSeparator(null);
+
+            long indice = 0;
+            long inicioLote = 0;
+            List<String> lote = new ArrayList<>(loteTamanho);
+            String erro = null;
+
+            try (SentimentJsonReader reader = open(in)) {
+
+                while (reader.hasNext()) {
+
+                    SentimentDadosDTO dto;
+                    try {
+                        dto = reader.next();
+                    } catch (IllegalStateException e) {
+                        erro = e.getMessage();
+                        break;
+                    }
+
+                    lote.add(dto == null ? null : dto.getText());
+                    indice++;
+
+                    if (lote.size() == loteTamanho) {
+                        write(gerador, inicioLote, lote);
+                        inicioLote = indice;
+                        lote.clear();
+                    }
+                }
+            } catch (InvalidInputException e) {
+                erro = e.getMessage();
+            }
+
+            // Escreve o que já foi lido antes de reportar um erro de sintaxe
+            write(gerador, inicioLote, lote);
+
+            if (erro != null) {
+                gerador.writeStartObject();
+                gerador.writeStringField("error", "JSON inválido: " + erro);
+                gerador.writeEndObject();
+                gerador.writeRaw('\n');
+            }
+        }
+    }
+
+    private SentimentJsonReader open(InputStream in) throws InvalidInputException {
+        try {
+            return new SentimentJsonReader(objectMapper, in);
+        } catch (IOException e) {
+            throw new InvalidInputException(e.getMessage());
+        }
+    }
+
+    // Entrada que não começa com um valor JSON válido
+    private static final class InvalidInputException extends Exception {
+        InvalidInputException(String message) {
+            super(message);
+        }
+    }
+
+    // Classifica o lote e escreve os resultados, mantendo o índice de entrada
+    private void write(JsonGenerator gerador, long inicio, List<String> lote) throws IOException {
+
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        // Textos vazios não vão ao modelo
+        List<String> validos = new ArrayList<>(lote.size());
+        for (String text : lote) {
+            if (text != null && !text.isBlank()) {
+                validos.add(text);
+            }
+        }
+        List<SentimentPrediction> previsoes = validos.isEmpty()
+                ? List.of()
+                : sentimentService.classifyAndPersist(validos);
+
+        int proximo = 0;
+        for (int i = 0; i < lote.size(); i++) {
+
+            String text = lote.get(i);
+            gerador.writeStartObject();
+            gerador.writeNumberField("indice", inicio + i);
+
+            if (text == null || text.isBlank()) {
+                gerador.writeStringField("error", "Texto ausente");
+            } else {
+                SentimentPrediction prediction = previsoes.get(proximo++);
+                if (prediction == null) {
+                    gerador.writeStringField("error", "Não foi possível classificar");
+                } else {
+                    gerador.writeStringField("previsao", prediction.getLabel());
+                    gerador.writeNumberField("probabilidade", prediction.getProbability());
+                }
+            }
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+        }
+
+        // Entrega o lote ao cliente sem esperar o fim da entrada
+        gerador.flush();
+    }
+}
@@ -0,0 +1,67 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.ModelRoutingProperties;
+import com.sentimentapi.inference.LanguageDetector;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Decide para qual modelo Python cada texto deve ser enviado,
+// de acordo com o idioma detectado
+@Component
+public class LanguageRouter {
+
+    private final ModelRoutingProperties properties;
+    private final LanguageDetector detector;
+
+    public LanguageRouter(ModelRoutingProperties properties) {
+        this.properties = properties;
+        this.detector = LanguageDetector.fromClasspath(
+                properties.getIdiomas(),
+                properties.getIdiomaPadrao(),
+                properties.getMargemMinima(),
+                properties.getAjusteMinimo()
+        );
+    }
+
+    /**
+     * Detecta o idioma do texto.
+     */
+    public String detectLanguage(String text) {
+        return detector.detect(text);
+    }
+
+    /**
+     * Retorna a URL do modelo específico do idioma, se configurada.
+     * Sem URLs por idioma a detecção nem é executada.
+     */
+    public Optional<String> urlFor(String text) {
+
+        if (properties.getUrls().isEmpty()) {
+            return Optional.empty();
+        }
+
+        return urlForLanguage(detectLanguage(text));
+    }
+
+    /**
+     * Chave usada para agrupar textos em lote: o idioma detectado,
+     * ou null quando todos os textos vão para o mesmo modelo.
+     */
+    public String routingLanguage(String text) {
+
+        if (properties.getUrls().isEmpty()) {
+            return null;
+        }
+
+        return detectLanguage(text);
+    }
+
+    public Optional<String> urlForLanguage(String idioma) {
+        return Optional.ofNullable(properties.getUrls().get(idioma));
+    }
+
+    public int batchSize() {
+        return properties.getLoteTamanho();
+    }
+}
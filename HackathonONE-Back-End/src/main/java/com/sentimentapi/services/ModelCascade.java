@@ -0,0 +1,297 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.CascadeProperties;
+import com.sentimentapi.dtos.CascadeStatsDto;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.inference.LexiconClassifier;
+import com.sentimentapi.inference.MappedModelStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Cascata de modelos na inferência
+// O nível local (léxico ou modelo TF-IDF mapeado) classifica todo texto;
+// se a probabilidade passa do limiar, a resposta dele é usada e o modelo
+// Python nem é chamado. Os demais textos, e uma pequena amostra dos
+// confiantes, são escalados; a resposta remota é comparada com a local
+// para medir a concordância por faixa de confiança, que orienta o ajuste
+// do limiar (manual ou automático).
+@Component
+public class ModelCascade {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelCascade.class);
+
+    // Faixas de confiança de 0.05
+    private static final int FAIXAS = 20;
+
+    private final CascadeProperties properties;
+    private final Function<String, SentimentPrediction> nivelLocal;
+    private final Function<List<String>, List<SentimentPrediction>> nivelLocalLote;
+    private final String nomeNivelLocal;
+    private final MappedModelStore modelo;
+
+    private volatile double limiar;
+
+    private final LongAdder locais = new LongAdder();
+    private final LongAdder escalados = new LongAdder();
+    private final LongAdder amostrados = new LongAdder();
+
+    private final Tier latenciaLocal = new Tier();
+    private final Tier latenciaRemota = new Tier();
+
+    // Por faixa de confiança local: textos, comparados e concordantes
+    private final AtomicLongArray textos = new AtomicLongArray(FAIXAS);
+    private final AtomicLongArray comparados = new AtomicLongArray(FAIXAS);
+    private final AtomicLongArray concordantes = new AtomicLongArray(FAIXAS);
+
+    public ModelCascade(CascadeProperties properties) {
+
+        this.properties = properties;
+        this.limiar = properties.getLimiar();
+
+        if (properties.getModelo() == null || properties.getModelo().isBlank()) {
+            LexiconClassifier lexico = LexiconClassifier.fromClasspath("/lexico/pt.txt");
+            this.modelo = null;
+            this.nivelLocal = lexico::predict;
+            this.nivelLocalLote = textos -> textos.stream().map(lexico::predict).toList();
+            this.nomeNivelLocal = "lexico";
+        } else {
+            try {
+                this.modelo = MappedModelStore.open(Path.of(properties.getModelo()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao abrir o modelo local " + properties.getModelo(), e);
+            }
+            this.nivelLocal = modelo::predict;
+            // Um lote CSR só por chamada remota, pontuado pelo kernel
+            this.nivelLocalLote = modelo::predictAll;
+            this.nomeNivelLocal = "modelo:" + properties.getModelo();
+        }
+    }
+
+    public boolean enabled() {
+        return properties.isHabilitado();
+    }
+
+    /**
+     * Resposta do nível local, se ela tiver confiança suficiente.
+     * Vazio indica que o texto deve ir ao modelo remoto.
+     */
+    public Optional<SentimentPrediction> tryLocal(String text) {
+
+        if (!properties.isHabilitado()) {
+            return Optional.empty();
+        }
+
+        long inicio = System.nanoTime();
+        SentimentPrediction local = nivelLocal.apply(text);
+        latenciaLocal.record(System.nanoTime() - inicio, 1);
+
+        textos.incrementAndGet(bucket(local.getProbability()));
+
+        if (local.getProbability() < limiar) {
+            escalados.increment();
+            return Optional.empty();
+        }
+
+        // Amostra dos confiantes: escalada só para medir a concordância
+        if (ThreadLocalRandom.current().nextDouble() < properties.getAmostragem()) {
+            amostrados.increment();
+            return Optional.empty();
+        }
+
+        locais.increment();
+        return Optional.of(local);
+    }
+
+    /**
+     * Registra a resposta remota de um texto escalado.
+     */
+    public void recordRemote(String text, SentimentPrediction remota, long nanos) {
+        recordRemote(List.of(text), Collections.singletonList(remota), nanos);
+    }
+
+    /**
+     * Registra as respostas remotas de uma chamada (em lote ou não);
+     * {@code remotas} segue a ordem de {@code texts} e pode conter null.
+     */
+    public void recordRemote(List<String> texts, List<SentimentPrediction> remotas, long nanos) {
+
+        if (!properties.isHabilitado() || texts.isEmpty()) {
+            return;
+        }
+
+        latenciaRemota.record(nanos, texts.size());
+
+        List<String> respondidos = new ArrayList<>(texts.size());
+        List<SentimentPrediction> respostas = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            SentimentPrediction remota = i < remotas.size() ? remotas.get(i) : null;
+            if (remota != null && remota.getLabel() != null) {
+                respondidos.add(texts.get(i));
+                respostas.add(remota);
+            }
+        }
+        if (respondidos.isEmpty()) {
+            return;
+        }
+
+        // Recalcular o local custa microssegundos e evita guardar estado
+        List<SentimentPrediction> locais = nivelLocalLote.apply(respondidos);
+        for (int i = 0; i < respondidos.size(); i++) {
+
+            SentimentPrediction remota = respostas.get(i);
+            SentimentPrediction local = locais.get(i);
+            int faixa = bucket(local.getProbability());
+            comparados.incrementAndGet(faixa);
+            if (remota.getLabel().equalsIgnoreCase(local.getLabel())) {
+                concordantes.incrementAndGet(faixa);
+            }
+        }
+    }
+
+    /**
+     * Menor probabilidade possível do rótulo vencedor no nível local
+     * (1 / número de classes): um limiar até esse valor aceitaria todo texto.
+     */
+    public double minimumThreshold() {
+        // O léxico tem dois lados (o neutro sai com exatamente 0,5)
+        return modelo != null ? 1.0 / modelo.numClasses() : 0.5;
+    }
+
+    public double threshold() {
+        return limiar;
+    }
+
+    public void setThreshold(double novo) {
+        if (novo != limiar) {
+            log.info("Limiar da cascata alterado de {} para {}", limiar, novo);
+            limiar = novo;
+        }
+    }
+
+    /**
+     * Ajuste automático: o menor limiar (início de faixa) em que a
+     * concordância estimada das respostas locais atinge o alvo.
+     * Cada faixa acima do limiar pesa pela quantidade de textos que recebe.
+     */
+    @Scheduled(fixedDelayString = "${sentiment.cascata.intervalo-ajuste:PT5M}")
+    public void tune() {
+
+        double alvo = properties.getConcordanciaAlvo();
+        if (!properties.isHabilitado() || alvo <= 0) {
+            return;
+        }
+
+        // Começa na primeira faixa acima de 1 / número de classes,
+        // onde toda resposta local seria aceita
+        for (int inicio = (int) (minimumThreshold() * FAIXAS) + 1; inicio < FAIXAS; inicio++) {
+
+            double volume = 0;
+            double acertos = 0;
+            boolean suficiente = true;
+
+            for (int f = inicio; f < FAIXAS; f++) {
+                long n = textos.get(f);
+                if (n == 0) {
+                    continue;
+                }
+                if (comparados.get(f) < properties.getMinimoComparacoes()) {
+                    suficiente = false;
+                    break;
+                }
+                volume += n;
+                acertos += n * (double) concordantes.get(f) / comparados.get(f);
+            }
+
+            if (suficiente && volume > 0 && acertos / volume >= alvo) {
+                setThreshold((double) inicio / FAIXAS);
+                return;
+            }
+        }
+    }
+
+    public CascadeStatsDto snapshot() {
+
+        long totalLocais = locais.sum();
+        long totalEscalados = escalados.sum() + amostrados.sum();
+        long total = totalLocais + totalEscalados;
+
+        long totalComparados = 0;
+        long totalConcordantes = 0;
+        List<CascadeStatsDto.Faixa> faixas = new ArrayList<>();
+        for (int f = 0; f < FAIXAS; f++) {
+            long n = comparados.get(f);
+            long c = concordantes.get(f);
+            totalComparados += n;
+            totalConcordantes += c;
+            if (textos.get(f) > 0 || n > 0) {
+                faixas.add(new CascadeStatsDto.Faixa(
+                        (double) f / FAIXAS, (double) (f + 1) / FAIXAS,
+                        textos.get(f), n, n == 0 ? null : (double) c / n));
+            }
+        }
+
+        return new CascadeStatsDto(
+                properties.isHabilitado(),
+                nomeNivelLocal,
+                limiar,
+                totalLocais,
+                totalEscalados,
+                total == 0 ? 0.0 : (double) totalEscalados / total,
+                amostrados.sum(),
+                totalComparados == 0 ? null : (double) totalConcordantes / totalComparados,
+                latenciaLocal.snapshot(),
+                latenciaRemota.snapshot(),
+                faixas
+        );
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (modelo != null) {
+            modelo.close();
+        }
+    }
+
+    private static int bucket(double probabilidade) {
+        return Math.max(0, Math.min(FAIXAS - 1, (int) (probabilidade * FAIXAS)));
+    }
+
+    // Latência acumulada de um nível, por texto
+    private static final class Tier {
+
+        final LongAdder textos = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final AtomicLong maximo = new AtomicLong();
+
+        void record(long duracao, int quantidade) {
+            textos.add(quantidade);
+            nanos.add(duracao);
+            maximo.accumulateAndGet(duracao / quantidade, Math::max);
+        }
+
+        CascadeStatsDto.Latencia snapshot() {
+            long n = textos.sum();
+            return new CascadeStatsDto.Latencia(
+                    n,
+                    n == 0 ? 0.0 : nanos.sum() / 1e6 / n,
+                    maximo.get() / 1e6
+            );
+        }
+    }
+}
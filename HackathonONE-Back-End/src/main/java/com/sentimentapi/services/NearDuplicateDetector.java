@@ -0,0 +1,234 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.NearDuplicateProperties;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.events.CommentsArchivedEvent;
+import com.sentimentapi.events.CommentsDeletedEvent;
+import com.sentimentapi.inference.LshIndex;
+import com.sentimentapi.inference.MinHasher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+// Detecta comentários quase idênticos a comentários recentes
+// para reaproveitar a previsão em vez de chamar o modelo de novo.
+// Mantém em memória um índice LSH limitado por capacidade e idade.
+@Component
+public class NearDuplicateDetector {
+
+    private final NearDuplicateProperties properties;
+    private final MinHasher minHasher;
+    private final LshIndex<Previous> recentes;
+
+    public NearDuplicateDetector(NearDuplicateProperties properties) {
+        this.properties = properties;
+        this.minHasher = new MinHasher(
+                properties.getBandas() * properties.getLinhas(),
+                properties.getTamanhoShingle(),
+                42L
+        );
+        this.recentes = newIndex(properties.getCapacidade());
+    }
+
+    /**
+     * Comentário já classificado que está no índice.
+     */
+    public record Previous(Long commentId, LocalDateTime dataCriacao, String label, double probability) {
+
+        // Nova previsão (não persistida) com o mesmo resultado
+        public SentimentPrediction toPrediction() {
+            return new SentimentPrediction(label, probability);
+        }
+    }
+
+    public NearDuplicateProperties.Modo mode() {
+        return properties.getModo();
+    }
+
+    /**
+     * Assinatura MinHash do texto, ou null se a detecção está desligada.
+     */
+    public int[] signature(String text) {
+        return properties.isHabilitado() ? minHasher.signature(text) : null;
+    }
+
+    public Optional<Previous> find(int[] assinatura) {
+        if (assinatura == null) {
+            return Optional.empty();
+        }
+
+        return recentes.findSimilar(assinatura).map(LshIndex.Match::value);
+    }
+
+    /**
+     * Registra um comentário recém-classificado no índice.
+     */
+    public void register(int[] assinatura,
+                         Long commentId,
+                         LocalDateTime dataCriacao,
+                         SentimentPrediction prediction) {
+
+        if (assinatura == null || commentId == null) {
+            return;
+        }
+
+        recentes.add(assinatura, new Previous(
+                commentId, dataCriacao, prediction.getLabel(), prediction.getProbability()));
+    }
+
+    /**
+     * Remove um comentário do índice (texto alterado ou comentário excluído).
+     */
+    public void forget(Long commentId) {
+        recentes.removeIf(previous -> Objects.equals(previous.commentId(), commentId));
+    }
+
+    /**
+     * Remove do índice os comentários de um lote da exclusão em massa,
+     * em uma só passada.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentsDeleted(CommentsDeletedEvent event) {
+        Set<Long> ids = new HashSet<>(event.ids());
+        recentes.removeIf(previous -> ids.contains(previous.commentId()));
+    }
+
+    /**
+     * Remove do índice o intervalo de datas arquivado pela retenção,
+     * para que nenhuma duplicata aponte para uma linha que saiu do banco.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentsArchived(CommentsArchivedEvent event) {
+        recentes.removeIf(previous -> previous.dataCriacao() != null
+                && !previous.dataCriacao().isBefore(event.inicio())
+                && previous.dataCriacao().isBefore(event.fim()));
+    }
+
+    /**
+     * Analisa um lote de textos: cada texto pode ser duplicata de um
+     * comentário recente do índice, de uma linha anterior do próprio lote,
+     * ou precisar de classificação.
+     */
+    public DuplicateBatch batch(List<String> texts) {
+
+        DuplicateBatch lote = new DuplicateBatch(texts.size());
+        LshIndex<Integer> linhasAnteriores = newIndex(Math.max(1, texts.size()));
+
+        for (int i = 0; i < texts.size(); i++) {
+
+            int[] assinatura = signature(texts.get(i));
+            lote.assinaturas[i] = assinatura;
+
+            if (assinatura == null) {
+                lote.pendentes.add(i);
+                continue;
+            }
+
+            Optional<Previous> recente = find(assinatura);
+            if (recente.isPresent()) {
+                lote.recentes[i] = recente.get();
+                continue;
+            }
+
+            Optional<LshIndex.Match<Integer>> anterior = linhasAnteriores.findSimilar(assinatura);
+            if (anterior.isPresent()) {
+                lote.origem[i] = anterior.get().value();
+                continue;
+            }
+
+            linhasAnteriores.add(assinatura, i);
+            lote.pendentes.add(i);
+        }
+
+        return lote;
+    }
+
+    private <T> LshIndex<T> newIndex(int capacidade) {
+        return new LshIndex<>(
+                properties.getBandas(),
+                properties.getLinhas(),
+                properties.getLimiar(),
+                capacidade,
+                properties.getIdadeMaxima(),
+                Clock.systemUTC()
+        );
+    }
+
+    /**
+     * Resultado da análise de um lote.
+     */
+    public static final class DuplicateBatch {
+
+        private final int[][] assinaturas;
+        private final Previous[] recentes;
+        private final int[] origem;
+        private final List<Integer> pendentes = new ArrayList<>();
+
+        private DuplicateBatch(int tamanho) {
+            assinaturas = new int[tamanho][];
+            recentes = new Previous[tamanho];
+            origem = new int[tamanho];
+            Arrays.fill(origem, -1);
+        }
+
+        public int[] signature(int linha) {
+            return assinaturas[linha];
+        }
+
+        public boolean isDuplicate(int linha) {
+            return recentes[linha] != null || origem[linha] >= 0;
+        }
+
+        // Comentário recente do índice do qual a linha é duplicata
+        public Previous recentMatch(int linha) {
+            return recentes[linha];
+        }
+
+        // Linha anterior do lote da qual a linha é duplicata (-1 se nenhuma)
+        public int batchOrigin(int linha) {
+            return origem[linha];
+        }
+
+        /**
+         * Índices das linhas que precisam ir ao modelo.
+         */
+        public List<Integer> pending() {
+            return pendentes;
+        }
+
+        /**
+         * Monta a previsão de todas as linhas a partir das previsões
+         * das linhas pendentes (na mesma ordem de pending()).
+         */
+        public List<SentimentPrediction> resolve(List<SentimentPrediction> classificadas) {
+
+            SentimentPrediction[] resultado = new SentimentPrediction[assinaturas.length];
+
+            for (int k = 0; k < pendentes.size(); k++) {
+                resultado[pendentes.get(k)] = classificadas.get(k);
+            }
+
+            for (int i = 0; i < resultado.length; i++) {
+                if (recentes[i] != null) {
+                    resultado[i] = recentes[i].toPrediction();
+                } else if (origem[i] >= 0 && resultado[origem[i]] != null) {
+                    SentimentPrediction original = resultado[origem[i]];
+                    resultado[i] = new SentimentPrediction(
+                            original.getLabel(), original.getProbability());
+                }
+            }
+
+            return Arrays.asList(resultado);
+        }
+    }
+}
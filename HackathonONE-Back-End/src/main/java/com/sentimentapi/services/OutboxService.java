@@ -0,0 +1,237 @@
+package com.sentimentapi.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.config.OutboxProperties;
+import com.sentimentapi.entities.OutboxEvent;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.events.CommentsDeletedEvent;
+import com.sentimentapi.outbox.SegmentedEventLog;
+import com.sentimentapi.repositories.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Outbox transacional e relay para o log de eventos de classificação
+// Cada CommentChangedEvent vira uma linha em evento_outbox_tb gravada na
+// transação de quem alterou o comentário (o listener é síncrono).
+// O relay copia as linhas, em ordem e em lotes, para o log segmentado
+// local e só então as apaga; uma queda entre as duas etapas repete o
+// lote no log (entrega "pelo menos uma vez": o campo "id" identifica
+// o evento). O relay deve rodar em uma única instância.
+// Leitura e remoção ficam na mesma transação de escrita: com réplicas
+// ligadas, uma leitura somente-leitura iria para uma réplica atrasada
+// e devolveria linhas já apagadas, repetindo eventos no log.
+@Service
+public class OutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxProperties properties;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private SegmentedEventLog eventLog;
+
+    public OutboxService(OutboxProperties properties,
+                         OutboxEventRepository outboxEventRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (properties.isHabilitado()) {
+            eventLog = SegmentedEventLog.open(
+                    Path.of(properties.getDiretorio()), properties.getTamanhoSegmento());
+        }
+    }
+
+    public boolean enabled() {
+        return eventLog != null;
+    }
+
+    /**
+     * Grava o evento no outbox, dentro da transação em andamento.
+     */
+    @EventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+
+        if (!enabled()) {
+            return;
+        }
+
+        OutboxEvent outbox = new OutboxEvent();
+        outbox.setTipo(event.type());
+        outbox.setComentarioId(event.commentId());
+        outbox.setPrevisao(event.label());
+        outbox.setProbabilidade(event.probability());
+        if (event.type() != CommentChangedEvent.Type.DELETED) {
+            outbox.setTexto(event.text());
+        }
+        outbox.setCriadoEm(LocalDateTime.now());
+
+        outboxEventRepository.save(outbox);
+    }
+
+    /**
+     * Um evento DELETED por comentário de um lote da exclusão em massa,
+     * na transação do lote.
+     */
+    @EventListener
+    public void onCommentsDeleted(CommentsDeletedEvent event) {
+
+        if (!enabled()) {
+            return;
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<OutboxEvent> eventos = new ArrayList<>(event.ids().size());
+        for (Long id : event.ids()) {
+            OutboxEvent outbox = new OutboxEvent();
+            outbox.setTipo(CommentChangedEvent.Type.DELETED);
+            outbox.setComentarioId(id);
+            outbox.setCriadoEm(agora);
+            eventos.add(outbox);
+        }
+        outboxEventRepository.saveAll(eventos);
+    }
+
+    @Scheduled(fixedDelayString = "${sentiment.outbox.intervalo-relay:PT1S}")
+    public void relay() {
+
+        if (!enabled()) {
+            return;
+        }
+
+        try {
+            // Esvazia o outbox; lotes incompletos indicam que acabou
+            while (relayBatch() == properties.getLoteRelay()) {
+                // continua
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao gravar eventos no log; nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    /**
+     * Copia um lote do outbox para o log e o remove do outbox.
+     * Devolve o número de eventos publicados.
+     */
+    public synchronized int relayBatch() throws IOException {
+        try {
+            return transactionTemplate.execute(status -> relayInTransaction());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Roda no primário: a transação de escrita não é roteada para réplicas
+    private int relayInTransaction() {
+
+        List<OutboxEvent> pendentes = outboxEventRepository.findAllByOrderByIdAsc(
+                PageRequest.of(0, properties.getLoteRelay()));
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<Long, byte[]>> registros = new ArrayList<>(pendentes.size());
+        List<Long> ids = new ArrayList<>(pendentes.size());
+        for (OutboxEvent evento : pendentes) {
+            registros.add(new AbstractMap.SimpleImmutableEntry<>(evento.getComentarioId(), payload(evento)));
+            ids.add(evento.getId());
+        }
+
+        try {
+            eventLog.append(registros, properties.isSync());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+
+        return pendentes.size();
+    }
+
+    /**
+     * Mantém nos segmentos fechados só o último evento de cada comentário.
+     */
+    @Scheduled(fixedDelayString = "${sentiment.outbox.intervalo-compactacao:PT1H}")
+    public void compact() {
+
+        if (!enabled()) {
+            return;
+        }
+
+        try {
+            long removidos = eventLog.compact();
+            if (removidos > 0) {
+                log.info("Log de eventos compactado: {} eventos substituídos removidos", removidos);
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao compactar o log de eventos", e);
+        }
+    }
+
+    public List<SegmentedEventLog.Entry> read(long offset, int limite) {
+        try {
+            return eventLog.read(offset, limite);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long startOffset() {
+        return eventLog.startOffset();
+    }
+
+    public long endOffset() {
+        return eventLog.endOffset();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    private byte[] payload(OutboxEvent evento) {
+
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("id", evento.getId());
+        corpo.put("tipo", evento.getTipo().name());
+        corpo.put("comentarioId", evento.getComentarioId());
+        corpo.put("previsao", evento.getPrevisao());
+        corpo.put("probabilidade", evento.getProbabilidade());
+        corpo.put("texto", evento.getTexto());
+        corpo.put("criadoEm", evento.getCriadoEm().toString());
+
+        try {
+            return objectMapper.writeValueAsBytes(corpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento do outbox", e);
+        }
+    }
+}
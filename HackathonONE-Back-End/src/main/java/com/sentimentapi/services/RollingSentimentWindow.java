@@ -0,0 +1,100 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.dtos.StatsDto;
+
+// Janela circular com os rótulos dos últimos N comentários
+// Mantém as contagens de positivos e negativos de forma incremental,
+// com o mesmo critério de SentimentService.getStats.
+// Não é thread-safe: o chamador sincroniza.
+final class RollingSentimentWindow {
+
+    private static final byte OUTRO = 0;
+    private static final byte POSITIVO = 1;
+    private static final byte NEGATIVO = 2;
+
+    private final long[] ids;
+    private final byte[] rotulos;
+    private int proximo;
+    private int tamanho;
+    private int positivos;
+    private int negativos;
+
+    RollingSentimentWindow(int capacidade) {
+        ids = new long[capacidade];
+        rotulos = new byte[capacidade];
+    }
+
+    void add(long id, String label) {
+
+        if (tamanho == ids.length) {
+            count(rotulos[proximo], -1);
+        } else {
+            tamanho++;
+        }
+
+        ids[proximo] = id;
+        rotulos[proximo] = encode(label);
+        count(rotulos[proximo], 1);
+        proximo = (proximo + 1) % ids.length;
+    }
+
+    // Troca o rótulo de um comentário que ainda está na janela
+    void update(long id, String label) {
+        int posicao = indexOf(id);
+        if (posicao >= 0) {
+            count(rotulos[posicao], -1);
+            rotulos[posicao] = encode(label);
+            count(rotulos[posicao], 1);
+        }
+    }
+
+    // Um comentário removido deixa de contar (a posição fica neutra)
+    void remove(long id) {
+        int posicao = indexOf(id);
+        if (posicao >= 0) {
+            count(rotulos[posicao], -1);
+            rotulos[posicao] = OUTRO;
+        }
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    StatsDto stats() {
+
+        double total = positivos + negativos;
+        if (total == 0) {
+            return new StatsDto(0.0, 0.0);
+        }
+
+        return new StatsDto(positivos * 100.0 / total, negativos * 100.0 / total);
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < tamanho; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void count(byte rotulo, int delta) {
+        if (rotulo == POSITIVO) {
+            positivos += delta;
+        } else if (rotulo == NEGATIVO) {
+            negativos += delta;
+        }
+    }
+
+    private static byte encode(String label) {
+        if ("positivo".equalsIgnoreCase(label)) {
+            return POSITIVO;
+        }
+        if ("negativo".equalsIgnoreCase(label)) {
+            return NEGATIVO;
+        }
+        return OUTRO;
+    }
+}
@@ -0,0 +1,331 @@
+package com.sentimentapi.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.config.StreamProperties;
+import com.sentimentapi.dtos.StatsDto;
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.events.CommentsDeletedEvent;
+import com.sentimentapi.repositories.CommentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Difusor único do feed em tempo real (SSE)
+// As alterações de comentários atualizam a janela e são agregadas;
+// a cada intervalo de envio sai no máximo um evento de cada tipo,
+// serializado UMA vez e enfileirado no buffer limitado de cada assinante.
+// Uma alteração isolada vira "classificacao"; várias no mesmo intervalo
+// (CSV, importação, lote JSON) viram um único "stats"; exclusões em massa
+// viram um único "exclusao". Um pool pequeno de threads escreve nas
+// conexões; quem não acompanha o ritmo (buffer cheio) é desconectado
+// para não travar os demais.
+@Component
+public class SentimentBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SentimentBroadcaster.class);
+
+    private final StreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final CommentRepository commentRepository;
+
+    private final RollingSentimentWindow janela;
+    private final Set<Subscriber> assinantes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService envio;
+    private final ScheduledExecutorService agregacao;
+
+    // Alterações pendentes desde o último envio (protegidas pela janela)
+    private int alteracoes;
+    private Map<String, Object> ultimaAlteracao;
+    private long excluidosEmMassa;
+
+    public SentimentBroadcaster(StreamProperties properties,
+                                ObjectMapper objectMapper,
+                                CommentRepository commentRepository) {
+
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.commentRepository = commentRepository;
+        this.janela = new RollingSentimentWindow(properties.getJanela());
+
+        AtomicInteger contador = new AtomicInteger();
+        this.envio = Executors.newFixedThreadPool(properties.getThreadsEnvio(), tarefa -> {
+            Thread thread = new Thread(tarefa, "sse-envio-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Thread própria: não depende das demais tarefas @Scheduled
+        this.agregacao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "sse-agregacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = properties.getIntervaloEnvio().toMillis();
+        this.agregacao.scheduleWithFixedDelay(this::flushSafely, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Carrega a janela com os comentários mais recentes do banco
+     * (uma única consulta na subida da aplicação).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+
+        List<CommentEntity> recentes = commentRepository.buscarPorUltimos(
+                PageRequest.of(0, properties.getJanela()));
+
+        synchronized (janela) {
+            // A consulta vem do mais novo para o mais antigo
+            for (int i = recentes.size() - 1; i >= 0; i--) {
+                CommentEntity comment = recentes.get(i);
+                janela.add(comment.getId(),
+                        comment.getPrevisao() == null ? null : comment.getPrevisao().getLabel());
+            }
+        }
+    }
+
+    /**
+     * Registra um novo assinante e já envia o estado atual das estatísticas.
+     */
+    public SseEmitter subscribe() {
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber assinante = new Subscriber(emitter, properties.getBuffer());
+
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> evict(assinante));
+        emitter.onError(erro -> evict(assinante));
+
+        assinantes.add(assinante);
+
+        StatsDto stats;
+        synchronized (janela) {
+            stats = janela.stats();
+        }
+        offer(assinante, event("stats", statsBody(stats)));
+
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return assinantes.size();
+    }
+
+    /**
+     * Atualiza a janela e agenda o envio da alteração.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("tipo", event.type().name());
+        corpo.put("id", event.commentId());
+        corpo.put("previsao", event.label());
+        corpo.put("probabilidade", event.probability());
+
+        synchronized (janela) {
+            switch (event.type()) {
+                case CREATED -> janela.add(event.commentId(), event.label());
+                case UPDATED -> janela.update(event.commentId(), event.label());
+                case DELETED -> janela.remove(event.commentId());
+            }
+            alteracoes++;
+            ultimaAlteracao = corpo;
+        }
+    }
+
+    /**
+     * Tira da janela os comentários de um lote da exclusão em massa;
+     * todos os lotes de um intervalo saem em uma única mensagem.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentsDeleted(CommentsDeletedEvent event) {
+
+        synchronized (janela) {
+            for (Long id : event.ids()) {
+                janela.remove(id);
+            }
+            excluidosEmMassa += event.ids().size();
+        }
+    }
+
+    /**
+     * Difunde as alterações agregadas desde o último envio:
+     * no máximo um "exclusao" e um "classificacao" ou "stats".
+     */
+    void flush() {
+
+        int pendentes;
+        Map<String, Object> ultima;
+        long excluidos;
+        StatsDto stats;
+
+        synchronized (janela) {
+            if (alteracoes == 0 && excluidosEmMassa == 0) {
+                return;
+            }
+            pendentes = alteracoes;
+            ultima = ultimaAlteracao;
+            excluidos = excluidosEmMassa;
+            alteracoes = 0;
+            ultimaAlteracao = null;
+            excluidosEmMassa = 0;
+            stats = janela.stats();
+        }
+
+        if (assinantes.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> estatisticas = statsBody(stats);
+
+        if (excluidos > 0) {
+            Map<String, Object> corpo = new LinkedHashMap<>();
+            corpo.put("tipo", "DELETED");
+            corpo.put("quantidade", excluidos);
+            corpo.put("stats", estatisticas);
+            broadcast(event("exclusao", corpo));
+        }
+
+        if (pendentes == 1) {
+            ultima.put("stats", estatisticas);
+            broadcast(event("classificacao", ultima));
+        } else if (pendentes > 1) {
+            Map<String, Object> corpo = new LinkedHashMap<>(estatisticas);
+            corpo.put("alteracoes", pendentes);
+            broadcast(event("stats", corpo));
+        }
+    }
+
+    // Uma falha não pode cancelar o agendamento
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Erro ao difundir alterações do feed", e);
+        }
+    }
+
+    // Mantém as conexões vivas através de proxies e detecta clientes mortos
+    @Scheduled(fixedDelayString = "${sentiment.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        if (!assinantes.isEmpty()) {
+            broadcast(SseEmitter.event().comment("ping").build());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        agregacao.shutdownNow();
+        envio.shutdownNow();
+        for (Subscriber assinante : assinantes) {
+            assinante.emitter.complete();
+        }
+    }
+
+    private Map<String, Object> statsBody(StatsDto stats) {
+
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("positivo", stats.positivo());
+        corpo.put("negativo", stats.negativo());
+        corpo.put("janela", properties.getJanela());
+        return corpo;
+    }
+
+    // Serializa o evento uma única vez para todos os assinantes
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String nome, Object corpo) {
+
+        try {
+            return SseEmitter.event()
+                    .name(nome)
+                    .data(objectMapper.writeValueAsString(corpo))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento do feed", e);
+        }
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> evento) {
+        for (Subscriber assinante : assinantes) {
+            offer(assinante, evento);
+        }
+    }
+
+    private void offer(Subscriber assinante, Set<ResponseBodyEmitter.DataWithMediaType> evento) {
+
+        // Consumidor lento: o buffer encheu, então ele é desconectado
+        if (!assinante.fila.offer(evento)) {
+            log.debug("Assinante lento desconectado do feed");
+            evict(assinante);
+            return;
+        }
+
+        if (assinante.agendado.compareAndSet(false, true)) {
+            envio.execute(() -> drain(assinante));
+        }
+    }
+
+    // Escreve os eventos pendentes de um assinante; no máximo uma
+    // thread por assinante, garantindo a ordem dos eventos
+    private void drain(Subscriber assinante) {
+
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> evento;
+            while ((evento = assinante.fila.poll()) != null) {
+                try {
+                    assinante.emitter.send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    evict(assinante);
+                    return;
+                }
+            }
+            assinante.agendado.set(false);
+
+        } while (!assinante.fila.isEmpty() && assinante.agendado.compareAndSet(false, true));
+    }
+
+    private void evict(Subscriber assinante) {
+        if (assinantes.remove(assinante)) {
+            assinante.fila.clear();
+            assinante.emitter.complete();
+        }
+    }
+
+    // Conexão SSE com seu buffer de eventos pendentes
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> fila;
+        final AtomicBoolean agendado = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, int buffer) {
+            this.emitter = emitter;
+            this.fila = new ArrayBlockingQueue<>(buffer);
+        }
+    }
+}
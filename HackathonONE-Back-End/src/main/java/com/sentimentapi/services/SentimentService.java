@@ -1,8 +1,16 @@
 package com.sentimentapi.services;
 
+import com.sentimentapi.config.CompressionProperties;
+import com.sentimentapi.config.NearDuplicateProperties;
+import com.sentimentapi.datasource.DataSourceRouting;
+import com.sentimentapi.datasource.WriteTracker;
 import com.sentimentapi.dtos.StatsDto;
 import com.sentimentapi.entities.CommentEntity;
 import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.jfr.CsvChunkEvent;
+import com.sentimentapi.jfr.InferenceEvent;
+import com.sentimentapi.jfr.StatsEvent;
 import com.sentimentapi.repositories.CommentRepository;
 import com.sentimentapi.repositories.SentimentPredictionRepository;
 import lombok.RequiredArgsConstructor;
@@ -10,16 +18,25 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,27 +56,76 @@ public class SentimentService {
     // Repositório responsável por persistir previsões de sentimento
     private final SentimentPredictionRepository sentimentPredictionRepository;
 
+    // Escolhe o modelo Python de acordo com o idioma do texto
+    private final LanguageRouter languageRouter;
+
+    // Reaproveita previsões de comentários recentes quase idênticos
+    private final NearDuplicateDetector nearDuplicateDetector;
+
+    // Notifica os subsistemas derivados (ex.: índice de busca)
+    // sobre comentários criados, atualizados ou removidos
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Gravações recentes, para ler o próprio comentário
+    // de uma réplica que já o tenha recebido
+    private final WriteTracker writeTracker;
+
+    // Classificador local que responde os textos óbvios
+    // antes de chamar o modelo Python
+    private final ModelCascade modelCascade;
+
+    // Quadros binários em conexões persistentes, para os modelos
+    // que têm endereço binário configurado (os demais usam JSON)
+    private final BinaryModelTransport binaryTransport;
+
+    // Define se o texto vai para text_zstd ou para a coluna sem compressão
+    private final CompressionProperties compressionProperties;
+
+    // Transações curtas da gravação em lotes (fora das chamadas ao modelo)
+    private final TransactionTemplate transactionTemplate;
+
     // URL do microserviço Python.
     // Caso não exista configuração externa, usa o valor padrão
     @Value("${sentiment.python.url:http://localhost:5000/predict}")
     private String pythonUrl;
 
+    // Período consultado primeiro nas estatísticas (partições recentes)
+    @Value("${sentiment.retencao.janela-quente:P7D}")
+    private Duration janelaQuente;
+
+    // Comentários gravados por transação em classifyAndPersist
+    @Value("${sentiment.lote-gravacao:500}")
+    private int loteGravacao;
+
     /**
      * Envia um texto ao microserviço Python e retorna a previsão de sentimento.
      * Esse método centraliza a integração externa da aplicação.
      */
     public SentimentPrediction predictSentiment(String text) {
 
-        // Corpo da requisição enviado ao serviço Python
-        Map<String, String> body = Map.of("text", text);
+        // Primeiro nível da cascata: se o modelo local tem confiança,
+        // o modelo Python nem é chamado
+        // O nível local é registrado também quando escala (sem rótulo)
+        if (modelCascade.enabled()) {
+            InferenceEvent evento = new InferenceEvent();
+            evento.begin();
+            Optional<SentimentPrediction> local = modelCascade.tryLocal(text);
+            evento.commit("local", null, 1, text.length(), false,
+                    local.map(SentimentPrediction::getLabel).orElse(null));
+            if (local.isPresent()) {
+                return local.get();
+            }
+        }
 
-        // Chamada HTTP POST ao microserviço
-        SentimentPrediction prediction =
-                restTemplate.postForObject(
-                        pythonUrl,
-                        body,
-                        SentimentPrediction.class
-                );
+        // Modelo do idioma do texto ou, se não houver, o modelo padrão
+        String url = languageRouter.urlFor(text).orElse(pythonUrl);
+
+        InferenceEvent evento = new InferenceEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        SentimentPrediction prediction = callModel(url, text);
+        modelCascade.recordRemote(text, prediction, System.nanoTime() - inicio);
+        evento.commit(backend(url), url, 1, text.length(), false, prediction == null ? null : prediction.getLabel());
 
         // Tratamento defensivo:
         // garante que a aplicação não quebre caso o serviço Python falhe
@@ -70,10 +136,144 @@ public class SentimentService {
         return prediction;
     }
 
+    // Chamada ao microserviço com um único texto
+    private SentimentPrediction callModel(String url, String text) {
+
+        if (binaryTransport.handles(url)) {
+            return binaryTransport.predict(url, text);
+        }
+
+        // Corpo da requisição enviado ao serviço Python
+        Map<String, String> body = Map.of("text", text);
+
+        return restTemplate.postForObject(
+                url,
+                body,
+                SentimentPrediction.class
+        );
+    }
+
+    /**
+     * Classifica vários textos agrupando-os por idioma,
+     * para que cada grupo seja despachado ao seu modelo em sequência
+     * (ou em chamadas de lote, quando configurado).
+     * A lista devolvida segue a ordem de entrada e contém null
+     * para os textos que o microserviço não conseguiu classificar.
+     * Textos que o nível local da cascata resolve não saem do processo.
+     */
+    List<SentimentPrediction> classifyBatch(List<String> texts) {
+
+        SentimentPrediction[] resultado = new SentimentPrediction[texts.size()];
+
+        // Índices dos textos escalados, agrupados pelo idioma de roteamento
+        Map<String, List<Integer>> grupos = new LinkedHashMap<>();
+        boolean cascata = modelCascade.enabled();
+        for (int i = 0; i < texts.size(); i++) {
+
+            if (cascata) {
+                InferenceEvent evento = new InferenceEvent();
+                evento.begin();
+                Optional<SentimentPrediction> local = modelCascade.tryLocal(texts.get(i));
+                evento.commit("local", null, 1, texts.get(i).length(), false,
+                        local.map(SentimentPrediction::getLabel).orElse(null));
+                if (local.isPresent()) {
+                    resultado[i] = local.get();
+                    continue;
+                }
+            }
+
+            grupos.computeIfAbsent(
+                    languageRouter.routingLanguage(texts.get(i)),
+                    idioma -> new ArrayList<>()
+            ).add(i);
+        }
+
+        int tamanhoLote = languageRouter.batchSize();
+
+        for (Map.Entry<String, List<Integer>> grupo : grupos.entrySet()) {
+
+            String url = languageRouter.urlForLanguage(grupo.getKey())
+                    .orElse(pythonUrl);
+            List<Integer> indices = grupo.getValue();
+
+            if (tamanhoLote <= 1) {
+                for (int indice : indices) {
+                    InferenceEvent evento = new InferenceEvent();
+                    evento.begin();
+                    long inicio = System.nanoTime();
+                    resultado[indice] = callModel(url, texts.get(indice));
+                    modelCascade.recordRemote(texts.get(indice), resultado[indice], System.nanoTime() - inicio);
+                    evento.commit(backend(url), url, 1, texts.get(indice).length(), false,
+                            resultado[indice] == null ? null : resultado[indice].getLabel());
+                }
+                continue;
+            }
+
+            for (int inicio = 0; inicio < indices.size(); inicio += tamanhoLote) {
+
+                List<Integer> fatia = indices.subList(
+                        inicio, Math.min(inicio + tamanhoLote, indices.size()));
+
+                List<String> corpo = new ArrayList<>(fatia.size());
+                long caracteres = 0;
+                for (int indice : fatia) {
+                    corpo.add(texts.get(indice));
+                    caracteres += texts.get(indice).length();
+                }
+
+                // O endpoint de lote devolve as previsões na mesma ordem
+                InferenceEvent evento = new InferenceEvent();
+                evento.begin();
+                long inicioLote = System.nanoTime();
+                SentimentPrediction[] previsoes = binaryTransport.handles(url)
+                        ? binaryTransport.predictBatch(url, corpo).toArray(new SentimentPrediction[0])
+                        : restTemplate.postForObject(
+                                url + "/lote",
+                                Map.of("texts", corpo),
+                                SentimentPrediction[].class
+                        );
+                evento.commit(backend(url) + "-lote", url + "/lote", corpo.size(), caracteres, false, null);
+
+                if (previsoes == null) {
+                    continue;
+                }
+                modelCascade.recordRemote(corpo, Arrays.asList(previsoes), System.nanoTime() - inicioLote);
+                for (int k = 0; k < fatia.size() && k < previsoes.length; k++) {
+                    resultado[fatia.get(k)] = previsoes[k];
+                }
+            }
+        }
+
+        return Arrays.asList(resultado);
+    }
+
+    // Previsões reaproveitadas de quase-duplicatas: sem duração, pois
+    // nenhum modelo foi chamado (a busca no LSH não é inferência)
+    private static void commitReused(int textos, long caracteres, String rotulo) {
+        InferenceEvent evento = new InferenceEvent();
+        evento.begin();
+        evento.commit("duplicata", null, textos, caracteres, true, rotulo);
+    }
+
+    // Nome do transporte nos eventos JFR de inferência
+    private String backend(String url) {
+        return binaryTransport.handles(url) ? "binario" : "remoto";
+    }
+
     /**
      * Busca um comentário e sua previsão pelo ID.
+     * Lido de uma réplica; se o comentário acabou de ser gravado,
+     * só de uma réplica que já tenha essa gravação (ou do primário).
      */
+    @Transactional(readOnly = true)
     public CommentEntity getPredictionById(Long id) {
+
+        Optional<Instant> gravadoEm = writeTracker.lastWrite(id);
+        if (gravadoEm.isPresent()) {
+            return DataSourceRouting.requireFreshness(gravadoEm.get(),
+                    () -> commentRepository.findById(id).orElse(null));
+        }
+
         // Retorna o comentário se existir ou null caso contrário
         return commentRepository.findById(id).orElse(null);
     }
@@ -82,23 +282,18 @@ public class SentimentService {
      * Calcula estatísticas de sentimento (percentual)
      * com base nos últimos N comentários.
      */
+    @Transactional(readOnly = true)
     public StatsDto getStats(int quantidade) {
 
-        // Total de comentários existentes no banco
-        long totalComments = commentRepository.count();
-
-        // Evita divisão por zero quando não há dados
-        if (totalComments == 0) {
-            return new StatsDto(0.0, 0.0);
-        }
+        StatsEvent evento = new StatsEvent();
+        evento.begin();
 
         double positivo = 0;
         double negativo = 0;
 
         // Limita a consulta aos últimos N registros
-        Pageable pageable = PageRequest.of(0, quantidade);
-        List<CommentEntity> comments =
-                commentRepository.buscarPorUltimos(pageable);
+        LatestComments ultimos = latestComments(quantidade);
+        List<CommentEntity> comments = ultimos.comments();
 
         // Contabiliza os sentimentos encontrados
         for (CommentEntity comment : comments) {
@@ -119,7 +314,15 @@ public class SentimentService {
 
         double total = positivo + negativo;
 
-        // Caso existam comentários sem classificação válida
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.quantidade = quantidade;
+            evento.comentarios = comments.size();
+            evento.janelaQuente = ultimos.janelaQuente();
+            evento.commit();
+        }
+
+        // Banco vazio ou comentários sem classificação válida
         if (total == 0) {
             return new StatsDto(0.0, 0.0);
         }
@@ -131,15 +334,40 @@ public class SentimentService {
         return new StatsDto(porcentagemPositivo, porcentagemNegativo);
     }
 
+    /**
+     * Últimos N comentários. Tenta primeiro só a janela recente
+     * (partições novas) e recorre à tabela inteira se ela não tiver N.
+     */
+    private LatestComments latestComments(int quantidade) {
+
+        Pageable pageable = PageRequest.of(0, quantidade);
+
+        if (janelaQuente != null && !janelaQuente.isZero()) {
+            List<CommentEntity> recentes = commentRepository.buscarPorUltimosDesde(
+                    LocalDateTime.now().minus(janelaQuente), pageable);
+            if (recentes.size() >= quantidade) {
+                return new LatestComments(recentes, true);
+            }
+        }
+
+        return new LatestComments(commentRepository.buscarPorUltimos(pageable), false);
+    }
+
+    // Comentários e se a consulta só à janela recente bastou
+    private record LatestComments(List<CommentEntity> comments, boolean janelaQuente) {
+    }
+
     /**
      * Atualiza o texto de um comentário existente
      * e recalcula sua previsão de sentimento.
+     * O evento do outbox é gravado na mesma transação.
      */
     public Optional<CommentEntity> updatePrediction(Long id, String newText) {
 
         // Busca o comentário pelo ID
+        // (no primário: a versão lida será usada na gravação)
         Optional<CommentEntity> optionalComment =
-                commentRepository.findById(id);
+                DataSourceRouting.onPrimary(() -> commentRepository.findById(id));
 
         // Retorna vazio caso o comentário não exista
         if (optionalComment.isEmpty()) {
@@ -147,30 +375,54 @@ public class SentimentService {
         }
 
         CommentEntity commentEntity = optionalComment.get();
+        SentimentPrediction anterior = commentEntity.getPrevisao();
 
-        // Gera nova previsão para o texto atualizado
+        // Gera nova previsão para o texto atualizado, fora da transação
         SentimentPrediction prediction =
                 predictSentiment(newText);
+        int[] assinatura = nearDuplicateDetector.signature(newText);
 
-        // Persiste a nova previsão
-        prediction = sentimentPredictionRepository.save(prediction);
+        // Só as gravações ficam na transação; uma alteração concorrente
+        // durante a chamada ao modelo falha na trava otimista (@Version)
+        CommentEntity saved = transactionTemplate.execute(status -> {
 
-        // Atualiza os dados do comentário
-        commentEntity.setText(newText);
-        commentEntity.setPrevisao(prediction);
+            // Persiste a nova previsão
+            SentimentPrediction nova = sentimentPredictionRepository.save(prediction);
 
-        return Optional.of(
-                commentRepository.save(commentEntity)
-        );
+            // Atualiza os dados do comentário
+            commentEntity.setText(newText, compressionProperties.isHabilitado());
+            commentEntity.setPrevisao(nova);
+
+            CommentEntity atualizado = commentRepository.save(commentEntity);
+
+            // A previsão substituída não tem mais comentário
+            if (anterior != null && anterior.getId() != null) {
+                sentimentPredictionRepository.apagarSeOrfa(anterior.getId());
+            }
+
+            writeTracker.recordWrite(atualizado.getId());
+            eventPublisher.publishEvent(CommentChangedEvent.updated(atualizado));
+
+            // O texto antigo não representa mais este comentário
+            afterCommit(() -> {
+                nearDuplicateDetector.forget(id);
+                nearDuplicateDetector.register(
+                        assinatura, atualizado.getId(), atualizado.getDataCriacao(), nova);
+            });
+            return atualizado;
+        });
+
+        return Optional.ofNullable(saved);
     }
 
     /**
      * Remove um comentário e retorna o registro excluído.
      */
+    @Transactional
     public Optional<CommentEntity> deletePrediction(Long id) {
 
         Optional<CommentEntity> optionalComment =
-                commentRepository.findById(id);
+                DataSourceRouting.onPrimary(() -> commentRepository.findById(id));
 
         if (optionalComment.isEmpty()) {
             return Optional.empty();
@@ -178,18 +430,27 @@ public class SentimentService {
 
         CommentEntity comment = optionalComment.get();
         commentRepository.delete(comment);
+        if (comment.getPrevisao() != null && comment.getPrevisao().getId() != null) {
+            sentimentPredictionRepository.apagarSeOrfa(comment.getPrevisao().getId());
+        }
+        writeTracker.recordWrite(id);
+        afterCommit(() -> nearDuplicateDetector.forget(id));
+        eventPublisher.publishEvent(CommentChangedEvent.deleted(comment));
 
         return Optional.of(comment);
     }
 
     /**
      * Processa um arquivo CSV contendo textos,
-     * gera previsões de sentimento e persiste os dados.
+     * gera previsões de sentimento e persiste os dados
+     * (em transações curtas, ver {@link #classifyAndPersist}).
      */
     public List<SentimentPrediction> processoUploadCsv(
             MultipartFile file) {
 
         List<SentimentPrediction> results = new ArrayList<>();
+        CsvChunkEvent evento = new CsvChunkEvent();
+        evento.begin();
 
         try (Reader reader =
                      new InputStreamReader(file.getInputStream())) {
@@ -199,39 +460,28 @@ public class SentimentService {
                     .withFirstRecordAsHeader()
                     .parse(reader);
 
+            // Obtém o texto da coluna "text" de cada linha
+            List<String> texts = new ArrayList<>();
             for (CSVRecord record : parser) {
+                texts.add(record.get("text"));
+            }
 
-                // Obtém o texto da coluna "text"
-                String text = record.get("text");
-
-                Map<String, String> body =
-                        Map.of("text", text);
-
-                // Chamada ao microserviço Python
-                SentimentPrediction prediction =
-                        restTemplate.postForObject(
-                                pythonUrl,
-                                body,
-                                SentimentPrediction.class
-                        );
-
+            // Linhas que o microserviço não classificou ficam de fora
+            for (SentimentPrediction prediction : classifyAndPersist(texts)) {
                 if (prediction != null) {
-
-                    // Persiste a previsão
-                    sentimentPredictionRepository.save(prediction);
-
-                    // Cria e persiste o comentário
-                    CommentEntity comment = new CommentEntity();
-                    comment.setText(text);
-                    comment.setPrevisao(prediction);
-                    comment.setDataCriacao(LocalDateTime.now());
-
-                    commentRepository.save(comment);
-
                     results.add(prediction);
                 }
             }
 
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.etapa = "upload";
+                evento.bytes = file.getSize();
+                evento.registros = texts.size();
+                evento.classificados = results.size();
+                evento.commit();
+            }
+
         } catch (Exception e) {
             // Encapsula qualquer erro de IO ou parsing
             throw new RuntimeException("Erro ao processar csv", e);
@@ -240,28 +490,187 @@ public class SentimentService {
         return results;
     }
 
+    /**
+     * Classifica um lote de textos e persiste os comentários,
+     * aplicando a detecção de quase-duplicatas.
+     * Usado pelo upload de CSV, pela importação de arquivos locais
+     * e pelo lote em JSON. A lista devolvida segue a ordem de entrada
+     * e contém null para os textos que não puderam ser classificados.
+     * As chamadas ao modelo acontecem fora de qualquer transação; os
+     * comentários e eventos do outbox são gravados em seguida, uma
+     * transação curta a cada {@code sentiment.lote-gravacao} textos.
+     */
+    public List<SentimentPrediction> classifyAndPersist(List<String> texts) {
+
+        // Separa as quase-duplicatas (de comentários recentes ou de
+        // linhas anteriores do arquivo) das linhas que vão ao modelo
+        NearDuplicateDetector.DuplicateBatch lote =
+                nearDuplicateDetector.batch(texts);
+        int reaproveitados = texts.size() - lote.pending().size();
+        if (reaproveitados > 0) {
+            long caracteres = 0;
+            for (int i = 0; i < texts.size(); i++) {
+                if (lote.isDuplicate(i)) {
+                    caracteres += texts.get(i).length();
+                }
+            }
+            commitReused(reaproveitados, caracteres, null);
+        }
+
+        List<String> pendentes = new ArrayList<>();
+        for (int indice : lote.pending()) {
+            pendentes.add(texts.get(indice));
+        }
+
+        // Chamada ao microserviço Python, agrupada por idioma
+        List<SentimentPrediction> predictions =
+                lote.resolve(classifyBatch(pendentes));
+
+        Long[] idsSalvos = new Long[texts.size()];
+        int tamanho = Math.max(1, loteGravacao);
+
+        for (int inicio = 0; inicio < texts.size(); inicio += tamanho) {
+            int de = inicio;
+            int ate = Math.min(inicio + tamanho, texts.size());
+            transactionTemplate.executeWithoutResult(status ->
+                    persist(texts, predictions, lote, idsSalvos, de, ate));
+        }
+
+        return new ArrayList<>(predictions);
+    }
+
+    // Grava os textos [de, ate) de um lote já classificado
+    private void persist(List<String> texts,
+                         List<SentimentPrediction> predictions,
+                         NearDuplicateDetector.DuplicateBatch lote,
+                         Long[] idsSalvos,
+                         int de,
+                         int ate) {
+
+        NearDuplicateProperties.Modo modo = nearDuplicateDetector.mode();
+        List<Long> gravados = new ArrayList<>(ate - de);
+        LocalDateTime[] criados = new LocalDateTime[ate - de];
+
+        for (int i = de; i < ate; i++) {
+
+            SentimentPrediction prediction = predictions.get(i);
+
+            // Sem previsão, ou quase-duplicata no modo IGNORAR:
+            // nada a persistir
+            if (prediction == null
+                    || (lote.isDuplicate(i) && modo == NearDuplicateProperties.Modo.IGNORAR)) {
+                continue;
+            }
+
+            // Persiste a previsão
+            sentimentPredictionRepository.save(prediction);
+
+            // Cria e persiste o comentário
+            CommentEntity comment = new CommentEntity();
+            comment.setText(texts.get(i), compressionProperties.isHabilitado());
+            comment.setPrevisao(prediction);
+            comment.setDataCriacao(LocalDateTime.now());
+
+            if (lote.isDuplicate(i) && modo == NearDuplicateProperties.Modo.MARCAR) {
+                comment.setDuplicataDe(lote.recentMatch(i) != null
+                        ? lote.recentMatch(i).commentId()
+                        : idsSalvos[lote.batchOrigin(i)]);
+            }
+
+            comment = commentRepository.save(comment);
+            idsSalvos[i] = comment.getId();
+            criados[i - de] = comment.getDataCriacao();
+            gravados.add(comment.getId());
+            eventPublisher.publishEvent(CommentChangedEvent.created(comment));
+        }
+
+        writeTracker.recordWrites(gravados);
+
+        // Só os originais entram no índice de recentes
+        afterCommit(() -> {
+            for (int i = de; i < ate; i++) {
+                if (idsSalvos[i] != null && !lote.isDuplicate(i)) {
+                    nearDuplicateDetector.register(
+                            lote.signature(i), idsSalvos[i], criados[i - de], predictions.get(i));
+                }
+            }
+        });
+    }
+
     /**
      * Cria um comentário individual,
      * gera a previsão e persiste os dados.
+     * A busca de quase-duplicatas e a chamada ao modelo ficam fora da
+     * transação, que só grava a previsão, o comentário e o outbox.
      */
     public SentimentPrediction createComment(String text) {
 
-        // Gera a previsão
-        SentimentPrediction prediction =
-                predictSentiment(text);
+        // Procura um comentário recente quase idêntico
+        // antes de gastar uma chamada ao modelo
+        int[] assinatura = nearDuplicateDetector.signature(text);
+        Optional<NearDuplicateDetector.Previous> duplicata =
+                nearDuplicateDetector.find(assinatura);
+        if (duplicata.isPresent()) {
+            commitReused(1, text.length(), duplicata.get().label());
+        }
 
-        // Salva a previsão
-        prediction =
-                sentimentPredictionRepository.save(prediction);
+        NearDuplicateProperties.Modo modo = nearDuplicateDetector.mode();
 
-        // Cria o comentário associado
-        CommentEntity comment = new CommentEntity();
-        comment.setText(text);
-        comment.setPrevisao(prediction);
-        comment.setDataCriacao(LocalDateTime.now());
+        // Modo IGNORAR: responde com a previsão reaproveitada sem salvar
+        if (duplicata.isPresent() && modo == NearDuplicateProperties.Modo.IGNORAR) {
+            return duplicata.get().toPrediction();
+        }
 
-        commentRepository.save(comment);
+        // Gera a previsão (ou reaproveita a da duplicata)
+        SentimentPrediction prediction = duplicata
+                .map(NearDuplicateDetector.Previous::toPrediction)
+                .orElseGet(() -> predictSentiment(text));
 
-        return prediction;
+        return transactionTemplate.execute(status -> {
+
+            // Salva a previsão
+            SentimentPrediction salva =
+                    sentimentPredictionRepository.save(prediction);
+
+            // Cria o comentário associado
+            CommentEntity comment = new CommentEntity();
+            comment.setText(text, compressionProperties.isHabilitado());
+            comment.setPrevisao(salva);
+            comment.setDataCriacao(LocalDateTime.now());
+
+            if (duplicata.isPresent() && modo == NearDuplicateProperties.Modo.MARCAR) {
+                comment.setDuplicataDe(duplicata.get().commentId());
+            }
+
+            comment = commentRepository.save(comment);
+            writeTracker.recordWrite(comment.getId());
+            eventPublisher.publishEvent(CommentChangedEvent.created(comment));
+
+            // Só os originais entram no índice de recentes
+            if (duplicata.isEmpty()) {
+                Long commentId = comment.getId();
+                LocalDateTime dataCriacao = comment.getDataCriacao();
+                afterCommit(() -> nearDuplicateDetector.register(
+                        assinatura, commentId, dataCriacao, salva));
+            }
+
+            return salva;
+        });
+    }
+
+    // O estado em memória (índice de quase-duplicatas) só muda depois do
+    // commit, para não guardar comentários de uma transação desfeita
+    private static void afterCommit(Runnable acao) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
     }
 }
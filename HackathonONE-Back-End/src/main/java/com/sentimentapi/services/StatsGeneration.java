@@ -0,0 +1,49 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.events.CommentsArchivedEvent;
+import com.sentimentapi.events.CommentsDeletedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Contador de "geração" das estatísticas
+// Muda a cada comentário criado, atualizado, removido ou arquivado;
+// enquanto não mudar, qualquer estatística já calculada continua válida.
+// Usado para gerar o ETag de /sentiment/stats sem recalcular nada.
+//
+// Limitação: o contador é local ao processo e só vê os eventos publicados
+// nesta instância. Com várias instâncias atrás de um balanceador, uma
+// alteração feita em outra instância não muda a geração daqui, e um
+// cliente pode receber 304 com estatísticas desatualizadas; os ETags
+// também não coincidem entre instâncias (só custa um 200 a mais).
+// Antes de escalar horizontalmente, é preciso derivar a geração de estado
+// compartilhado no banco (por exemplo MAX(id) e a soma de versao dos
+// últimos N comentários) ou distribuir os eventos entre as instâncias.
+@Component
+public class StatsGeneration {
+
+    // Começa no horário da subida para não repetir valores entre reinícios
+    private final AtomicLong geracao = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return geracao.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        geracao.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentsArchived(CommentsArchivedEvent event) {
+        geracao.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentsDeleted(CommentsDeletedEvent event) {
+        geracao.incrementAndGet();
+    }
+}
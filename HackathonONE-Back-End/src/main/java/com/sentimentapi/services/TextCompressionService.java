@@ -0,0 +1,244 @@
+package com.sentimentapi.services;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import com.sentimentapi.compression.TextCodec;
+import com.sentimentapi.config.CompressionProperties;
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.entities.CompressionDictionary;
+import com.sentimentapi.repositories.CommentRepository;
+import com.sentimentapi.repositories.CompressionDictionaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Dicionários e migração da compressão do texto dos comentários
+// Carrega os dicionários salvos antes de qualquer leitura (os criados
+// depois, por outras instâncias, são buscados quando aparecem), treina o
+// primeiro dicionário com os comentários recentes e converte, em
+// segundo plano e em lotes pequenos, as linhas antigas da coluna text
+// para text_zstd.
+@Service
+public class TextCompressionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TextCompressionService.class);
+
+    private final CompressionProperties properties;
+    private final TextCodec codec;
+    private final CompressionDictionaryRepository dictionaryRepository;
+    private final CommentRepository commentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean encerrando;
+    private Thread migracao;
+
+    public TextCompressionService(CompressionProperties properties,
+                                  TextCodec codec,
+                                  CompressionDictionaryRepository dictionaryRepository,
+                                  CommentRepository commentRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.codec = codec;
+        this.dictionaryRepository = dictionaryRepository;
+        this.commentRepository = commentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+
+        // A leitura pode acontecer no meio da carga de uma entidade:
+        // a busca do dicionário usa uma transação (e sessão) própria
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Os dicionários precisam estar no codec antes da primeira leitura
+    @PostConstruct
+    public void loadDictionaries() {
+
+        List<CompressionDictionary> dicionarios = dictionaryRepository.findAllByOrderByIdAsc();
+        for (int i = 0; i < dicionarios.size(); i++) {
+            CompressionDictionary dicionario = dicionarios.get(i);
+            codec.install(dicionario.getId(), dicionario.getDados(), i == dicionarios.size() - 1);
+        }
+        codec.setLoader(this::loadDictionary);
+    }
+
+    private byte[] loadDictionary(int id) {
+
+        byte[] dados = transactionTemplate.execute(status -> dictionaryRepository.findById(id)
+                .map(CompressionDictionary::getDados)
+                .orElse(null));
+        if (dados != null) {
+            log.info("Dicionário zstd {} carregado do banco", id);
+        }
+        return dados;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        if (!properties.isHabilitado()) {
+            return;
+        }
+
+        // Sem dicionário a compressão de textos curtos não compensa;
+        // a migração espera o primeiro treino bem-sucedido
+        if (trainIfMissing()) {
+            startMigration();
+        }
+    }
+
+    /**
+     * Sem dados suficientes na subida, tenta treinar de novo mais tarde.
+     */
+    @Scheduled(fixedDelayString = "${sentiment.compressao.treino-intervalo:PT1H}")
+    public void retryTraining() {
+        if (properties.isHabilitado() && !codec.hasDictionary() && trainIfMissing()) {
+            startMigration();
+        }
+    }
+
+    private synchronized void startMigration() {
+
+        if (migracao != null) {
+            return;
+        }
+        migracao = new Thread(this::migrate, "compressao-migracao");
+        migracao.setDaemon(true);
+        migracao.start();
+    }
+
+    /**
+     * Treina e ativa um dicionário com os comentários mais recentes,
+     * se ainda não existir nenhum. Devolve true se há dicionário ativo.
+     */
+    public synchronized boolean trainIfMissing() {
+
+        if (codec.hasDictionary()) {
+            return true;
+        }
+
+        // Outra instância pode ter treinado depois da nossa subida
+        Optional<CompressionDictionary> salvo = dictionaryRepository.findFirstByOrderByIdDesc();
+        if (salvo.isPresent()) {
+            codec.install(salvo.get().getId(), salvo.get().getDados(), true);
+            log.info("Dicionário zstd {} já existente passou a ser usado", salvo.get().getId());
+            return true;
+        }
+
+        List<byte[]> amostras = new ArrayList<>();
+        int total = 0;
+        for (CommentEntity comment : commentRepository.buscarPorUltimos(
+                PageRequest.of(0, properties.getAmostras()))) {
+            if (comment.getText() != null) {
+                byte[] utf8 = comment.getText().getBytes(StandardCharsets.UTF_8);
+                amostras.add(utf8);
+                total += utf8.length;
+            }
+        }
+
+        if (amostras.size() < properties.getMinimoAmostras()) {
+            log.info("Comentários insuficientes para treinar o dicionário zstd ({} de {})",
+                    amostras.size(), properties.getMinimoAmostras());
+            return false;
+        }
+
+        byte[] dados;
+        try {
+            ZstdDictTrainer treino = new ZstdDictTrainer(total, properties.getTamanhoDicionario());
+            amostras.forEach(treino::addSample);
+            dados = treino.trainSamples();
+        } catch (ZstdException e) {
+            log.warn("Falha ao treinar o dicionário zstd", e);
+            return false;
+        }
+
+        CompressionDictionary dicionario = new CompressionDictionary();
+        dicionario.setDados(dados);
+        dicionario.setAmostras(amostras.size());
+        dicionario.setCriadoEm(LocalDateTime.now());
+        dicionario = dictionaryRepository.save(dicionario);
+
+        codec.install(dicionario.getId(), dados, true);
+        log.info("Dicionário zstd {} treinado com {} comentários ({} bytes)",
+                dicionario.getId(), amostras.size(), dados.length);
+        return true;
+    }
+
+    /**
+     * Converte as linhas que ainda usam a coluna text. A condição
+     * "text IS NOT NULL" no UPDATE evita sobrescrever uma edição
+     * feita pela aplicação entre a leitura e a gravação do lote.
+     * Devolve o número de linhas convertidas.
+     */
+    public long migrate() {
+
+        long ultimoId = 0;
+        long convertidas = 0;
+
+        while (!encerrando) {
+
+            List<Map<String, Object>> lote = jdbcTemplate.queryForList(
+                    "SELECT id, text FROM comentario_tb WHERE text IS NOT NULL AND id > ? " +
+                    "ORDER BY id FETCH FIRST " + properties.getLoteMigracao() + " ROWS ONLY",
+                    ultimoId);
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> atualizacoes = new ArrayList<>(lote.size());
+            for (Map<String, Object> linha : lote) {
+                long id = ((Number) linha.get("id")).longValue();
+                atualizacoes.add(new Object[]{codec.encode(String.valueOf(linha.get("text"))), id});
+                ultimoId = id;
+            }
+
+            for (int afetadas : jdbcTemplate.batchUpdate(
+                    "UPDATE comentario_tb SET text_zstd = ?, text = NULL " +
+                    "WHERE id = ? AND text IS NOT NULL", atualizacoes)) {
+                convertidas += Math.max(0, afetadas);
+            }
+
+            pause();
+        }
+
+        if (convertidas > 0) {
+            log.info("Compressão de texto: {} comentários antigos convertidos", convertidas);
+        }
+        return convertidas;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        encerrando = true;
+        if (migracao != null) {
+            migracao.interrupt();
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPausaMigracao().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            encerrando = true;
+        }
+    }
+}
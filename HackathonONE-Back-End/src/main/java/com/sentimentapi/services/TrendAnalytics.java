@@ -0,0 +1,285 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.TrendProperties;
+import com.sentimentapi.dtos.TrendsDto;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.inference.TextTokenizer;
+import com.sentimentapi.sketch.CountMinSketch;
+import com.sentimentapi.sketch.SpaceSavingTopK;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Tendências de termos por rótulo ("do que os clientes reclamam agora")
+// Cada texto classificado é quebrado em termos e bigramas (sem stopwords)
+// que entram no painel atual do seu rótulo: um Count-Min Sketch estima a
+// frequência e um conjunto Space-Saving guarda os candidatos a mais
+// frequentes. Os painéis formam um anel de duração fixa; uma janela é a
+// soma dos painéis que ela cobre. Memória constante e atualização em tempo
+// constante por termo, sem consultar comentario_tb.
+@Component
+public class TrendAnalytics {
+
+    // Rótulos distintos aceitos (o modelo só produz alguns poucos)
+    private static final int MAXIMO_ROTULOS = 16;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final TrendProperties properties;
+    private final long duracaoPainel;
+    private final Set<String> stopwords;
+
+    private final Map<String, Anel> aneis = new ConcurrentHashMap<>();
+
+    public TrendAnalytics(TrendProperties properties) {
+        this.properties = properties;
+        this.duracaoPainel = properties.getDuracaoPainel().toMillis();
+        this.stopwords = loadStopwords("/lexico/stopwords-pt.txt");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+
+        // Remoções não desfazem o que já foi visto na janela
+        if (!properties.isHabilitado()
+                || event.type() == CommentChangedEvent.Type.DELETED
+                || event.label() == null || event.text() == null) {
+            return;
+        }
+        record(event.label(), event.text(), System.currentTimeMillis());
+    }
+
+    void record(String label, String text, long agora) {
+
+        List<String> termos = new ArrayList<>();
+        for (String palavra : TextTokenizer.words(text)) {
+            if (!isStopword(palavra)) {
+                termos.add(palavra);
+            }
+        }
+        if (termos.isEmpty()) {
+            return;
+        }
+
+        Anel anel = aneis.get(label);
+        if (anel == null) {
+            if (aneis.size() >= MAXIMO_ROTULOS) {
+                return;
+            }
+            anel = aneis.computeIfAbsent(label, l -> new Anel());
+        }
+        anel.record(termos, agora / duracaoPainel);
+    }
+
+    /**
+     * Termos e bigramas mais frequentes na janela que termina agora,
+     * para um rótulo ou para todos (label null).
+     */
+    public TrendsDto top(String label, Duration janela, int limite) {
+        return top(label, janela, limite, System.currentTimeMillis());
+    }
+
+    TrendsDto top(String label, Duration janela, int limite, long agora) {
+
+        long atual = agora / duracaoPainel;
+        int quantidade = (int) Math.min(properties.getPaineis(),
+                Math.max(1, (janela.toMillis() + duracaoPainel - 1) / duracaoPainel));
+        long primeiro = atual - quantidade + 1;
+
+        Map<String, TrendsDto.Rotulo> rotulos = new LinkedHashMap<>();
+        aneis.entrySet().stream()
+                .filter(e -> label == null || e.getKey().equalsIgnoreCase(label))
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> {
+                    TrendsDto.Rotulo rotulo = e.getValue().top(primeiro, atual, limite);
+                    if (rotulo.totalTermos() > 0) {
+                        rotulos.put(e.getKey(), rotulo);
+                    }
+                });
+
+        return new TrendsDto(
+                toDateTime(primeiro * duracaoPainel).toString(),
+                toDateTime(agora).toString(),
+                rotulos
+        );
+    }
+
+    public boolean enabled() {
+        return properties.isHabilitado();
+    }
+
+    private boolean isStopword(String palavra) {
+        if (Character.isDigit(palavra.charAt(0))) {
+            return true;
+        }
+        return stopwords.contains(normalize(palavra));
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    // Sem acentos, para casar "não" e "nao"
+    private static String normalize(String palavra) {
+        return MARCAS.matcher(Normalizer.normalize(palavra, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static Set<String> loadStopwords(String recurso) {
+
+        Set<String> palavras = new HashSet<>();
+        try (InputStream in = TrendAnalytics.class.getResourceAsStream(recurso)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Stopwords não encontradas: " + recurso);
+            }
+            for (String linha : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                linha = linha.strip();
+                if (!linha.isEmpty() && !linha.startsWith("#")) {
+                    palavras.add(normalize(linha));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao ler stopwords " + recurso, e);
+        }
+        return palavras;
+    }
+
+    // Anel de painéis de um rótulo; os painéis são criados no primeiro uso
+    // e reaproveitados (zerados) quando o anel dá a volta
+    private final class Anel {
+
+        private final Painel[] paineis = new Painel[properties.getPaineis()];
+
+        synchronized void record(List<String> palavras, long id) {
+
+            Painel painel = painel(id);
+            if (painel == null) {
+                return;
+            }
+            for (int i = 0; i < palavras.size(); i++) {
+                painel.termos.add(palavras.get(i));
+                if (i > 0) {
+                    painel.bigramas.add(palavras.get(i - 1) + " " + palavras.get(i));
+                }
+            }
+        }
+
+        TrendsDto.Rotulo top(long primeiro, long ultimo, int limite) {
+
+            Contagem termos = new Contagem();
+            Contagem bigramas = new Contagem();
+
+            // Só a soma dos contadores fica sob o lock; a ordenação não
+            synchronized (this) {
+                for (Painel painel : paineis) {
+                    if (painel != null && painel.id >= primeiro && painel.id <= ultimo) {
+                        termos.add(painel.termos);
+                        bigramas.add(painel.bigramas);
+                    }
+                }
+            }
+
+            return new TrendsDto.Rotulo(
+                    termos.total(),
+                    termos.top(limite),
+                    bigramas.top(limite)
+            );
+        }
+
+        private Painel painel(long id) {
+
+            int slot = (int) Math.floorMod(id, (long) paineis.length);
+            Painel painel = paineis[slot];
+            if (painel == null) {
+                painel = new Painel();
+                paineis[slot] = painel;
+            }
+            if (painel.id > id) {
+                // Evento atrasado de um painel que já saiu do anel
+                return null;
+            }
+            if (painel.id != id) {
+                painel.clear(id);
+            }
+            return painel;
+        }
+    }
+
+    private final class Painel {
+
+        long id = Long.MIN_VALUE;
+        final Frequencias termos = new Frequencias();
+        final Frequencias bigramas = new Frequencias();
+
+        void clear(long novoId) {
+            id = novoId;
+            termos.clear();
+            bigramas.clear();
+        }
+    }
+
+    // Sketch e candidatos de um tipo de termo em um painel
+    private final class Frequencias {
+
+        final CountMinSketch sketch = new CountMinSketch(properties.getLargura(), properties.getProfundidade());
+        final SpaceSavingTopK candidatos = new SpaceSavingTopK(properties.getCandidatos());
+
+        void add(String termo) {
+            candidatos.offer(termo, sketch.add(termo));
+        }
+
+        void clear() {
+            sketch.clear();
+            candidatos.clear();
+        }
+    }
+
+    // Soma dos painéis de uma janela
+    private final class Contagem {
+
+        private CountMinSketch soma;
+        private final Set<String> candidatos = new HashSet<>();
+
+        void add(Frequencias frequencias) {
+            if (soma == null) {
+                soma = frequencias.sketch.emptyCopy();
+            }
+            soma.merge(frequencias.sketch);
+            candidatos.addAll(frequencias.candidatos.candidates());
+        }
+
+        long total() {
+            return soma == null ? 0 : soma.total();
+        }
+
+        List<TrendsDto.Termo> top(int limite) {
+
+            if (soma == null) {
+                return List.of();
+            }
+            return candidatos.stream()
+                    .map(termo -> new TrendsDto.Termo(termo, soma.estimate(termo)))
+                    .sorted(Comparator.comparingLong(TrendsDto.Termo::contagem).reversed()
+                            .thenComparing(TrendsDto.Termo::termo))
+                    .limit(limite)
+                    .toList();
+        }
+    }
+}
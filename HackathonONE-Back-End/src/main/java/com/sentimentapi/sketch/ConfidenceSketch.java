@@ -0,0 +1,171 @@
+package com.sentimentapi.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Sketch de quantis com erro relativo garantido (no estilo do DDSketch)
+ * para valores em [0, 1], como a probabilidade das previsões.
+ * <p>
+ * Cada valor cai no balde {@code ceil(log(v) / log(gamma))}, com
+ * {@code gamma = (1 + a) / (1 - a)}; qualquer quantil é devolvido com erro
+ * relativo de no máximo {@code a}. Valores abaixo de {@link #MINIMO} contam
+ * como zero. Dois sketches com a mesma precisão são somados balde a balde,
+ * o que permite juntar horas, rótulos e instâncias sem perder a garantia.
+ * <p>
+ * Não é thread-safe.
+ */
+public final class ConfidenceSketch {
+
+    public static final double MINIMO = 1e-4;
+
+    private static final byte VERSAO = 1;
+
+    private final double precisao;
+    private final double logGamma;
+    private final int indiceMinimo;
+
+    // contagens[i] é o balde de índice (indiceMinimo + i); o último é v = 1
+    private final long[] contagens;
+    private long zeros;
+    private long total;
+
+    public ConfidenceSketch(double precisao) {
+
+        if (precisao <= 0 || precisao >= 1) {
+            throw new IllegalArgumentException("Precisão deve estar entre 0 e 1: " + precisao);
+        }
+        this.precisao = precisao;
+        this.logGamma = Math.log((1 + precisao) / (1 - precisao));
+        this.indiceMinimo = index(MINIMO);
+        this.contagens = new long[1 - indiceMinimo];
+    }
+
+    public double precision() {
+        return precisao;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public void add(double valor) {
+
+        if (Double.isNaN(valor)) {
+            return;
+        }
+        if (valor < MINIMO) {
+            zeros++;
+        } else {
+            contagens[index(Math.min(valor, 1.0)) - indiceMinimo]++;
+        }
+        total++;
+    }
+
+    public void merge(ConfidenceSketch outro) {
+
+        if (outro.precisao != precisao) {
+            throw new IllegalArgumentException("Sketches com precisões diferentes");
+        }
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+        zeros += outro.zeros;
+        total += outro.total;
+    }
+
+    /**
+     * Quantil {@code q} (0 a 1) ou NaN se o sketch estiver vazio.
+     */
+    public double quantile(double q) {
+
+        if (total == 0) {
+            return Double.NaN;
+        }
+
+        long posicao = (long) (q * (total - 1));
+        long acumulado = zeros;
+        if (acumulado > posicao) {
+            return 0.0;
+        }
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado > posicao) {
+                return Math.min(1.0, value(indiceMinimo + i));
+            }
+        }
+        return 1.0;
+    }
+
+    /**
+     * Formato: versão, precisão, zeros e pares (distância até o balde
+     * anterior não vazio, contagem) em varints. Só os baldes usados
+     * ocupam espaço.
+     */
+    public byte[] toBytes() {
+
+        ByteBuffer buf = ByteBuffer.allocate(1 + 8 + 10 + contagens.length * 20);
+        buf.put(VERSAO);
+        buf.putDouble(precisao);
+        writeVarint(buf, zeros);
+
+        int anterior = -1;
+        for (int i = 0; i < contagens.length; i++) {
+            if (contagens[i] != 0) {
+                writeVarint(buf, i - anterior);
+                writeVarint(buf, contagens[i]);
+                anterior = i;
+            }
+        }
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    public static ConfidenceSketch fromBytes(byte[] dados) {
+
+        ByteBuffer buf = ByteBuffer.wrap(dados);
+        if (buf.get() != VERSAO) {
+            throw new IllegalArgumentException("Versão de sketch desconhecida");
+        }
+
+        ConfidenceSketch sketch = new ConfidenceSketch(buf.getDouble());
+        sketch.zeros = readVarint(buf);
+        sketch.total = sketch.zeros;
+
+        int i = -1;
+        while (buf.hasRemaining()) {
+            i += (int) readVarint(buf);
+            long contagem = readVarint(buf);
+            sketch.contagens[i] = contagem;
+            sketch.total += contagem;
+        }
+        return sketch;
+    }
+
+    private int index(double valor) {
+        return (int) Math.ceil(Math.log(valor) / logGamma);
+    }
+
+    // Ponto do balde com o mesmo erro relativo para os dois extremos
+    private double value(int indice) {
+        return 2 * Math.exp(indice * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    private static void writeVarint(ByteBuffer buf, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            buf.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        buf.put((byte) valor);
+    }
+
+    private static long readVarint(ByteBuffer buf) {
+        long valor = 0;
+        for (int deslocamento = 0; ; deslocamento += 7) {
+            byte b = buf.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+    }
+}
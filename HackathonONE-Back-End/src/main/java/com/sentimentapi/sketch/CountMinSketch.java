@@ -0,0 +1,114 @@
+package com.sentimentapi.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch: estimativa da frequência de cada termo em memória
+ * fixa ({@code profundidade x largura} contadores). A estimativa nunca
+ * fica abaixo da contagem real e passa dela em no máximo
+ * {@code e / largura} do total com probabilidade {@code 1 - e^-profundidade}.
+ * Usa atualização conservadora (só sobe os contadores que estão no mínimo),
+ * o que reduz bastante a superestimação de termos raros.
+ * <p>
+ * Não é thread-safe.
+ */
+public final class CountMinSketch {
+
+    private final int largura;
+    private final int profundidade;
+    private final int[] contadores;
+    private long total;
+
+    public CountMinSketch(int largura, int profundidade) {
+
+        if (Integer.bitCount(largura) != 1) {
+            throw new IllegalArgumentException("Largura deve ser potência de 2: " + largura);
+        }
+        this.largura = largura;
+        this.profundidade = profundidade;
+        this.contadores = new int[largura * profundidade];
+    }
+
+    /**
+     * Soma uma ocorrência e devolve a nova estimativa do termo.
+     */
+    public long add(String termo) {
+
+        long h = hash(termo);
+
+        int minimo = Integer.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, contadores[slot(linha, h)]);
+        }
+        for (int linha = 0; linha < profundidade; linha++) {
+            int slot = slot(linha, h);
+            if (contadores[slot] == minimo) {
+                contadores[slot] = minimo + 1;
+            }
+        }
+        total++;
+        return minimo + 1L;
+    }
+
+    public long estimate(String termo) {
+
+        long h = hash(termo);
+
+        int minimo = Integer.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, contadores[slot(linha, h)]);
+        }
+        return minimo;
+    }
+
+    /**
+     * Soma outro sketch de mesmas dimensões (ex.: painéis de uma janela).
+     */
+    public void merge(CountMinSketch outro) {
+
+        if (outro.largura != largura || outro.profundidade != profundidade) {
+            throw new IllegalArgumentException("Sketches com dimensões diferentes");
+        }
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] += outro.contadores[i];
+        }
+        total += outro.total;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public void clear() {
+        Arrays.fill(contadores, 0);
+        total = 0;
+    }
+
+    public CountMinSketch emptyCopy() {
+        return new CountMinSketch(largura, profundidade);
+    }
+
+    // Cada linha remistura o hash com uma semente própria: com larguras
+    // pequenas, o hash duplo h1 + linha * h2 deixa poucos bits independentes
+    private int slot(int linha, long h) {
+        long x = h + (linha + 1) * 0x9e3779b97f4a7c15L;
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        x ^= x >>> 31;
+        return linha * largura + (int) (x & (largura - 1));
+    }
+
+    // FNV-1a de 64 bits sobre os caracteres, seguido de uma mistura final
+    private static long hash(String termo) {
+
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < termo.length(); i++) {
+            h ^= termo.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,132 @@
+package com.sentimentapi.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto limitado de candidatos a termos mais frequentes (Space-Saving):
+ * guarda no máximo {@code capacidade} termos em um heap de mínimo pela
+ * contagem estimada. Um termo novo só entra se sua estimativa superar o
+ * menor candidato, que é então descartado. Com as estimativas de um
+ * {@link CountMinSketch}, todo termo com frequência acima de
+ * {@code total / capacidade} permanece no conjunto.
+ * <p>
+ * Não é thread-safe.
+ */
+public final class SpaceSavingTopK {
+
+    private final int capacidade;
+    private final String[] termos;
+    private final long[] contagens;
+    private final Map<String, Integer> posicoes;
+    private int tamanho;
+
+    public SpaceSavingTopK(int capacidade) {
+        this.capacidade = capacidade;
+        this.termos = new String[capacidade];
+        this.contagens = new long[capacidade];
+        this.posicoes = new HashMap<>(capacidade * 2);
+    }
+
+    /**
+     * Atualiza o termo com a nova estimativa; custo O(log capacidade).
+     */
+    public void offer(String termo, long estimativa) {
+
+        Integer posicao = posicoes.get(termo);
+        if (posicao != null) {
+            // Estimativas só crescem dentro de um painel
+            if (estimativa > contagens[posicao]) {
+                contagens[posicao] = estimativa;
+                siftDown(posicao);
+            }
+            return;
+        }
+
+        if (tamanho < capacidade) {
+            termos[tamanho] = termo;
+            contagens[tamanho] = estimativa;
+            posicoes.put(termo, tamanho);
+            siftUp(tamanho++);
+            return;
+        }
+
+        if (estimativa > contagens[0]) {
+            posicoes.remove(termos[0]);
+            termos[0] = termo;
+            contagens[0] = estimativa;
+            posicoes.put(termo, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Termos candidatos, sem ordem definida.
+     */
+    public List<String> candidates() {
+
+        List<String> lista = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            lista.add(termos[i]);
+        }
+        return lista;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public void clear() {
+        for (int i = 0; i < tamanho; i++) {
+            termos[i] = null;
+        }
+        posicoes.clear();
+        tamanho = 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (contagens[pai] <= contagens[i]) {
+                return;
+            }
+            swap(i, pai);
+            i = pai;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int menor = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && contagens[esquerda] < contagens[menor]) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && contagens[direita] < contagens[menor]) {
+                menor = direita;
+            }
+            if (menor == i) {
+                return;
+            }
+            swap(i, menor);
+            i = menor;
+        }
+    }
+
+    private void swap(int a, int b) {
+
+        String termo = termos[a];
+        termos[a] = termos[b];
+        termos[b] = termo;
+
+        long contagem = contagens[a];
+        contagens[a] = contagens[b];
+        contagens[b] = contagem;
+
+        posicoes.put(termos[a], a);
+        posicoes.put(termos[b], b);
+    }
+}
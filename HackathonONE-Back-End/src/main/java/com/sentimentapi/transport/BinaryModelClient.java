@@ -0,0 +1,314 @@
+package com.sentimentapi.transport;
+
+import com.sentimentapi.entities.SentimentPrediction;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cliente do modelo Python pelo transporte binário ({@link FrameCodec}).
+ * Mantém um pequeno pool de conexões persistentes (TCP ou Unix domain
+ * socket); cada conexão aceita vários pedidos em voo, escritos por
+ * qualquer thread e respondidos a uma thread leitora que casa as
+ * respostas pelo id. Uma conexão com erro falha os pedidos pendentes
+ * e é reaberta no próximo uso.
+ * <p>
+ * Os canais não bloqueiam: a conexão e a escrita do quadro esperam em
+ * um seletor até o timeout, para que um modelo que não aceita conexões
+ * ou parou de ler não prenda quem envia (e o lock de escrita) para sempre.
+ * <p>
+ * Endereços: {@code tcp://host:porta} ou {@code unix:/caminho/do.sock}.
+ */
+public final class BinaryModelClient implements Closeable {
+
+    private final SocketAddress endereco;
+    private final Duration timeout;
+    private final Conexao[] conexoes;
+
+    private final AtomicInteger proximaConexao = new AtomicInteger();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    private volatile boolean fechado;
+
+    public BinaryModelClient(String endereco, int conexoes, Duration timeout) {
+
+        this.endereco = parseAddress(endereco);
+        this.timeout = timeout;
+        this.conexoes = new Conexao[Math.max(1, conexoes)];
+        for (int i = 0; i < this.conexoes.length; i++) {
+            this.conexoes[i] = new Conexao(i);
+        }
+    }
+
+    public SentimentPrediction predict(String text) {
+        return predict(List.of(text)).get(0);
+    }
+
+    /**
+     * Classifica os textos em um único quadro; a lista devolvida segue
+     * a ordem de entrada e contém null para os textos não classificados.
+     */
+    public List<SentimentPrediction> predict(List<String> texts) {
+
+        CompletableFuture<List<SentimentPrediction>> resposta = submit(texts);
+        try {
+            return resposta.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resposta.cancel(false);
+            throw new UncheckedIOException(new IOException("Modelo não respondeu em " + timeout));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Interrompido aguardando o modelo"));
+        }
+    }
+
+    /**
+     * Envia o pedido sem esperar a resposta (pipelining).
+     */
+    public CompletableFuture<List<SentimentPrediction>> submit(List<String> texts) {
+
+        if (fechado) {
+            return CompletableFuture.failedFuture(new IOException("Cliente fechado"));
+        }
+
+        int id = ids.incrementAndGet();
+        ByteBuffer quadro = FrameCodec.encodeRequest(id, texts);
+        Conexao conexao = conexoes[Math.floorMod(proximaConexao.getAndIncrement(), conexoes.length)];
+        return conexao.send(id, quadro);
+    }
+
+    @Override
+    public void close() {
+        fechado = true;
+        for (Conexao conexao : conexoes) {
+            conexao.fail(new IOException("Cliente fechado"));
+        }
+    }
+
+    static SocketAddress parseAddress(String endereco) {
+
+        if (endereco.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(Path.of(endereco.substring("unix:".length())));
+        }
+
+        String semEsquema = endereco.startsWith("tcp://") ? endereco.substring("tcp://".length()) : endereco;
+        int separador = semEsquema.lastIndexOf(':');
+        if (separador <= 0) {
+            throw new IllegalArgumentException("Endereço inválido (tcp://host:porta ou unix:/caminho): " + endereco);
+        }
+        return new InetSocketAddress(semEsquema.substring(0, separador),
+                Integer.parseInt(semEsquema.substring(separador + 1)));
+    }
+
+    // Espera o seletor até o prazo (System.nanoTime)
+    private static void await(Selector seletor, long prazo, String mensagem) throws IOException {
+
+        long restante = prazo - System.nanoTime();
+        if (restante <= 0) {
+            throw new SocketTimeoutException(mensagem);
+        }
+        seletor.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(restante)));
+        seletor.selectedKeys().clear();
+    }
+
+    // Leitura de um canal sem bloqueio: sem dados, espera no seletor
+    private static void readFully(SocketChannel origem, ByteBuffer destino, Selector seletor) throws IOException {
+
+        while (destino.hasRemaining()) {
+            int lidos = origem.read(destino);
+            if (lidos < 0) {
+                throw new EOFException("Conexão encerrada pelo servidor");
+            }
+            if (lidos == 0) {
+                seletor.select();
+                seletor.selectedKeys().clear();
+            }
+        }
+    }
+
+    // Uma conexão persistente com os pedidos em voo
+    private final class Conexao {
+
+        private final int indice;
+        private final Map<Integer, CompletableFuture<List<SentimentPrediction>>> pendentes =
+                new ConcurrentHashMap<>();
+
+        private final Object escrita = new Object();
+        private SocketChannel canal;
+        // Espera por conexão e por espaço no buffer de envio (com o lock de escrita)
+        private Selector seletorEscrita;
+        // Espera por dados da thread leitora
+        private Selector seletorLeitura;
+
+        Conexao(int indice) {
+            this.indice = indice;
+        }
+
+        CompletableFuture<List<SentimentPrediction>> send(int id, ByteBuffer quadro) {
+
+            CompletableFuture<List<SentimentPrediction>> resposta = new CompletableFuture<>();
+            // Timeout ou cancelamento não deixam o pedido preso no mapa
+            resposta.whenComplete((r, e) -> pendentes.remove(id));
+
+            synchronized (escrita) {
+                try {
+                    // Conexão (se preciso) e escrita dentro do mesmo prazo
+                    long prazo = System.nanoTime() + timeout.toNanos();
+                    SocketChannel atual = channel(prazo);
+                    pendentes.put(id, resposta);
+                    write(atual, quadro, prazo);
+                } catch (IOException e) {
+                    // Um quadro escrito pela metade inutiliza a conexão
+                    fail(e);
+                    resposta.completeExceptionally(e);
+                }
+            }
+            return resposta;
+        }
+
+        // Chamado com o lock de escrita
+        private SocketChannel channel(long prazo) throws IOException {
+
+            if (canal != null && canal.isOpen()) {
+                return canal;
+            }
+
+            SocketChannel novo = endereco instanceof UnixDomainSocketAddress
+                    ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                    : SocketChannel.open();
+            Selector escritaNova = null;
+            Selector leituraNova = null;
+            try {
+                if (!(endereco instanceof UnixDomainSocketAddress)) {
+                    novo.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+                novo.configureBlocking(false);
+                escritaNova = Selector.open();
+                leituraNova = Selector.open();
+
+                SelectionKey chave = novo.register(escritaNova, SelectionKey.OP_CONNECT);
+                if (!novo.connect(endereco)) {
+                    while (!novo.finishConnect()) {
+                        await(escritaNova, prazo, "Sem conexão com o modelo em " + timeout);
+                    }
+                }
+                chave.interestOps(SelectionKey.OP_WRITE);
+                novo.register(leituraNova, SelectionKey.OP_READ);
+            } catch (IOException e) {
+                novo.close();
+                if (escritaNova != null) {
+                    escritaNova.close();
+                }
+                if (leituraNova != null) {
+                    leituraNova.close();
+                }
+                throw e;
+            }
+
+            canal = novo;
+            seletorEscrita = escritaNova;
+            seletorLeitura = leituraNova;
+            Selector leitura = leituraNova;
+            Thread leitora = new Thread(() -> read(novo, leitura), "modelo-binario-" + indice);
+            leitora.setDaemon(true);
+            leitora.start();
+            return novo;
+        }
+
+        // O quadro inteiro até o prazo; buffer de envio cheio (modelo que
+        // parou de ler) espera no seletor, no máximo até lá
+        private void write(SocketChannel atual, ByteBuffer quadro, long prazo) throws IOException {
+            while (quadro.hasRemaining()) {
+                if (atual.write(quadro) == 0) {
+                    await(seletorEscrita, prazo, "Modelo não recebeu o pedido em " + timeout);
+                }
+            }
+        }
+
+        private void read(SocketChannel origem, Selector seletor) {
+
+            ByteBuffer prefixo = ByteBuffer.allocate(4);
+            try (seletor) {
+                while (true) {
+                    prefixo.clear();
+                    readFully(origem, prefixo, seletor);
+                    int tamanho = prefixo.flip().getInt();
+                    FrameCodec.checkSize(tamanho);
+
+                    ByteBuffer corpo = ByteBuffer.allocate(tamanho);
+                    readFully(origem, corpo, seletor);
+                    FrameCodec.Frame quadro = FrameCodec.decode(corpo.flip());
+
+                    CompletableFuture<List<SentimentPrediction>> resposta = pendentes.remove(quadro.id());
+                    if (resposta == null) {
+                        continue;
+                    }
+                    if (quadro.tipo() == FrameCodec.RESPOSTA) {
+                        resposta.complete(FrameCodec.decodePredictions(quadro.corpo()));
+                    } else if (quadro.tipo() == FrameCodec.ERRO) {
+                        resposta.completeExceptionally(
+                                new IOException("Erro no modelo: " + FrameCodec.decodeError(quadro.corpo())));
+                    } else {
+                        throw new IOException("Tipo de quadro inesperado: " + quadro.tipo());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (escrita) {
+                    if (canal == origem) {
+                        fail(e instanceof IOException io ? io : new IOException(e));
+                    }
+                }
+            }
+        }
+
+        // Fecha o canal e falha todos os pedidos em voo
+        void fail(IOException causa) {
+
+            synchronized (escrita) {
+                if (canal != null) {
+                    try {
+                        canal.close();
+                        seletorEscrita.close();
+                    } catch (IOException ignorada) {
+                        // O canal já está inutilizável
+                    }
+                    // A leitora sai do select, vê o canal fechado e fecha o seu seletor
+                    seletorLeitura.wakeup();
+                    canal = null;
+                    seletorEscrita = null;
+                    seletorLeitura = null;
+                }
+            }
+            for (CompletableFuture<List<SentimentPrediction>> resposta : pendentes.values()) {
+                resposta.completeExceptionally(causa);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.sentimentapi.transport;
+
+import com.sentimentapi.entities.SentimentPrediction;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato binário dos quadros trocados com o modelo Python
+ * (servidor_binario.py). Inteiros em big-endian:
+ * <pre>
+ * quadro   = u32 tamanho (bytes seguintes) | u8 tipo | u32 id | corpo
+ * PEDIDO   = u16 n | n x (u32 bytes | texto UTF-8)
+ * RESPOSTA = u16 n | n x (u8 bytes | rótulo UTF-8 | f64 probabilidade)
+ * ERRO     = u16 bytes | mensagem UTF-8
+ * </pre>
+ * Um pedido com um texto é a chamada individual; com vários, o lote.
+ * Rótulo vazio na resposta indica texto não classificado. O id permite
+ * enviar vários pedidos seguidos na mesma conexão (pipelining) e casar
+ * as respostas, que podem voltar fora de ordem.
+ */
+public final class FrameCodec {
+
+    public static final byte PEDIDO = 1;
+    public static final byte RESPOSTA = 2;
+    public static final byte ERRO = 3;
+
+    // Tipo + id
+    public static final int CABECALHO = 5;
+
+    public static final int MAXIMO_TEXTOS = 0xFFFF;
+    public static final int TAMANHO_MAXIMO = 16 * 1024 * 1024;
+
+    private FrameCodec() {
+    }
+
+    /**
+     * Quadro decodificado (sem o prefixo de tamanho).
+     */
+    public record Frame(byte tipo, int id, ByteBuffer corpo) {
+    }
+
+    public static ByteBuffer encodeRequest(int id, List<String> texts) {
+
+        if (texts.isEmpty() || texts.size() > MAXIMO_TEXTOS) {
+            throw new IllegalArgumentException("Um pedido leva de 1 a " + MAXIMO_TEXTOS + " textos");
+        }
+
+        byte[][] bytes = new byte[texts.size()][];
+        int tamanho = CABECALHO + 2;
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = texts.get(i).getBytes(StandardCharsets.UTF_8);
+            tamanho += 4 + bytes[i].length;
+        }
+        checkSize(tamanho);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + tamanho);
+        buffer.putInt(tamanho).put(PEDIDO).putInt(id).putShort((short) bytes.length);
+        for (byte[] texto : bytes) {
+            buffer.putInt(texto.length).put(texto);
+        }
+        return buffer.flip();
+    }
+
+    public static ByteBuffer encodeResponse(int id, List<SentimentPrediction> previsoes) {
+
+        byte[][] rotulos = new byte[previsoes.size()][];
+        int tamanho = CABECALHO + 2;
+        for (int i = 0; i < rotulos.length; i++) {
+            SentimentPrediction previsao = previsoes.get(i);
+            rotulos[i] = previsao == null || previsao.getLabel() == null
+                    ? new byte[0]
+                    : previsao.getLabel().getBytes(StandardCharsets.UTF_8);
+            if (rotulos[i].length > 0xFF) {
+                throw new IllegalArgumentException("Rótulo com mais de 255 bytes");
+            }
+            tamanho += 1 + rotulos[i].length + 8;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + tamanho);
+        buffer.putInt(tamanho).put(RESPOSTA).putInt(id).putShort((short) rotulos.length);
+        for (int i = 0; i < rotulos.length; i++) {
+            SentimentPrediction previsao = previsoes.get(i);
+            buffer.put((byte) rotulos[i].length).put(rotulos[i])
+                    .putDouble(previsao == null ? 0 : previsao.getProbability());
+        }
+        return buffer.flip();
+    }
+
+    public static ByteBuffer encodeError(int id, String mensagem) {
+
+        byte[] bytes = mensagem.getBytes(StandardCharsets.UTF_8);
+        int tamanho = CABECALHO + 2 + bytes.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + tamanho);
+        buffer.putInt(tamanho).put(ERRO).putInt(id).putShort((short) bytes.length).put(bytes);
+        return buffer.flip();
+    }
+
+    /**
+     * Lê o tipo e o id de um quadro já sem o prefixo de tamanho.
+     */
+    public static Frame decode(ByteBuffer quadro) {
+        byte tipo = quadro.get();
+        int id = quadro.getInt();
+        return new Frame(tipo, id, quadro);
+    }
+
+    public static List<String> decodeTexts(ByteBuffer corpo) {
+
+        int n = Short.toUnsignedInt(corpo.getShort());
+        List<String> textos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            byte[] texto = new byte[corpo.getInt()];
+            corpo.get(texto);
+            textos.add(new String(texto, StandardCharsets.UTF_8));
+        }
+        return textos;
+    }
+
+    public static List<SentimentPrediction> decodePredictions(ByteBuffer corpo) {
+
+        int n = Short.toUnsignedInt(corpo.getShort());
+        List<SentimentPrediction> previsoes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            byte[] rotulo = new byte[Byte.toUnsignedInt(corpo.get())];
+            corpo.get(rotulo);
+            double probabilidade = corpo.getDouble();
+            previsoes.add(rotulo.length == 0
+                    ? null
+                    : new SentimentPrediction(new String(rotulo, StandardCharsets.UTF_8), probabilidade));
+        }
+        return previsoes;
+    }
+
+    public static String decodeError(ByteBuffer corpo) {
+        byte[] mensagem = new byte[Short.toUnsignedInt(corpo.getShort())];
+        corpo.get(mensagem);
+        return new String(mensagem, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Valida o prefixo de tamanho lido do socket.
+     */
+    public static void checkSize(int tamanho) {
+        if (tamanho < CABECALHO || tamanho > TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("Tamanho de quadro inválido: " + tamanho);
+        }
+    }
+
+    static void readFully(ReadableByteChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer) < 0) {
+                throw new EOFException("Conexão encerrada pelo servidor");
+            }
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Coluna usada pela detecção de quase-duplicatas (modo MARCAR)
+-- Executar antes de subir a versão com ddl-auto: validate
+ALTER TABLE comentario_tb ADD COLUMN IF NOT EXISTS duplicata_de BIGINT;
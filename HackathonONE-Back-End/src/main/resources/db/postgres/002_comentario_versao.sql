@@ -0,0 +1,2 @@
+-- Versão do comentário (@Version), usada no ETag de GET /sentiment/{id}
+ALTER TABLE comentario_tb ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,50 @@
+-- Converte comentario_tb em tabela particionada por mês (data_criacao)
+-- Executar com a aplicação parada, antes de subir a versão com retenção.
+-- Depois disso a aplicação cria sozinha as partições dos meses seguintes
+-- (sentiment.retencao.meses-a-frente) e arquiva as expiradas.
+BEGIN;
+
+ALTER TABLE comentario_tb RENAME TO comentario_tb_antiga;
+
+-- Comentários antigos sem data entram no mês da migração
+UPDATE comentario_tb_antiga SET data_criacao = now() WHERE data_criacao IS NULL;
+
+-- A chave primária de uma tabela particionada precisa conter a chave de partição
+CREATE TABLE comentario_tb (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    text                    TEXT,
+    sentiment_prediction_id BIGINT REFERENCES sentiment_prediction_tb (id),
+    data_criacao            TIMESTAMP(6) NOT NULL,
+    duplicata_de            BIGINT,
+    versao                  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, data_criacao)
+) PARTITION BY RANGE (data_criacao);
+
+-- Uma partição por mês, do comentário mais antigo até 3 meses à frente
+DO $$
+DECLARE
+    mes DATE := date_trunc('month', (SELECT COALESCE(MIN(data_criacao), now()) FROM comentario_tb_antiga));
+    ultimo DATE := date_trunc('month', now()) + INTERVAL '3 months';
+BEGIN
+    WHILE mes <= ultimo LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS comentario_tb_p%s PARTITION OF comentario_tb FOR VALUES FROM (%L) TO (%L)',
+            to_char(mes, 'YYYYMM'), mes, mes + INTERVAL '1 month');
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+-- Índices criados no pai valem para todas as partições
+CREATE INDEX idx_comentario_data_criacao ON comentario_tb (data_criacao);
+CREATE INDEX idx_comentario_id ON comentario_tb (id);
+
+INSERT INTO comentario_tb (id, text, sentiment_prediction_id, data_criacao, duplicata_de, versao)
+SELECT id, text, sentiment_prediction_id, data_criacao, duplicata_de, versao
+FROM comentario_tb_antiga;
+
+SELECT setval(pg_get_serial_sequence('comentario_tb', 'id'),
+              COALESCE((SELECT MAX(id) FROM comentario_tb), 1));
+
+DROP TABLE comentario_tb_antiga;
+
+COMMIT;
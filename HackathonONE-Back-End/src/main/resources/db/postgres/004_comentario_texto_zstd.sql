@@ -0,0 +1,11 @@
+-- Texto comprimido com zstd (sentiment.compressao)
+-- As linhas antigas continuam em "text" e são convertidas pela aplicação
+-- em segundo plano; as novas já são gravadas em text_zstd.
+ALTER TABLE comentario_tb ADD COLUMN IF NOT EXISTS text_zstd BYTEA;
+
+CREATE TABLE IF NOT EXISTS dicionario_zstd_tb (
+    id        SERIAL PRIMARY KEY,
+    dados     BYTEA NOT NULL,
+    amostras  INTEGER NOT NULL,
+    criado_em TIMESTAMP(6)
+);
@@ -0,0 +1,11 @@
+-- Outbox transacional dos eventos de classificação (sentiment.outbox)
+-- As linhas duram só até o relay copiá-las para o log de eventos.
+CREATE TABLE IF NOT EXISTS evento_outbox_tb (
+    id             BIGSERIAL PRIMARY KEY,
+    tipo           VARCHAR(16) NOT NULL,
+    comentario_id  BIGINT NOT NULL,
+    previsao       VARCHAR(255),
+    probabilidade  DOUBLE PRECISION NOT NULL,
+    texto          TEXT,
+    criado_em      TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,19 @@
+-- Sketches de confiança por rótulo e hora (GET /sentiment/confianca)
+CREATE TABLE IF NOT EXISTS sketch_confianca_tb (
+    id        BIGSERIAL PRIMARY KEY,
+    label     VARCHAR(255) NOT NULL,
+    hora      TIMESTAMP(6) NOT NULL,
+    dados     BYTEA NOT NULL,
+    contagem  BIGINT NOT NULL,
+    versao    BIGINT,
+    CONSTRAINT uk_sketch_confianca_label_hora UNIQUE (label, hora)
+);
+
+-- Listagem de baixa confiança (GET /sentiment/confianca/baixa):
+-- faixa de probability no índice e acesso aos comentários pela previsão
+CREATE INDEX IF NOT EXISTS idx_previsao_probabilidade
+    ON sentiment_prediction_tb (probability);
+CREATE INDEX IF NOT EXISTS idx_previsao_label_probabilidade
+    ON sentiment_prediction_tb (label, probability);
+CREATE INDEX IF NOT EXISTS idx_comentario_previsao
+    ON comentario_tb (sentiment_prediction_id);
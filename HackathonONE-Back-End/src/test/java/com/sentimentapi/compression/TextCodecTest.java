@@ -0,0 +1,89 @@
+package com.sentimentapi.compression;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.sentimentapi.config.CompressionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextCodecTest {
+
+    private static final String[] INICIOS = {"O produto", "A entrega", "O atendimento", "A embalagem", "O vendedor"};
+    private static final String[] MEIOS = {"chegou", "foi", "estava", "ficou", "parece"};
+    private static final String[] FINS = {"excelente, recomendo muito!", "péssimo, não compro mais.",
+            "dentro do prazo e bem embalado.", "muito abaixo do esperado.", "ótimo custo-benefício."};
+
+    @Test
+    void deveDecodificarTodosOsFormatos() {
+
+        CompressionProperties properties = new CompressionProperties();
+        TextCodec codec = new TextCodec(properties);
+        // Repetitivo o bastante para comprimir mesmo sem dicionário
+        String texto = "Não gostei: a entrega atrasou 😞 ".repeat(4);
+
+        // Compressão desligada: UTF-8 puro
+        assertEquals(TextCodec.RAW, codec.encode(texto)[0]);
+        assertEquals(texto, codec.decode(codec.encode(texto)));
+
+        // Ligada, sem dicionário
+        properties.setHabilitado(true);
+        assertEquals(TextCodec.ZSTD, codec.encode(texto)[0]);
+        assertEquals(texto, codec.decode(codec.encode(texto)));
+
+        // Com dicionário; o antigo continua decodificando o que já foi gravado
+        byte[] semDicionario = codec.encode(texto);
+        codec.install(7, train(comentarios(2_000, 1)), true);
+        byte[] comDicionario = codec.encode(texto);
+
+        assertEquals(TextCodec.ZSTD_DICIONARIO, comDicionario[0]);
+        assertEquals(texto, codec.decode(comDicionario));
+        assertEquals(texto, codec.decode(semDicionario));
+    }
+
+    @Test
+    void dicionarioDeveReduzirComentariosCurtos() {
+
+        CompressionProperties properties = new CompressionProperties();
+        properties.setHabilitado(true);
+        TextCodec semDicionario = new TextCodec(properties);
+        TextCodec comDicionario = new TextCodec(properties);
+        comDicionario.install(1, train(comentarios(2_000, 1)), true);
+
+        long original = 0;
+        long zstd = 0;
+        long dicionario = 0;
+        for (String texto : comentarios(500, 2)) {
+            original += texto.getBytes(StandardCharsets.UTF_8).length;
+            zstd += semDicionario.encode(texto).length;
+            dicionario += comDicionario.encode(texto).length;
+        }
+
+        // Sozinho, o zstd não ganha nada em textos tão curtos
+        assertTrue(dicionario * 2 < original, dicionario + " de " + original);
+        assertTrue(dicionario < zstd);
+    }
+
+    private static byte[] train(List<String> amostras) {
+        int total = amostras.stream().mapToInt(s -> s.getBytes(StandardCharsets.UTF_8).length).sum();
+        ZstdDictTrainer treino = new ZstdDictTrainer(total, 16 * 1024);
+        amostras.forEach(s -> treino.addSample(s.getBytes(StandardCharsets.UTF_8)));
+        return treino.trainSamples();
+    }
+
+    private static List<String> comentarios(int n, long semente) {
+        Random random = new Random(semente);
+        List<String> textos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            textos.add(INICIOS[random.nextInt(INICIOS.length)] + " "
+                    + MEIOS[random.nextInt(MEIOS.length)] + " "
+                    + FINS[random.nextInt(FINS.length)] + " Pedido " + random.nextInt(100_000));
+        }
+        return textos;
+    }
+}
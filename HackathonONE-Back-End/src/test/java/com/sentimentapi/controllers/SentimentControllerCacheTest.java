@@ -0,0 +1,84 @@
+package com.sentimentapi.controllers;
+
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.repositories.CommentRepository;
+import com.sentimentapi.repositories.SentimentPredictionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Testes de integração do cache HTTP (ETag / 304) dos endpoints de leitura
+@SpringBootTest
+@AutoConfigureMockMvc
+class SentimentControllerCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private SentimentPredictionRepository sentimentPredictionRepository;
+
+    // Evita chamadas reais ao microserviço Python
+    @MockBean
+    private RestTemplate restTemplate;
+
+    private CommentEntity comment;
+
+    @BeforeEach
+    void setup() {
+
+        SentimentPrediction positivo =
+                sentimentPredictionRepository.save(new SentimentPrediction("Positivo", 0.9));
+
+        comment = new CommentEntity();
+        comment.setText("Gostei muito do atendimento");
+        comment.setPrevisao(positivo);
+        comment = commentRepository.save(comment);
+    }
+
+    @Test
+    void deveResponder304ParaEstatisticasInalteradas() throws Exception {
+
+        String etag = mockMvc.perform(get("/sentiment/stats/10"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "max-age=2, must-revalidate"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/sentiment/stats/10").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Uma exclusão muda a geração e invalida o ETag
+        mockMvc.perform(delete("/sentiment/" + comment.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/sentiment/stats/10").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deveResponder304ParaComentarioNaMesmaVersao() throws Exception {
+
+        String etag = mockMvc.perform(get("/sentiment/" + comment.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/sentiment/" + comment.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+}
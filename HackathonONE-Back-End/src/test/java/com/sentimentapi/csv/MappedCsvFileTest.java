@@ -0,0 +1,108 @@
+package com.sentimentapi.csv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedCsvFileTest {
+
+    private static ExecutorService pool;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setup() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void teardown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void deveLerOsMesmosTextosQueOCommonsCsvComBlocosPequenos() throws Exception {
+
+        // Campos com vírgulas, aspas escapadas, quebras de linha (LF e CRLF)
+        // e acentos, para que muitos limites de bloco caiam dentro de aspas
+        Random random = new Random(42);
+        String[] pedacos = {"ótimo", "não gostei", "a,b", "disse \"\"oi\"\"", "linha\nquebrada",
+                "fim\r\nde linha", "ação", "😀"};
+
+        StringBuilder csv = new StringBuilder("id,text,nota\r\n");
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder texto = new StringBuilder();
+            for (int k = 0; k < 1 + random.nextInt(6); k++) {
+                texto.append(pedacos[random.nextInt(pedacos.length)]).append(' ');
+            }
+            csv.append(i).append(",\"").append(texto).append("\",").append(i % 5)
+                    .append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 500 == 0) {
+                csv.append("\n");
+            }
+        }
+
+        Path arquivo = dir.resolve("comentarios.csv");
+        Files.writeString(arquivo, csv, StandardCharsets.UTF_8);
+
+        List<String> esperado = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader)) {
+            for (CSVRecord record : parser) {
+                esperado.add(record.get("text"));
+            }
+        }
+
+        for (long bloco : new long[]{7, 97, 4096, 1 << 20}) {
+            try (MappedCsvFile mapped = MappedCsvFile.open(arquivo)) {
+
+                int coluna = mapped.columnIndex("text");
+                assertEquals(1, coluna);
+
+                List<String> lidos = new ArrayList<>();
+                for (MappedCsvFile.Chunk chunk : mapped.split(bloco, pool)) {
+                    mapped.parse(chunk, coluna, lidos::add);
+                }
+                assertEquals(esperado, lidos, "bloco de " + bloco + " bytes");
+            }
+        }
+    }
+
+    @Test
+    void deveIgnorarBomEContarAspasPorPalavra() throws Exception {
+
+        Path arquivo = dir.resolve("bom.csv");
+        Files.write(arquivo, ("\uFEFFtext\nsem fim de linha").getBytes(StandardCharsets.UTF_8));
+
+        try (MappedCsvFile mapped = MappedCsvFile.open(arquivo)) {
+            assertEquals(List.of("text"), mapped.header());
+
+            List<String> lidos = new ArrayList<>();
+            for (MappedCsvFile.Chunk chunk : mapped.split(1024, pool)) {
+                mapped.parse(chunk, 0, lidos::add);
+            }
+            assertEquals(List.of("sem fim de linha"), lidos);
+        }
+
+        byte[] bytes = "\"a\"\"b\",\"\"\"c\"".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(8, MappedCsvFile.countQuotes(ByteBuffer.wrap(bytes)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.sentimentapi.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Dois bancos H2 em memória fazem o papel de primário e réplica;
+// cada um tem uma tabela com o próprio nome para sabermos quem respondeu
+class ReadWriteRoutingDataSourceTest {
+
+    @Test
+    void deveEnviarLeiturasParaAReplicaEEscritasParaOPrimario() {
+
+        Roteamento r = roteamento("SELECT 0");
+
+        assertEquals("primario", r.origem(false));
+        assertEquals("replica", r.origem(true));
+    }
+
+    @Test
+    void deveUsarOPrimarioQuandoAReplicaAindaNaoTemAGravacao() {
+
+        Roteamento r = roteamento("SELECT 0");
+
+        // Gravação posterior à última medição de atraso da réplica
+        Instant gravacao = Instant.now().plusSeconds(1);
+        assertEquals("primario",
+                DataSourceRouting.requireFreshness(gravacao, () -> r.origem(true)));
+
+        // Gravação já coberta pela medição
+        assertEquals("replica",
+                DataSourceRouting.requireFreshness(Instant.now().minusSeconds(60), () -> r.origem(true)));
+    }
+
+    @Test
+    void deveIgnorarReplicaAtrasadaOuFora() {
+
+        // Réplica com 60s de atraso (acima do limite de 5s)
+        assertEquals("primario", roteamento("SELECT 60000").origem(true));
+
+        // Réplica cuja consulta de atraso falha
+        assertEquals("primario", roteamento("SELECT * FROM tabela_inexistente").origem(true));
+    }
+
+    private static Roteamento roteamento(String consultaAtraso) {
+
+        DataSource primario = banco("primario");
+        DataSource replica = banco("replica");
+
+        ReadWriteRoutingDataSource roteador = new ReadWriteRoutingDataSource(
+                primario, Map.of("replica", replica), Duration.ofSeconds(5), consultaAtraso);
+        roteador.refreshLag();
+
+        return new Roteamento(new LazyConnectionDataSourceProxy(roteador));
+    }
+
+    private static DataSource banco(String nome) {
+
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + nome + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE origem (nome VARCHAR(20))");
+        jdbc.update("INSERT INTO origem VALUES (?)", nome);
+        return dataSource;
+    }
+
+    private record Roteamento(DataSource dataSource) {
+
+        String origem(boolean somenteLeitura) {
+
+            TransactionTemplate transacao =
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            transacao.setReadOnly(somenteLeitura);
+
+            return transacao.execute(status -> new JdbcTemplate(dataSource)
+                    .queryForObject("SELECT nome FROM origem", String.class));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.sentimentapi.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.config.AdmissionProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Testes do controle de admissão (rate limit e concorrência)
+class AdmissionControlFilterTest {
+
+    // Relógio controlado pelo teste (nanossegundos)
+    private long agora = 0;
+
+    @Test
+    void deveResponder429QuandoBucketEsgota() throws Exception {
+
+        AdmissionProperties properties = properties();
+        properties.setRajada(2);
+        properties.setTaxaPorSegundo(1);
+
+        AdmissionControlFilter filter =
+                new AdmissionControlFilter(properties, new ObjectMapper(), () -> agora);
+
+        assertEquals(200, post(filter, "cliente-a").getStatus());
+        assertEquals(200, post(filter, "cliente-a").getStatus());
+
+        MockHttpServletResponse bloqueada = post(filter, "cliente-a");
+        assertEquals(429, bloqueada.getStatus());
+        assertEquals("1", bloqueada.getHeader("Retry-After"));
+
+        // Outro cliente tem o próprio bucket
+        assertEquals(200, post(filter, "cliente-b").getStatus());
+
+        // Depois de um segundo há um token novo
+        agora += TimeUnit.SECONDS.toNanos(1);
+        assertEquals(200, post(filter, "cliente-a").getStatus());
+    }
+
+    @Test
+    void deveDescartarLoteQuandoFilaEstaCheia() throws Exception {
+
+        AdmissionProperties properties = properties();
+        properties.setLote(new AdmissionProperties.Pool(1, 0, Duration.ofMillis(10)));
+
+        AdmissionControlFilter filter =
+                new AdmissionControlFilter(properties, new ObjectMapper(), () -> agora);
+
+        // Um upload em andamento ocupa a única vaga de lote
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        Thread upload = new Thread(() -> {
+            try {
+                filter.doFilter(lote(), new MockHttpServletResponse(), (req, res) -> {
+                    emAndamento.countDown();
+                    await(terminar);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        upload.start();
+        assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse descartada = new MockHttpServletResponse();
+        filter.doFilter(lote(), descartada, new MockFilterChain());
+        assertEquals(503, descartada.getStatus());
+        assertEquals("1", descartada.getHeader("Retry-After"));
+
+        // A exclusão em massa disputa a mesma vaga de lote
+        MockHttpServletRequest exclusao = new MockHttpServletRequest("DELETE", "/sentiment/comentarios");
+        exclusao.addHeader("X-API-Key", "admin");
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        filter.doFilter(exclusao, recusada, new MockFilterChain());
+        assertEquals(503, recusada.getStatus());
+
+        // O endpoint interativo continua disponível
+        assertEquals(200, post(filter, "cliente-a").getStatus());
+
+        terminar.countDown();
+        upload.join();
+    }
+
+    @Test
+    void deveLimitarImportacaoSoPorTaxa() throws Exception {
+
+        AdmissionProperties properties = properties();
+        properties.setRajada(4);
+        properties.setTaxaPorSegundo(1);
+        properties.setCustoLote(2);
+        properties.setLote(new AdmissionProperties.Pool(1, 0, Duration.ofMillis(10)));
+
+        AdmissionControlFilter filter =
+                new AdmissionControlFilter(properties, new ObjectMapper(), () -> agora);
+
+        // Não ocupa vaga de lote: a fila de importações limita a concorrência
+        assertEquals(200, importacao(filter).getStatus());
+        assertEquals(200, importacao(filter).getStatus());
+
+        // Cada importação custa como um lote
+        assertEquals(429, importacao(filter).getStatus());
+    }
+
+    @Test
+    void deveContarChaveDesconhecidaPeloIp() throws Exception {
+
+        AdmissionProperties properties = properties();
+        properties.setRajada(2);
+        properties.setTaxaPorSegundo(1);
+
+        AdmissionControlFilter filter =
+                new AdmissionControlFilter(properties, new ObjectMapper(), () -> agora);
+
+        // Trocar a chave a cada requisição não gera buckets novos
+        assertEquals(200, post(filter, "inventada-1").getStatus());
+        assertEquals(200, post(filter, "inventada-2").getStatus());
+        assertEquals(429, post(filter, "inventada-3").getStatus());
+
+        // Uma chave configurada continua com o próprio bucket
+        assertEquals(200, post(filter, "cliente-a").getStatus());
+    }
+
+    @Test
+    void deveDescartarOClienteUsadoHaMaisTempo() throws Exception {
+
+        AdmissionProperties properties = properties();
+        properties.setRajada(1);
+        properties.setTaxaPorSegundo(0.001);
+        properties.setMaxClientes(2);
+
+        AdmissionControlFilter filter =
+                new AdmissionControlFilter(properties, new ObjectMapper(), () -> agora);
+
+        assertEquals(200, postDe(filter, "10.0.0.1").getStatus());
+        assertEquals(200, postDe(filter, "10.0.0.2").getStatus());
+
+        // 10.0.0.1 foi usado por último; 10.0.0.2 é o mais antigo
+        assertEquals(429, postDe(filter, "10.0.0.1").getStatus());
+        assertEquals(200, postDe(filter, "10.0.0.3").getStatus());
+
+        // Os demais clientes mantêm o bucket esgotado
+        assertEquals(429, postDe(filter, "10.0.0.1").getStatus());
+        assertEquals(429, postDe(filter, "10.0.0.3").getStatus());
+        assertEquals(200, postDe(filter, "10.0.0.2").getStatus());
+    }
+
+    // Chaves usadas pelos testes
+    private static AdmissionProperties properties() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setChaves(List.of("cliente-a", "cliente-b", "uploader", "admin", "importador"));
+        return properties;
+    }
+
+    private static MockHttpServletResponse postDe(AdmissionControlFilter filter,
+                                                  String ip) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/sentiment");
+        request.setRemoteAddr(ip);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse importacao(AdmissionControlFilter filter) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/sentiment/import");
+        request.addHeader("X-API-Key", "importador");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse post(AdmissionControlFilter filter,
+                                                String chave) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/sentiment");
+        request.addHeader("X-API-Key", chave);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest lote() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/sentiment/lote");
+        request.addHeader("X-API-Key", "uploader");
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.sentimentapi.inference;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Testes do identificador de idioma por trigramas
+class LanguageDetectorTest {
+
+    private final LanguageDetector detector =
+            LanguageDetector.fromClasspath(List.of("pt", "es", "en"), "pt");
+
+    @Test
+    void deveIdentificarPortuguesEspanholEIngles() {
+
+        assertEquals("pt", detector.detect("Chegou quebrado e a loja não quer trocar, péssima experiência"));
+        assertEquals("es", detector.detect("Llegó roto y la tienda no quiere cambiarlo, pésima experiencia"));
+        assertEquals("en", detector.detect("It arrived broken and the store refuses to replace it, awful experience"));
+    }
+
+    // Textos que não se parecem com nenhum idioma treinado são
+    // rejeitados em vez de cair no perfil menos distante
+    @Test
+    void deveRejeitarIdiomasNaoTreinados() {
+
+        LanguageDetector rejeicao =
+                LanguageDetector.fromClasspath(List.of("pt", "es", "en"), "indefinido");
+
+        assertEquals("indefinido", rejeicao.detect("Das Paket kam beschädigt an und der Kundendienst antwortet nicht"));
+        assertEquals("indefinido", rejeicao.detect("Le colis est arrivé endommagé et le service client ne répond pas"));
+        assertEquals("indefinido", rejeicao.detect("Il pacco è arrivato danneggiato e il servizio clienti non risponde"));
+        assertEquals("indefinido", rejeicao.detect("xkcd qwrtz zzvv kkjh wppq"));
+
+        // Textos curtos e informais nos idiomas treinados continuam aceitos
+        assertEquals("pt", rejeicao.detect("comprei e nao chegou ate hoje, quero meu dinheiro"));
+        assertEquals("es", rejeicao.detect("el pedido nunca llegó y nadie contesta"));
+        assertEquals("en", rejeicao.detect("does not work, want my money back"));
+    }
+
+    // Textos curtos demais ficam com o idioma padrão
+    @Test
+    void deveUsarIdiomaPadraoParaTextoCurto() {
+
+        assertEquals("pt", detector.detect("ok!!"));
+        assertEquals("pt", detector.detect(null));
+    }
+}
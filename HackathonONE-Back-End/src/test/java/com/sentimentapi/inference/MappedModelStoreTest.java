@@ -0,0 +1,164 @@
+package com.sentimentapi.inference;
+
+import com.sentimentapi.entities.SentimentPrediction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Testes do formato binário mapeado em memória
+class MappedModelStoreTest {
+
+    private static final String[] LABELS = {"Negativo", "Neutro", "Positivo"};
+
+    // Vocabulário com colunas fora de ordem alfabética,
+    // para garantir que a permutação feita pelo writer é consistente
+    private static final Map<String, Integer> VOCABULARIO = Map.of(
+            "ótimo", 0,
+            "produto", 1,
+            "ruim", 2,
+            "entrega", 3,
+            "produto ótimo", 4
+    );
+
+    private static final float[] IDF = {1.5f, 1.0f, 1.8f, 1.2f, 2.0f};
+
+    private static final float[][] PESOS = {
+            {-2f, 0f, 3f, 0.5f, -1f},
+            {0f, 0.2f, 0f, 0f, 0f},
+            {3f, 0.1f, -2f, 0f, 1f}
+    };
+
+    @Test
+    void deveEncontrarTermosDoVocabulario(@TempDir Path dir) throws Exception {
+
+        Path arquivo = dir.resolve("modelo.smdl");
+        MappedModelWriter.write(arquivo, LABELS, 2, VOCABULARIO, IDF, PESOS, new float[3]);
+
+        try (MappedModelStore store = MappedModelStore.open(arquivo)) {
+
+            assertEquals(5, store.numFeatures());
+            assertEquals("Positivo", store.label(2));
+
+            for (Map.Entry<String, Integer> entry : VOCABULARIO.entrySet()) {
+                int feature = store.indexOf(entry.getKey());
+                assertEquals(IDF[entry.getValue()], store.idf(feature));
+                assertEquals(PESOS[2][entry.getValue()], store.weight(2, feature));
+            }
+
+            assertEquals(-1, store.indexOf("inexistente"));
+        }
+    }
+
+    // A pontuação direto do arquivo (escalar, SIMD e em lote)
+    // deve bater com o kernel sobre os mesmos pesos no heap
+    @Test
+    void devePreverIgualAoModeloEmHeap(@TempDir Path dir) throws Exception {
+
+        Path arquivo = dir.resolve("modelo.smdl");
+        MappedModelWriter.write(arquivo, LABELS, 2, VOCABULARIO, IDF, PESOS, new float[]{0.1f, 0f, -0.1f});
+
+        try (MappedModelStore store = MappedModelStore.open(arquivo)) {
+
+            List<String> textos = List.of("Produto ótimo, entrega rápida!", "Produto ruim", "sem termos");
+
+            List<SentimentPrediction> mapeados = store.predictAll(textos);
+            assertEquals("Positivo", mapeados.get(0).getLabel());
+            assertEquals("Negativo", mapeados.get(1).getLabel());
+
+            LinearModel heap = heapCopy(store);
+            SparseBatch.Builder lote = new SparseBatch.Builder();
+            for (String texto : textos) {
+                SparseVector x = store.vectorize(texto);
+                lote.addRow(x.indices(), x.values());
+            }
+            SparseBatch batch = lote.build();
+
+            for (ScoringKernel kernel : List.of(ScoringKernels.scalar(), ScoringKernels.best())) {
+
+                int[] rotulosHeap = new int[textos.size()];
+                double[] probHeap = new double[textos.size()];
+                kernel.score(heap, batch, rotulosHeap, probHeap);
+
+                int[] rotulosMapeados = new int[textos.size()];
+                double[] probMapeados = new double[textos.size()];
+                kernel.score(store, batch, rotulosMapeados, probMapeados);
+
+                for (int r = 0; r < textos.size(); r++) {
+                    assertEquals(rotulosHeap[r], rotulosMapeados[r], kernel.name());
+                    assertEquals(probHeap[r], probMapeados[r], 1e-5, kernel.name());
+                    assertEquals(heap.label(rotulosHeap[r]), mapeados.get(r).getLabel());
+                    assertEquals(probHeap[r], mapeados.get(r).getProbability(), 1e-5);
+                }
+            }
+
+            assertEquals(mapeados.get(0).getLabel(), store.predict(textos.get(0)).getLabel());
+        }
+    }
+
+    // Linhas com mais features que lanes passam pela parte vetorial
+    @Test
+    void kernelsSobreOArquivoDevemBaterComOHeap(@TempDir Path dir) throws Exception {
+
+        Random random = new Random(42);
+        int numFeatures = 500;
+
+        Map<String, Integer> vocabulario = new HashMap<>();
+        float[] idf = new float[numFeatures];
+        float[][] pesos = new float[LABELS.length][numFeatures];
+        for (int f = 0; f < numFeatures; f++) {
+            vocabulario.put("termo" + f, f);
+            idf[f] = 1f;
+            for (int c = 0; c < LABELS.length; c++) {
+                pesos[c][f] = (float) random.nextGaussian();
+            }
+        }
+
+        Path arquivo = dir.resolve("grande.smdl");
+        MappedModelWriter.write(arquivo, LABELS, 1, vocabulario, idf, pesos, new float[]{0.1f, -0.2f, 0.05f});
+
+        try (MappedModelStore store = MappedModelStore.open(arquivo)) {
+
+            LinearModel heap = heapCopy(store);
+            SparseBatch batch = ScoringKernelTest.randomBatch(random, numFeatures, 200);
+
+            for (ScoringKernel kernel : List.of(ScoringKernels.scalar(), ScoringKernels.best())) {
+
+                int[] rotulosHeap = new int[batch.rows()];
+                double[] probHeap = new double[batch.rows()];
+                kernel.score(heap, batch, rotulosHeap, probHeap);
+
+                int[] rotulosMapeados = new int[batch.rows()];
+                double[] probMapeados = new double[batch.rows()];
+                kernel.score(store, batch, rotulosMapeados, probMapeados);
+
+                assertArrayEquals(rotulosHeap, rotulosMapeados, kernel.name());
+                assertArrayEquals(probHeap, probMapeados, 1e-5, kernel.name());
+            }
+        }
+    }
+
+    // Mesmos pesos do arquivo (já na ordem das features do store), no heap
+    private static LinearModel heapCopy(MappedModelStore store) {
+
+        int numFeatures = store.numFeatures();
+        float[] pesos = new float[store.numClasses() * numFeatures];
+        float[] interceptos = new float[store.numClasses()];
+        String[] labels = new String[store.numClasses()];
+        for (int c = 0; c < store.numClasses(); c++) {
+            for (int f = 0; f < numFeatures; f++) {
+                pesos[c * numFeatures + f] = store.weight(c, f);
+            }
+            interceptos[c] = store.intercepts()[c];
+            labels[c] = store.label(c);
+        }
+        return new LinearModel(labels, numFeatures, pesos, interceptos);
+    }
+}
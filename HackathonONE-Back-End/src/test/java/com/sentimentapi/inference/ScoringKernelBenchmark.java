@@ -0,0 +1,67 @@
+package com.sentimentapi.inference;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Benchmark JMH comparando o kernel escalar com o vetorial
+// Não roda junto com "mvn test": execute o método main pela IDE
+// (ou com o classpath de teste) para gerar o relatório.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ScoringKernelBenchmark {
+
+    // Tamanho do vocabulário (uni + bigramas) e linhas por lote
+    @Param({"100000", "1000000"})
+    int numFeatures;
+
+    @Param({"256"})
+    int rows;
+
+    LinearModel model;
+    SparseBatch batch;
+    ScoringKernel scalar;
+    ScoringKernel vector;
+    int[] labels;
+    double[] probabilities;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(7);
+        model = ScoringKernelTest.randomModel(random, numFeatures);
+        batch = ScoringKernelTest.randomBatch(random, numFeatures, rows);
+
+        scalar = ScoringKernels.scalar();
+        vector = ScoringKernels.best();
+
+        labels = new int[rows];
+        probabilities = new double[rows];
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        scalar.score(model, batch, labels, probabilities);
+        return probabilities;
+    }
+
+    @Benchmark
+    public double[] vector() {
+        vector.score(model, batch, labels, probabilities);
+        return probabilities;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScoringKernelBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sentimentapi.inference;
+
+import com.sentimentapi.entities.SentimentPrediction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Testes do kernel de pontuação linear
+// Garante que o caminho SIMD produz o mesmo resultado do escalar
+class ScoringKernelTest {
+
+    private static final String[] LABELS = {"Negativo", "Neutro", "Positivo"};
+
+    // Modelo pequeno montado à mão: a feature 0 favorece "Positivo"
+    // e a feature 1 favorece "Negativo"
+    @Test
+    void deveEscolherClasseEProbabilidadeDoSoftmax() {
+
+        float[] pesos = {
+                -2f, 3f, 0f,   // Negativo
+                0f, 0f, 0f,    // Neutro
+                2f, -3f, 0f    // Positivo
+        };
+        LinearModel model = new LinearModel(LABELS, 3, pesos, new float[3]);
+
+        SentimentPrediction prediction =
+                ScoringKernels.scalar().predict(model, new int[]{0}, new float[]{1f});
+
+        double esperado = Math.exp(2) / (Math.exp(-2) + 1 + Math.exp(2));
+
+        assertEquals("Positivo", prediction.getLabel());
+        assertEquals(esperado, prediction.getProbability(), 1e-6);
+    }
+
+    // Compara o kernel selecionado (SIMD quando disponível)
+    // com o escalar em um lote aleatório grande
+    @Test
+    void kernelVetorialDeveConcordarComEscalar() {
+
+        Random random = new Random(42);
+        LinearModel model = randomModel(random, 5_000);
+        SparseBatch batch = randomBatch(random, model.numFeatures(), 200);
+
+        int[] labelsEscalar = new int[batch.rows()];
+        double[] probEscalar = new double[batch.rows()];
+        ScoringKernels.scalar().score(model, batch, labelsEscalar, probEscalar);
+
+        int[] labelsMelhor = new int[batch.rows()];
+        double[] probMelhor = new double[batch.rows()];
+        ScoringKernels.best().score(model, batch, labelsMelhor, probMelhor);
+
+        assertArrayEquals(labelsEscalar, labelsMelhor);
+        for (int r = 0; r < batch.rows(); r++) {
+            assertEquals(probEscalar[r], probMelhor[r], 1e-4);
+            assertTrue(probMelhor[r] >= 1.0 / LABELS.length);
+        }
+    }
+
+    static LinearModel randomModel(Random random, int numFeatures) {
+
+        float[] pesos = new float[LABELS.length * numFeatures];
+        for (int i = 0; i < pesos.length; i++) {
+            pesos[i] = (float) random.nextGaussian();
+        }
+
+        float[] interceptos = {0.1f, -0.2f, 0.05f};
+        return new LinearModel(LABELS, numFeatures, pesos, interceptos);
+    }
+
+    static SparseBatch randomBatch(Random random, int numFeatures, int rows) {
+
+        SparseBatch.Builder builder = new SparseBatch.Builder();
+
+        for (int r = 0; r < rows; r++) {
+            int nnz = 1 + random.nextInt(60);
+            int[] indices = new int[nnz];
+            float[] valores = new float[nnz];
+            for (int i = 0; i < nnz; i++) {
+                indices[i] = random.nextInt(numFeatures);
+                valores[i] = random.nextFloat();
+            }
+            builder.addRow(indices, valores);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.sentimentapi.jfr;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrSummaryTest {
+
+    // Os eventos da aplicação viram etapas (separadas por backend e por
+    // etapa do CSV), ordenadas pelo tempo total, com os percentis de duração
+    @Test
+    void deveResumirAsEtapasDaGravacao(@TempDir Path dir) throws Exception {
+
+        Path arquivo = dir.resolve("teste.jfr");
+
+        try (Recording gravacao = new Recording()) {
+            gravacao.enable(InferenceEvent.class);
+            gravacao.enable(CsvChunkEvent.class);
+            gravacao.enable(JpaFlushEvent.class);
+            gravacao.start();
+
+            for (int i = 0; i < 20; i++) {
+                InferenceEvent local = new InferenceEvent();
+                local.begin();
+                local.commit("local", null, 1, 30, false, "Positivo");
+            }
+
+            InferenceEvent remoto = new InferenceEvent();
+            remoto.begin();
+            Thread.sleep(30);
+            remoto.commit("remoto", "http://modelo/predict", 1, 120, false, "Negativo");
+
+            CsvChunkEvent bloco = new CsvChunkEvent();
+            bloco.begin();
+            Thread.sleep(5);
+            bloco.etapa = "leitura";
+            bloco.registros = 1000;
+            bloco.commit();
+
+            // O Hibernate chama o listener assim em cada flush da sessão
+            JfrSessionEventListener listener = new JfrSessionEventListener();
+            listener.flushStart();
+            listener.flushEnd(3, 0);
+
+            gravacao.stop();
+            gravacao.dump(arquivo);
+        }
+
+        JfrSummary.Summary resumo = JfrSummary.summarize(arquivo);
+        Map<String, JfrSummary.Etapa> etapas = resumo.etapas().stream()
+                .collect(Collectors.toMap(JfrSummary.Etapa::nome, Function.identity()));
+
+        assertEquals(20, etapas.get("Inference/local").eventos());
+        assertEquals(1, etapas.get("Inference/remoto").eventos());
+        assertEquals(1, etapas.get("CsvChunk/leitura").eventos());
+        assertEquals(1, etapas.get("JpaFlush").eventos());
+
+        // A chamada remota domina o tempo total
+        assertEquals("Inference/remoto", resumo.etapas().get(0).nome());
+        JfrSummary.Etapa remota = etapas.get("Inference/remoto");
+        assertTrue(remota.totalMs() >= 30);
+        assertEquals(remota.maximoMs(), remota.p99Ms());
+    }
+}
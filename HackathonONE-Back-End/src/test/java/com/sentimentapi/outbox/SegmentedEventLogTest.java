@@ -0,0 +1,108 @@
+package com.sentimentapi.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedEventLogTest {
+
+    @TempDir
+    Path dir;
+
+    // Leituras por offset atravessam segmentos e sobrevivem à reabertura,
+    // descartando um registro incompleto no fim do último segmento
+    @Test
+    void deveLerPorOffsetERecuperarDepoisDeQueda() throws IOException {
+
+        try (SegmentedEventLog log = SegmentedEventLog.open(dir, 1_024)) {
+            for (int lote = 0; lote < 10; lote++) {
+                assertEquals(lote * 50L, log.append(records(lote * 50, 50, 1_000), true));
+            }
+            assertTrue(log.segmentCount() > 5);
+
+            List<SegmentedEventLog.Entry> lidos = log.read(137, 100);
+            assertEquals(100, lidos.size());
+            for (int i = 0; i < lidos.size(); i++) {
+                assertEquals(137 + i, lidos.get(i).offset());
+                assertEquals("evento " + (137 + i), text(lidos.get(i)));
+            }
+            assertEquals(3, log.read(497, 100).size());
+            assertTrue(log.read(500, 100).isEmpty());
+        }
+
+        // Simula uma gravação interrompida no meio do último registro
+        Path ultimo;
+        try (Stream<Path> arquivos = Files.list(dir)) {
+            ultimo = arquivos.sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        try (FileChannel canal = FileChannel.open(ultimo, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+
+        try (SegmentedEventLog log = SegmentedEventLog.open(dir, 1_024)) {
+            assertEquals(499, log.endOffset());
+            assertEquals(499, log.append(records(499, 1, 1_000), true));
+            assertEquals("evento 499", text(log.read(499, 1).get(0)));
+        }
+    }
+
+    // A compactação deixa só o último evento de cada chave,
+    // sem mudar os offsets dos eventos que ficam
+    @Test
+    void deveCompactarMantendoOUltimoEventoDeCadaChave() throws IOException {
+
+        try (SegmentedEventLog log = SegmentedEventLog.open(dir, 512)) {
+
+            // 400 eventos de 10 comentários
+            log.append(records(0, 400, 10), true);
+            long removidos = log.compact();
+            assertTrue(removidos > 300);
+
+            List<SegmentedEventLog.Entry> restantes = log.read(0, 1_000);
+            assertEquals(400 - removidos, restantes.size());
+            for (SegmentedEventLog.Entry entrada : restantes) {
+                assertEquals("evento " + entrada.offset(), text(entrada));
+            }
+
+            // Cada chave aparece no máximo uma vez nos segmentos fechados,
+            // e o evento mais recente de todas as chaves continua lá
+            List<Long> ultimos = restantes.subList(restantes.size() - 10, restantes.size())
+                    .stream().map(SegmentedEventLog.Entry::offset).toList();
+            assertEquals(List.of(390L, 391L, 392L, 393L, 394L, 395L, 396L, 397L, 398L, 399L), ultimos);
+            assertEquals(400, log.endOffset());
+        }
+
+        try (SegmentedEventLog log = SegmentedEventLog.open(dir, 512)) {
+            assertEquals(400, log.endOffset());
+            assertEquals(400, log.append(records(400, 1, 10), true));
+        }
+    }
+
+    private static List<Map.Entry<Long, byte[]>> records(int primeiro, int quantidade, int chaves) {
+
+        List<Map.Entry<Long, byte[]>> registros = new ArrayList<>();
+        for (int i = primeiro; i < primeiro + quantidade; i++) {
+            registros.add(new AbstractMap.SimpleImmutableEntry<>(
+                    (long) (i % chaves), ("evento " + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        return registros;
+    }
+
+    private static String text(SegmentedEventLog.Entry entrada) {
+        return new String(entrada.payload(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.repositories.CommentRepository;
+import com.sentimentapi.repositories.SentimentPredictionRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Retenção no esquema emulado (H2): o mês expirado vira um .csv.gz
+// e só então sai do banco; os meses recentes ficam intactos
+@SpringBootTest
+class CommentArchiveServiceTest {
+
+    @TempDir
+    static Path arquivo;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("sentiment.retencao.habilitado", () -> "true");
+        registry.add("sentiment.retencao.meses", () -> "12");
+        registry.add("sentiment.retencao.lote-exclusao", () -> "2");
+        registry.add("sentiment.retencao.diretorio-arquivo", arquivo::toString);
+    }
+
+    @Autowired
+    private CommentArchiveService commentArchiveService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private SentimentPredictionRepository sentimentPredictionRepository;
+
+    // Evita chamadas reais ao microserviço Python
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void deveExportarEApagarSoOsMesesExpirados() throws Exception {
+
+        YearMonth expirado = YearMonth.now().minusMonths(14);
+        LocalDateTime dataAntiga = expirado.atDay(10).atTime(12, 0);
+
+        SentimentPrediction previsao =
+                sentimentPredictionRepository.save(new SentimentPrediction("Negativo", 0.8));
+
+        for (int i = 0; i < 5; i++) {
+            save("comentário antigo " + i, previsao, dataAntiga);
+        }
+        CommentEntity recente = save("comentário recente", previsao, LocalDateTime.now());
+
+        List<YearMonth> arquivados = commentArchiveService.archiveExpired();
+
+        LocalDateTime limite = YearMonth.now().minusMonths(12).atDay(1).atStartOfDay();
+
+        assertTrue(arquivados.contains(expirado));
+        assertTrue(commentRepository.findAll().stream()
+                .noneMatch(c -> c.getDataCriacao().isBefore(limite)));
+        assertTrue(commentRepository.existsById(recente.getId()));
+
+        Path exportado = arquivo.resolve("comentario_tb_" + expirado + ".csv.gz");
+        try (Reader reader = new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(exportado)), StandardCharsets.UTF_8)) {
+
+            List<CSVRecord> linhas = CSVFormat.DEFAULT.withFirstRecordAsHeader()
+                    .parse(reader).getRecords();
+
+            assertEquals(5, linhas.size());
+            assertEquals("comentário antigo 0", linhas.get(0).get("text"));
+            assertEquals("Negativo", linhas.get(0).get("previsao"));
+        }
+    }
+
+    private CommentEntity save(String text, SentimentPrediction previsao, LocalDateTime data) {
+        CommentEntity comment = new CommentEntity();
+        comment.setText(text);
+        comment.setPrevisao(previsao);
+        comment.setDataCriacao(data);
+        return commentRepository.save(comment);
+    }
+}
@@ -0,0 +1,115 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.dtos.BulkDeleteDto;
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.repositories.CommentRepository;
+import com.sentimentapi.repositories.SentimentPredictionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exclusão em massa em lotes pequenos (várias transações) e coleta
+// das previsões órfãs; previsões ainda referenciadas por comentários
+// que ficam não podem sair
+@SpringBootTest
+class CommentLifecycleServiceTest {
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("sentiment.ciclo-vida.lote-exclusao", () -> "2");
+        registry.add("sentiment.ciclo-vida.lote-coleta", () -> "2");
+        registry.add("sentiment.ciclo-vida.pausa-coleta", () -> "0ms");
+        registry.add("sentiment.ciclo-vida.coleta-habilitada", () -> "false");
+    }
+
+    @Autowired
+    private CommentLifecycleService lifecycleService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private SentimentPredictionRepository sentimentPredictionRepository;
+
+    // Evita chamadas reais ao microserviço Python
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void deveApagarPorFiltroEmLotesSemDeixarOrfas() {
+
+        // A previsão compartilhada fica com o comentário positivo
+        SentimentPrediction compartilhada =
+                sentimentPredictionRepository.save(new SentimentPrediction("Negativo", 0.8));
+
+        List<CommentEntity> negativos = new ArrayList<>();
+        List<SentimentPrediction> proprias = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            SentimentPrediction previsao =
+                    sentimentPredictionRepository.save(new SentimentPrediction("Negativo", 0.9));
+            proprias.add(previsao);
+            negativos.add(save("negativo " + i, previsao));
+        }
+        negativos.add(save("negativo compartilhado", compartilhada));
+
+        CommentEntity positivo = save("positivo",
+                sentimentPredictionRepository.save(new SentimentPrediction("Positivo", 0.9)));
+        CommentEntity restante = save("fora do filtro", compartilhada);
+
+        // Fora da faixa de IDs: não pode ser apagado
+        Long primeiro = negativos.get(0).getId();
+        Long ultimo = positivo.getId();
+
+        BulkDeleteDto resultado = lifecycleService.bulkDelete(new CommentLifecycleService.Filtro(
+                null, null, "Negativo", primeiro, ultimo));
+
+        assertEquals(6, resultado.comentarios());
+        assertEquals(5, resultado.previsoes());
+        negativos.forEach(c -> assertFalse(commentRepository.existsById(c.getId())));
+        proprias.forEach(p -> assertFalse(sentimentPredictionRepository.existsById(p.getId())));
+
+        assertTrue(commentRepository.existsById(positivo.getId()));
+        assertTrue(commentRepository.existsById(restante.getId()));
+        assertTrue(sentimentPredictionRepository.existsById(compartilhada.getId()));
+    }
+
+    @Test
+    void deveColetarSoAsPrevisoesOrfas() {
+
+        SentimentPrediction usada =
+                sentimentPredictionRepository.save(new SentimentPrediction("Neutro", 0.6));
+        save("usada", usada);
+
+        List<SentimentPrediction> orfas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orfas.add(sentimentPredictionRepository.save(new SentimentPrediction("Neutro", 0.5)));
+        }
+
+        BulkDeleteDto resultado = lifecycleService.collectOrphans();
+
+        assertTrue(resultado.previsoes() >= 3);
+        orfas.forEach(p -> assertFalse(sentimentPredictionRepository.existsById(p.getId())));
+        assertTrue(sentimentPredictionRepository.existsById(usada.getId()));
+    }
+
+    private CommentEntity save(String text, SentimentPrediction previsao) {
+        CommentEntity comment = new CommentEntity();
+        comment.setText(text);
+        comment.setPrevisao(previsao);
+        comment.setDataCriacao(LocalDateTime.now());
+        return commentRepository.save(comment);
+    }
+}
@@ -0,0 +1,109 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.dtos.SearchResultDto;
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.repositories.CommentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Testes do índice de busca textual em memória
+class CommentSearchIndexTest {
+
+    private CommentSearchIndex index;
+
+    @BeforeEach
+    void setup() throws Exception {
+
+        index = new CommentSearchIndex(mock(CommentRepository.class), "");
+
+        LocalDateTime agora = LocalDateTime.now();
+        index.onCommentChanged(evento(1L, "A entrega atrasou duas semanas", "Negativo", agora));
+        index.onCommentChanged(evento(2L, "Entregas sempre no prazo, adorei", "Positivo", agora));
+        index.onCommentChanged(evento(3L, "Produto quebrado e entrega lenta", "Negativo", agora.minusDays(40)));
+        index.onCommentChanged(evento(4L, "Atendimento excelente", "Positivo", agora));
+    }
+
+    @AfterEach
+    void fechar() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void deveBuscarComFacetasDeRotuloEData() {
+
+        // "entrega" também encontra "entregas" (stemming em português)
+        SearchResultDto resultado = index.search("entrega", null, null, null, 10);
+
+        assertEquals(3, resultado.total());
+        assertEquals(2L, resultado.facetas().get("previsao").get("Negativo"));
+        assertEquals(1L, resultado.facetas().get("previsao").get("Positivo"));
+        assertEquals(2L, resultado.facetas().get("data").get("30d"));
+    }
+
+    @Test
+    void deveFiltrarPorRotuloERefletirRemocao() {
+
+        SearchResultDto negativos = index.search("entrega", "negativo", null, null, 10);
+        assertEquals(2, negativos.total());
+
+        index.onCommentChanged(new CommentChangedEvent(
+                CommentChangedEvent.Type.DELETED, 1L, null, null, 0.0, null));
+
+        SearchResultDto depois = index.search("entrega", "negativo", null, null, 10);
+        assertEquals(1, depois.total());
+        assertEquals(3L, depois.resultados().get(0).id());
+    }
+
+    // Comentários criados com o índice fora do ar entram na subida,
+    // a partir do maior ID gravado no último commit
+    @Test
+    void deveAlcancarOBancoNaSubida(@TempDir Path dir) throws Exception {
+
+        CommentRepository repository = mock(CommentRepository.class);
+        LocalDateTime agora = LocalDateTime.now();
+
+        CommentSearchIndex emDisco = new CommentSearchIndex(repository, dir.toString());
+        emDisco.onCommentChanged(evento(1L, "Entrega rápida", "Positivo", agora));
+        emDisco.onCommentChanged(evento(2L, "Entrega atrasada", "Negativo", agora));
+        emDisco.commit();
+        emDisco.close();
+
+        CommentEntity novo = new CommentEntity();
+        novo.setId(3L);
+        novo.setText("Entrega no prazo");
+        novo.setPrevisao(new SentimentPrediction("Positivo", 0.9));
+        novo.setDataCriacao(agora);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(List.of(novo));
+
+        CommentSearchIndex reaberto = new CommentSearchIndex(repository, dir.toString());
+        try {
+            reaberto.catchUp();
+            assertEquals(3, reaberto.search("entrega", null, null, null, 10).total());
+            verify(repository, never()).findByIdGreaterThanOrderByIdAsc(eq(0L), any());
+        } finally {
+            reaberto.close();
+        }
+    }
+
+    private static CommentChangedEvent evento(Long id, String texto,
+                                              String label, LocalDateTime data) {
+        return new CommentChangedEvent(
+                CommentChangedEvent.Type.CREATED, id, texto, label, 0.9, data);
+    }
+}
@@ -0,0 +1,127 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.ImportProperties;
+import com.sentimentapi.dtos.ImportStatusDto;
+import com.sentimentapi.entities.SentimentPrediction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Diretório observado e fila de importações: cópias em andamento não
+// podem ser importadas pela metade e a fila não cresce sem limite
+class CsvImportServiceTest {
+
+    @TempDir
+    Path temp;
+
+    private final SentimentService sentimentService = mock(SentimentService.class);
+    private CsvImportService service;
+
+    @AfterEach
+    void close() throws Exception {
+        service.close();
+    }
+
+    @Test
+    void deveEsperarACopiaTerminarAntesDeImportar() throws Exception {
+
+        when(sentimentService.classifyAndPersist(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.<List<String>>getArgument(0).size(),
+                        new SentimentPrediction("Positivo", 0.9)));
+
+        ImportProperties properties = properties();
+        properties.setDiretorioObservado(temp.toString());
+        properties.setEstabilizacao(Duration.ofMillis(300));
+        service = new CsvImportService(properties, sentimentService);
+        service.watch();
+
+        // Cópia lenta direto com o nome final: o evento chega no início
+        Path arquivo = temp.resolve("lento.csv");
+        int linhas = 0;
+        try (Writer escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE_NEW)) {
+            escritor.write("text\n");
+            for (int i = 0; i < 10; i++) {
+                escritor.write("comentario " + i + "\n");
+                escritor.flush();
+                linhas++;
+                Thread.sleep(100);
+            }
+        }
+
+        // Arquivo ainda sendo gravado com outro nome fica onde está
+        Path parcial = Files.writeString(temp.resolve("parcial.csv.part"), "text\nbom\n");
+
+        ImportStatusDto status = awaitFinished();
+        assertEquals("concluido", status.estado());
+        assertEquals(linhas, status.registros());
+        assertTrue(Files.exists(temp.resolve("importados").resolve("lento.csv")));
+        assertTrue(Files.exists(parcial));
+    }
+
+    @Test
+    void deveRecusarImportacaoComFilaCheia() throws Exception {
+
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        when(sentimentService.classifyAndPersist(anyList())).thenAnswer(invocation -> {
+            emAndamento.countDown();
+            terminar.await(5, TimeUnit.SECONDS);
+            return List.of(new SentimentPrediction("Positivo", 0.9));
+        });
+
+        ImportProperties properties = properties();
+        properties.setFilaMaxima(1);
+        service = new CsvImportService(properties, sentimentService);
+
+        Path arquivo = Files.writeString(temp.resolve("a.csv"), "text\nbom\n");
+
+        // Uma executando e uma aguardando ocupam a fila
+        assertTrue(service.submit(arquivo).isPresent());
+        assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+        assertTrue(service.submit(arquivo).isPresent());
+
+        assertTrue(service.submit(arquivo).isEmpty());
+        assertEquals(2, service.list().size());
+
+        terminar.countDown();
+    }
+
+    private static ImportProperties properties() {
+        ImportProperties properties = new ImportProperties();
+        properties.setThreads(1);
+        return properties;
+    }
+
+    private ImportStatusDto awaitFinished() throws InterruptedException {
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            List<ImportStatusDto> importacoes = service.list();
+            if (!importacoes.isEmpty() && importacoes.get(0).fim() != null) {
+                // O arquivo é movido logo depois de o estado final ser gravado
+                Thread.sleep(100);
+                return importacoes.get(0);
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Importação não terminou");
+    }
+}
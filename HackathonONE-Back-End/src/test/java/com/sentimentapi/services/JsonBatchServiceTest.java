@@ -0,0 +1,92 @@
+package com.sentimentapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.entities.SentimentPrediction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JsonBatchServiceTest {
+
+    @Mock
+    SentimentService sentimentService;
+
+    JsonBatchService jsonBatchService;
+
+    @BeforeEach
+    void setup() {
+        jsonBatchService = new JsonBatchService(sentimentService, new ObjectMapper(), 2);
+
+        // Classifica como positivo todo texto que contém "bom"
+        when(sentimentService.classifyAndPersist(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<SentimentPrediction> previsoes = new ArrayList<>();
+            for (String text : texts) {
+                previsoes.add(text.contains("bom")
+                        ? new SentimentPrediction("Positivo", 0.9)
+                        : null);
+            }
+            return previsoes;
+        });
+    }
+
+    @Test
+    void deveClassificarArrayJsonEmLotes() throws Exception {
+
+        String entrada = """
+                [{"text": "muito bom", "previsao": "ignorado", "extra": 1},
+                 {"text": ""},
+                 {"text": "horrível"},
+                 {"text": "bom demais"}]
+                """;
+
+        assertEquals(List.of(
+                "{\"indice\":0,\"previsao\":\"Positivo\",\"probabilidade\":0.9}",
+                "{\"indice\":1,\"error\":\"Texto ausente\"}",
+                "{\"indice\":2,\"error\":\"Não foi possível classificar\"}",
+                "{\"indice\":3,\"previsao\":\"Positivo\",\"probabilidade\":0.9}"
+        ), classify(entrada));
+
+        // Dois lotes de dois registros (o texto vazio não vai ao modelo)
+        verify(sentimentService, times(2)).classifyAndPersist(anyList());
+    }
+
+    @Test
+    void deveResponderLinhasJaLidasAntesDoErroDeSintaxeEmNdjson() throws Exception {
+
+        String entrada = """
+                {"text": "bom dia"}
+                {"text": "bom "
+                """;
+
+        List<String> linhas = classify(entrada);
+
+        assertEquals(2, linhas.size());
+        assertEquals("{\"indice\":0,\"previsao\":\"Positivo\",\"probabilidade\":0.9}", linhas.get(0));
+        assertEquals(true, linhas.get(1).startsWith("{\"error\":\"JSON inválido"));
+    }
+
+    private List<String> classify(String entrada) throws Exception {
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        jsonBatchService.classify(
+                new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)), saida);
+
+        return saida.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.CascadeProperties;
+import com.sentimentapi.dtos.CascadeStatsDto;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.inference.MappedModelWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelCascadeTest {
+
+    // Textos óbvios são respondidos pelo léxico (com negação e acentos);
+    // os incertos são escalados e comparados com o modelo remoto
+    @Test
+    void deveResponderLocalmenteSoComConfianca() {
+
+        ModelCascade cascata = new ModelCascade(properties(0.9));
+
+        Optional<SentimentPrediction> positivo = cascata.tryLocal("Adorei, produto excelente e entrega rápida!");
+        assertTrue(positivo.isPresent());
+        assertEquals("Positivo", positivo.get().getLabel());
+
+        Optional<SentimentPrediction> negativo = cascata.tryLocal("Nao recomendo, veio com defeito e pessimo atendimento");
+        assertTrue(negativo.isPresent());
+        assertEquals("Negativo", negativo.get().getLabel());
+
+        String incerto = "Comprei na segunda-feira pelo aplicativo";
+        assertTrue(cascata.tryLocal(incerto).isEmpty());
+        cascata.recordRemote(incerto, new SentimentPrediction("Neutro", 0.7), 2_000_000);
+
+        CascadeStatsDto stats = cascata.snapshot();
+        assertEquals(2, stats.respondidosLocalmente());
+        assertEquals(1, stats.escalados());
+        assertEquals(1.0, stats.concordancia());
+        assertEquals(2.0, stats.latenciaRemota().mediaMs(), 1e-9);
+    }
+
+    // O ajuste automático escolhe o menor limiar que mantém a concordância
+    @Test
+    void deveAjustarOLimiarPelaConcordancia() {
+
+        CascadeProperties properties = properties(1.01);
+        properties.setConcordanciaAlvo(0.9);
+        properties.setMinimoComparacoes(10);
+        ModelCascade cascata = new ModelCascade(properties);
+
+        // Léxico fraco ("bom", ~0.73): o modelo remoto discorda na metade;
+        // léxico forte (~0.99): concorda sempre
+        for (int i = 0; i < 20; i++) {
+            String fraco = "produto bom " + i;
+            cascata.tryLocal(fraco);
+            cascata.recordRemote(fraco, new SentimentPrediction(i % 2 == 0 ? "Positivo" : "Neutro", 0.8), 1);
+
+            String forte = "excelente, adorei, perfeito " + i;
+            cascata.tryLocal(forte);
+            cascata.recordRemote(forte, new SentimentPrediction("Positivo", 0.95), 1);
+        }
+
+        // A faixa 0.70-0.75 fica de fora; a de ~0.99 sozinha atinge o alvo
+        cascata.tune();
+        assertEquals(0.75, cascata.threshold(), 1e-9);
+    }
+
+    // Concordância total não leva o limiar a 0,5 (tudo seria local)
+    @Test
+    void naoDeveAjustarOLimiarPara05() {
+
+        CascadeProperties properties = properties(1.01);
+        properties.setConcordanciaAlvo(0.9);
+        properties.setMinimoComparacoes(10);
+        ModelCascade cascata = new ModelCascade(properties);
+
+        for (int i = 0; i < 20; i++) {
+            String forte = "excelente, adorei, perfeito " + i;
+            cascata.tryLocal(forte);
+            cascata.recordRemote(forte, new SentimentPrediction("Positivo", 0.95), 1);
+        }
+
+        cascata.tune();
+        assertEquals(0.55, cascata.threshold(), 1e-9);
+    }
+
+    // Modelo de três classes: o vencedor pode ter só ~1/3,
+    // então o ajuste pode descer abaixo de 0,5
+    @Test
+    void deveAjustarAbaixoDe05ComTresClasses(@TempDir Path dir) throws Exception {
+
+        Path arquivo = dir.resolve("modelo.smdl");
+        MappedModelWriter.write(arquivo, new String[]{"Negativo", "Neutro", "Positivo"}, 1,
+                Map.of("produto", 0), new float[]{1f}, new float[][]{{0f}, {0.2f}, {0.1f}}, new float[3]);
+
+        CascadeProperties properties = properties(1.01);
+        properties.setModelo(arquivo.toString());
+        properties.setConcordanciaAlvo(0.9);
+        properties.setMinimoComparacoes(10);
+
+        ModelCascade cascata = new ModelCascade(properties);
+        try {
+            assertEquals(1.0 / 3, cascata.minimumThreshold(), 1e-9);
+
+            // "Neutro" com ~0,37 e o modelo remoto sempre de acordo
+            for (int i = 0; i < 20; i++) {
+                cascata.tryLocal("produto");
+                cascata.recordRemote("produto", new SentimentPrediction("Neutro", 0.8), 1);
+            }
+
+            cascata.tune();
+            assertEquals(0.35, cascata.threshold(), 1e-9);
+        } finally {
+            cascata.close();
+        }
+    }
+
+    private static CascadeProperties properties(double limiar) {
+        CascadeProperties properties = new CascadeProperties();
+        properties.setHabilitado(true);
+        properties.setLimiar(limiar);
+        properties.setAmostragem(0);
+        return properties;
+    }
+}
@@ -0,0 +1,112 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.NearDuplicateProperties;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.events.CommentsArchivedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Testes da detecção de quase-duplicatas com MinHash/LSH
+class NearDuplicateDetectorTest {
+
+    private final NearDuplicateDetector detector = new NearDuplicateDetector(enabled());
+
+    private static final String ORIGINAL =
+            "Produto chegou quebrado e a loja não responde, quero meu dinheiro de volta!";
+
+    private static final LocalDateTime CRIACAO = LocalDateTime.of(2024, 3, 10, 12, 0);
+
+    @Test
+    void deveEncontrarTextoQuaseIdentico() {
+
+        detector.register(detector.signature(ORIGINAL), 10L, CRIACAO,
+                new SentimentPrediction("Negativo", 0.93));
+
+        // Mesma reclamação com pontuação e caixa diferentes
+        var duplicata = detector.find(detector.signature(
+                "produto chegou quebrado e a loja nao responde... quero meu dinheiro de volta"));
+
+        assertTrue(duplicata.isPresent());
+        assertEquals(10L, duplicata.get().commentId());
+        assertEquals("Negativo", duplicata.get().label());
+
+        // Texto sem relação não deve casar
+        assertFalse(detector.find(detector.signature(
+                "Adorei o presente, chegou rápido e muito bem embalado")).isPresent());
+    }
+
+    @Test
+    void deveEsquecerComentarioRemovido() {
+
+        detector.register(detector.signature(ORIGINAL), 10L, CRIACAO,
+                new SentimentPrediction("Negativo", 0.93));
+        detector.forget(10L);
+
+        assertFalse(detector.find(detector.signature(ORIGINAL)).isPresent());
+    }
+
+    // Comentário arquivado pela retenção não pode mais ser apontado como original
+    @Test
+    void deveEsquecerPeriodoArquivado() {
+
+        detector.register(detector.signature(ORIGINAL), 10L, CRIACAO,
+                new SentimentPrediction("Negativo", 0.93));
+
+        // Mês seguinte: o comentário continua no índice
+        detector.onCommentsArchived(new CommentsArchivedEvent(
+                LocalDateTime.of(2024, 4, 1, 0, 0), LocalDateTime.of(2024, 5, 1, 0, 0), 0));
+        assertTrue(detector.find(detector.signature(ORIGINAL)).isPresent());
+
+        detector.onCommentsArchived(new CommentsArchivedEvent(
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0), 1));
+        assertFalse(detector.find(detector.signature(ORIGINAL)).isPresent());
+    }
+
+    // Dentro de um lote, só a primeira ocorrência vai ao modelo
+    @Test
+    void deveClassificarApenasOriginaisDoLote() {
+
+        List<String> textos = List.of(
+                ORIGINAL,
+                "Entrega super rápida, recomendo a todos",
+                ORIGINAL + " "
+        );
+
+        NearDuplicateDetector.DuplicateBatch lote = detector.batch(textos);
+
+        assertEquals(List.of(0, 1), lote.pending());
+        assertTrue(lote.isDuplicate(2));
+        assertEquals(0, lote.batchOrigin(2));
+
+        List<SentimentPrediction> previsoes = lote.resolve(List.of(
+                new SentimentPrediction("Negativo", 0.9),
+                new SentimentPrediction("Positivo", 0.8)
+        ));
+
+        assertEquals("Negativo", previsoes.get(2).getLabel());
+    }
+
+    // Desligada (padrão), nada é tratado como duplicata
+    @Test
+    void naoDeveDetectarQuandoDesligado() {
+
+        NearDuplicateDetector desligado = new NearDuplicateDetector(new NearDuplicateProperties());
+        desligado.register(desligado.signature(ORIGINAL), 10L, CRIACAO,
+                new SentimentPrediction("Negativo", 0.93));
+
+        assertFalse(desligado.find(desligado.signature(ORIGINAL)).isPresent());
+        assertEquals(List.of(0, 1), desligado.batch(List.of(ORIGINAL, ORIGINAL)).pending());
+    }
+
+    private static NearDuplicateProperties enabled() {
+        NearDuplicateProperties properties = new NearDuplicateProperties();
+        properties.setHabilitado(true);
+        return properties;
+    }
+}
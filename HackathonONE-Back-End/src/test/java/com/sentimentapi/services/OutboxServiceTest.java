@@ -0,0 +1,93 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.datasource.DataSourceRouting;
+import com.sentimentapi.datasource.ReadWriteRoutingDataSource;
+import com.sentimentapi.entities.OutboxEvent;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Relay com réplicas ligadas: a réplica (outro banco H2) ainda tem a
+// linha que o primário já apagou; o relay não pode publicá-la de novo
+// (a consulta de atraso falha até o teste criar a tabela na réplica,
+// então a inicialização do contexto lê só do primário)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxprimario",
+        "sentiment.replicas.habilitado=true",
+        "sentiment.replicas.fontes[0].url=" + OutboxServiceTest.REPLICA,
+        "sentiment.replicas.consulta-atraso=SELECT atraso FROM atraso_replica",
+        "sentiment.outbox.habilitado=true",
+        "sentiment.outbox.diretorio=target/outbox-test-${random.uuid}",
+        "sentiment.outbox.intervalo-relay=PT1H"
+})
+class OutboxServiceTest {
+
+    static final String REPLICA = "jdbc:h2:mem:outboxreplica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Evita chamadas reais ao microserviço Python
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void naoDeveRepublicarEventosLidosDeReplicaAtrasada() throws Exception {
+
+        OutboxEvent evento = new OutboxEvent();
+        evento.setTipo(CommentChangedEvent.Type.CREATED);
+        evento.setComentarioId(42L);
+        evento.setPrevisao("Positivo");
+        evento.setProbabilidade(0.9);
+        evento.setTexto("Gostei muito");
+        evento.setCriadoEm(LocalDateTime.now());
+        evento = outboxEventRepository.save(evento);
+
+        // Cópia atrasada na réplica: continua lá depois do relay
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", "password"));
+        replica.execute("CREATE TABLE IF NOT EXISTS evento_outbox_tb (id BIGINT PRIMARY KEY, "
+                + "tipo VARCHAR(16), comentario_id BIGINT, previsao VARCHAR(255), "
+                + "probabilidade FLOAT(53), texto VARCHAR(1000000), criado_em TIMESTAMP(6))");
+        replica.update("INSERT INTO evento_outbox_tb VALUES (?, 'CREATED', 42, 'Positivo', 0.9, "
+                + "'Gostei muito', CURRENT_TIMESTAMP)", evento.getId());
+        replica.execute("CREATE TABLE IF NOT EXISTS atraso_replica (atraso BIGINT)");
+        replica.update("INSERT INTO atraso_replica VALUES (0)");
+        readWriteRoutingDataSource.refreshLag();
+
+        long inicio = outboxService.endOffset();
+
+        assertEquals(1, outboxService.relayBatch());
+        assertEquals(0, outboxService.relayBatch());
+
+        assertEquals(inicio + 1, outboxService.endOffset());
+
+        // Leituras somente-leitura continuam indo para a réplica atrasada
+        TransactionTemplate somenteLeitura = new TransactionTemplate(transactionManager);
+        somenteLeitura.setReadOnly(true);
+        Long naReplica = somenteLeitura.execute(status -> outboxEventRepository.count());
+        assertEquals(1L, naReplica);
+        long noPrimario = DataSourceRouting.onPrimary(outboxEventRepository::count);
+        assertEquals(0, noPrimario);
+    }
+}
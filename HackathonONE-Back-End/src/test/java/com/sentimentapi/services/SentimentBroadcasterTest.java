@@ -0,0 +1,85 @@
+package com.sentimentapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.config.StreamProperties;
+import com.sentimentapi.events.CommentChangedEvent;
+import com.sentimentapi.repositories.CommentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Cargas em lote não podem gerar um evento SSE por comentário:
+// com buffer pequeno, o assinante seria desconectado como lento
+class SentimentBroadcasterTest {
+
+    private final ObjectMapper objectMapper = spy(new ObjectMapper());
+    private final SentimentBroadcaster broadcaster =
+            new SentimentBroadcaster(properties(), objectMapper, mock(CommentRepository.class));
+
+    @AfterEach
+    void close() {
+        broadcaster.close();
+    }
+
+    @Test
+    void deveAgregarAlteracoesDoMesmoIntervalo() throws Exception {
+
+        broadcaster.subscribe();
+        clearInvocations(objectMapper);
+
+        for (long id = 1; id <= 1_000; id++) {
+            broadcaster.onCommentChanged(new CommentChangedEvent(
+                    CommentChangedEvent.Type.CREATED, id, "texto " + id,
+                    id % 4 == 0 ? "Negativo" : "Positivo", 0.9, LocalDateTime.now()));
+        }
+        broadcaster.flush();
+
+        // Um único "stats" com a contagem de alterações
+        assertEquals(1, broadcaster.subscriberCount());
+        verify(objectMapper, times(1)).writeValueAsString(any());
+        verify(objectMapper).writeValueAsString(argThat(corpo ->
+                ((Map<?, ?>) corpo).get("alteracoes").equals(1_000)
+                        && ((Map<?, ?>) corpo).get("positivo").equals(75.0)));
+
+        // Nada pendente: o próximo intervalo não envia nada
+        broadcaster.flush();
+        verify(objectMapper, times(1)).writeValueAsString(any());
+    }
+
+    @Test
+    void deveEnviarAlteracaoIsoladaComoClassificacao() throws Exception {
+
+        broadcaster.subscribe();
+        clearInvocations(objectMapper);
+
+        broadcaster.onCommentChanged(new CommentChangedEvent(
+                CommentChangedEvent.Type.CREATED, 7L, "ótimo", "Positivo", 0.95, LocalDateTime.now()));
+        broadcaster.flush();
+
+        verify(objectMapper).writeValueAsString(argThat(corpo ->
+                Long.valueOf(7L).equals(((Map<?, ?>) corpo).get("id"))
+                        && ((Map<?, ?>) corpo).containsKey("stats")));
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+
+    private static StreamProperties properties() {
+        StreamProperties properties = new StreamProperties();
+        properties.setBuffer(4);
+        properties.setThreadsEnvio(1);
+        // O teste chama flush() diretamente
+        properties.setIntervaloEnvio(Duration.ofHours(1));
+        return properties;
+    }
+}
@@ -1,24 +1,49 @@
 package com.sentimentapi.services;
 
+import com.sentimentapi.config.CompressionProperties;
+import com.sentimentapi.config.NearDuplicateProperties;
+import com.sentimentapi.datasource.WriteTracker;
 import com.sentimentapi.dtos.StatsDto;
 import com.sentimentapi.entities.CommentEntity;
 import com.sentimentapi.entities.SentimentPrediction;
+import com.sentimentapi.jfr.InferenceEvent;
+import com.sentimentapi.jfr.StatsEvent;
 import com.sentimentapi.repositories.CommentRepository;
 import com.sentimentapi.repositories.SentimentPredictionRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 // A anotação @ExtendWith(MockitoExtension.class)
@@ -39,6 +64,39 @@ class SentimentServiceTest {
     @Mock
     RestTemplate restTemplate;
 
+    // Mock do roteador por idioma: sem URL específica,
+    // o service usa a URL padrão do modelo
+    @Mock
+    LanguageRouter languageRouter;
+
+    // Mock da detecção de quase-duplicatas (desligada nos testes)
+    @Mock
+    NearDuplicateDetector nearDuplicateDetector;
+
+    // Mock do publicador de eventos (índice de busca e afins)
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    // Mock do rastreio de gravações (sem réplicas nos testes)
+    @Mock
+    WriteTracker writeTracker;
+
+    // Mock da cascata de modelos (desligada: tudo vai ao modelo remoto)
+    @Mock
+    ModelCascade modelCascade;
+
+    // Mock do transporte binário (sem endereços: tudo vai por HTTP)
+    @Mock
+    BinaryModelTransport binaryTransport;
+
+    // Compressão desabilitada: texto na coluna sem compressão
+    @Mock
+    CompressionProperties compressionProperties;
+
+    // Mock das transações curtas da gravação em lotes
+    @Mock
+    TransactionTemplate transactionTemplate;
+
     // A anotação @InjectMocks cria uma instância real do SentimentService
     // e injeta automaticamente os mocks acima nele
     @InjectMocks
@@ -80,10 +138,8 @@ class SentimentServiceTest {
         CommentEntity comment4 = new CommentEntity();
         comment4.setPrevisao(negativo);
 
-        // Simula que o banco possui 4 comentários
-        when(commentRepository.count()).thenReturn(4L);
-
         // Simula a busca dos últimos comentários
+        // (as estatísticas não fazem mais count() na tabela inteira)
         when(commentRepository.buscarPorUltimos(any()))
                 .thenReturn(List.of(comment1, comment2, comment3, comment4));
 
@@ -173,12 +229,243 @@ class SentimentServiceTest {
         when(commentRepository.save(any()))
                 .thenAnswer(inv -> inv.getArgument(0));
 
+        // Executa o callback da transação
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         // Executa o método real do service
         CommentEntity result =
                 sentimentService.updatePrediction(1L, "novo texto").get();
 
+        // O modelo é chamado antes da transação que grava
+        InOrder ordem = inOrder(restTemplate, transactionTemplate);
+        ordem.verify(restTemplate).postForObject(anyString(), any(), eq(SentimentPrediction.class));
+        ordem.verify(transactionTemplate).execute(any());
+
         // Verifica se o comentário foi atualizado corretamente
         assertEquals("novo texto", result.getText());
         assertEquals("positivo", result.getPrevisao().getLabel());
+
+        // Compressão desabilitada: text_zstd fica nula
+        assertEquals("novo texto", ReflectionTestUtils.getField(result, "text"));
+        assertNull(ReflectionTestUtils.getField(result, "textoCompactado"));
+    }
+
+    // Textos agrupados por idioma vão ao /lote do modelo do idioma,
+    // em fatias do tamanho configurado, e voltam na ordem de entrada
+    @Test
+    void deveAgruparPorIdiomaEmLotesMantendoAOrdem() {
+
+        List<String> textos = List.of(
+                "ótimo produto", "muy bueno", "chegou quebrado", "llegó roto", "entrega rápida");
+        Map<String, String> idiomas = Map.of(
+                "ótimo produto", "pt", "muy bueno", "es", "chegou quebrado", "pt",
+                "llegó roto", "es", "entrega rápida", "pt");
+
+        when(languageRouter.routingLanguage(anyString()))
+                .thenAnswer(inv -> idiomas.get(inv.<String>getArgument(0)));
+        // Só o espanhol tem modelo próprio; o português usa o padrão
+        when(languageRouter.urlForLanguage(anyString()))
+                .thenAnswer(inv -> "es".equals(inv.getArgument(0))
+                        ? Optional.of("http://modelo-es:5000/predict")
+                        : Optional.empty());
+        when(languageRouter.batchSize()).thenReturn(2);
+
+        // O modelo devolve um rótulo derivado de cada texto recebido
+        when(restTemplate.postForObject(anyString(), any(), eq(SentimentPrediction[].class)))
+                .thenAnswer(inv -> {
+                    Map<String, List<String>> corpo = inv.getArgument(1);
+                    return corpo.get("texts").stream()
+                            .map(texto -> new SentimentPrediction("R:" + texto, 0.9))
+                            .toArray(SentimentPrediction[]::new);
+                });
+
+        List<SentimentPrediction> resultado = sentimentService.classifyBatch(textos);
+
+        assertEquals(textos.size(), resultado.size());
+        for (int i = 0; i < textos.size(); i++) {
+            assertEquals("R:" + textos.get(i), resultado.get(i).getLabel());
+        }
+
+        // pt: 3 textos em fatias de 2; es: 2 textos em uma chamada
+        ArgumentCaptor<String> urls = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> corpos = ArgumentCaptor.forClass(Object.class);
+        verify(restTemplate, times(3)).postForObject(
+                urls.capture(), corpos.capture(), eq(SentimentPrediction[].class));
+
+        assertEquals(List.of(
+                "http://localhost:5000/predict/lote",
+                "http://localhost:5000/predict/lote",
+                "http://modelo-es:5000/predict/lote"
+        ), urls.getAllValues());
+        assertEquals(List.of(
+                Map.of("texts", List.of("ótimo produto", "chegou quebrado")),
+                Map.of("texts", List.of("entrega rápida")),
+                Map.of("texts", List.of("muy bueno", "llegó roto"))
+        ), corpos.getAllValues());
+    }
+
+    // Respostas curtas, com null ou ausentes deixam null só nas
+    // posições correspondentes, sem deslocar as demais
+    @Test
+    void deveAlinharResultadosQuandoOModeloFalha() {
+
+        when(languageRouter.batchSize()).thenReturn(3);
+        when(restTemplate.postForObject(anyString(), any(), eq(SentimentPrediction[].class)))
+                // Primeira fatia: 3 textos, 2 respostas (a segunda nula)
+                .thenReturn(new SentimentPrediction[]{new SentimentPrediction("Positivo", 0.9), null})
+                // Segunda fatia: chamada sem corpo de resposta
+                .thenReturn(null)
+                // Terceira fatia: completa
+                .thenReturn(new SentimentPrediction[]{new SentimentPrediction("Negativo", 0.8)});
+
+        List<SentimentPrediction> resultado = sentimentService.classifyBatch(
+                List.of("a1", "a2", "a3", "b1", "b2", "b3", "c1"));
+
+        assertEquals(7, resultado.size());
+        assertEquals("Positivo", resultado.get(0).getLabel());
+        for (int i = 1; i < 6; i++) {
+            assertNull(resultado.get(i));
+        }
+        assertEquals("Negativo", resultado.get(6).getLabel());
+    }
+
+    // O que o nível local da cascata resolve não vai ao modelo remoto
+    // e o restante mantém a posição original
+    @Test
+    void deveEscalarSoOsTextosIncertosDaCascata() {
+
+        when(modelCascade.enabled()).thenReturn(true);
+        when(modelCascade.tryLocal(anyString())).thenAnswer(inv ->
+                inv.<String>getArgument(0).startsWith("óbvio")
+                        ? Optional.of(new SentimentPrediction("Positivo", 0.99))
+                        : Optional.empty());
+        when(restTemplate.postForObject(anyString(), any(), eq(SentimentPrediction.class)))
+                .thenReturn(new SentimentPrediction("Neutro", 0.6));
+
+        List<SentimentPrediction> resultado = sentimentService.classifyBatch(
+                List.of("óbvio 1", "incerto", "óbvio 2"));
+
+        assertEquals(List.of("Positivo", "Neutro", "Positivo"),
+                resultado.stream().map(SentimentPrediction::getLabel).toList());
+        verify(restTemplate, times(1))
+                .postForObject(anyString(), eq(Map.of("text", "incerto")), eq(SentimentPrediction.class));
+    }
+
+    // O modelo é chamado antes de qualquer transação; a gravação
+    // acontece depois, em transações de sentiment.lote-gravacao textos
+    @Test
+    void deveClassificarForaDaTransacaoEGravarEmLotes() {
+
+        ReflectionTestUtils.setField(sentimentService, "loteGravacao", 2);
+
+        // Detecção de duplicatas desligada: todos os textos vão ao modelo
+        NearDuplicateDetector desligado = new NearDuplicateDetector(new NearDuplicateProperties());
+        when(nearDuplicateDetector.batch(anyList()))
+                .thenAnswer(inv -> desligado.batch(inv.getArgument(0)));
+        when(restTemplate.postForObject(anyString(), any(), eq(SentimentPrediction.class)))
+                .thenAnswer(inv -> new SentimentPrediction("Positivo", 0.9));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(commentRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<SentimentPrediction> resultado =
+                sentimentService.classifyAndPersist(List.of("a", "b", "c"));
+
+        assertEquals(3, resultado.size());
+        verify(commentRepository, times(3)).save(any());
+
+        InOrder ordem = inOrder(restTemplate, transactionTemplate);
+        ordem.verify(restTemplate, times(3))
+                .postForObject(anyString(), any(), eq(SentimentPrediction.class));
+        ordem.verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    // Cascata sem resposta local: ficam o evento do nível local (sem
+    // rótulo) e o da chamada remota; sem quase-duplicatas, nenhum
+    // evento "duplicata"
+    @Test
+    void deveRegistrarEventosDeInferenciaDeCadaNivel(@TempDir Path dir) throws Exception {
+
+        NearDuplicateDetector desligado = new NearDuplicateDetector(new NearDuplicateProperties());
+        when(nearDuplicateDetector.batch(anyList()))
+                .thenAnswer(inv -> desligado.batch(inv.getArgument(0)));
+        when(restTemplate.postForObject(anyString(), any(), eq(SentimentPrediction.class)))
+                .thenReturn(new SentimentPrediction("Neutro", 0.6));
+        when(modelCascade.enabled()).thenReturn(true);
+
+        Path arquivo = dir.resolve("inferencia.jfr");
+        try (Recording gravacao = new Recording()) {
+            gravacao.enable(InferenceEvent.class);
+            gravacao.start();
+
+            sentimentService.predictSentiment("incerto");
+            sentimentService.classifyAndPersist(List.of());
+
+            gravacao.stop();
+            gravacao.dump(arquivo);
+        }
+
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(arquivo);
+        assertEquals(List.of("local", "remoto"),
+                eventos.stream().map(e -> e.getString("backend")).toList());
+        assertNull(eventos.get(0).getString("rotulo"));
+        assertEquals("Neutro", eventos.get(1).getString("rotulo"));
+    }
+
+    // Cascata desligada: só o evento da chamada remota
+    @Test
+    void naoDeveRegistrarNivelLocalComCascataDesligada(@TempDir Path dir) throws Exception {
+
+        when(restTemplate.postForObject(anyString(), any(), eq(SentimentPrediction.class)))
+                .thenReturn(new SentimentPrediction("Neutro", 0.6));
+
+        Path arquivo = dir.resolve("inferencia.jfr");
+        try (Recording gravacao = new Recording()) {
+            gravacao.enable(InferenceEvent.class);
+            gravacao.start();
+
+            sentimentService.predictSentiment("incerto");
+
+            gravacao.stop();
+            gravacao.dump(arquivo);
+        }
+
+        assertEquals(List.of("remoto"), RecordingFile.readAllEvents(arquivo).stream()
+                .map(e -> e.getString("backend")).toList());
+        verify(modelCascade, never()).tryLocal(anyString());
+    }
+
+    // A janela recente sem N comentários recorre à tabela inteira,
+    // e o evento registra que ela não bastou
+    @Test
+    void deveRegistrarSeAJanelaQuenteRespondeu(@TempDir Path dir) throws Exception {
+
+        ReflectionTestUtils.setField(sentimentService, "janelaQuente", Duration.ofDays(7));
+
+        CommentEntity comment = new CommentEntity();
+        comment.setPrevisao(new SentimentPrediction("Positivo", 0.9));
+        when(commentRepository.buscarPorUltimosDesde(any(), any())).thenReturn(List.of(comment));
+        when(commentRepository.buscarPorUltimos(any())).thenReturn(List.of(comment, comment));
+
+        Path arquivo = dir.resolve("stats.jfr");
+        try (Recording gravacao = new Recording()) {
+            gravacao.enable(StatsEvent.class).withThreshold(Duration.ZERO);
+            gravacao.start();
+
+            // Uma consulta resolvida pela janela e outra pelo fallback
+            sentimentService.getStats(1);
+            sentimentService.getStats(2);
+
+            gravacao.stop();
+            gravacao.dump(arquivo);
+        }
+
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(arquivo);
+        assertEquals(List.of(true, false),
+                eventos.stream().map(e -> e.getBoolean("janelaQuente")).toList());
+        assertEquals(2, eventos.get(1).getInt("comentarios"));
     }
 }
@@ -0,0 +1,134 @@
+package com.sentimentapi.services;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.sentimentapi.compression.TextCodec;
+import com.sentimentapi.config.CompressionProperties;
+import com.sentimentapi.entities.CommentEntity;
+import com.sentimentapi.entities.CompressionDictionary;
+import com.sentimentapi.repositories.CommentRepository;
+import com.sentimentapi.repositories.CompressionDictionaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Linhas gravadas na coluna legada "text" são convertidas para text_zstd
+// e continuam lidas de forma transparente pela entidade
+// (banco próprio: sem linhas de outros testes no treino do dicionário)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:compressaodb",
+        "sentiment.compressao.habilitado=true",
+        "sentiment.compressao.minimo-amostras=100",
+        "sentiment.compressao.pausa-migracao=0s"
+})
+class TextCompressionServiceTest {
+
+    @Autowired
+    private TextCompressionService textCompressionService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CompressionProperties compressionProperties;
+
+    @Autowired
+    private CompressionDictionaryRepository dictionaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Evita chamadas reais ao microserviço Python
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void deveMigrarTextoLegadoParaAColunaComprimida() {
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String texto = (i % 2 == 0 ? "Gostei muito do produto, chegou rápido. " : "Não recomendo, veio com defeito. ")
+                    + "Pedido número " + i;
+            jdbcTemplate.update(
+                    "INSERT INTO comentario_tb (text, data_criacao, versao) VALUES (?, CURRENT_TIMESTAMP, 0)", texto);
+            ids.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM comentario_tb", Long.class));
+        }
+
+        assertTrue(textCompressionService.trainIfMissing());
+        textCompressionService.migrate();
+
+        Long primeiro = ids.get(0);
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT text FROM comentario_tb WHERE id = ?", String.class, primeiro));
+        byte[] compactado = jdbcTemplate.queryForObject(
+                "SELECT text_zstd FROM comentario_tb WHERE id = ?", byte[].class, primeiro);
+        assertTrue(compactado.length < "Gostei muito do produto, chegou rápido. Pedido número 0".length());
+
+        CommentEntity comment = commentRepository.findById(primeiro).orElseThrow();
+        assertEquals("Gostei muito do produto, chegou rápido. Pedido número 0", comment.getText());
+        assertEquals("Não recomendo, veio com defeito. Pedido número 299",
+                commentRepository.findById(ids.get(299)).orElseThrow().getText());
+    }
+
+    // Dicionário treinado por outra instância depois da nossa subida:
+    // linhas comprimidas com ele são lidas e ele é reaproveitado
+    @Test
+    void deveUsarDicionarioTreinadoPorOutraInstancia() {
+
+        TextCodec codecAntigo = new TextCodec(compressionProperties);
+        instancia(codecAntigo).loadDictionaries();
+
+        List<byte[]> amostras = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < 300; i++) {
+            byte[] amostra = ((i % 2 == 0 ? "Gostei muito do produto, chegou rápido. " : "Não recomendo, veio com defeito. ")
+                    + "Pedido número " + i).getBytes(StandardCharsets.UTF_8);
+            amostras.add(amostra);
+            total += amostra.length;
+        }
+        ZstdDictTrainer treino = new ZstdDictTrainer(total, compressionProperties.getTamanhoDicionario());
+        amostras.forEach(treino::addSample);
+
+        CompressionDictionary dicionario = new CompressionDictionary();
+        dicionario.setDados(treino.trainSamples());
+        dicionario.setAmostras(amostras.size());
+        dicionario.setCriadoEm(LocalDateTime.now());
+        dicionario = dictionaryRepository.save(dicionario);
+
+        TextCodec codecOutraInstancia = new TextCodec(compressionProperties);
+        codecOutraInstancia.install(dicionario.getId(), dicionario.getDados(), true);
+        String texto = "Gostei muito do produto, chegou rápido. Pedido número 7";
+        byte[] codificado = codecOutraInstancia.encode(texto);
+
+        // Id desconhecido na subida: buscado no banco na leitura
+        assertEquals(texto, codecAntigo.decode(codificado));
+
+        // Sem dicionário ativo, reaproveita o mais recente em vez de treinar outro
+        long dicionarios = dictionaryRepository.count();
+        TextCodec codecSemDicionario = new TextCodec(compressionProperties);
+        assertTrue(instancia(codecSemDicionario).trainIfMissing());
+        assertEquals(dicionarios, dictionaryRepository.count());
+        assertArrayEquals(codificado, codecSemDicionario.encode(texto));
+    }
+
+    private TextCompressionService instancia(TextCodec codec) {
+        return new TextCompressionService(compressionProperties, codec,
+                dictionaryRepository, commentRepository, jdbcTemplate, transactionManager);
+    }
+}
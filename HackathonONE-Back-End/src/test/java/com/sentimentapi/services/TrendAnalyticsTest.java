@@ -0,0 +1,84 @@
+package com.sentimentapi.services;
+
+import com.sentimentapi.config.TrendProperties;
+import com.sentimentapi.dtos.TrendsDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendAnalyticsTest {
+
+    private static final long MINUTO = 60_000;
+
+    // Os termos frequentes aparecem no topo mesmo entre milhares de
+    // termos raros, com contagem nunca abaixo da real; stopwords ficam de fora
+    @Test
+    void deveEncontrarOsTermosMaisFrequentes() {
+
+        TrendAnalytics trends = new TrendAnalytics(properties());
+        Random random = new Random(3);
+        long agora = 10 * MINUTO;
+
+        for (int i = 0; i < 5_000; i++) {
+            String texto = i % 4 == 0
+                    ? "A entrega atrasou de novo"
+                    : i % 10 == 1 ? "Produto veio com defeito" : "raro" + random.nextInt(20_000) + "x";
+            trends.record("Negativo", texto, agora);
+        }
+        trends.record("Positivo", "Entrega rápida", agora);
+
+        TrendsDto dto = trends.top("negativo", Duration.ofMinutes(5), 3, agora);
+        assertEquals(List.of("Negativo"), List.copyOf(dto.rotulos().keySet()));
+
+        TrendsDto.Rotulo negativo = dto.rotulos().get("Negativo");
+        List<TrendsDto.Termo> termos = negativo.termos();
+        assertEquals(List.of("atrasou", "entrega", "novo"), termos.stream().map(TrendsDto.Termo::termo).toList());
+        assertTrue(termos.get(0).contagem() >= 1_250);
+        assertTrue(termos.get(0).contagem() < 1_250 + negativo.totalTermos() / 100);
+        // "de" sai antes dos bigramas: "atrasou novo" empata com "entrega atrasou"
+        assertEquals(List.of("atrasou novo", "entrega atrasou"),
+                negativo.bigramas().stream().limit(2).map(TrendsDto.Termo::termo).toList());
+        assertFalse(negativo.termos().stream().anyMatch(t -> t.termo().equals("de")));
+    }
+
+    // Painéis fora da janela não contam e são reaproveitados na volta do anel
+    @Test
+    void deveDescartarPaineisForaDaJanela() {
+
+        TrendAnalytics trends = new TrendAnalytics(properties());
+        long inicio = 100 * MINUTO;
+
+        trends.record("Negativo", "atendimento péssimo", inicio);
+        trends.record("Negativo", "cobrança indevida", inicio + 3 * MINUTO);
+
+        TrendsDto ultimos2 = trends.top(null, Duration.ofMinutes(2), 10, inicio + 3 * MINUTO);
+        assertEquals(List.of("cobrança", "indevida"),
+                ultimos2.rotulos().get("Negativo").termos().stream().map(TrendsDto.Termo::termo).sorted().toList());
+
+        TrendsDto ultimos5 = trends.top(null, Duration.ofMinutes(5), 10, inicio + 3 * MINUTO);
+        assertEquals(4, ultimos5.rotulos().get("Negativo").totalTermos());
+
+        // 10 painéis depois o slot do primeiro é zerado e reaproveitado;
+        // um evento atrasado daquele painel é ignorado
+        trends.record("Negativo", "reembolso negado", inicio + 10 * MINUTO);
+        trends.record("Negativo", "atendimento péssimo", inicio);
+        TrendsDto depois = trends.top(null, Duration.ofMinutes(10), 10, inicio + 10 * MINUTO);
+        assertEquals(4, depois.rotulos().get("Negativo").totalTermos());
+        assertTrue(depois.rotulos().get("Negativo").termos().stream().noneMatch(t -> t.termo().equals("atendimento")));
+    }
+
+    private static TrendProperties properties() {
+        TrendProperties properties = new TrendProperties();
+        properties.setDuracaoPainel(Duration.ofMinutes(1));
+        properties.setPaineis(10);
+        properties.setLargura(1024);
+        properties.setCandidatos(50);
+        return properties;
+    }
+}
@@ -0,0 +1,67 @@
+package com.sentimentapi.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfidenceSketchTest {
+
+    private static final double PRECISAO = 0.01;
+    private static final double[] QUANTIS = {0.01, 0.10, 0.25, 0.50, 0.75, 0.90, 0.99};
+
+    // Todo quantil fica dentro do erro relativo configurado,
+    // comparado com o valor exato da amostra ordenada
+    @Test
+    void deveRespeitarOErroRelativo() {
+
+        Random random = new Random(7);
+        double[] valores = new double[50_000];
+        ConfidenceSketch sketch = new ConfidenceSketch(PRECISAO);
+
+        for (int i = 0; i < valores.length; i++) {
+            // Concentrado perto de 1, como a confiança de um bom modelo
+            valores[i] = 1 - Math.pow(random.nextDouble(), 3) * 0.7;
+            sketch.add(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        assertEquals(valores.length, sketch.count());
+        for (double q : QUANTIS) {
+            double exato = valores[(int) (q * (valores.length - 1))];
+            double estimado = sketch.quantile(q);
+            assertTrue(Math.abs(estimado - exato) <= PRECISAO * exato,
+                    "q=" + q + " exato=" + exato + " estimado=" + estimado);
+        }
+    }
+
+    // Somar dois sketches equivale a um sketch com todos os valores,
+    // inclusive depois de passar pelo formato do checkpoint
+    @Test
+    void deveSomarESerializarSemPerda() {
+
+        Random random = new Random(11);
+        ConfidenceSketch a = new ConfidenceSketch(PRECISAO);
+        ConfidenceSketch b = new ConfidenceSketch(PRECISAO);
+        ConfidenceSketch todos = new ConfidenceSketch(PRECISAO);
+
+        for (int i = 0; i < 10_000; i++) {
+            double valor = i % 100 == 0 ? 0.0 : random.nextDouble();
+            (i % 3 == 0 ? a : b).add(valor);
+            todos.add(valor);
+        }
+
+        ConfidenceSketch soma = ConfidenceSketch.fromBytes(a.toBytes());
+        soma.merge(ConfidenceSketch.fromBytes(b.toBytes()));
+
+        assertEquals(todos.count(), soma.count());
+        assertEquals(0.0, soma.quantile(0.0));
+        for (double q : QUANTIS) {
+            assertEquals(todos.quantile(q), soma.quantile(q));
+        }
+        assertTrue(Double.isNaN(new ConfidenceSketch(PRECISAO).quantile(0.5)));
+    }
+}
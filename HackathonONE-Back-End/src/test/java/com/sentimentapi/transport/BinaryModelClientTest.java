@@ -0,0 +1,111 @@
+package com.sentimentapi.transport;
+
+import com.sentimentapi.entities.SentimentPrediction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class BinaryModelClientTest {
+
+    // Pedidos enviados sem esperar resposta, respondidos fora de ordem,
+    // chegam a quem pediu; lotes mantêm a ordem e os não classificados
+    @Test
+    void deveCasarRespostasDePedidosEmPipeline() throws Exception {
+
+        try (StubFrameServer servidor = StubFrameServer.tcp(true);
+             BinaryModelClient cliente = new BinaryModelClient(servidor.address(), 2, Duration.ofSeconds(5))) {
+
+            List<CompletableFuture<List<SentimentPrediction>>> respostas = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                respostas.add(cliente.submit(List.of(i % 2 == 0 ? "produto ruim " + i : "gostei muito " + i)));
+            }
+            for (int i = 0; i < respostas.size(); i++) {
+                assertEquals(i % 2 == 0 ? "Negativo" : "Positivo", respostas.get(i).get().get(0).getLabel());
+            }
+
+            List<SentimentPrediction> lote = cliente.predict(Arrays.asList("entrega ruim", "ok", "chegou rápido"));
+            assertEquals("Negativo", lote.get(0).getLabel());
+            assertEquals(0.9, lote.get(0).getProbability());
+            assertNull(lote.get(1));
+            assertEquals("Positivo", lote.get(2).getLabel());
+        }
+    }
+
+    // Conexão derrubada falha só o pedido em voo; a seguinte reconecta.
+    // Também pelo Unix domain socket
+    @Test
+    void deveReconectarAposQueda(@TempDir Path dir) throws Exception {
+
+        try (StubFrameServer servidor = StubFrameServer.unix(dir.resolve("modelo.sock"));
+             BinaryModelClient cliente = new BinaryModelClient(servidor.address(), 1, Duration.ofSeconds(5))) {
+
+            assertEquals("Negativo", cliente.predict("atendimento ruim").getLabel());
+
+            servidor.dropConnections();
+            // A primeira tentativa pode ou não perceber a queda
+            try {
+                cliente.predict("primeira depois da queda");
+            } catch (UncheckedIOException esperado) {
+                // Conexão antiga fechada
+            }
+
+            assertEquals("Positivo", cliente.predict("voltou a funcionar").getLabel());
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinaryModelClient("modelo-sem-porta", 1, Duration.ofSeconds(1)));
+    }
+
+    // Um modelo que aceita a conexão mas não lê não prende quem envia:
+    // a escrita do quadro respeita o mesmo timeout da resposta
+    @Test
+    void deveDesistirDaEscritaQuandoOModeloNaoLe() throws Exception {
+
+        try (ServerSocketChannel servidor = ServerSocketChannel.open()) {
+            servidor.bind(new InetSocketAddress("127.0.0.1", 0));
+            int porta = ((InetSocketAddress) servidor.getLocalAddress()).getPort();
+
+            // Aceita e nunca lê
+            List<SocketChannel> aceitas = new ArrayList<>();
+            Thread aceitar = new Thread(() -> {
+                try {
+                    aceitas.add(servidor.accept());
+                } catch (IOException ignorada) {
+                    // Servidor fechado
+                }
+            });
+            aceitar.setDaemon(true);
+            aceitar.start();
+
+            try (BinaryModelClient cliente = new BinaryModelClient(
+                    "tcp://127.0.0.1:" + porta, 1, Duration.ofMillis(300))) {
+
+                // Maior que os buffers de envio e recepção somados
+                String texto = "x".repeat(12 * 1024 * 1024);
+
+                ExecutionException erro = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                        () -> assertThrows(ExecutionException.class, () -> cliente.submit(List.of(texto)).get()));
+                assertInstanceOf(SocketTimeoutException.class, erro.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.sentimentapi.transport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentimentapi.entities.SentimentPrediction;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Benchmark JMH do transporte para o modelo: JSON sobre HTTP (RestTemplate,
+// como no SentimentService) contra quadros binários em conexões
+// persistentes, por TCP e por Unix domain socket, individual e em lote.
+// Por padrão os dois lados são servidores Java na mesma máquina com o
+// mesmo "modelo" fixo, então só o custo do transporte aparece.
+// Para medir com os servidores Python reais:
+//   -Dbenchmark.url=http://127.0.0.1:5000/predict
+//   -Dbenchmark.endereco=tcp://127.0.0.1:5001
+// Não roda junto com "mvn test": execute o método main pela IDE
+// (ou com o classpath de teste) para gerar o relatório.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// nodelay: sem ele o servidor HTTP do JDK esbarra no ACK atrasado do TCP
+// (~40 ms por chamada) e a comparação deixaria de medir o transporte
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(4)
+public class ModelTransportBenchmark {
+
+    private static final String TEXTO = "O produto chegou antes do prazo, mas a embalagem veio ruim";
+
+    @Param({"64"})
+    int lote;
+
+    HttpServer http;
+    StubFrameServer tcp;
+    StubFrameServer unix;
+    Path socket;
+
+    String url;
+    RestTemplate restTemplate;
+    BinaryModelClient clienteTcp;
+    BinaryModelClient clienteUnix;
+
+    List<String> textos;
+
+    @Setup
+    public void setup() throws IOException {
+
+        url = System.getProperty("benchmark.url");
+        String endereco = System.getProperty("benchmark.endereco");
+
+        if (url == null) {
+            http = jsonServer();
+            url = "http://127.0.0.1:" + http.getAddress().getPort() + "/predict";
+        }
+        if (endereco == null) {
+            tcp = StubFrameServer.tcp(false);
+            endereco = tcp.address();
+        }
+
+        socket = Files.createTempDirectory("modelo").resolve("modelo.sock");
+        unix = StubFrameServer.unix(socket);
+
+        restTemplate = new RestTemplate();
+        clienteTcp = new BinaryModelClient(endereco, 4, Duration.ofSeconds(5));
+        clienteUnix = new BinaryModelClient(unix.address(), 4, Duration.ofSeconds(5));
+
+        textos = new ArrayList<>();
+        for (int i = 0; i < lote; i++) {
+            textos.add(TEXTO + " " + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        clienteTcp.close();
+        clienteUnix.close();
+        if (http != null) {
+            http.stop(0);
+        }
+        if (tcp != null) {
+            tcp.close();
+        }
+        unix.close();
+        Files.deleteIfExists(socket);
+    }
+
+    @Benchmark
+    public SentimentPrediction jsonIndividual() {
+        return restTemplate.postForObject(url, Map.of("text", TEXTO), SentimentPrediction.class);
+    }
+
+    @Benchmark
+    public SentimentPrediction binarioTcpIndividual() {
+        return clienteTcp.predict(TEXTO);
+    }
+
+    @Benchmark
+    public SentimentPrediction binarioUnixIndividual() {
+        return clienteUnix.predict(TEXTO);
+    }
+
+    @Benchmark
+    public SentimentPrediction[] jsonLote() {
+        return restTemplate.postForObject(url + "/lote", Map.of("texts", textos), SentimentPrediction[].class);
+    }
+
+    @Benchmark
+    public List<SentimentPrediction> binarioTcpLote() {
+        return clienteTcp.predict(textos);
+    }
+
+    // Servidor HTTP com o mesmo "modelo" do servidor de quadros
+    private static HttpServer jsonServer() throws IOException {
+
+        ObjectMapper json = new ObjectMapper();
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newFixedThreadPool(8));
+
+        servidor.createContext("/predict", troca -> {
+            JsonNode corpo = json.readTree(troca.getRequestBody());
+            Object resposta;
+            if (troca.getRequestURI().getPath().endsWith("/lote")) {
+                List<Map<String, Object>> previsoes = new ArrayList<>();
+                for (JsonNode texto : corpo.get("texts")) {
+                    previsoes.add(toJson(StubFrameServer.classify(texto.asText())));
+                }
+                resposta = previsoes;
+            } else {
+                resposta = toJson(StubFrameServer.classify(corpo.get("text").asText()));
+            }
+            reply(troca, json.writeValueAsBytes(resposta));
+        });
+        servidor.start();
+        return servidor;
+    }
+
+    private static Map<String, Object> toJson(SentimentPrediction previsao) {
+        return previsao == null
+                ? null
+                : Map.of("previsao", previsao.getLabel(), "probabilidade", previsao.getProbability());
+    }
+
+    private static void reply(HttpExchange troca, byte[] corpo) throws IOException {
+        troca.getResponseHeaders().add("Content-Type", "application/json");
+        troca.sendResponseHeaders(200, corpo.length);
+        try (OutputStream out = troca.getResponseBody()) {
+            out.write(corpo);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ModelTransportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
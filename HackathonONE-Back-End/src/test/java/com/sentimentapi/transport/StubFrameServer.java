@@ -0,0 +1,151 @@
+package com.sentimentapi.transport;
+
+import com.sentimentapi.entities.SentimentPrediction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Servidor de quadros em Java com um "modelo" fixo, para os testes e o
+// benchmark: "ruim" -> Negativo, textos curtos -> não classificados.
+// Com embaralhar, cada pedido é respondido por um pool de threads com
+// um pequeno atraso aleatório, e as respostas voltam fora de ordem.
+class StubFrameServer implements Closeable {
+
+    private final ServerSocketChannel servidor;
+    private final boolean embaralhar;
+    private final ExecutorService respostas = Executors.newFixedThreadPool(4);
+    private final List<SocketChannel> clientes = new CopyOnWriteArrayList<>();
+
+    private StubFrameServer(ServerSocketChannel servidor, boolean embaralhar) {
+        this.servidor = servidor;
+        this.embaralhar = embaralhar;
+        Thread aceitar = new Thread(this::accept, "stub-aceitar");
+        aceitar.setDaemon(true);
+        aceitar.start();
+    }
+
+    static StubFrameServer tcp(boolean embaralhar) throws IOException {
+        ServerSocketChannel servidor = ServerSocketChannel.open();
+        servidor.bind(new InetSocketAddress("127.0.0.1", 0));
+        return new StubFrameServer(servidor, embaralhar);
+    }
+
+    static StubFrameServer unix(Path socket) throws IOException {
+        Files.deleteIfExists(socket);
+        ServerSocketChannel servidor = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        servidor.bind(UnixDomainSocketAddress.of(socket));
+        return new StubFrameServer(servidor, false);
+    }
+
+    String address() throws IOException {
+        SocketAddress local = servidor.getLocalAddress();
+        if (local instanceof InetSocketAddress inet) {
+            return "tcp://127.0.0.1:" + inet.getPort();
+        }
+        return "unix:" + ((UnixDomainSocketAddress) local).getPath();
+    }
+
+    static SentimentPrediction classify(String texto) {
+        if (texto.strip().length() < 5) {
+            return null;
+        }
+        return texto.contains("ruim")
+                ? new SentimentPrediction("Negativo", 0.9)
+                : new SentimentPrediction("Positivo", 0.8);
+    }
+
+    // Derruba as conexões abertas (o servidor continua aceitando)
+    void dropConnections() throws IOException {
+        for (SocketChannel cliente : clientes) {
+            cliente.close();
+        }
+        clientes.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        dropConnections();
+        respostas.shutdownNow();
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel cliente = servidor.accept();
+                clientes.add(cliente);
+                Thread leitora = new Thread(() -> serve(cliente), "stub-conexao");
+                leitora.setDaemon(true);
+                leitora.start();
+            }
+        } catch (IOException e) {
+            // Servidor fechado
+        }
+    }
+
+    private void serve(SocketChannel cliente) {
+
+        ByteBuffer prefixo = ByteBuffer.allocate(4);
+        try {
+            while (true) {
+                prefixo.clear();
+                FrameCodec.readFully(cliente, prefixo);
+                ByteBuffer corpo = ByteBuffer.allocate(prefixo.flip().getInt());
+                FrameCodec.readFully(cliente, corpo);
+                FrameCodec.Frame pedido = FrameCodec.decode(corpo.flip());
+
+                List<SentimentPrediction> previsoes = new ArrayList<>();
+                for (String texto : FrameCodec.decodeTexts(pedido.corpo())) {
+                    previsoes.add(classify(texto));
+                }
+                ByteBuffer resposta = FrameCodec.encodeResponse(pedido.id(), previsoes);
+
+                if (embaralhar) {
+                    respostas.execute(() -> {
+                        sleep(ThreadLocalRandom.current().nextInt(3));
+                        write(cliente, resposta);
+                    });
+                } else {
+                    write(cliente, resposta);
+                }
+            }
+        } catch (IOException e) {
+            // Conexão encerrada
+        }
+    }
+
+    private static void write(SocketChannel cliente, ByteBuffer quadro) {
+        synchronized (cliente) {
+            try {
+                while (quadro.hasRemaining()) {
+                    cliente.write(quadro);
+                }
+            } catch (IOException e) {
+                // Cliente desconectou
+            }
+        }
+    }
+
+    private static void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 import { criarComentario, atualizarComentario, uploadCsv } from "./sentiment.js";
-import { carregarStats } from "./stats.js";
+import { carregarStats, acompanharStats } from "./stats.js";
 import { buscarComentario, deletarComentario } from "./crud.js";
 import  {iniciarTypewriter}  from "./typewriter.js";
 
@@ -38,6 +38,17 @@ document.getElementById("arquivo-csv").addEventListener("change", async (e) => {
 });
 
 
+// Estatísticas ao vivo dos comentários mais recentes
+// (atualizadas pelo servidor, sem polling; não sobrescrevem
+// o resultado das consultas abaixo)
+acompanharStats((stats) => {
+    document.getElementById("stats-ao-vivo").innerHTML = `
+        <p>Ao vivo (últimos ${stats.janela})</p>
+        <p>Positivo: ${stats.positivo.toFixed(2)}%</p>
+        <p>Negativo: ${stats.negativo.toFixed(2)}%</p>
+    `;
+});
+
 // Estatísticas rápidas (10, 50, 100)
 document.querySelectorAll(".btn-stats").forEach(btn => {
     btn.addEventListener("click", async () => {
@@ -4,3 +4,18 @@ export async function carregarStats(qtd) {
     const res = await fetch(`${API_URL}/sentiment/stats/${qtd}`);
     return res.json();
 }
+
+// Acompanha as estatísticas em tempo real (Server-Sent Events)
+// O servidor envia "stats" ao conectar e, no máximo a cada 250ms,
+// "classificacao" (uma alteração isolada) ou "stats" (várias, como
+// em um upload de CSV), já com os percentuais recalculados, e
+// "exclusao" depois de uma exclusão em massa.
+export function acompanharStats(onStats) {
+    const fonte = new EventSource(`${API_URL}/sentiment/stream`);
+
+    fonte.addEventListener("stats", (e) => onStats(JSON.parse(e.data)));
+    fonte.addEventListener("classificacao", (e) => onStats(JSON.parse(e.data).stats));
+    fonte.addEventListener("exclusao", (e) => onStats(JSON.parse(e.data).stats));
+
+    return fonte;
+}